@@ -1,41 +1,29 @@
 package User;
-import java.io.BufferedReader;
 import dao.DatabaseConnection;
+import dao.MigrationRunner;
+
 import java.io.IOException;
-import java.io.InputStream;
-import java.io.InputStreamReader;
 import java.sql.SQLException;
-import java.sql.Statement;
 
+/**
+ * Prepares the database on startup: applies the pending schema migrations and, only when
+ * db.seedSampleData is true, loads the sample data. Existing tables and rows are kept.
+ */
 public class DBCreate {
+    static final String SAMPLE_DATA = "db/seed/sample_data.sql";
 
     public void createDataBase() throws IOException, SQLException {
-        Statement statement = DatabaseConnection.getConnection().createStatement();
-        InputStream inputStream = getClass().getClassLoader().getResourceAsStream("schema.sql");
-        if (inputStream == null) {
-            throw new IOException("Cannot find schema.sql in classpath");
+        MigrationRunner migrationRunner = new MigrationRunner();
+        migrationRunner.migrate();
+        if (seedSampleData()) {
+            migrationRunner.seed(SAMPLE_DATA);
         }
-        BufferedReader br = new BufferedReader(new InputStreamReader(inputStream));
-
-        // String Builder to build the query line by line.
-        StringBuilder query = new StringBuilder();
-        String line;
-
-        while((line = br.readLine()) != null) {
-
-            if(line.trim().startsWith("-- ")) {
-                continue;
-            }
-
-            // Append the line into the query string and add a space after that
-            query.append(line).append(" ");
+    }
 
-            if(line.trim().endsWith(";")) {
-                // Execute the Query
-                statement.execute(query.toString().trim());
-                // Empty the Query string to add new query from the file
-                query = new StringBuilder();
-            }
-        }
+    /**
+     * @return whether sample data and default users should be loaded, false unless configured
+     */
+    public static boolean seedSampleData() {
+        return Boolean.parseBoolean(DatabaseConnection.getProperty("db.seedSampleData", "false"));
     }
-}
\ No newline at end of file
+}
@@ -33,8 +33,10 @@ public class HomePageServlet extends HttpServlet {
         List<FriendRequest> friendRequests = friendshipService.getPendingRequestsForUser(user.getId());
         request.setAttribute("friendRequests", friendRequests);
 
-        List<User> friends = friendshipService.getFriendsForUser(user.getId());
+        // the first page of friends and the count, the rest is on the friends list
+        List<User> friends = friendshipService.getFriendsForUser(user.getId(), 0, FriendshipService.FRIENDS_PAGE_SIZE);
         request.setAttribute("friends", friends);
+        request.setAttribute("friendCount", friendshipService.getFriendCount(user.getId()));
 
         request.getRequestDispatcher("/HomePage.jsp").forward(request, response);
     }
@@ -1,7 +1,12 @@
 package User;
 
 import com.mysql.cj.jdbc.AbandonedConnectionCleanupThread;
+import com.quizwebsite.friendship.FriendSuggestions;
 import com.quizwebsite.friendship.FriendshipService;
+import dao.DatabaseConnection;
+import dao.QuizSearchIndex;
+import dao.TodaysTopPerformers;
+import quiz_engine.AnswerWriter;
 
 import javax.servlet.ServletContext;
 import javax.servlet.ServletContextEvent;
@@ -18,24 +23,34 @@ public class LoginListener implements ServletContextListener{
         try {
             DBCreate dbCreate = new DBCreate();
             dbCreate.createDataBase();
+            int recentAttempts = TodaysTopPerformers.getInstance().rebuild();
+            sce.getServletContext().log("Today's top performers rebuilt from " + recentAttempts + " attempts");
+            int friendships = FriendSuggestions.getInstance().rebuild();
+            sce.getServletContext().log("Friend suggestions built from " + friendships + " friendships");
+            int users = UsernameIndex.getInstance().rebuild();
+            sce.getServletContext().log("Username index built from " + users + " users");
+            int quizzes = QuizSearchIndex.getInstance().rebuild();
+            sce.getServletContext().log("Quiz search index built from " + quizzes + " quizzes");
             UserDao userDao = new UserDao();
             sce.getServletContext().setAttribute("userDao", userDao);
             FriendshipService friendshipService = new FriendshipService();
             sce.getServletContext().setAttribute("friendshipService", friendshipService);
 
-            // Seed the database with default users for testing
-            try {
-                if (!userDao.containsUser("lasha")) {
-                    User lasha = new User("lasha", "gorgo1", "lasha@example.com");
-                    userDao.registerUser(lasha);
+            // Default users for testing, only together with the sample data
+            if (DBCreate.seedSampleData()) {
+                try {
+                    if (!userDao.containsUser("lasha")) {
+                        User lasha = new User("lasha", "gorgo1", "lasha@example.com");
+                        userDao.registerUser(lasha);
+                    }
+                    if (!userDao.containsUser("gorgo")) {
+                        User gorgo = new User("gorgo", "gorgo", "gorgo@example.com");
+                        userDao.registerUser(gorgo);
+                    }
+                } catch (Exception e) {
+                    // Log the error, but don't prevent the app from starting
+                    sce.getServletContext().log("Error seeding default users", e);
                 }
-                if (!userDao.containsUser("gorgo")) {
-                    User gorgo = new User("gorgo", "gorgo", "gorgo@example.com");
-                    userDao.registerUser(gorgo);
-                }
-            } catch (Exception e) {
-                // Log the error, but don't prevent the app from starting
-                sce.getServletContext().log("Error seeding default users", e);
             }
         } catch (IOException | SQLException e) {
             throw new RuntimeException(e);
@@ -43,6 +58,9 @@ public class LoginListener implements ServletContextListener{
     }
 
     public void contextDestroyed(ServletContextEvent sce) {
+        AnswerWriter.shutdown();
+        TodaysTopPerformers.shutdown();
+        DatabaseConnection.shutdown();
         AbandonedConnectionCleanupThread.checkedShutdown();
     }
 
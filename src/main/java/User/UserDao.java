@@ -1,56 +1,71 @@
 package User;
 
+import com.quizwebsite.friendship.FriendSuggestions;
+import com.quizwebsite.friendship.SocialGraph;
 import dao.DatabaseConnection;
+import dao.Leaderboard;
+import dao.QuizDao;
+import dao.TodaysTopPerformers;
 
 import java.io.IOException;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * DAO for users. Holds no connection of its own: every method borrows one from the
+ * shared pool and gives it back, so a single instance can be shared across request threads.
+ */
 public class UserDao {
-    private Connection connection;
     private Encryptor encryptor;
 
+    /**
+     * Receives the users streamed by forEachUsername.
+     */
+    public interface UsernameConsumer {
+        void accept(int userId, String username);
+    }
+
     public UserDao() {
-        connection = DatabaseConnection.getConnection();
         encryptor = new Encryptor();
 
     }
 
     public boolean containsUser(String username) throws ClassNotFoundException {
-        boolean result = false;
-        String containsUser = "SELECT * FROM Users where  username = ?";
+        String containsUser = "SELECT 1 FROM Users where  username = ?";
 
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(containsUser);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(containsUser)) {
             preparedStatement.setString(1, username);
 
-            ResultSet resultSet = preparedStatement.executeQuery();
-            result = resultSet.next();
-
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next();
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
-
-        return result;
     }
 
     public boolean accountHasPass(String username, String password) throws ClassNotFoundException {
         String getInfoQuery = "SELECT password_hash, salt FROM Users WHERE username = ?";
-        try {
-            PreparedStatement ps = connection.prepareStatement(getInfoQuery);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement ps = connection.prepareStatement(getInfoQuery)) {
             ps.setString(1, username);
-            ResultSet rs = ps.executeQuery();
-            if (rs.next()) {
-                String hash = rs.getString("password_hash");
-                String saltHex = rs.getString("salt");
-                byte[] salt = Encryptor.stringToHex(saltHex);
-
-                String providedPasswordHash = Encryptor.encrypt(password, salt);
-                return providedPasswordHash.equals(hash);
+            try (ResultSet rs = ps.executeQuery()) {
+                if (rs.next()) {
+                    String hash = rs.getString("password_hash");
+                    String saltHex = rs.getString("salt");
+                    byte[] salt = Encryptor.stringToHex(saltHex);
+
+                    String providedPasswordHash = Encryptor.encrypt(password, salt);
+                    return providedPasswordHash.equals(hash);
+                }
             }
             return false;
         } catch (SQLException e) {
@@ -61,8 +76,8 @@ public class UserDao {
     public void registerUser(User user) throws ClassNotFoundException {
         String registerUser = "INSERT INTO Users" + "(username, email, password_hash, salt) VALUES" + "(?,?,?,?);";
 
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(registerUser);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(registerUser, Statement.RETURN_GENERATED_KEYS)) {
             preparedStatement.setString(1, user.getName());
             preparedStatement.setString(2, user.getEmail());
             byte[] salt = encryptor.generateSalt();
@@ -70,32 +85,43 @@ public class UserDao {
             preparedStatement.setString(4, Encryptor.hexToString(salt));
 
             preparedStatement.executeUpdate();
+            try (ResultSet generatedKeys = preparedStatement.getGeneratedKeys()) {
+                if (generatedKeys.next()) {
+                    UsernameIndex.getInstance().userAdded(generatedKeys.getInt(1), user.getName());
+                }
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
 
     public void removeUser(User user) throws ClassNotFoundException {
-        String deleteUser = "DELETE FROM Users WHERE email = ?";
-
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(deleteUser);
+        String query = "SELECT user_id FROM Users WHERE email = ?";
+        int id;
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setString(1, user.getEmail());
-
-            preparedStatement.executeUpdate();
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next()) {
+                    return;
+                }
+                id = resultSet.getInt("user_id");
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
+        deleteUser(id);
     }
 
     public User findUserByUsername(String username) {
         String query = "SELECT * FROM Users WHERE username = ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setString(1, username);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                return new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash"));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash"));
+                }
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -104,12 +130,13 @@ public class UserDao {
     }
 public User getUserById(int userId) {
         String query = "SELECT * FROM Users WHERE user_id = ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setInt(1, userId);
-            ResultSet resultSet = preparedStatement.executeQuery();
-            if (resultSet.next()) {
-                return new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash"));
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (resultSet.next()) {
+                    return new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash"));
+                }
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
@@ -117,27 +144,87 @@ public User getUserById(int userId) {
         return null;
     }
 
-    public List<User> findUsersByUsername(String username) {
+    /**
+     * Reads several users with one query.
+     * @param userIds the ids of the users
+     * @return the users found, by id
+     */
+    public Map<Integer, User> getUsersByIds(int[] userIds) {
+        Map<Integer, User> users = new HashMap<>();
+        if (userIds.length == 0) {
+            return users;
+        }
+        String query = "SELECT * FROM Users WHERE user_id IN (" + "?,".repeat(userIds.length - 1) + "?)";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            for (int i = 0; i < userIds.length; i++) {
+                preparedStatement.setInt(i + 1, userIds[i]);
+            }
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    User user = new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash"));
+                    users.put(user.getId(), user);
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return users;
+    }
+
+    /**
+     * Finds users whose names contain the given text, by id, reading only ids and names.
+     * Scans the whole table: searches go through UsernameIndex, which uses this only if it could not be built.
+     * @param username the text searched in the names
+     * @param limit the maximum number of users to return
+     * @return the users found, without their password
+     */
+    public List<User> findUsersByUsername(String username, int limit) {
         List<User> users = new ArrayList<>();
-        String query = "SELECT * FROM Users WHERE username LIKE ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
-            preparedStatement.setString(1, "%" + username + "%");
-            ResultSet resultSet = preparedStatement.executeQuery();
-            while (resultSet.next()) {
-                users.add(new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash")));
+        String query = "SELECT user_id, username FROM Users WHERE username LIKE ? ESCAPE '!' ORDER BY user_id LIMIT ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            String escaped = username.replace("!", "!!").replace("%", "!%").replace("_", "!_");
+            preparedStatement.setString(1, "%" + escaped + "%");
+            preparedStatement.setInt(2, limit);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    users.add(new User(resultSet.getInt("user_id"), resultSet.getString("username"), null));
+                }
             }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
         return users;
     }
+
+    /**
+     * Streams the id and name of every user, by ascending id, without reading the whole table into memory.
+     * @param consumer receives every user
+     * @return the number of users read
+     */
+    public int forEachUsername(UsernameConsumer consumer) {
+        int count = 0;
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = DatabaseConnection.prepareStreaming(connection,
+                     "SELECT user_id, username FROM Users ORDER BY user_id")) {
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(resultSet.getInt(1), resultSet.getString(2));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return count;
+    }
     public List<User> getAllUsers() {
         List<User> users = new ArrayList<>();
         String query = "SELECT * FROM Users";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
-            ResultSet resultSet = preparedStatement.executeQuery();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query);
+             ResultSet resultSet = preparedStatement.executeQuery()) {
             while (resultSet.next()) {
                 users.add(new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash")));
             }
@@ -148,22 +235,58 @@ public User getUserById(int userId) {
     }
     public void updateUser(User user) {
         String query = "UPDATE Users SET username = ?, email = ? WHERE user_id = ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setString(1, user.getName());
             preparedStatement.setString(2, user.getEmail());
             preparedStatement.setInt(3, user.getId());
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() > 0) {
+                UsernameIndex.getInstance().userRenamed(user.getId(), user.getName());
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
     }
+    /**
+     * Deletes a user, with their quizzes, attempts, friendships and requests by cascade, and takes them
+     * out of the caches and indexes held in memory.
+     * @param id the id of the user
+     */
     public void deleteUser(int id) {
+        // read before the cascade deletes them
+        List<Integer> createdQuizIds = new QuizDao().getQuizIdsByCreator(id);
+        List<Integer> rankedQuizIds = Leaderboard.getInstance().getRankedQuizIds(id);
         String query = "DELETE FROM Users WHERE user_id = ?";
-        try {
-            PreparedStatement preparedStatement = connection.prepareStatement(query);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
             preparedStatement.setInt(1, id);
-            preparedStatement.executeUpdate();
+            if (preparedStatement.executeUpdate() == 0) {
+                return;
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        UsernameIndex.getInstance().userRemoved(id);
+        SocialGraph.getInstance().userRemoved(id);
+        FriendSuggestions.getInstance().userRemoved(id);
+        TodaysTopPerformers.getInstance().userRemoved(id);
+        for (int quizId : createdQuizIds) {
+            QuizDao.quizRemoved(quizId);
+        }
+        for (int quizId : rankedQuizIds) {
+            if (!createdQuizIds.contains(quizId)) {
+                Leaderboard.getInstance().attemptsRemoved(quizId);
+            }
+        }
+    }
+    public boolean isAdmin(int userId) {
+        String query = "SELECT role FROM Users WHERE user_id = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(query)) {
+            preparedStatement.setInt(1, userId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                return resultSet.next() && "ADMIN".equals(resultSet.getString("role"));
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
         }
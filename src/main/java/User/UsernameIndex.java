@@ -0,0 +1,530 @@
+package User;
+
+import dao.SharedInstance;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory username search, so searching users does not scan the Users table with LIKE '%q%'.
+ * Every username is lowercased and split into its trigrams, padded at both ends ("bob" gives "  b", " bo",
+ * "bob", "ob ", "b  "), and each trigram maps to the ascending ids of the users whose names contain it.
+ * A search ranks, best first:
+ * <ol>
+ *     <li>the name equal to the query, ignoring case,</li>
+ *     <li>names starting with the query, shortest first,</li>
+ *     <li>names containing the query (3 characters or more), shortest first,</li>
+ *     <li>names one edit (insert, delete, replace or swap of two neighbours) from a query of 4 characters
+ *     or more, or up to MAX_TYPOS edits from a query of 10 or more, fewest edits first,</li>
+ * </ol>
+ * then by user id, and keeps only the best results.
+ * Names containing the query are found by intersecting the postings of its trigrams. An edit changes at
+ * most 4 trigrams, so a name k edits away has all but 4k of the query's trigrams: the postings of the query's
+ * trigrams are counted per user and only users reaching that count are compared with the query.
+ * Lengths are kept apart from the names, so a name that could not make the results is never read.
+ * The index holds ids and names only, never password hashes. It is read from the database on first use
+ * (LoginListener does it on startup) and UserDao writes registered, renamed and deleted users through to it.
+ */
+public class UsernameIndex {
+    /** The most edits a name may be from a query to be found as a typo, for queries of 10 characters or more. */
+    public static final int MAX_TYPOS = 2;
+
+    private static final char PAD = '\0';
+    private static final int EXACT = 0;
+    private static final int PREFIX = 1;
+    private static final int SUBSTRING = 2;
+    private static final int TYPO = 3;
+
+    private static final SharedInstance<UsernameIndex> INSTANCE = new SharedInstance<>(() -> new UsernameIndex(new UserDao()));
+
+    private final UserDao userDao;
+
+    // guards everything below, searches run under the read lock and changes under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // names as registered and lowercased, indexed by user id, null for ids without a user
+    private String[] names = new String[1024];
+    private String[] keys = new String[1024];
+    private byte[] lengths = new byte[1024];
+    // user ids by packed trigram, see gram
+    private Map<Long, Postings> postings = new HashMap<>();
+    private int size;
+    private volatile boolean loaded;
+
+    /**
+     * @param userDao the DAO the usernames are streamed from, and searched with if they can not be
+     */
+    public UsernameIndex(UserDao userDao) {
+        this.userDao = userDao;
+    }
+
+    /**
+     * @return the index shared by UserDao and the user search
+     */
+    public static UsernameIndex getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Finds the users whose names match a query, best match first, see the class comment for the ranking.
+     * Answered from the database, by substring only, if the names could not be read.
+     * @param query the searched text, case is ignored
+     * @param limit the maximum number of users to return
+     * @return the users found, with their id and name but no password
+     */
+    public List<User> search(String query, int limit) {
+        String key = query == null ? "" : query.trim().toLowerCase(Locale.ROOT);
+        if (key.isEmpty() || limit <= 0) {
+            return new ArrayList<>();
+        }
+        if (!ensureLoaded()) {
+            return userDao.findUsersByUsername(query.trim(), limit);
+        }
+        lock.readLock().lock();
+        try {
+            TopResults top = new TopResults(limit);
+            findContaining(key, top);
+            findTypos(key, top);
+            return top.users(names);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a user stored in the database, or a new name of a stored user.
+     */
+    public void userAdded(int userId, String username) {
+        lock.writeLock().lock();
+        try {
+            // an index not read yet is read with the user in it
+            if (loaded) {
+                remove(userId);
+                add(userId, username);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a new name of a stored user.
+     */
+    public void userRenamed(int userId, String username) {
+        userAdded(userId, username);
+    }
+
+    /**
+     * Records a user deleted from the database.
+     */
+    public void userRemoved(int userId) {
+        lock.writeLock().lock();
+        try {
+            remove(userId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Records a user deleted from the database, found by name.
+     */
+    public void userRemoved(String username) {
+        lock.writeLock().lock();
+        try {
+            String key = username.toLowerCase(Locale.ROOT);
+            Postings users = postings.get(gram(key, -2));
+            for (int i = 0; users != null && i < users.size; i++) {
+                int userId = users.ids[i];
+                if (names[userId].equals(username)) {
+                    remove(userId);
+                    return;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the index with the usernames streamed from the database.
+     * @return the number of users read, or -1 if the database could not be read
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            clearIndex();
+            try {
+                // streamed by ascending id, so every user id is appended to the end of its postings
+                userDao.forEachUsername(this::add);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                clearIndex();
+                loaded = false;
+                return -1;
+            }
+            loaded = true;
+            return size;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empties the index, it is read again from the database on next use.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            clearIndex();
+            loaded = false;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return the number of users in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //helper method, reads the index the first time it is used, false if it could not be read
+    private boolean ensureLoaded() {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return loaded;
+    }
+
+    //helper method, ranks the names containing the key, found in the intersection of the postings of its trigrams
+    private void findContaining(String key, TopResults top) {
+        // shorter keys have no inner trigram, they are matched by prefix through the padded ones
+        boolean prefixOnly = key.length() < 3;
+        int first = prefixOnly ? -2 : 0;
+        Postings[] lists = new Postings[key.length() + 2];
+        int listCount = 0;
+        for (int start = first; start <= key.length() - 3; start++) {
+            Postings users = postings.get(gram(key, start));
+            if (users == null) {
+                return;
+            }
+            lists[listCount++] = users;
+        }
+        Arrays.sort(lists, 0, listCount, (a, b) -> Integer.compare(a.size, b.size));
+        int[] candidates = Arrays.copyOf(lists[0].ids, lists[0].size);
+        int candidateCount = candidates.length;
+        for (int i = 1; i < listCount && candidateCount > 0; i++) {
+            candidateCount = lists[i].retainIn(candidates, candidateCount);
+        }
+        for (int i = 0; i < candidateCount; i++) {
+            int userId = candidates[i];
+            int length = lengths[userId];
+            int bestKind = length == key.length() ? EXACT : PREFIX;
+            // the name is read only if it could still make the results
+            if (!top.accepts(bestKind, 0, length, userId)) {
+                continue;
+            }
+            int at = prefixOnly ? 0 : keys[userId].indexOf(key);
+            if (at == 0) {
+                top.offer(bestKind, 0, length, userId);
+            } else if (at > 0) {
+                top.offer(SUBSTRING, 0, length, userId);
+            }
+        }
+    }
+
+    //helper method, ranks the names a few typos away from the key, those sharing enough of its trigrams
+    private void findTypos(String key, TopResults top) {
+        int maxTypos = key.length() < 4 ? 0 : key.length() < 10 ? 1 : MAX_TYPOS;
+        long[] grams = new long[key.length() + 2];
+        int gramCount = 0;
+        for (int start = -2; start < key.length(); start++) {
+            long gram = gram(key, start);
+            boolean seen = false;
+            for (int i = 0; i < gramCount && !seen; i++) {
+                seen = grams[i] == gram;
+            }
+            if (!seen) {
+                grams[gramCount++] = gram;
+            }
+        }
+        // every typo changes at most 4 trigrams, so a close enough name has all the others
+        maxTypos = Math.min(maxTypos, (gramCount - 1) / 4);
+        if (maxTypos == 0) {
+            return;
+        }
+        int minShared = gramCount - 4 * maxTypos;
+
+        // counts the shared trigrams of every user, a user is checked once when the count reaches minShared
+        byte[] shared = new byte[names.length];
+        int[][] rows = new int[3][key.length() + 1];
+        for (int i = 0; i < gramCount; i++) {
+            Postings users = postings.get(grams[i]);
+            for (int j = 0; users != null && j < users.size; j++) {
+                int userId = users.ids[j];
+                if (++shared[userId] != minShared) {
+                    continue;
+                }
+                int length = lengths[userId];
+                int lengthDifference = Math.abs(length - key.length());
+                if (lengthDifference > maxTypos || !top.accepts(TYPO, lengthDifference, length, userId)) {
+                    continue;
+                }
+                String name = keys[userId];
+                if (name.contains(key)) {
+                    continue;
+                }
+                int typos = distance(key, name, maxTypos, rows);
+                if (typos <= maxTypos) {
+                    top.offer(TYPO, typos, length, userId);
+                }
+            }
+        }
+    }
+
+    /**
+     * Optimal string alignment distance between two strings: the fewest single character inserts,
+     * deletes, replacements and swaps of neighbours turning one into the other.
+     * @param max the distance past which the exact value is not needed
+     * @param rows three reused rows of at least a.length() + 1 ints
+     * @return the distance, or max + 1 if it is larger than max
+     */
+    static int distance(String a, String b, int max, int[][] rows) {
+        int[] previous = rows[0];
+        int[] current = rows[1];
+        int[] beforePrevious = rows[2];
+        for (int i = 0; i <= a.length(); i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= b.length(); j++) {
+            current[0] = j;
+            int rowMin = j;
+            char bj = b.charAt(j - 1);
+            for (int i = 1; i <= a.length(); i++) {
+                char ai = a.charAt(i - 1);
+                int cost = ai == bj ? 0 : 1;
+                int value = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + cost);
+                if (i > 1 && j > 1 && ai == b.charAt(j - 2) && a.charAt(i - 2) == bj) {
+                    value = Math.min(value, beforePrevious[i - 2] + 1);
+                }
+                current[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // every later row is at least the minimum of this one
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] reused = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = reused;
+        }
+        return Math.min(previous[a.length()], max + 1);
+    }
+
+    private void add(int userId, String username) {
+        if (userId >= names.length) {
+            int length = names.length;
+            while (length <= userId) {
+                length <<= 1;
+            }
+            names = Arrays.copyOf(names, length);
+            keys = Arrays.copyOf(keys, length);
+            lengths = Arrays.copyOf(lengths, length);
+        }
+        String key = username.toLowerCase(Locale.ROOT);
+        names[userId] = username;
+        keys[userId] = key;
+        lengths[userId] = (byte) Math.min(key.length(), Byte.MAX_VALUE);
+        size++;
+        for (int start = -2; start < key.length(); start++) {
+            postings.computeIfAbsent(gram(key, start), gram -> new Postings()).add(userId);
+        }
+    }
+
+    private void remove(int userId) {
+        if (userId <= 0 || userId >= names.length || names[userId] == null) {
+            return;
+        }
+        String key = keys[userId];
+        for (int start = -2; start < key.length(); start++) {
+            long gram = gram(key, start);
+            Postings users = postings.get(gram);
+            // a name repeating a trigram was removed from its postings already
+            if (users != null && users.remove(userId) && users.size == 0) {
+                postings.remove(gram);
+            }
+        }
+        names[userId] = null;
+        keys[userId] = null;
+        lengths[userId] = 0;
+        size--;
+    }
+
+    private void clearIndex() {
+        names = new String[1024];
+        keys = new String[1024];
+        lengths = new byte[1024];
+        postings = new HashMap<>();
+        size = 0;
+    }
+
+    //Packs the trigram of a key starting at an index, which may lie before or after the key, into a long
+    private static long gram(String key, int start) {
+        return (long) charAt(key, start) << 32 | (long) charAt(key, start + 1) << 16 | charAt(key, start + 2);
+    }
+
+    private static char charAt(String key, int index) {
+        return index < 0 || index >= key.length() ? PAD : key.charAt(index);
+    }
+
+    /*
+     * The ids of the users whose names contain one trigram, in ascending order.
+     */
+    private static class Postings {
+        private static final Postings EMPTY = new Postings();
+
+        private int[] ids = new int[2];
+        private int size;
+
+        void add(int userId) {
+            // new users have the largest id, so this is almost always an append
+            int index = size == 0 || ids[size - 1] < userId ? size : Arrays.binarySearch(ids, 0, size, userId);
+            if (index >= 0 && index < size) {
+                return;
+            }
+            index = index < 0 ? -index - 1 : index;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = userId;
+            size++;
+        }
+
+        /**
+         * Keeps the ids of an ascending array that are also in these postings.
+         * @return the number of ids kept, moved to the start of the array
+         */
+        int retainIn(int[] userIds, int count) {
+            int kept = 0;
+            int from = 0;
+            for (int i = 0; i < count && from < size; i++) {
+                int index = Arrays.binarySearch(ids, from, size, userIds[i]);
+                if (index >= 0) {
+                    userIds[kept++] = userIds[i];
+                    from = index + 1;
+                } else {
+                    from = -index - 1;
+                }
+            }
+            return kept;
+        }
+
+        boolean remove(int userId) {
+            int index = Arrays.binarySearch(ids, 0, size, userId);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+    }
+
+    /*
+     * The best results of a search so far, as a bounded max-heap of packed scores, the worst result on top.
+     * A score packs the kind of match, the number of typos, the name length and the user id, so comparing
+     * scores compares results.
+     */
+    private static class TopResults {
+        private final long[] heap;
+        private int size;
+
+        TopResults(int limit) {
+            this.heap = new long[limit];
+        }
+
+        //True if a result could be kept, checked before the name is read
+        boolean accepts(int kind, int typos, int length, int userId) {
+            return size < heap.length || score(kind, typos, length, userId) < heap[0];
+        }
+
+        void offer(int kind, int typos, int length, int userId) {
+            long score = score(kind, typos, length, userId);
+            if (size < heap.length) {
+                heap[size] = score;
+                siftUp(size++);
+            } else if (score < heap[0]) {
+                heap[0] = score;
+                siftDown(0);
+            }
+        }
+
+        private static long score(int kind, int typos, int length, int userId) {
+            return (long) kind << 56 | (long) typos << 48 | (long) length << 32 | userId;
+        }
+
+        List<User> users(String[] names) {
+            long[] sorted = Arrays.copyOf(heap, size);
+            Arrays.sort(sorted);
+            List<User> users = new ArrayList<>(size);
+            for (long score : sorted) {
+                int userId = (int) score;
+                users.add(new User(userId, names[userId], null));
+            }
+            return users;
+        }
+
+        private void siftUp(int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (heap[parent] >= heap[index]) {
+                    return;
+                }
+                swap(parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int index) {
+            while (true) {
+                int largest = index;
+                for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                    if (heap[child] > heap[largest]) {
+                        largest = child;
+                    }
+                }
+                if (largest == index) {
+                    return;
+                }
+                swap(index, largest);
+                index = largest;
+            }
+        }
+
+        private void swap(int i, int j) {
+            long value = heap[i];
+            heap[i] = heap[j];
+            heap[j] = value;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.quizwebsite;
+
+import java.util.List;
+
+/**
+ * One page of a list shown a page at a time. The list is read with one item more than the page size,
+ * see fetchSize: the extra item only tells that there is a next page and is not shown.
+ *
+ * @param <T> the type of the items
+ */
+public class Page<T> {
+    private final List<T> items;
+    private final boolean hasNextPage;
+
+    /**
+     * @param fetched the items read for the page, at most fetchSize(pageSize)
+     * @param pageSize the number of items shown on a page
+     */
+    public Page(List<T> fetched, int pageSize) {
+        this.hasNextPage = fetched.size() > pageSize;
+        this.items = hasNextPage ? fetched.subList(0, pageSize) : fetched;
+    }
+
+    /**
+     * @param pageSize the number of items shown on a page
+     * @return the number of items to read for a page
+     */
+    public static int fetchSize(int pageSize) {
+        return pageSize + 1;
+    }
+
+    /**
+     * @return the items shown on the page
+     */
+    public List<T> getItems() {
+        return items;
+    }
+
+    /**
+     * @return true if more items follow the page
+     */
+    public boolean hasNextPage() {
+        return hasNextPage;
+    }
+
+    /**
+     * @return the last item shown, the cursor of the next page
+     */
+    public T getLast() {
+        return items.get(items.size() - 1);
+    }
+}
@@ -7,16 +7,15 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class FriendRequestDao {
-
-    private final Connection connection;
-
-    public FriendRequestDao() {
-        this.connection = DatabaseConnection.getConnection();
-    }
+    static final String PENDING_REQUESTS_QUERY = "SELECT fr.*, u.username FROM FriendRequests fr " +
+            "JOIN Users u ON fr.requester_id = u.user_id WHERE fr.recipient_id = ? AND fr.status = 'pending'";
+    static final String HAS_PENDING_REQUEST_QUERY =
+            "SELECT 1 FROM FriendRequests WHERE requester_id = ? AND recipient_id = ? AND status = 'pending'";
 
     public void sendFriendRequest(int requesterId, int recipientId) {
         String query = "INSERT INTO FriendRequests (requester_id, recipient_id) VALUES (?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, requesterId);
             statement.setInt(2, recipientId);
             statement.executeUpdate();
@@ -27,20 +26,21 @@ public class FriendRequestDao {
 
     public List<FriendRequest> getPendingRequestsForUser(int userId) {
         List<FriendRequest> requests = new ArrayList<>();
-        String query = "SELECT fr.*, u.username FROM FriendRequests fr JOIN Users u ON fr.requester_id = u.user_id WHERE fr.recipient_id = ? AND fr.status = 'pending'";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(PENDING_REQUESTS_QUERY)) {
             statement.setInt(1, userId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                FriendRequest request = new FriendRequest(
-                        resultSet.getInt("request_id"),
-                        resultSet.getInt("requester_id"),
-                        resultSet.getInt("recipient_id"),
-                        resultSet.getString("status"),
-                        resultSet.getTimestamp("requested_at")
-                );
-                request.setRequesterUsername(resultSet.getString("username"));
-                requests.add(request);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    FriendRequest request = new FriendRequest(
+                            resultSet.getInt("request_id"),
+                            resultSet.getInt("requester_id"),
+                            resultSet.getInt("recipient_id"),
+                            resultSet.getString("status"),
+                            resultSet.getTimestamp("requested_at")
+                    );
+                    request.setRequesterUsername(resultSet.getString("username"));
+                    requests.add(request);
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -50,7 +50,8 @@ public class FriendRequestDao {
 
     public void updateFriendRequestStatus(int requestId, String status) {
         String query = "UPDATE FriendRequests SET status = ? WHERE request_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setString(1, status);
             statement.setInt(2, requestId);
             statement.executeUpdate();
@@ -61,17 +62,19 @@ public class FriendRequestDao {
 
     public FriendRequest getFriendRequestById(int requestId) {
         String query = "SELECT * FROM FriendRequests WHERE request_id = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, requestId);
-            ResultSet resultSet = statement.executeQuery();
-            if (resultSet.next()) {
-                return new FriendRequest(
-                        resultSet.getInt("request_id"),
-                        resultSet.getInt("requester_id"),
-                        resultSet.getInt("recipient_id"),
-                        resultSet.getString("status"),
-                        resultSet.getTimestamp("requested_at")
-                );
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return new FriendRequest(
+                            resultSet.getInt("request_id"),
+                            resultSet.getInt("requester_id"),
+                            resultSet.getInt("recipient_id"),
+                            resultSet.getString("status"),
+                            resultSet.getTimestamp("requested_at")
+                    );
+                }
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -79,13 +82,41 @@ public class FriendRequestDao {
         return null;
     }
 
+    /**
+     * Returns the other users of the pending requests of a user, in both directions.
+     * @param userId the id of the user
+     * @param sent true for the recipients of the requests the user sent, false for the requesters
+     *             of the requests the user received
+     * @return the ids of the other users, empty if there are none, null if a database error occurs
+     */
+    public int[] getPendingRequestUserIds(int userId, boolean sent) {
+        List<Integer> userIds = new ArrayList<>();
+        String query = sent
+                ? "SELECT recipient_id FROM FriendRequests WHERE requester_id = ? AND status = 'pending'"
+                : "SELECT requester_id FROM FriendRequests WHERE recipient_id = ? AND status = 'pending'";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    userIds.add(resultSet.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return userIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
     public boolean hasPendingRequest(int requesterId, int recipientId) {
-        String query = "SELECT 1 FROM FriendRequests WHERE requester_id = ? AND recipient_id = ? AND status = 'pending'";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(HAS_PENDING_REQUEST_QUERY)) {
             statement.setInt(1, requesterId);
             statement.setInt(2, recipientId);
-            ResultSet resultSet = statement.executeQuery();
-            return resultSet.next();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
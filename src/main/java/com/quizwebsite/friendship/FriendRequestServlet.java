@@ -13,13 +13,11 @@ import javax.servlet.http.HttpSession;
 @WebServlet("/friend-requests")
 public class FriendRequestServlet extends HttpServlet {
 
-    private FriendRequestDao friendRequestDao;
-    private FriendshipDao friendshipDao;
+    private FriendshipService friendshipService;
 
     @Override
     public void init() {
-        friendRequestDao = new FriendRequestDao();
-        friendshipDao = new FriendshipDao();
+        friendshipService = new FriendshipService();
     }
 
     @Override
@@ -33,7 +31,7 @@ public class FriendRequestServlet extends HttpServlet {
             return;
         }
 
-        List<FriendRequest> requests = friendRequestDao.getPendingRequestsForUser(currentUser.getId());
+        List<FriendRequest> requests = friendshipService.getPendingRequestsForUser(currentUser.getId());
         request.setAttribute("requests", requests);
         request.getRequestDispatcher("/WEB-INF/views/friendship/requests.jsp").forward(request, response);
     }
@@ -54,13 +52,12 @@ public class FriendRequestServlet extends HttpServlet {
             String action = request.getParameter("action");
 
             if ("accept".equals(action)) {
-                FriendRequest friendRequest = friendRequestDao.getFriendRequestById(requestId);
+                FriendRequest friendRequest = friendshipService.getFriendRequestById(requestId);
                 if (friendRequest != null && friendRequest.getRecipientId() == currentUser.getId()) {
-                    friendshipDao.addFriendship(friendRequest.getRequesterId(), friendRequest.getRecipientId());
-                    friendRequestDao.updateFriendRequestStatus(requestId, "accepted");
+                    friendshipService.acceptFriendRequest(requestId);
                 }
             } else if ("decline".equals(action)) {
-                friendRequestDao.updateFriendRequestStatus(requestId, "declined");
+                friendshipService.rejectFriendRequest(requestId);
             }
         } catch (NumberFormatException e) {
             // In a real application, you would log this error.
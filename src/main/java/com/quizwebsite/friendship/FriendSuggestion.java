@@ -0,0 +1,56 @@
+package com.quizwebsite.friendship;
+
+import java.util.Objects;
+
+/**
+ * A user suggested as a friend, with the number of friends they share with the user it is suggested to.
+ */
+public class FriendSuggestion {
+
+    private final int userId;
+    private final int mutualFriends;
+    private String username;
+
+    public FriendSuggestion(int userId, int mutualFriends) {
+        this.userId = userId;
+        this.mutualFriends = mutualFriends;
+    }
+
+    public int getUserId() {
+        return this.userId;
+    }
+
+    public int getMutualFriends() {
+        return this.mutualFriends;
+    }
+
+    public String getUsername() {
+        return this.username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof FriendSuggestion)) {
+            return false;
+        }
+        FriendSuggestion that = (FriendSuggestion) o;
+        return userId == that.userId && mutualFriends == that.mutualFriends;
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(userId, mutualFriends);
+    }
+
+    @Override
+    public String toString() {
+        return "FriendSuggestion{userId=" + userId + ", mutualFriends=" + mutualFriends + "}";
+    }
+}
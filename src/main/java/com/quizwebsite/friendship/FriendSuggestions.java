@@ -0,0 +1,393 @@
+package com.quizwebsite.friendship;
+
+import dao.BoundedLruCache;
+import dao.DatabaseConnection;
+import dao.SharedInstance;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "People you may know": ranks the friends of a user's friends by the number of friends they share with
+ * the user, most first, then by user id.
+ * The whole friendship graph is held as one sorted int array of friend ids per user, indexed by user id,
+ * streamed from the database on first use (LoginListener does it on startup) and kept up to date by
+ * FriendshipService. A ranking gathers the friend arrays of the user's friends into one int array, sorts it
+ * and counts the runs, so no map or boxed id is involved. At most edgeBudget friend ids are gathered: for a
+ * user whose friends have more friends than that together, the friends with the fewest friends are used
+ * and the counts are a lower bound, which keeps the cost of a ranking bounded however popular the user is.
+ * The best MAX_RANKED suggestions of a user are cached and served a page at a time. A friendship change
+ * drops the cached rankings of both users and of their friends, the only ones whose counts it changes.
+ */
+public class FriendSuggestions {
+    /** The number of suggestions ranked and kept for a user, pages past it are empty. */
+    public static final int MAX_RANKED = 200;
+
+    static final int DEFAULT_MAX_USERS = 1000;
+    static final int DEFAULT_EDGE_BUDGET = 200000;
+    private static final int[] NO_FRIENDS = new int[0];
+
+    private static final SharedInstance<FriendSuggestions> INSTANCE = new SharedInstance<>(() -> new FriendSuggestions(
+            new FriendshipDao(),
+            Integer.parseInt(DatabaseConnection.getProperty("friendship.suggestions.maxUsers", String.valueOf(DEFAULT_MAX_USERS))),
+            Integer.parseInt(DatabaseConnection.getProperty("friendship.suggestions.edgeBudget", String.valueOf(DEFAULT_EDGE_BUDGET)))));
+
+    private final FriendshipDao friendshipDao;
+    private final int edgeBudget;
+
+    // guards the arrays below, rankings are computed under the read lock and the graph changed under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    // friend ids of every user in ascending order, indexed by user id, null for users without friends
+    private int[][] friends = new int[1024][];
+    private volatile boolean loaded;
+
+    // cached rankings by user id
+    private final BoundedLruCache<Integer, Ranking> rankings;
+
+    /**
+     * @param friendshipDao the DAO the friendships are streamed from
+     * @param maxUsers the maximum number of users whose rankings are kept in memory
+     * @param edgeBudget the maximum number of friend ids gathered for one ranking
+     */
+    public FriendSuggestions(FriendshipDao friendshipDao, int maxUsers, int edgeBudget) {
+        this.friendshipDao = friendshipDao;
+        this.edgeBudget = edgeBudget;
+        this.rankings = new BoundedLruCache<>(maxUsers);
+    }
+
+    /**
+     * @return the engine shared by the friendship services
+     */
+    public static FriendSuggestions getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Returns a page of the users suggested to a user, by mutual friends descending, then user id.
+     * Users who are already friends of the user are never suggested.
+     * @param userId the id of the user
+     * @param offset the number of suggestions on the previous pages
+     * @param limit the maximum number of suggestions to return
+     * @return the suggestions of the page, empty past the last one or if the graph could not be read
+     */
+    public List<FriendSuggestion> getSuggestions(int userId, int offset, int limit) {
+        Ranking ranking = getRanking(userId);
+        List<FriendSuggestion> page = new ArrayList<>();
+        if (ranking == null) {
+            return page;
+        }
+        for (int i = Math.max(0, offset); i < ranking.userIds.length && page.size() < limit; i++) {
+            page.add(new FriendSuggestion(ranking.userIds[i], ranking.mutualFriends[i]));
+        }
+        return page;
+    }
+
+    /**
+     * @return the number of friends two users have in common, counted on their sorted friend arrays
+     */
+    public int getMutualFriendCount(int userId1, int userId2) {
+        if (!ensureLoaded()) {
+            return 0;
+        }
+        lock.readLock().lock();
+        try {
+            return intersectionSize(friendsOf(userId1), friendsOf(userId2));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a friendship stored between two users.
+     */
+    public void friendshipAdded(int userId1, int userId2) {
+        changeFriendship(userId1, userId2, true);
+    }
+
+    /**
+     * Records a friendship deleted between two users.
+     */
+    public void friendshipRemoved(int userId1, int userId2) {
+        changeFriendship(userId1, userId2, false);
+    }
+
+    /**
+     * Records a deleted user: takes them out of the friends of their friends and drops the rankings
+     * they were counted or suggested in, those of their friends and of their friends' friends.
+     */
+    public void userRemoved(int userId) {
+        lock.writeLock().lock();
+        try {
+            if (!loaded) {
+                return;
+            }
+            int[] userFriends = friendsOf(userId);
+            rankings.remove(userId);
+            for (int friend : userFriends) {
+                rankings.remove(friend);
+                for (int friendFriend : friendsOf(friend)) {
+                    rankings.remove(friendFriend);
+                }
+            }
+            for (int friend : userFriends) {
+                friends(friend, delete(friendsOf(friend), userId));
+            }
+            friends(userId, NO_FRIENDS);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the graph with the friendships streamed from the database and drops every ranking.
+     * @return the number of friendships read, or -1 if the database could not be read
+     */
+    public int rebuild() {
+        lock.writeLock().lock();
+        try {
+            friends = new int[1024][];
+            // the friends of a user are gathered unsorted and then sorted once, not kept sorted on every insert
+            int count = friendshipDao.forEachFriendship((userId1, userId2) -> {
+                append(userId1, userId2);
+                append(userId2, userId1);
+            });
+            if (count < 0) {
+                loaded = false;
+                return -1;
+            }
+            for (int userId = 0; userId < friends.length; userId++) {
+                int[] userFriends = friends[userId];
+                if (userFriends != null) {
+                    int size = userFriends[0];
+                    int[] sorted = Arrays.copyOfRange(userFriends, 1, size + 1);
+                    Arrays.sort(sorted);
+                    friends[userId] = sorted;
+                }
+            }
+            rankings.clear();
+            loaded = true;
+            return count;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Empties the graph and the rankings, the graph is read again from the database on next use.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            friends = new int[1024][];
+            loaded = false;
+            rankings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    //helper method, returns the cached ranking of a user, ranking them on a miss, null if the graph could not be read
+    private Ranking getRanking(int userId) {
+        Ranking ranking = rankings.get(userId);
+        if (ranking != null) {
+            return ranking;
+        }
+        if (!ensureLoaded()) {
+            return null;
+        }
+        lock.readLock().lock();
+        try {
+            ranking = rank(userId);
+            // a change can not happen while the read lock is held, so the ranking is still current here
+            rankings.put(userId, ranking);
+        } finally {
+            lock.readLock().unlock();
+        }
+        return ranking;
+    }
+
+    /*
+     * Ranks the friends of the friends of a user. Must be called holding the read lock.
+     */
+    Ranking rank(int userId) {
+        int[] userFriends = friendsOf(userId);
+        // the friends with the fewest friends first, so the budget is spent on the most telling ones
+        long[] bySize = new long[userFriends.length];
+        for (int i = 0; i < userFriends.length; i++) {
+            bySize[i] = ((long) friendsOf(userFriends[i]).length << 32) | userFriends[i];
+        }
+        Arrays.sort(bySize);
+
+        int total = 0;
+        int used = 0;
+        while (used < bySize.length && total + (int) (bySize[used] >>> 32) <= edgeBudget) {
+            total += (int) (bySize[used] >>> 32);
+            used++;
+        }
+        int[] candidates = new int[total];
+        int filled = 0;
+        for (int i = 0; i < used; i++) {
+            int[] friendFriends = friendsOf((int) bySize[i]);
+            System.arraycopy(friendFriends, 0, candidates, filled, friendFriends.length);
+            filled += friendFriends.length;
+        }
+        Arrays.sort(candidates);
+
+        // counts the runs of the sorted candidates, each packed as (MAX - count, id) so one sort ranks them
+        long[] ranked = new long[Math.min(total, 1024)];
+        int rankedCount = 0;
+        for (int start = 0; start < total; ) {
+            int candidate = candidates[start];
+            int end = start + 1;
+            while (end < total && candidates[end] == candidate) {
+                end++;
+            }
+            if (candidate != userId && Arrays.binarySearch(userFriends, candidate) < 0) {
+                if (rankedCount == ranked.length) {
+                    ranked = Arrays.copyOf(ranked, ranked.length * 2);
+                }
+                ranked[rankedCount++] = ((long) (Integer.MAX_VALUE - (end - start)) << 32) | candidate;
+            }
+            start = end;
+        }
+        Arrays.sort(ranked, 0, rankedCount);
+
+        int size = Math.min(rankedCount, MAX_RANKED);
+        int[] userIds = new int[size];
+        int[] mutualFriends = new int[size];
+        for (int i = 0; i < size; i++) {
+            userIds[i] = (int) ranked[i];
+            mutualFriends[i] = Integer.MAX_VALUE - (int) (ranked[i] >>> 32);
+        }
+        return new Ranking(userIds, mutualFriends);
+    }
+
+    //helper method, reads the graph the first time it is used, false if it could not be read
+    private boolean ensureLoaded() {
+        if (!loaded) {
+            lock.writeLock().lock();
+            try {
+                if (!loaded) {
+                    rebuild();
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return loaded;
+    }
+
+    //helper method, adds or removes the friendship in both arrays and drops the rankings it changes
+    private void changeFriendship(int userId1, int userId2, boolean add) {
+        lock.writeLock().lock();
+        try {
+            // a graph not read yet is read with the change in it
+            if (!loaded) {
+                return;
+            }
+            if (add) {
+                friends(userId1, insert(friendsOf(userId1), userId2));
+                friends(userId2, insert(friendsOf(userId2), userId1));
+            } else {
+                friends(userId1, delete(friendsOf(userId1), userId2));
+                friends(userId2, delete(friendsOf(userId2), userId1));
+            }
+            rankings.remove(userId1);
+            rankings.remove(userId2);
+            for (int friend : friendsOf(userId1)) {
+                rankings.remove(friend);
+            }
+            for (int friend : friendsOf(userId2)) {
+                rankings.remove(friend);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int[] friendsOf(int userId) {
+        int[] userFriends = userId > 0 && userId < friends.length ? friends[userId] : null;
+        return userFriends != null ? userFriends : NO_FRIENDS;
+    }
+
+    private void friends(int userId, int[] userFriends) {
+        grow(userId);
+        friends[userId] = userFriends.length == 0 ? null : userFriends;
+    }
+
+    private void grow(int userId) {
+        if (userId >= friends.length) {
+            friends = Arrays.copyOf(friends, Math.max(friends.length * 2, userId + 1));
+        }
+    }
+
+    /*
+     * Appends a friend while the graph is read, to an array whose first element is its size.
+     */
+    private void append(int userId, int friendId) {
+        grow(userId);
+        int[] userFriends = friends[userId];
+        if (userFriends == null) {
+            userFriends = new int[4];
+            friends[userId] = userFriends;
+        } else if (userFriends[0] + 1 == userFriends.length) {
+            userFriends = Arrays.copyOf(userFriends, userFriends.length * 2);
+            friends[userId] = userFriends;
+        }
+        userFriends[++userFriends[0]] = friendId;
+    }
+
+    private static int[] insert(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        if (position >= 0) {
+            return sorted;
+        }
+        position = -position - 1;
+        int[] result = new int[sorted.length + 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        result[position] = value;
+        System.arraycopy(sorted, position, result, position + 1, sorted.length - position);
+        return result;
+    }
+
+    private static int[] delete(int[] sorted, int value) {
+        int position = Arrays.binarySearch(sorted, value);
+        if (position < 0) {
+            return sorted;
+        }
+        int[] result = new int[sorted.length - 1];
+        System.arraycopy(sorted, 0, result, 0, position);
+        System.arraycopy(sorted, position + 1, result, position, sorted.length - position - 1);
+        return result;
+    }
+
+    //Size of the intersection of two sorted arrays, merged in one pass
+    static int intersectionSize(int[] a, int[] b) {
+        int count = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) {
+                i++;
+            } else if (a[i] > b[j]) {
+                j++;
+            } else {
+                count++;
+                i++;
+                j++;
+            }
+        }
+        return count;
+    }
+
+    /*
+     * The best suggestions of a user, best first, as parallel arrays.
+     */
+    static class Ranking {
+        final int[] userIds;
+        final int[] mutualFriends;
+
+        Ranking(int[] userIds, int[] mutualFriends) {
+            this.userIds = userIds;
+            this.mutualFriends = mutualFriends;
+        }
+    }
+}
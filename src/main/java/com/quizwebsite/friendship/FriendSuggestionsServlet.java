@@ -0,0 +1,83 @@
+package com.quizwebsite.friendship;
+
+import User.User;
+import User.UserDao;
+import com.quizwebsite.Page;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lists the users the current user may know, a page at a time, by mutual friends.
+ * The next page is requested with the number of suggestions already shown (offset parameter),
+ * the ranking is held in memory by FriendSuggestions so no rows are skipped over.
+ */
+@WebServlet("/friend-suggestions")
+public class FriendSuggestionsServlet extends HttpServlet {
+    static final int PAGE_SIZE = 20;
+
+    private final FriendshipService friendshipService;
+    private final UserDao userDao;
+
+    public FriendSuggestionsServlet() {
+        this.friendshipService = new FriendshipService();
+        this.userDao = new UserDao();
+    }
+
+    public FriendSuggestionsServlet(FriendshipService friendshipService, UserDao userDao) {
+        this.friendshipService = friendshipService;
+        this.userDao = userDao;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        HttpSession session = request.getSession();
+        User currentUser = (User) session.getAttribute("user");
+        if (currentUser == null) {
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
+
+        int offset = 0;
+        String offsetParameter = request.getParameter("offset");
+        if (offsetParameter != null) {
+            try {
+                offset = Math.max(0, Integer.parseInt(offsetParameter));
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid offset");
+                return;
+            }
+        }
+
+        Page<FriendSuggestion> page = new Page<>(
+                friendshipService.getFriendSuggestions(currentUser.getId(), offset, Page.fetchSize(PAGE_SIZE)), PAGE_SIZE);
+        if (page.hasNextPage()) {
+            request.setAttribute("nextOffset", offset + PAGE_SIZE);
+        }
+        List<FriendSuggestion> suggestions = page.getItems();
+        // the names of the whole page in one query
+        int[] userIds = suggestions.stream().mapToInt(FriendSuggestion::getUserId).toArray();
+        Map<Integer, User> users = userDao.getUsersByIds(userIds);
+        List<FriendSuggestion> shown = new ArrayList<>();
+        for (FriendSuggestion suggestion : suggestions) {
+            // a user deleted since the ranking was made is left out
+            User user = users.get(suggestion.getUserId());
+            if (user != null) {
+                suggestion.setUsername(user.getName());
+                shown.add(suggestion);
+            }
+        }
+        request.setAttribute("suggestions", shown);
+        request.setAttribute("hasNextPage", page.hasNextPage());
+        request.setAttribute("isFirstPage", offset == 0);
+        request.getRequestDispatcher("/WEB-INF/views/friendship/suggestions.jsp").forward(request, response);
+    }
+}
@@ -1,7 +1,7 @@
 package com.quizwebsite.friendship;
 
 import User.User;
-import com.quizwebsite.friendship.FriendshipDao;
+import com.quizwebsite.Page;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -10,22 +10,53 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import javax.servlet.http.HttpSession;
 import java.io.IOException;
-import java.util.List;
 
+/**
+ * Lists the friends of the current user a page at a time, by user id.
+ * The next page is requested with the id of the last friend shown (afterId parameter),
+ * see FriendshipDao.getFriendsForUser.
+ */
 @WebServlet("/friends-list")
 public class FriendsListServlet extends HttpServlet {
+    private final FriendshipService friendshipService;
+
+    public FriendsListServlet() {
+        this.friendshipService = new FriendshipService();
+    }
+
+    public FriendsListServlet(FriendshipService friendshipService) {
+        this.friendshipService = friendshipService;
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         HttpSession session = request.getSession();
         User currentUser = (User) session.getAttribute("user");
 
         if (currentUser != null) {
-            FriendshipDao friendshipDao = new FriendshipDao();
-            List<User> friends = friendshipDao.getFriendsForUser(currentUser.getId());
-            request.setAttribute("friends", friends);
+            int afterId = 0;
+            String after = request.getParameter("afterId");
+            if (after != null) {
+                try {
+                    afterId = Integer.parseInt(after);
+                } catch (NumberFormatException e) {
+                    response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid page cursor");
+                    return;
+                }
+            }
+            int pageSize = FriendshipService.FRIENDS_PAGE_SIZE;
+            Page<User> page = new Page<>(
+                    friendshipService.getFriendsForUser(currentUser.getId(), afterId, Page.fetchSize(pageSize)), pageSize);
+            if (page.hasNextPage()) {
+                request.setAttribute("nextAfterId", page.getLast().getId());
+            }
+            request.setAttribute("friends", page.getItems());
+            request.setAttribute("friendCount", friendshipService.getFriendCount(currentUser.getId()));
+            request.setAttribute("hasNextPage", page.hasNextPage());
+            request.setAttribute("isFirstPage", afterId == 0);
             request.getRequestDispatcher("/WEB-INF/views/friendship/friends.jsp").forward(request, response);
         } else {
             response.sendRedirect(request.getContextPath() + "/login");
         }
     }
-}
\ No newline at end of file
+}
@@ -2,7 +2,6 @@ package com.quizwebsite.friendship;
 
 import dao.DatabaseConnection;
 import User.User;
-import User.UserDao;
 
 import java.sql.Connection;
 import java.sql.PreparedStatement;
@@ -12,18 +11,26 @@ import java.util.ArrayList;
 import java.util.List;
 
 public class FriendshipDao {
+    static final String FRIENDS_PAGE_QUERY = "(SELECT u.* FROM Friendships f JOIN Users u ON u.user_id = f.user_id2 " +
+            "WHERE f.user_id1 = ? AND f.user_id2 > ? ORDER BY f.user_id2 LIMIT ?) " +
+            "UNION ALL " +
+            "(SELECT u.* FROM Friendships f JOIN Users u ON u.user_id = f.user_id1 " +
+            "WHERE f.user_id2 = ? AND f.user_id1 > ? ORDER BY f.user_id1 LIMIT ?) " +
+            "ORDER BY user_id LIMIT ?";
+    static final String FRIEND_COUNT_QUERY = "SELECT (SELECT COUNT(*) FROM Friendships WHERE user_id1 = ?) + " +
+            "(SELECT COUNT(*) FROM Friendships WHERE user_id2 = ?)";
 
-    private final Connection connection;
-    private final UserDao userDao;
-
-    public FriendshipDao() {
-        this.connection = DatabaseConnection.getConnection();
-        this.userDao = new UserDao();
+    /**
+     * Receives the two user ids of a friendship, without boxing them.
+     */
+    public interface FriendshipConsumer {
+        void accept(int userId1, int userId2);
     }
 
     public void addFriendship(int userId1, int userId2) {
         String query = "INSERT INTO Friendships (user_id1, user_id2) VALUES (?, ?)";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             if (userId1 < userId2) {
                 statement.setInt(1, userId1);
                 statement.setInt(2, userId2);
@@ -39,7 +46,8 @@ public class FriendshipDao {
 
     public void removeFriendship(int userId1, int userId2) {
         String query = "DELETE FROM Friendships WHERE (user_id1 = ? AND user_id2 = ?) OR (user_id1 = ? AND user_id2 = ?)";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, userId1);
             statement.setInt(2, userId2);
             statement.setInt(3, userId2);
@@ -50,19 +58,38 @@ public class FriendshipDao {
         }
     }
 
+    /**
+     * Returns all the friends of a user, by user id, see getFriendsForUser(int, int, int).
+     */
     public List<User> getFriendsForUser(int userId) {
+        return getFriendsForUser(userId, 0, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Returns a page of the friends of a user, by user id, in one query.
+     * A friendship is stored once with the smaller id first, so both sides are read, each from its own
+     * index (the primary key and idx_friendships_reverse) already in friend id order, and joined with
+     * the users. The next page starts after the id of the last friend shown, no rows are skipped over.
+     * @param userId the id of the user
+     * @param afterUserId the id of the last friend of the previous page, 0 for the first page
+     * @param limit the maximum number of friends to return
+     * @return the friends with ids greater than afterUserId, empty if there are none or a database error occurs
+     */
+    public List<User> getFriendsForUser(int userId, int afterUserId, int limit) {
         List<User> friends = new ArrayList<>();
-        String query = "SELECT user_id1, user_id2 FROM Friendships WHERE user_id1 = ? OR user_id2 = ?";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FRIENDS_PAGE_QUERY)) {
             statement.setInt(1, userId);
-            statement.setInt(2, userId);
-            ResultSet resultSet = statement.executeQuery();
-            while (resultSet.next()) {
-                int friendId = resultSet.getInt("user_id1");
-                if (friendId == userId) {
-                    friendId = resultSet.getInt("user_id2");
+            statement.setInt(2, afterUserId);
+            statement.setInt(3, limit);
+            statement.setInt(4, userId);
+            statement.setInt(5, afterUserId);
+            statement.setInt(6, limit);
+            statement.setInt(7, limit);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    friends.add(new User(resultSet.getInt("user_id"), resultSet.getString("username"), resultSet.getString("password_hash")));
                 }
-                friends.add(userDao.getUserById(friendId));
             }
         } catch (SQLException e) {
             e.printStackTrace();
@@ -70,15 +97,86 @@ public class FriendshipDao {
         return friends;
     }
 
+    /**
+     * Counts the friends of a user from the friendship indexes alone, without reading any user.
+     * @param userId the id of the user
+     * @return the number of friends, 0 if a database error occurs
+     */
+    public int getFriendCount(int userId) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(FRIEND_COUNT_QUERY)) {
+            statement.setInt(1, userId);
+            statement.setInt(2, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                if (resultSet.next()) {
+                    return resultSet.getInt(1);
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return 0;
+    }
+
+    /**
+     * Returns the ids of the friends of a user, read from the friendship indexes alone.
+     * @param userId the id of the user
+     * @return the ids of the friends, empty if there are none, null if a database error occurs
+     */
+    public int[] getFriendIds(int userId) {
+        List<Integer> friendIds = new ArrayList<>();
+        String query = "SELECT user_id2 FROM Friendships WHERE user_id1 = ? " +
+                "UNION ALL SELECT user_id1 FROM Friendships WHERE user_id2 = ?";
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
+            statement.setInt(1, userId);
+            statement.setInt(2, userId);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    friendIds.add(resultSet.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        return friendIds.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    /**
+     * Streams every friendship to the consumer, without reading all of them into memory first.
+     * @param consumer receives the two user ids of each friendship, the smaller one first
+     * @return the number of friendships read, -1 if a database error occurs
+     */
+    public int forEachFriendship(FriendshipConsumer consumer) {
+        int count = 0;
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = DatabaseConnection.prepareStreaming(connection,
+                     "SELECT user_id1, user_id2 FROM Friendships")) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    consumer.accept(resultSet.getInt(1), resultSet.getInt(2));
+                    count++;
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+
     public boolean areFriends(int userId1, int userId2) {
         String query = "SELECT 1 FROM Friendships WHERE (user_id1 = ? AND user_id2 = ?) OR (user_id1 = ? AND user_id2 = ?)";
-        try (PreparedStatement statement = connection.prepareStatement(query)) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(query)) {
             statement.setInt(1, userId1);
             statement.setInt(2, userId2);
             statement.setInt(3, userId2);
             statement.setInt(4, userId1);
-            ResultSet resultSet = statement.executeQuery();
-            return resultSet.next();
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next();
+            }
         } catch (SQLException e) {
             e.printStackTrace();
         }
@@ -3,24 +3,42 @@ package com.quizwebsite.friendship;
 import User.User;
 import java.util.List;
 
+/**
+ * Friendships and friend requests. Every change is stored through the DAOs and written through to the
+ * SocialGraph, which answers areFriends and getFriendshipStatus from memory, and to FriendSuggestions.
+ */
 public class FriendshipService {
+    /** The number of friends shown on a page of the friends list and on the home page. */
+    public static final int FRIENDS_PAGE_SIZE = 20;
 
     private final FriendshipDao friendshipDao;
     private final FriendRequestDao friendRequestDao;
+    private final SocialGraph socialGraph;
+    private final FriendSuggestions friendSuggestions;
 
     public FriendshipService() {
-        this.friendshipDao = new FriendshipDao();
-        this.friendRequestDao = new FriendRequestDao();
+        this(new FriendshipDao(), new FriendRequestDao(), SocialGraph.getInstance(), FriendSuggestions.getInstance());
     }
 
+    //Uses a graph and suggestions of its own over the given DAOs instead of the shared ones
     public FriendshipService(FriendshipDao friendshipDao, FriendRequestDao friendRequestDao) {
+        this(friendshipDao, friendRequestDao, new SocialGraph(friendshipDao, friendRequestDao, SocialGraph.DEFAULT_MAX_USERS),
+                new FriendSuggestions(friendshipDao, FriendSuggestions.DEFAULT_MAX_USERS, FriendSuggestions.DEFAULT_EDGE_BUDGET));
+    }
+
+    public FriendshipService(FriendshipDao friendshipDao, FriendRequestDao friendRequestDao, SocialGraph socialGraph,
+                             FriendSuggestions friendSuggestions) {
         this.friendshipDao = friendshipDao;
         this.friendRequestDao = friendRequestDao;
+        this.socialGraph = socialGraph;
+        this.friendSuggestions = friendSuggestions;
     }
 
     public void sendFriendRequest(int requesterId, int recipientId) {
-        if (!friendshipDao.areFriends(requesterId, recipientId)) {
+        if (!friendshipDao.areFriends(requesterId, recipientId)
+                && !friendRequestDao.hasPendingRequest(requesterId, recipientId)) {
             friendRequestDao.sendFriendRequest(requesterId, recipientId);
+            socialGraph.requestSent(requesterId, recipientId);
         }
     }
 
@@ -29,35 +47,55 @@ public class FriendshipService {
         if (request != null && "pending".equals(request.getStatus())) {
             friendRequestDao.updateFriendRequestStatus(requestId, "accepted");
             friendshipDao.addFriendship(request.getRequesterId(), request.getRecipientId());
+            socialGraph.requestClosed(request.getRequesterId(), request.getRecipientId());
+            socialGraph.friendshipAdded(request.getRequesterId(), request.getRecipientId());
+            friendSuggestions.friendshipAdded(request.getRequesterId(), request.getRecipientId());
         }
     }
 
     public void rejectFriendRequest(int requestId) {
+        FriendRequest request = friendRequestDao.getFriendRequestById(requestId);
         friendRequestDao.updateFriendRequestStatus(requestId, "rejected");
+        if (request != null) {
+            socialGraph.requestClosed(request.getRequesterId(), request.getRecipientId());
+        }
     }
 
     public void removeFriend(int userId1, int userId2) {
         friendshipDao.removeFriendship(userId1, userId2);
+        socialGraph.friendshipRemoved(userId1, userId2);
+        friendSuggestions.friendshipRemoved(userId1, userId2);
     }
 
     public List<User> getFriendsForUser(int userId) {
         return friendshipDao.getFriendsForUser(userId);
     }
 
+    public List<User> getFriendsForUser(int userId, int afterUserId, int limit) {
+        return friendshipDao.getFriendsForUser(userId, afterUserId, limit);
+    }
+
+    public int getFriendCount(int userId) {
+        return friendshipDao.getFriendCount(userId);
+    }
+
+    public List<FriendSuggestion> getFriendSuggestions(int userId, int offset, int limit) {
+        return friendSuggestions.getSuggestions(userId, offset, limit);
+    }
+
     public List<FriendRequest> getPendingRequestsForUser(int userId) {
         return friendRequestDao.getPendingRequestsForUser(userId);
     }
 
+    public FriendRequest getFriendRequestById(int requestId) {
+        return friendRequestDao.getFriendRequestById(requestId);
+    }
+
+    public boolean areFriends(int userId1, int userId2) {
+        return socialGraph.areFriends(userId1, userId2);
+    }
+
     public String getFriendshipStatus(int currentUser, int profileUser) {
-        if (friendshipDao.areFriends(currentUser, profileUser)) {
-            return "FRIENDS";
-        }
-        if (friendRequestDao.hasPendingRequest(currentUser, profileUser)) {
-            return "PENDING_SENT";
-        }
-        if (friendRequestDao.hasPendingRequest(profileUser, currentUser)) {
-            return "PENDING_RECEIVED";
-        }
-        return "NONE";
+        return socialGraph.getFriendshipStatus(currentUser, profileUser);
     }
-}
\ No newline at end of file
+}
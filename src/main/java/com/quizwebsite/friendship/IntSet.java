@@ -0,0 +1,152 @@
+package com.quizwebsite.friendship;
+
+import java.util.Arrays;
+
+/**
+ * Set of positive ints (user ids) in one open addressing int array, without boxing.
+ * 0 marks an empty slot, so it can not be stored: add rejects ids that are not positive and
+ * contains and remove never find them. Lookups probe linearly and allocate nothing,
+ * removals shift the following entries back instead of leaving tombstones.
+ * Not thread safe, SocialGraph guards its sets with its own lock.
+ */
+class IntSet {
+    private static final int MIN_CAPACITY = 4;
+
+    private int[] slots;
+    private int size;
+
+    IntSet() {
+        this(0);
+    }
+
+    /**
+     * @param expectedSize the number of ints the set should hold without growing
+     */
+    IntSet(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        // kept at most half full, so probe runs stay short
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        slots = new int[capacity];
+    }
+
+    /**
+     * Creates a set holding the given ints.
+     */
+    static IntSet of(int[] values) {
+        IntSet set = new IntSet(values.length);
+        for (int value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean contains(int value) {
+        if (value <= 0) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        for (int i = mix(value) & mask; ; i = (i + 1) & mask) {
+            int slot = slots[i];
+            if (slot == value) {
+                return true;
+            }
+            if (slot == 0) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return true if the value was not in the set
+     */
+    boolean add(int value) {
+        if (value <= 0) {
+            throw new IllegalArgumentException("Only positive ids can be stored: " + value);
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = value;
+        if (++size * 2 > slots.length) {
+            rehash(slots.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return true if the value was in the set
+     */
+    boolean remove(int value) {
+        if (value <= 0) {
+            return false;
+        }
+        int mask = slots.length - 1;
+        int i = mix(value) & mask;
+        while (slots[i] != value) {
+            if (slots[i] == 0) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        // moves back every following entry of the run that would no longer be found past the hole
+        int hole = i;
+        for (int j = (i + 1) & mask; slots[j] != 0; j = (j + 1) & mask) {
+            int home = mix(slots[j]) & mask;
+            if (((j - home) & mask) >= ((j - hole) & mask)) {
+                slots[hole] = slots[j];
+                hole = j;
+            }
+        }
+        slots[hole] = 0;
+        size--;
+        return true;
+    }
+
+    /**
+     * @return the ints of the set in ascending order
+     */
+    int[] toSortedArray() {
+        int[] values = new int[size];
+        int count = 0;
+        for (int slot : slots) {
+            if (slot != 0) {
+                values[count++] = slot;
+            }
+        }
+        Arrays.sort(values);
+        return values;
+    }
+
+    //Estimated heap size of the set in bytes
+    long estimatedBytes() {
+        return 32 + 16 + 4L * slots.length;
+    }
+
+    private void rehash(int capacity) {
+        int[] old = slots;
+        slots = new int[capacity];
+        size = 0;
+        for (int value : old) {
+            if (value != 0) {
+                add(value);
+            }
+        }
+    }
+
+    //Spreads sequential ids over the table, they would otherwise fill one long run
+    private static int mix(int value) {
+        int h = value * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
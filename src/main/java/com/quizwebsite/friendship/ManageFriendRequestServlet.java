@@ -13,7 +13,7 @@ public class ManageFriendRequestServlet extends HttpServlet {
     private final FriendshipService friendshipService;
 
     public ManageFriendRequestServlet() {
-        this.friendshipService = new FriendshipService(new FriendshipDao(), new FriendRequestDao());
+        this.friendshipService = new FriendshipService();
     }
 
     public ManageFriendRequestServlet(FriendshipService friendshipService) {
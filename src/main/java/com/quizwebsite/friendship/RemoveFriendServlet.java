@@ -15,7 +15,7 @@ public class RemoveFriendServlet extends HttpServlet {
     private final FriendshipService friendshipService;
 
     public RemoveFriendServlet() {
-        this.friendshipService = new FriendshipService(new FriendshipDao(), new FriendRequestDao());
+        this.friendshipService = new FriendshipService();
     }
 
     public RemoveFriendServlet(FriendshipService friendshipService) {
@@ -19,7 +19,7 @@ public class SendFriendRequestServlet extends HttpServlet {
     private final UserDao userDao;
 
     public SendFriendRequestServlet() {
-        this.friendshipService = new FriendshipService(new FriendshipDao(), new FriendRequestDao());
+        this.friendshipService = new FriendshipService();
         this.userDao = new UserDao();
     }
 
@@ -0,0 +1,365 @@
+package com.quizwebsite.friendship;
+
+import dao.DatabaseConnection;
+import dao.SharedInstance;
+
+import java.util.Arrays;
+import java.util.function.Function;
+
+/**
+ * In-memory adjacency cache of the friendship graph, behind FriendshipService.areFriends and
+ * getFriendshipStatus. For every cached user it holds the ids of their friends and of the other users
+ * of their pending friend requests, in both directions, as primitive IntSets, so a status check is a
+ * few hash probes with no query, no boxing and no allocation.
+ * A user's sets are loaded with three index-only queries the first time the user is looked up, the least
+ * recently used users are dropped once more than the configured number are held. The users are kept in an
+ * int-keyed hash table with an intrusive LRU list, so a hit does not box the id either.
+ * FriendshipService writes every friendship and request change through to the cached users,
+ * changes made without it are not seen: call invalidate (or invalidateAll) after such changes.
+ */
+public class SocialGraph {
+    public static final String FRIENDS = "FRIENDS";
+    public static final String PENDING_SENT = "PENDING_SENT";
+    public static final String PENDING_RECEIVED = "PENDING_RECEIVED";
+    public static final String NONE = "NONE";
+
+    static final int DEFAULT_MAX_USERS = 10000;
+
+    private static final SharedInstance<SocialGraph> INSTANCE = new SharedInstance<>(() -> new SocialGraph(
+            new FriendshipDao(), new FriendRequestDao(),
+            Integer.parseInt(DatabaseConnection.getProperty("friendship.cache.maxUsers", String.valueOf(DEFAULT_MAX_USERS)))));
+
+    private final FriendshipDao friendshipDao;
+    private final FriendRequestDao friendRequestDao;
+    private final int maxUsers;
+
+    // hash table of the cached users by id, chained through Node.nextInBucket, never resized
+    private final Node[] buckets;
+    // sentinel of the LRU list, head.newer is the least recently used user, head.older the most recent
+    private final Node head = new Node(0, null, null, null);
+    private int size;
+
+    /*
+     * Incremented by every write and every invalidation. Sets whose load started before may have
+     * missed a change, so they are used to answer once but not kept.
+     */
+    private long generation;
+
+    /**
+     * @param friendshipDao the DAO the friends of a user are loaded with
+     * @param friendRequestDao the DAO the pending requests of a user are loaded with
+     * @param maxUsers the maximum number of users whose sets are kept in memory
+     */
+    public SocialGraph(FriendshipDao friendshipDao, FriendRequestDao friendRequestDao, int maxUsers) {
+        this.friendshipDao = friendshipDao;
+        this.friendRequestDao = friendRequestDao;
+        this.maxUsers = maxUsers;
+        int capacity = 16;
+        while (capacity < maxUsers * 4 / 3 + 1) {
+            capacity <<= 1;
+        }
+        this.buckets = new Node[capacity];
+        head.newer = head;
+        head.older = head;
+    }
+
+    /**
+     * @return the graph shared by the friendship services
+     */
+    public static SocialGraph getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * @return true if the two users are friends, checked in the cached friends of the first one
+     */
+    public boolean areFriends(int userId1, int userId2) {
+        synchronized (this) {
+            Node node = get(userId1);
+            if (node != null) {
+                return node.friends.contains(userId2);
+            }
+        }
+        Boolean friends = load(userId1, node -> node.friends.contains(userId2));
+        return friends != null ? friends : friendshipDao.areFriends(userId1, userId2);
+    }
+
+    /**
+     * Returns how the current user relates to the user whose profile they view.
+     * @param currentUser the id of the viewing user
+     * @param profileUser the id of the viewed user
+     * @return FRIENDS, PENDING_SENT if the current user asked the other one, PENDING_RECEIVED if the
+     * other one asked the current user, or NONE
+     */
+    public String getFriendshipStatus(int currentUser, int profileUser) {
+        synchronized (this) {
+            Node node = get(currentUser);
+            if (node != null) {
+                return node.status(profileUser);
+            }
+        }
+        String status = load(currentUser, node -> node.status(profileUser));
+        if (status != null) {
+            return status;
+        }
+        // the sets could not be loaded, answer from the database
+        if (friendshipDao.areFriends(currentUser, profileUser)) {
+            return FRIENDS;
+        }
+        if (friendRequestDao.hasPendingRequest(currentUser, profileUser)) {
+            return PENDING_SENT;
+        }
+        if (friendRequestDao.hasPendingRequest(profileUser, currentUser)) {
+            return PENDING_RECEIVED;
+        }
+        return NONE;
+    }
+
+    /**
+     * @return the ids of the friends of a user in ascending order, null if they could not be loaded
+     */
+    public int[] getFriendIds(int userId) {
+        synchronized (this) {
+            Node node = get(userId);
+            if (node != null) {
+                return node.friends.toSortedArray();
+            }
+        }
+        return load(userId, node -> node.friends.toSortedArray());
+    }
+
+    /**
+     * Records a friendship stored between two users.
+     */
+    public synchronized void friendshipAdded(int userId1, int userId2) {
+        generation++;
+        Node node1 = peek(userId1);
+        if (node1 != null) {
+            node1.friends.add(userId2);
+        }
+        Node node2 = peek(userId2);
+        if (node2 != null) {
+            node2.friends.add(userId1);
+        }
+    }
+
+    /**
+     * Records a friendship deleted between two users.
+     */
+    public synchronized void friendshipRemoved(int userId1, int userId2) {
+        generation++;
+        Node node1 = peek(userId1);
+        if (node1 != null) {
+            node1.friends.remove(userId2);
+        }
+        Node node2 = peek(userId2);
+        if (node2 != null) {
+            node2.friends.remove(userId1);
+        }
+    }
+
+    /**
+     * Records a pending friend request stored from one user to another.
+     */
+    public synchronized void requestSent(int requesterId, int recipientId) {
+        generation++;
+        Node requester = peek(requesterId);
+        if (requester != null) {
+            requester.sent.add(recipientId);
+        }
+        Node recipient = peek(recipientId);
+        if (recipient != null) {
+            recipient.received.add(requesterId);
+        }
+    }
+
+    /**
+     * Records a friend request from one user to another that is no longer pending.
+     * The pair is taken to have had one pending request, FriendshipService does not send a second one.
+     */
+    public synchronized void requestClosed(int requesterId, int recipientId) {
+        generation++;
+        Node requester = peek(requesterId);
+        if (requester != null) {
+            requester.sent.remove(recipientId);
+        }
+        Node recipient = peek(recipientId);
+        if (recipient != null) {
+            recipient.received.remove(requesterId);
+        }
+    }
+
+    /**
+     * Drops the sets of a user from memory, they are loaded again on next use.
+     * The user stays in the sets of the other cached users, call userRemoved instead if the user was deleted.
+     * @param userId the id of a user
+     */
+    public synchronized void invalidate(int userId) {
+        generation++;
+        Node node = peek(userId);
+        if (node != null) {
+            remove(node);
+        }
+    }
+
+    /**
+     * Records a deleted user: drops their sets and takes them out of the sets of every cached user.
+     * @param userId the id of the user
+     */
+    public synchronized void userRemoved(int userId) {
+        generation++;
+        Node node = peek(userId);
+        if (node != null) {
+            remove(node);
+        }
+        for (Node other = head.newer; other != head; other = other.newer) {
+            other.friends.remove(userId);
+            other.sent.remove(userId);
+            other.received.remove(userId);
+        }
+    }
+
+    /**
+     * Drops the sets of every user from memory.
+     */
+    public synchronized void invalidateAll() {
+        generation++;
+        Arrays.fill(buckets, null);
+        head.newer = head;
+        head.older = head;
+        size = 0;
+    }
+
+    /**
+     * @return the number of users whose sets are held in memory
+     */
+    public synchronized int size() {
+        return size;
+    }
+
+    /*
+     * Reads the sets of a user and caches them unless a write happened meanwhile. The lookup is applied under
+     * the graph's lock, as a cached node may be changed by a concurrent write. Returns what the lookup gave,
+     * null if the database could not be read.
+     */
+    private <T> T load(int userId, Function<Node, T> lookup) {
+        long startGeneration;
+        synchronized (this) {
+            startGeneration = generation;
+        }
+        int[] friends = friendshipDao.getFriendIds(userId);
+        int[] sent = friendRequestDao.getPendingRequestUserIds(userId, true);
+        int[] received = friendRequestDao.getPendingRequestUserIds(userId, false);
+        if (friends == null || sent == null || received == null) {
+            return null;
+        }
+        Node loaded = new Node(userId, IntSet.of(friends), IntSet.of(sent), IntSet.of(received));
+        synchronized (this) {
+            Node node = get(userId);
+            if (node != null) {
+                return lookup.apply(node);
+            }
+            if (generation == startGeneration) {
+                insert(loaded);
+            }
+            return lookup.apply(loaded);
+        }
+    }
+
+    //Returns the node of a user and marks it most recently used, null if the user is not cached
+    private Node get(int userId) {
+        Node node = peek(userId);
+        if (node != null && node != head.older) {
+            unlink(node);
+            linkNewest(node);
+        }
+        return node;
+    }
+
+    //Returns the node of a user without touching the LRU order
+    private Node peek(int userId) {
+        for (Node node = buckets[bucket(userId)]; node != null; node = node.nextInBucket) {
+            if (node.userId == userId) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void insert(Node node) {
+        int index = bucket(node.userId);
+        node.nextInBucket = buckets[index];
+        buckets[index] = node;
+        linkNewest(node);
+        size++;
+        while (size > maxUsers) {
+            remove(head.newer);
+        }
+    }
+
+    private void remove(Node node) {
+        int index = bucket(node.userId);
+        if (buckets[index] == node) {
+            buckets[index] = node.nextInBucket;
+        } else {
+            Node previous = buckets[index];
+            while (previous.nextInBucket != node) {
+                previous = previous.nextInBucket;
+            }
+            previous.nextInBucket = node.nextInBucket;
+        }
+        unlink(node);
+        size--;
+    }
+
+    private void linkNewest(Node node) {
+        node.older = head.older;
+        node.newer = head;
+        head.older.newer = node;
+        head.older = node;
+    }
+
+    private void unlink(Node node) {
+        node.older.newer = node.newer;
+        node.newer.older = node.older;
+    }
+
+    private int bucket(int userId) {
+        int h = userId * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (buckets.length - 1);
+    }
+
+    /*
+     * The sets of one cached user, linked in its hash bucket and in the LRU list. Guarded by the graph's lock.
+     */
+    private static class Node {
+        private final int userId;
+        private final IntSet friends;
+        // users this user sent a pending request to, and users who sent one to this user
+        private final IntSet sent;
+        private final IntSet received;
+        private Node nextInBucket;
+        private Node older;
+        private Node newer;
+
+        Node(int userId, IntSet friends, IntSet sent, IntSet received) {
+            this.userId = userId;
+            this.friends = friends;
+            this.sent = sent;
+            this.received = received;
+        }
+
+        String status(int otherUserId) {
+            if (friends.contains(otherUserId)) {
+                return FRIENDS;
+            }
+            if (sent.contains(otherUserId)) {
+                return PENDING_SENT;
+            }
+            if (received.contains(otherUserId)) {
+                return PENDING_RECEIVED;
+            }
+            return NONE;
+        }
+    }
+}
@@ -13,6 +13,18 @@ import java.io.IOException;
 
 @WebServlet("/user-profile")
 public class UserProfileServlet extends HttpServlet {
+    private FriendshipService friendshipService;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        // the service LoginListener shares, so the social graph is not built again per request
+        friendshipService = (FriendshipService) getServletContext().getAttribute("friendshipService");
+        if (friendshipService == null) {
+            friendshipService = new FriendshipService();
+        }
+    }
+
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         String usernameToView = request.getParameter("username");
@@ -33,7 +45,6 @@ public class UserProfileServlet extends HttpServlet {
             return;
         }
 
-        FriendshipService friendshipService = new FriendshipService();
         String friendshipStatus = friendshipService.getFriendshipStatus(currentUser.getId(), profileUser.getId());
 
         request.setAttribute("profileUser", profileUser);
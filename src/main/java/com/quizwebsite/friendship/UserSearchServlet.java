@@ -1,7 +1,7 @@
 package com.quizwebsite.friendship;
 
 import User.User;
-import User.UserDao;
+import User.UsernameIndex;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -11,21 +11,31 @@ import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.util.List;
 
+/**
+ * Searches users by name in the shared UsernameIndex, without querying the database.
+ * Shows the best RESULT_LIMIT matches, see UsernameIndex for how they are ranked.
+ */
 @WebServlet("/user-search")
 public class UserSearchServlet extends HttpServlet {
-    private UserDao userDao;
+    public static final int RESULT_LIMIT = 20;
+
+    private final UsernameIndex usernameIndex;
 
     public UserSearchServlet() {
-        this.userDao = new UserDao();
+        this.usernameIndex = UsernameIndex.getInstance();
+    }
+
+    public UserSearchServlet(UsernameIndex usernameIndex) {
+        this.usernameIndex = usernameIndex;
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         String query = request.getParameter("query");
         if (query != null && !query.trim().isEmpty()) {
-            List<User> users = userDao.findUsersByUsername(query);
+            List<User> users = usernameIndex.search(query, RESULT_LIMIT);
             request.setAttribute("users", users);
         }
         request.getRequestDispatcher("/WEB-INF/views/friendship/search.jsp").forward(request, response);
     }
-}
\ No newline at end of file
+}
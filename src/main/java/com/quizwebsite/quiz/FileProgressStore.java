@@ -0,0 +1,59 @@
+package com.quizwebsite.quiz;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Keeps quiz progress in files, one per quiz being taken, named by its token. Pointed at a directory every
+ * server mounts, it stands in for a shared session store. A file is written next to its final name and
+ * moved in place, so a reader never sees half of it. Files of quizzes that are never finished stay until
+ * they are cleaned up outside the application.
+ */
+public class FileProgressStore extends TokenProgressStore {
+    private final Path directory;
+
+    /**
+     * @param directory the directory the progress files are kept in, created if missing
+     */
+    public FileProgressStore(Path directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    protected byte[] read(String token) {
+        try {
+            return Files.readAllBytes(directory.resolve(token));
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    @Override
+    protected boolean write(String token, byte[] bytes) {
+        try {
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, token, ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, directory.resolve(token), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return true;
+        } catch (IOException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
+    @Override
+    protected void delete(String token) {
+        try {
+            Files.deleteIfExists(directory.resolve(token));
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+}
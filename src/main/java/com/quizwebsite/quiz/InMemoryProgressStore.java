@@ -0,0 +1,47 @@
+package com.quizwebsite.quiz;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps quiz progress in the memory of this server, a stand-in for a shared store on a single server.
+ * At most maxEntries quizzes are kept, the progress of the least recently used one is dropped beyond that.
+ */
+public class InMemoryProgressStore extends TokenProgressStore {
+    private final Map<String, byte[]> progress;
+
+    /**
+     * @param maxEntries the most quizzes whose progress is kept
+     */
+    public InMemoryProgressStore(int maxEntries) {
+        this.progress = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, byte[]> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    @Override
+    protected synchronized byte[] read(String token) {
+        return progress.get(token);
+    }
+
+    @Override
+    protected synchronized boolean write(String token, byte[] bytes) {
+        progress.put(token, bytes);
+        return true;
+    }
+
+    @Override
+    protected synchronized void delete(String token) {
+        progress.remove(token);
+    }
+
+    /**
+     * @return the number of quizzes whose progress is kept
+     */
+    public synchronized int size() {
+        return progress.size();
+    }
+}
@@ -1,43 +1,57 @@
 package com.quizwebsite.quiz;
 
-import dao.QuizDao;
+import User.User;
+import dao.QuizAttemptDao;
 import models.Question;
-import models.Quiz;
+import models.QuizAttempt;
+import quiz_engine.QuizProgress;
+import quiz_engine.QuizSession;
 
 import javax.servlet.ServletException;
-import javax.servlet.annotation.WebServlet;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
-import javax.servlet.http.HttpSession;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
+/**
+ * Takes a user through a quiz one question at a time (/quiz/start, /quiz/question, /quiz/answer, /quiz/finish).
+ * Nothing about the quiz is kept in the HttpSession: every request resumes the QuizSession from the compact
+ * QuizProgress held by the QuizProgressStore and saves it back after a change, the questions coming from the
+ * quiz cache, so consecutive requests may be served by different servers.
+ * Answers held back by a write-behind AnswerWriter stay on the server that received them,
+ * keep answers.writeBehind=false when requests are spread over servers.
+ */
 public class QuizControllerServlet extends HttpServlet {
+    private final QuizProgressStore progressStore;
+    private final QuizAttemptDao quizAttemptDao;
 
-    private QuizDao quizDao;
+    public QuizControllerServlet() {
+        this(QuizProgressStore.fromConfig(), new QuizAttemptDao());
+    }
 
-    @Override
-    public void init() throws ServletException {
-        super.init();
-        // In a real application, you would inject this dependency
-        quizDao = new QuizDao();
+    public QuizControllerServlet(QuizProgressStore progressStore, QuizAttemptDao quizAttemptDao) {
+        this.progressStore = progressStore;
+        this.quizAttemptDao = quizAttemptDao;
     }
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         String path = request.getRequestURI();
+        User user = (User) request.getSession().getAttribute("user");
+        if (user == null) {
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
 
         if (path.endsWith("/start")) {
-            startQuiz(request, response);
+            startQuiz(request, response, user);
         } else if (path.endsWith("/question")) {
-            displayQuestion(request, response);
+            displayQuestion(request, response, user);
         } else if (path.endsWith("/finish")) {
-            finishQuiz(request, response);
+            finishQuiz(request, response, user);
         } else {
             response.sendRedirect(request.getContextPath() + "/quizzes");
         }
@@ -46,128 +60,167 @@ public class QuizControllerServlet extends HttpServlet {
     @Override
     protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
         String path = request.getRequestURI();
+        User user = (User) request.getSession().getAttribute("user");
+        if (user == null) {
+            response.sendRedirect(request.getContextPath() + "/login");
+            return;
+        }
 
         if (path.endsWith("/answer")) {
-            submitAnswer(request, response);
+            submitAnswer(request, response, user);
         } else {
             response.sendError(HttpServletResponse.SC_NOT_FOUND);
         }
     }
 
-    private void startQuiz(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        try {
-            int quizId = Integer.parseInt(request.getParameter("id"));
-            Quiz quiz = quizDao.getQuizById(quizId); // Assumes getQuizById fetches questions
-
-            if (quiz == null) {
-                response.sendRedirect(request.getContextPath() + "/quizzes");
-                return;
-            }
-
-            HttpSession session = request.getSession();
-            session.setAttribute("currentQuiz", quiz);
-            session.setAttribute("currentQuestionIndex", 0);
-            session.setAttribute("userAnswers", new HashMap<Integer, List<String>>());
-
-            response.sendRedirect(request.getContextPath() + "/quiz/question");
-        } catch (NumberFormatException e) {
-            response.sendRedirect(request.getContextPath() + "/quizzes");
-        }
+    /**
+     * Starts a quiz session, creating its attempt. Overridden in tests.
+     * @throws IllegalArgumentException if the quiz cannot be taken
+     */
+    QuizSession startSession(int userId, int quizId, boolean practiceMode) {
+        return new QuizSession(userId, quizId, practiceMode);
     }
 
-    private void displayQuestion(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-        HttpSession session = request.getSession();
-        Quiz currentQuiz = (Quiz) session.getAttribute("currentQuiz");
-        Integer currentQuestionIndex = (Integer) session.getAttribute("currentQuestionIndex");
+    /**
+     * Carries on with a quiz session from its progress. Overridden in tests.
+     * @throws IllegalArgumentException if the quiz changed since the attempt began
+     */
+    QuizSession resumeSession(QuizProgress progress) {
+        return QuizSession.resume(progress);
+    }
 
-        if (currentQuiz == null || currentQuestionIndex == null) {
+    private void startQuiz(HttpServletRequest request, HttpServletResponse response, User user) throws IOException {
+        QuizSession quizSession;
+        try {
+            int quizId = Integer.parseInt(request.getParameter("id"));
+            boolean practiceMode = Boolean.parseBoolean(request.getParameter("practice"));
+            quizSession = startSession(user.getId(), quizId, practiceMode);
+        } catch (IllegalArgumentException e) {
+            // NumberFormatException included, the quiz id is missing or there is no such quiz to take
             response.sendRedirect(request.getContextPath() + "/quizzes");
             return;
         }
+        if (!progressStore.save(request, response, quizSession.toProgress(user.getId()))) {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Quiz progress could not be saved");
+            return;
+        }
+        response.sendRedirect(request.getContextPath() + "/quiz/question");
+    }
 
-        List<Question> questions = currentQuiz.getQuestions();
-        if (currentQuestionIndex >= questions.size()) {
-            // This case should be handled by the finish logic, but as a safeguard:
-            response.sendRedirect(request.getContextPath() + "/quiz/finish");
+    private void displayQuestion(HttpServletRequest request, HttpServletResponse response, User user) throws ServletException, IOException {
+        QuizSession quizSession = resume(request, response, user, false);
+        if (quizSession == null) {
             return;
         }
 
-        Question currentQuestion = questions.get(currentQuestionIndex);
-        request.setAttribute("currentQuestion", currentQuestion);
-        request.setAttribute("questionNumber", currentQuestionIndex + 1);
-        request.setAttribute("totalQuestions", questions.size());
+        request.setAttribute("currentQuestion", quizSession.getCurrentQuestion());
+        request.setAttribute("questionNumber", quizSession.getCurrentQuestionId() + 1);
+        request.setAttribute("totalQuestions", quizSession.getQuestions().size());
 
         request.getRequestDispatcher("/WEB-INF/views/quiz/takeQuiz.jsp").forward(request, response);
     }
 
-    private void submitAnswer(HttpServletRequest request, HttpServletResponse response) throws IOException {
-        HttpSession session = request.getSession();
-        Map<Integer, List<String>> userAnswers = (Map<Integer, List<String>>) session.getAttribute("userAnswers");
-        Integer currentQuestionIndex = (Integer) session.getAttribute("currentQuestionIndex");
-        Quiz currentQuiz = (Quiz) session.getAttribute("currentQuiz");
-
-        if (userAnswers == null || currentQuestionIndex == null || currentQuiz == null) {
-            response.sendRedirect(request.getContextPath() + "/quizzes");
+    private void submitAnswer(HttpServletRequest request, HttpServletResponse response, User user) throws IOException {
+        QuizSession quizSession = resume(request, response, user, true);
+        if (quizSession == null) {
             return;
         }
 
+        Question currentQuestion = quizSession.getCurrentQuestion();
         try {
-            int questionId = Integer.parseInt(request.getParameter("questionId"));
-            String[] answers = request.getParameterValues("userAnswers");
-            String optionId = request.getParameter("optionId");
-
-            List<String> submittedAnswers = new ArrayList<>();
-            if (answers != null) {
-                Collections.addAll(submittedAnswers, answers);
-            } else if (optionId != null) {
-                submittedAnswers.add(optionId);
+            // a form of an earlier question (sent again, or from another tab) is not applied to the current one
+            if (Integer.parseInt(request.getParameter("questionId")) != currentQuestion.getQuestionId()) {
+                response.sendRedirect(request.getContextPath() + "/quiz/question");
+                return;
             }
-
-            userAnswers.put(questionId, submittedAnswers);
         } catch (NumberFormatException e) {
-            // Handle cases where parameters are missing or invalid, maybe redirect with an error
             response.sendRedirect(request.getContextPath() + "/quiz/question");
             return;
         }
 
-        session.setAttribute("currentQuestionIndex", currentQuestionIndex + 1);
-
-        if ((currentQuestionIndex + 1) < currentQuiz.getQuestions().size()) {
+        String[] answers = request.getParameterValues("userAnswers");
+        String optionId = request.getParameter("optionId");
+        List<String> submittedAnswers = new ArrayList<>();
+        if (answers != null) {
+            Collections.addAll(submittedAnswers, answers);
+        } else if (optionId != null) {
+            submittedAnswers.add(optionId);
+        }
+        // nothing ticked, or a question without an input, is stored as an empty answer and the quiz moves on
+        boolean saved = submittedAnswers.isEmpty()
+                ? quizSession.skipQuestion(quizSession.getCurrentQuestionId())
+                : quizSession.submitAnswer(quizSession.getCurrentQuestionId(), submittedAnswers);
+        if (!saved) {
             response.sendRedirect(request.getContextPath() + "/quiz/question");
-        } else {
-            response.sendRedirect(request.getContextPath() + "/quiz/finish");
+            return;
         }
-    }
-
-    private void finishQuiz(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-        HttpSession session = request.getSession();
-        Quiz currentQuiz = (Quiz) session.getAttribute("currentQuiz");
-        Map<Integer, List<String>> userAnswers = (Map<Integer, List<String>>) session.getAttribute("userAnswers");
 
-        if (currentQuiz == null) {
-            response.sendRedirect(request.getContextPath() + "/quizzes");
+        boolean finished = !quizSession.hasNextQuestion();
+        if (!finished) {
+            quizSession.moveToNextQuestion();
+        }
+        if (!progressStore.save(request, response, quizSession.toProgress(user.getId()))) {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Quiz progress could not be saved");
             return;
         }
+        response.sendRedirect(request.getContextPath() + (finished ? "/quiz/finish" : "/quiz/question"));
+    }
 
-        int score = 0;
-        List<Question> questions = currentQuiz.getQuestions();
-        for (Question question : questions) {
-            List<String> submittedAnswers = userAnswers.get(question.getQuestionId());
-            if (submittedAnswers != null && !submittedAnswers.isEmpty()) {
-                if (question.calculateScore(submittedAnswers) > 0) {
-                    score++;
-                }
-            }
+    private void finishQuiz(HttpServletRequest request, HttpServletResponse response, User user) throws ServletException, IOException {
+        QuizSession quizSession = resume(request, response, user, true);
+        if (quizSession == null) {
+            return;
         }
 
-        request.setAttribute("finalScore", score);
-        request.setAttribute("totalQuestions", questions.size());
+        QuizAttempt completed = quizSession.completeQuiz();
+        if (completed == null) {
+            response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR, "Quiz could not be completed");
+            return;
+        }
+        progressStore.remove(request, response);
 
-        // Clear the session
-        session.removeAttribute("currentQuiz");
-        session.removeAttribute("currentQuestionIndex");
-        session.removeAttribute("userAnswers");
+        double maxScore = 0;
+        for (Question question : quizSession.getQuestions()) {
+            maxScore += question.getMaxScore();
+        }
+        request.setAttribute("finalScore", completed.getScore());
+        request.setAttribute("maxScore", maxScore);
+        request.setAttribute("totalQuestions", quizSession.getQuestions().size());
 
         request.getRequestDispatcher("/WEB-INF/views/quiz/quizResult.jsp").forward(request, response);
     }
-}
\ No newline at end of file
+
+    /*
+     * Resumes the quiz the user is taking from the progress store. Redirects to the quiz list and returns null
+     * if there is no progress, it belongs to another user or its quiz changed. Before a change the attempt is
+     * checked to be still open, so a replayed older progress cannot alter a completed attempt, and when the
+     * quiz does not let the user go back the progress must not be behind the answers stored for the attempt.
+     */
+    private QuizSession resume(HttpServletRequest request, HttpServletResponse response, User user, boolean changing) throws IOException {
+        QuizProgress progress = progressStore.load(request);
+        QuizSession quizSession = null;
+        if (progress != null && progress.getUserId() == user.getId()) {
+            if (changing) {
+                QuizAttempt attempt = quizAttemptDao.getAttemptById(progress.getAttemptId());
+                if (attempt == null || attempt.getEndTime() != null) {
+                    progress = null;
+                }
+            }
+            if (progress != null) {
+                try {
+                    quizSession = resumeSession(progress);
+                } catch (IllegalArgumentException e) {
+                    quizSession = null;
+                }
+                if (changing && quizSession != null && !quizSession.canGoBack() && quizSession.isBehindStoredAnswers()) {
+                    quizSession = null;
+                }
+            }
+        }
+        if (quizSession == null) {
+            progressStore.remove(request, response);
+            response.sendRedirect(request.getContextPath() + "/quizzes");
+        }
+        return quizSession;
+    }
+}
@@ -1,7 +1,8 @@
 package com.quizwebsite.quiz;
 
+import com.quizwebsite.Page;
 import dao.QuizDao;
-import models.Quiz;
+import models.QuizSummary;
 
 import javax.servlet.ServletException;
 import javax.servlet.annotation.WebServlet;
@@ -9,9 +10,18 @@ import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.util.List;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
 
+/**
+ * Lists the quizzes a page at a time, newest first.
+ * The next page is requested with the creation date and id of the last quiz shown
+ * (afterDate and afterId parameters), see QuizDao.getQuizSummaries.
+ */
 public class QuizListServlet extends HttpServlet {
+    static final int DEFAULT_PAGE_SIZE = 20;
+    static final int MAX_PAGE_SIZE = 100;
+
     private QuizDao quizDao;
 
     @Override
@@ -24,8 +34,43 @@ public class QuizListServlet extends HttpServlet {
 
     @Override
     protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
-        List<Quiz> quizList = quizDao.getAllQuizzes();
-        request.setAttribute("quizList", quizList);
+        int pageSize = parsePageSize(request.getParameter("size"));
+        LocalDateTime afterDate = null;
+        int afterId = 0;
+        try {
+            String date = request.getParameter("afterDate");
+            String id = request.getParameter("afterId");
+            if (date != null && id != null) {
+                afterDate = LocalDateTime.parse(date);
+                afterId = Integer.parseInt(id);
+            }
+        } catch (DateTimeParseException | NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid page cursor");
+            return;
+        }
+
+        Page<QuizSummary> page = new Page<>(quizDao.getQuizSummaries(afterDate, afterId, Page.fetchSize(pageSize)), pageSize);
+        if (page.hasNextPage()) {
+            QuizSummary last = page.getLast();
+            request.setAttribute("nextAfterDate", last.getCreationDate().toString());
+            request.setAttribute("nextAfterId", last.getQuizId());
+        }
+        request.setAttribute("quizList", page.getItems());
+        request.setAttribute("hasNextPage", page.hasNextPage());
+        request.setAttribute("isFirstPage", afterDate == null);
+        request.setAttribute("pageSize", pageSize);
         request.getRequestDispatcher("/WEB-INF/views/quiz/quizList.jsp").forward(request, response);
     }
-}
\ No newline at end of file
+
+    //helper method, returns the requested page size within bounds, or the default one
+    private int parsePageSize(String size) {
+        if (size == null) {
+            return DEFAULT_PAGE_SIZE;
+        }
+        try {
+            return Math.max(1, Math.min(MAX_PAGE_SIZE, Integer.parseInt(size)));
+        } catch (NumberFormatException e) {
+            return DEFAULT_PAGE_SIZE;
+        }
+    }
+}
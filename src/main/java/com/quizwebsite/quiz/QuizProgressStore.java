@@ -0,0 +1,70 @@
+package com.quizwebsite.quiz;
+
+import dao.DatabaseConnection;
+import quiz_engine.QuizProgress;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.file.Paths;
+
+/**
+ * Keeps the progress of the quiz a user is taking between requests, in place of the HttpSession, so any
+ * server can carry on with the quiz. Only the compact QuizProgress is kept, the quiz itself comes from the
+ * quiz cache. The store is chosen with quiz.progress.store in config.properties:
+ * cookie keeps the progress in a signed cookie (see SignedCookieProgressStore), memory and file keep it
+ * on the server under a random token held in a cookie (see TokenProgressStore). The cookie store keeps the
+ * progress too large for a cookie in the memory or file store named by quiz.progress.overflow.
+ */
+public interface QuizProgressStore {
+
+    /**
+     * @param request the current request
+     * @return the progress of the quiz being taken, null if there is none or it is not valid
+     */
+    QuizProgress load(HttpServletRequest request);
+
+    /**
+     * Saves the progress of the quiz being taken, replacing any progress saved before.
+     * @param request the current request
+     * @param response the response that may carry the cookie of the store
+     * @param progress the progress to save
+     * @return true if the progress was saved, false if it could not be
+     */
+    boolean save(HttpServletRequest request, HttpServletResponse response, QuizProgress progress);
+
+    /**
+     * Forgets the progress of the quiz being taken.
+     * @param request the current request
+     * @param response the response that may carry the cookie of the store
+     */
+    void remove(HttpServletRequest request, HttpServletResponse response);
+
+    /**
+     * Creates the store set in config.properties.
+     * @return the configured store
+     * @throws IllegalArgumentException if quiz.progress.store or quiz.progress.overflow names no known store
+     */
+    static QuizProgressStore fromConfig() {
+        String store = DatabaseConnection.getProperty("quiz.progress.store", "cookie");
+        if (store.equals("cookie")) {
+            return new SignedCookieProgressStore(DatabaseConnection.getProperty("quiz.progress.secret", ""),
+                    serverStore(DatabaseConnection.getProperty("quiz.progress.overflow", "memory")));
+        }
+        return serverStore(store);
+    }
+
+    //Creates the memory or file store
+    private static TokenProgressStore serverStore(String store) {
+        switch (store) {
+            case "memory":
+                return new InMemoryProgressStore(
+                        Integer.parseInt(DatabaseConnection.getProperty("quiz.progress.maxEntries", "10000")));
+            case "file":
+                String directory = DatabaseConnection.getProperty("quiz.progress.dir", "");
+                return new FileProgressStore(directory.isEmpty()
+                        ? Paths.get(System.getProperty("java.io.tmpdir"), "quiz-progress") : Paths.get(directory));
+            default:
+                throw new IllegalArgumentException("Unknown quiz progress store: " + store);
+        }
+    }
+}
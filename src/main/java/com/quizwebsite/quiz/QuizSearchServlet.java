@@ -0,0 +1,59 @@
+package com.quizwebsite.quiz;
+
+import com.quizwebsite.Page;
+import dao.QuizSearchIndex;
+import models.QuizSummary;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Searches the quizzes by the words of their title, description and questions, a page at a time,
+ * best match first. The next page is requested with the number of results already shown (offset parameter),
+ * the search runs on the in-memory QuizSearchIndex so no rows are read or skipped over.
+ */
+@WebServlet("/quiz-search")
+public class QuizSearchServlet extends HttpServlet {
+    static final int PAGE_SIZE = 20;
+
+    private final QuizSearchIndex quizSearchIndex;
+
+    public QuizSearchServlet() {
+        this.quizSearchIndex = QuizSearchIndex.getInstance();
+    }
+
+    public QuizSearchServlet(QuizSearchIndex quizSearchIndex) {
+        this.quizSearchIndex = quizSearchIndex;
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        String query = request.getParameter("q");
+        int offset = 0;
+        String offsetParameter = request.getParameter("offset");
+        if (offsetParameter != null) {
+            try {
+                offset = Math.max(0, Integer.parseInt(offsetParameter));
+            } catch (NumberFormatException e) {
+                response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid offset");
+                return;
+            }
+        }
+
+        if (query != null && !query.trim().isEmpty()) {
+            Page<QuizSummary> page = new Page<>(quizSearchIndex.search(query, offset, Page.fetchSize(PAGE_SIZE)), PAGE_SIZE);
+            if (page.hasNextPage()) {
+                request.setAttribute("nextOffset", offset + PAGE_SIZE);
+            }
+            request.setAttribute("results", page.getItems());
+            request.setAttribute("hasNextPage", page.hasNextPage());
+            request.setAttribute("isFirstPage", offset == 0);
+        }
+        request.setAttribute("query", query);
+        request.getRequestDispatcher("/WEB-INF/views/quiz/quizSearch.jsp").forward(request, response);
+    }
+}
@@ -0,0 +1,96 @@
+package com.quizwebsite.quiz;
+
+import User.User;
+import User.UserDao;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import quiz_transfer.QuizExporter;
+import quiz_transfer.QuizImporter;
+import quiz_transfer.TransferProgress;
+
+import javax.servlet.ServletException;
+import javax.servlet.annotation.WebServlet;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Admin endpoint for bulk quiz transfer in line-delimited JSON.
+ * GET streams every quiz as a download, POST imports the quizzes in the request body
+ * (creatorUserId parameter optional) and answers with a JSON summary of the import.
+ * Only users with the ADMIN role may use it.
+ */
+@WebServlet("/admin/quizzes/transfer")
+public class QuizTransferServlet extends HttpServlet {
+    private UserDao userDao;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        this.userDao = new UserDao();
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (!checkAdmin(request, response)) {
+            return;
+        }
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Content-Disposition", "attachment; filename=\"quizzes.ndjson\"");
+        TransferProgress progress = new QuizExporter().exportQuizzes(response.getWriter(), p -> log("Quiz export: " + p));
+        log("Quiz export done: " + progress);
+    }
+
+    @Override
+    protected void doPost(HttpServletRequest request, HttpServletResponse response) throws ServletException, IOException {
+        if (!checkAdmin(request, response)) {
+            return;
+        }
+        Integer creatorUserId;
+        try {
+            String creator = request.getParameter("creatorUserId");
+            creatorUserId = creator == null || creator.isEmpty() ? null : Integer.valueOf(creator);
+        } catch (NumberFormatException e) {
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "Invalid creatorUserId");
+            return;
+        }
+        if (request.getCharacterEncoding() == null) {
+            request.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        }
+        TransferProgress progress = new QuizImporter().importQuizzes(request.getReader(), creatorUserId,
+                p -> log("Quiz import: " + p));
+        log("Quiz import done: " + progress);
+
+        JsonObject summary = new JsonObject();
+        summary.addProperty("quizzes", progress.getQuizzes());
+        summary.addProperty("questions", progress.getQuestions());
+        summary.addProperty("failed", progress.getFailed());
+        summary.addProperty("elapsedMs", progress.getElapsedMillis());
+        summary.addProperty("questionsPerSecond", progress.getQuestionsPerSecond());
+        JsonArray errors = new JsonArray();
+        progress.getErrors().forEach(errors::add);
+        summary.add("errors", errors);
+        response.setContentType("application/json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.getWriter().write(summary.toString());
+    }
+
+    //helper method, answers 401 or 403 and returns false unless an admin is logged in
+    private boolean checkAdmin(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        HttpSession session = request.getSession(false);
+        User currentUser = (session != null) ? (User) session.getAttribute("user") : null;
+        if (currentUser == null) {
+            response.sendError(HttpServletResponse.SC_UNAUTHORIZED);
+            return false;
+        }
+        if (!userDao.isAdmin(currentUser.getId())) {
+            response.sendError(HttpServletResponse.SC_FORBIDDEN);
+            return false;
+        }
+        return true;
+    }
+}
@@ -0,0 +1,142 @@
+package com.quizwebsite.quiz;
+
+import quiz_engine.QuizProgress;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Keeps quiz progress in a cookie on the client, so no server holds any state for the quiz.
+ * The cookie value is the progress bytes and their HMAC-SHA256, both base64url encoded and joined by a dot;
+ * a cookie whose signature does not match is ignored. Every server must be given the same secret
+ * (quiz.progress.secret), without one a random secret is made that only this server knows.
+ * The signature stops changes to the progress but not replaying an older cookie of the same attempt,
+ * QuizControllerServlet refuses progress of attempts that are already completed, and progress behind the
+ * stored answers of quizzes that do not let the user go back.
+ * Browsers keep cookies of about 4KB, progress that does not fit (long typed answers of big quizzes) is kept
+ * in a server-side overflow store instead, until the progress fits in a cookie again or is removed.
+ */
+public class SignedCookieProgressStore implements QuizProgressStore {
+    static final String COOKIE_NAME = "quizProgress";
+    static final int MAX_COOKIE_LENGTH = 4000;
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final TokenProgressStore overflow;
+
+    /**
+     * @param secret the secret the cookies are signed with, empty for a random one
+     * @param overflow the store keeping the progress too large for a cookie
+     */
+    public SignedCookieProgressStore(String secret, TokenProgressStore overflow) {
+        byte[] keyBytes;
+        if (secret == null || secret.isEmpty()) {
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.overflow = overflow;
+    }
+
+    @Override
+    public QuizProgress load(HttpServletRequest request) {
+        String value = cookieValue(request, COOKIE_NAME);
+        if (value == null) {
+            return overflow.load(request);
+        }
+        int dot = value.indexOf('.');
+        if (dot < 0) {
+            return null;
+        }
+        try {
+            Base64.Decoder decoder = Base64.getUrlDecoder();
+            byte[] payload = decoder.decode(value.substring(0, dot));
+            byte[] signature = decoder.decode(value.substring(dot + 1));
+            if (!MessageDigest.isEqual(sign(payload), signature)) {
+                return null;
+            }
+            return QuizProgress.fromBytes(payload);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean save(HttpServletRequest request, HttpServletResponse response, QuizProgress progress) {
+        byte[] payload = progress.toBytes();
+        Base64.Encoder encoder = Base64.getUrlEncoder().withoutPadding();
+        String value = encoder.encodeToString(payload) + "." + encoder.encodeToString(sign(payload));
+        // only one of the two may hold the progress, the other one is cleared
+        if (value.length() > MAX_COOKIE_LENGTH) {
+            if (cookieValue(request, COOKIE_NAME) != null) {
+                response.addCookie(cookie(request, COOKIE_NAME, "", 0));
+            }
+            return overflow.save(request, response, progress);
+        }
+        response.addCookie(cookie(request, COOKIE_NAME, value, -1));
+        removeOverflow(request, response);
+        return true;
+    }
+
+    @Override
+    public void remove(HttpServletRequest request, HttpServletResponse response) {
+        response.addCookie(cookie(request, COOKIE_NAME, "", 0));
+        removeOverflow(request, response);
+    }
+
+    private void removeOverflow(HttpServletRequest request, HttpServletResponse response) {
+        if (cookieValue(request, TokenProgressStore.COOKIE_NAME) != null) {
+            overflow.remove(request, response);
+        }
+    }
+
+    private byte[] sign(byte[] payload) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(payload);
+        } catch (GeneralSecurityException e) {
+            // every Java platform has HmacSHA256
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @return the value of the named cookie of a request, null if it has none
+     */
+    static String cookieValue(HttpServletRequest request, String name) {
+        Cookie[] cookies = request.getCookies();
+        if (cookies == null) {
+            return null;
+        }
+        for (Cookie cookie : cookies) {
+            if (name.equals(cookie.getName())) {
+                return cookie.getValue();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return an HttpOnly cookie for the web application's path, maxAge -1 keeps it until the browser closes
+     */
+    static Cookie cookie(HttpServletRequest request, String name, String value, int maxAge) {
+        Cookie cookie = new Cookie(name, value);
+        String path = request.getContextPath();
+        cookie.setPath(path == null || path.isEmpty() ? "/" : path);
+        cookie.setHttpOnly(true);
+        cookie.setSecure(request.isSecure());
+        cookie.setMaxAge(maxAge);
+        return cookie;
+    }
+}
@@ -0,0 +1,88 @@
+package com.quizwebsite.quiz;
+
+import quiz_engine.QuizProgress;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Base of the stores that keep quiz progress on the server. The client only holds a random token in a cookie,
+ * the progress bytes are kept under that token by the subclass. The token is made on the first save and
+ * kept until the progress is removed.
+ */
+public abstract class TokenProgressStore implements QuizProgressStore {
+    static final String COOKIE_NAME = "quizProgressToken";
+    private static final int TOKEN_BYTES = 18;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    @Override
+    public QuizProgress load(HttpServletRequest request) {
+        String token = SignedCookieProgressStore.cookieValue(request, COOKIE_NAME);
+        if (!isToken(token)) {
+            return null;
+        }
+        byte[] bytes = read(token);
+        if (bytes == null) {
+            return null;
+        }
+        try {
+            return QuizProgress.fromBytes(bytes);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    @Override
+    public boolean save(HttpServletRequest request, HttpServletResponse response, QuizProgress progress) {
+        String token = SignedCookieProgressStore.cookieValue(request, COOKIE_NAME);
+        if (!isToken(token)) {
+            byte[] random = new byte[TOKEN_BYTES];
+            RANDOM.nextBytes(random);
+            token = Base64.getUrlEncoder().withoutPadding().encodeToString(random);
+            response.addCookie(SignedCookieProgressStore.cookie(request, COOKIE_NAME, token, -1));
+        }
+        return write(token, progress.toBytes());
+    }
+
+    @Override
+    public void remove(HttpServletRequest request, HttpServletResponse response) {
+        String token = SignedCookieProgressStore.cookieValue(request, COOKIE_NAME);
+        if (isToken(token)) {
+            delete(token);
+        }
+        response.addCookie(SignedCookieProgressStore.cookie(request, COOKIE_NAME, "", 0));
+    }
+
+    /**
+     * @param token a token made by this store
+     * @return the progress bytes kept under the token, null if there are none
+     */
+    protected abstract byte[] read(String token);
+
+    /**
+     * Keeps progress bytes under a token, replacing the ones kept before.
+     * @return true if the bytes were kept
+     */
+    protected abstract boolean write(String token, byte[] bytes);
+
+    /**
+     * Forgets the progress bytes kept under a token.
+     */
+    protected abstract void delete(String token);
+
+    //Tokens are 24 base64url characters, anything else in the cookie is ignored (file names are made from tokens)
+    private static boolean isToken(String token) {
+        if (token == null || token.length() != TOKEN_BYTES * 4 / 3) {
+            return false;
+        }
+        for (int i = 0; i < token.length(); i++) {
+            char c = token.charAt(i);
+            if (!(c >= 'A' && c <= 'Z' || c >= 'a' && c <= 'z' || c >= '0' && c <= '9' || c == '-' || c == '_')) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,10 +1,15 @@
 package dao;
 
+import models.AnswerMatcher;
 import models.Question;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * Abstract base class for question data access objects.
@@ -31,8 +36,9 @@ public abstract class AbstractQuestionDao {
                     String imageUrl = resultSet.getString("image_url");
                     Integer orderInQuiz = (Integer) resultSet.getObject("order_in_quiz");
                     double maxScore = resultSet.getDouble("max_score");
+                    int answerTolerance = getAnswerTolerance(resultSet);
                     Object answers = getAnswersFromDB(connection, questionId);
-                    Question question = createQuestionObject(questionId, questionText, answers, quizId, orderInQuiz, maxScore, imageUrl);
+                    Question question = createQuestionObject(questionId, questionText, answers, quizId, orderInQuiz, maxScore, imageUrl, answerTolerance);
                     question.setImageUrl(imageUrl);
                     return question;
                 }
@@ -44,84 +50,150 @@ public abstract class AbstractQuestionDao {
     }
 
     /**
-     * Adds a question to the database
+     * Adds a question to the database, the question and its answers are written in one transaction
      * @param question the question to add
      * @return returns boolean indicating if insertion was successful or not
      */
     public final boolean addQuestion(Question question) {
+        return addQuestions(Collections.singletonList(question));
+    }
+
+    /**
+     * Adds the questions to the database in one transaction, either all of them are added or none.
+     * The questions are inserted with one batch and all their answers with another, so a large quiz
+     * costs a few round trips instead of one per row.
+     * All the questions must be of the type this DAO handles.
+     * @param questions the questions to add, their ids are set if they were added
+     * @return returns boolean indicating if insertion was successful or not
+     */
+    public final boolean addQuestions(List<Question> questions) {
+        if (questions.isEmpty()) {
+            return true;
+        }
+        int[] previousIds = new int[questions.size()];
+        for (int i = 0; i < questions.size(); i++) {
+            previousIds[i] = questions.get(i).getQuestionId();
+        }
         try (Connection connection = DatabaseConnection.getConnection()) {
-            if (!executeInsertQuestion(question, connection)) {
-                return false;
+            connection.setAutoCommit(false);
+            try {
+                if (!executeInsertQuestions(questions, connection)) {
+                    connection.rollback();
+                    restoreQuestionIds(questions, previousIds);
+                    return false;
+                }
+                insertAnswersIntoDB(questions, connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                restoreQuestionIds(questions, previousIds);
+                throw e;
             }
-            insertAnswersIntoDB(question.getQuestionId(), question, connection);
         } catch (SQLIntegrityConstraintViolationException e) {
             return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
+        Set<Integer> quizIds = new HashSet<>();
+        for (Question question : questions) {
+            if (quizIds.add(question.getQuizId())) {
+                QuizCache.getInstance().invalidate(question.getQuizId());
+                QuizSearchIndex.getInstance().quizChanged(question.getQuizId());
+            }
+        }
         return true;
     }
 
     /*
-     * Inserts the question to the database, accepts question and an active database connection as parameters.
-     * Returns the questionId of an inserted question (it gets assigned by the database)
+     * Inserts the questions to the database with one batch, accepts the questions and an active database connection.
+     * Sets the questionId of every inserted question (it gets assigned by the database),
+     * returns false if the database did not return an id for each of them
      */
-    private boolean executeInsertQuestion(Question question, Connection connection) throws SQLException {
-        String query = "INSERT INTO Questions (quiz_id, question_text, question_type, image_url, order_in_quiz, max_score) VALUES (?, ?, ?, ?, ?, ?)";
+    private boolean executeInsertQuestions(List<Question> questions, Connection connection) throws SQLException {
+        String query = "INSERT INTO Questions (quiz_id, question_text, question_type, image_url, order_in_quiz, max_score, answer_tolerance) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?)";
         try (PreparedStatement preparedStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
-            preparedStatement.setInt(1, question.getQuizId());
-            preparedStatement.setString(2, question.getQuestionText());
-            preparedStatement.setString(3, question.getQuestionType());
-            preparedStatement.setString(4, question.getImageUrl());
-            preparedStatement.setInt(5, question.getOrderInQuiz());
-            preparedStatement.setDouble(6, question.getMaxScore());
-            int rows = preparedStatement.executeUpdate();
-            if (rows == 0) {
-                return false;
+            for (Question question : questions) {
+                preparedStatement.setInt(1, question.getQuizId());
+                preparedStatement.setString(2, question.getQuestionText());
+                preparedStatement.setString(3, question.getQuestionType());
+                preparedStatement.setString(4, question.getImageUrl());
+                preparedStatement.setInt(5, question.getOrderInQuiz());
+                preparedStatement.setDouble(6, question.getMaxScore());
+                preparedStatement.setInt(7, question.getAnswerTolerance());
+                preparedStatement.addBatch();
             }
+            preparedStatement.executeBatch();
             try (ResultSet resultSet = preparedStatement.getGeneratedKeys()) {
-                if (resultSet.next()) {
-                    question.setQuestionId(resultSet.getInt(1));
-                    return true;
-                } else {
-                    return false;
+                int inserted = 0;
+                while (inserted < questions.size() && resultSet.next()) {
+                    questions.get(inserted++).setQuestionId(resultSet.getInt(1));
                 }
+                return inserted == questions.size();
             }
         }
     }
 
+    /*
+     * Reads the answer tolerance of a question row within the range the questions accept.
+     * V9 checks the range, but MySQL before 8.0.16 ignores CHECK constraints, and an out-of-range
+     * value would make the question impossible to build and its whole quiz impossible to load.
+     */
+    static int getAnswerTolerance(ResultSet resultSet) throws SQLException {
+        return Math.max(0, Math.min(AnswerMatcher.MAX_TOLERANCE, resultSet.getInt("answer_tolerance")));
+    }
+
+    //helper method, gives the questions back the ids they had before a failed insert
+    private void restoreQuestionIds(List<Question> questions, int[] previousIds) {
+        for (int i = 0; i < questions.size(); i++) {
+            questions.get(i).setQuestionId(previousIds[i]);
+        }
+    }
+
     /**
      * Changes the question to a new Question. The id and a quiz_id remain the same.
+     * The question row and its answers are replaced in one transaction.
      * @param question A new question containing quiz_id and a question_id of an old question
      * @return returns boolean indicating if the operation was successful or not
      */
     public final boolean updateQuestion(Question question) {
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement preparedStatement = connection.prepareStatement(
-                     "UPDATE Questions SET question_text = ?, question_type = ?, order_in_quiz = ?, max_score = ?, image_url = ? WHERE question_id = ?");
-             PreparedStatement preparedStatement2 = connection.prepareStatement("DELETE FROM " + getAnswerTableName() +
-                     " WHERE question_id = ?")) {
-            preparedStatement.setString(1, question.getQuestionText());
-            preparedStatement.setString(2, question.getQuestionType());
-            preparedStatement.setInt(3, question.getOrderInQuiz());
-            preparedStatement.setDouble(4, question.getMaxScore());
-            preparedStatement.setString(5, question.getImageUrl());
-            preparedStatement.setInt(6, question.getQuestionId());
-            int rows = preparedStatement.executeUpdate();
-            if (rows == 0) {
-                return false;
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                         "UPDATE Questions SET question_text = ?, question_type = ?, order_in_quiz = ?, max_score = ?, image_url = ?, " +
+                                 "answer_tolerance = ? WHERE question_id = ?");
+                 PreparedStatement preparedStatement2 = connection.prepareStatement("DELETE FROM " + getAnswerTableName() +
+                         " WHERE question_id = ?")) {
+                preparedStatement.setString(1, question.getQuestionText());
+                preparedStatement.setString(2, question.getQuestionType());
+                preparedStatement.setInt(3, question.getOrderInQuiz());
+                preparedStatement.setDouble(4, question.getMaxScore());
+                preparedStatement.setString(5, question.getImageUrl());
+                preparedStatement.setInt(6, question.getAnswerTolerance());
+                preparedStatement.setInt(7, question.getQuestionId());
+                int rows = preparedStatement.executeUpdate();
+                if (rows == 0) {
+                    connection.rollback();
+                    return false;
+                }
+                preparedStatement2.setInt(1, question.getQuestionId());
+                preparedStatement2.executeUpdate();
+                insertAnswersIntoDB(Collections.singletonList(question), connection);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
             }
-            preparedStatement2.setInt(1, question.getQuestionId());
-            preparedStatement2.executeUpdate();
-            insertAnswersIntoDB(question.getQuestionId(), question, connection);
-            return true;
         } catch (SQLIntegrityConstraintViolationException e) {
             return false;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
+        QuizCache.getInstance().invalidate(question.getQuizId());
+        QuizSearchIndex.getInstance().quizChanged(question.getQuizId());
+        return true;
     }
     /**
      * Deletes the question from the database
@@ -129,15 +201,29 @@ public abstract class AbstractQuestionDao {
      * @return returns boolean based on if the operation was successful or not
      */
     public final boolean deleteQuestion(int questionId) {
+        int quizId = 0;
+        int rows;
         try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement selectQuiz = connection.prepareStatement("SELECT quiz_id FROM Questions WHERE question_id = ?");
             PreparedStatement preparedStatement = connection.prepareStatement("DELETE FROM Questions WHERE question_id = ?")){
+            // the quiz is needed to take the question text out of the search index
+            selectQuiz.setInt(1, questionId);
+            try (ResultSet resultSet = selectQuiz.executeQuery()) {
+                if (resultSet.next()) {
+                    quizId = resultSet.getInt(1);
+                }
+            }
             preparedStatement.setInt(1, questionId);
-            int rows = preparedStatement.executeUpdate();
-            return rows != 0;
+            rows = preparedStatement.executeUpdate();
         }catch(SQLException e){
             e.printStackTrace();
             return false;
         }
+        QuizCache.getInstance().invalidateQuestion(questionId);
+        if (rows != 0 && quizId != 0) {
+            QuizSearchIndex.getInstance().quizChanged(quizId);
+        }
+        return rows != 0;
     }
 
     /**
@@ -158,7 +244,8 @@ public abstract class AbstractQuestionDao {
                     String imageUrl = resultSet.getString("image_url");
                     int orderInQuiz = resultSet.getInt("order_in_quiz");
                     double maxScore = resultSet.getDouble("max_score");
-                    Question q = createQuestionObject(questionId, questionText, answers, quizId, orderInQuiz, maxScore, imageUrl);
+                    int answerTolerance = getAnswerTolerance(resultSet);
+                    Question q = createQuestionObject(questionId, questionText, answers, quizId, orderInQuiz, maxScore, imageUrl, answerTolerance);
                     q.setImageUrl(imageUrl);
                     questions.add(q);
                 }
@@ -180,13 +267,29 @@ public abstract class AbstractQuestionDao {
     protected abstract Object getAnswersFromDB(Connection connection, int questionId) throws SQLException;
 
     /**
-     * Inserts answers into the appropriate database table for this question type.
-     * @param questionId the question ID to associate answers with
-     * @param question the question containing answers to insert
+     * Retrieves with a single query the answers of every question of the quiz that stores
+     * its answers in this type's answer table.
+     * @param connection active database connection
+     * @param quizId the quiz whose answers to retrieve
+     * @return answers keyed by question ID, each in the format returned by getAnswersFromDB
+     * @throws SQLException if database error occurs
+     */
+    protected abstract Map<Integer, Object> getAnswersForQuizFromDB(Connection connection, int quizId) throws SQLException;
+
+    /**
+     * Returns the answers of a question that has no rows in the answer table.
+     * @return empty answers in question-type-specific format
+     */
+    protected abstract Object emptyAnswers();
+
+    /**
+     * Inserts the answers of the questions into the appropriate database table for this question type,
+     * adding the rows of all the questions to one JDBC batch.
+     * @param questions the questions containing answers to insert, their ids are already assigned
      * @param connection active database connection
      * @throws SQLException if database error occurs
      */
-    protected abstract void insertAnswersIntoDB(int questionId, Question question, Connection connection) throws SQLException;
+    protected abstract void insertAnswersIntoDB(List<Question> questions, Connection connection) throws SQLException;
 
     /**
      * Creates a concrete question object of the appropriate subtype.
@@ -196,9 +299,10 @@ public abstract class AbstractQuestionDao {
      * @param answers the answers in the format returned by getAnswersFromDB
      * @param quizId the quiz this question belongs to
      * @param orderInQuiz The N of a question in a quiz
+     * @param answerTolerance the most typos a typed answer may have, ignored by the types without typed answers
      * @return concrete Question instance
      */
-    protected abstract Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl);
+    protected abstract Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl, int answerTolerance);
 
     /**
      * Returns the database table name where this question type stores its answers.
@@ -7,8 +7,11 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Properties;
+import java.util.Set;
 
 
 /**
@@ -172,4 +175,108 @@ public class AchievementsDao {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Gets every achievement definition.
+     *
+     * @return A list of all the Achievements.
+     * @throws RuntimeException if a database error occurs.
+     */
+    public List<Achievements> getAllAchievements() {
+        List<Achievements> result = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement pS = connection.prepareStatement("SELECT * FROM Achievements");
+             ResultSet rs = pS.executeQuery()) {
+            while (rs.next()) {
+                result.add(new Achievements(
+                        rs.getInt("achievement_id"),
+                        rs.getString("name"),
+                        rs.getString("description"),
+                        rs.getString("icon_url")
+                ));
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Gets the ids of the achievements a user has earned.
+     *
+     * @param userId The ID of the user.
+     * @return The set of achievement ids the user has earned.
+     * @throws RuntimeException if a database error occurs.
+     */
+    public Set<Integer> getUserAchievementIds(int userId) {
+        Set<Integer> result = new HashSet<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement pS = connection.prepareStatement("SELECT achievement_id FROM UserAchievements WHERE user_id = ?")){
+            pS.setInt(1, userId);
+            try (ResultSet rs = pS.executeQuery()) {
+                while (rs.next()) {
+                    result.add(rs.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return result;
+    }
+
+    /**
+     * Retrieves the activity counts the achievements are based on, in one query.
+     *
+     * @param userId The ID of the user.
+     * @return The number of quizzes the user created and the number of attempts the user completed, in this order.
+     * @throws RuntimeException if a database error occurs.
+     */
+    public int[] getActivityCounts(int userId) {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement pS = connection.prepareStatement("SELECT " +
+                     "(SELECT COUNT(*) FROM Quizzes WHERE creator_user_id = ?), " +
+                     "(SELECT COUNT(*) FROM UserQuizAttempts WHERE user_id = ? AND end_time IS NOT NULL AND NOT is_practice)")){
+            pS.setInt(1, userId);
+            pS.setInt(2, userId);
+            try (ResultSet rs = pS.executeQuery()) {
+                rs.next();
+                return new int[]{rs.getInt(1), rs.getInt(2)};
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Assigns several achievements to a user with one batch of INSERT IGNORE statements,
+     * achievements the user already has are skipped by the database.
+     *
+     * @param userId         The ID of the user to whom the achievements will be given.
+     * @param achievementIds The ids of the achievements to assign.
+     * @return The number of achievements that were newly assigned.
+     * @throws RuntimeException if a database error occurs.
+     */
+    public int giveAchievementsToUser(int userId, Collection<Integer> achievementIds) {
+        if (achievementIds.isEmpty()) {
+            return 0;
+        }
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement pS = connection.prepareStatement("INSERT IGNORE INTO UserAchievements (user_id, achievement_id) VALUES (?, ?)")){
+            for (int achievementId : achievementIds) {
+                pS.setInt(1, userId);
+                pS.setInt(2, achievementId);
+                pS.addBatch();
+            }
+            int given = 0;
+            for (int rows : pS.executeBatch()) {
+                // rewritten batches report SUCCESS_NO_INFO instead of a row count
+                if (rows > 0 || rows == java.sql.Statement.SUCCESS_NO_INFO) {
+                    given += rows > 0 ? rows : 1;
+                }
+            }
+            return given;
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package dao;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Bounded in-memory map in least recently used order, behind the caches of the DAOs and services.
+ * Once more than maxSize entries are held the least recently used one is evicted.
+ * A value read from the database while its rows change may be stale, so loads are tracked:
+ * beginLoad is called before reading and finishLoad after, a remove, changed, removeIf or clear
+ * in between drops the load and its value is returned but not kept.
+ * Thread safe, every method locks the cache.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the cached values
+ */
+public class BoundedLruCache<K, V> {
+    private final LinkedHashMap<K, V> entries;
+    // the loads in progress by key, the last one begun for each key
+    private final Map<K, Object> loads = new HashMap<>();
+    private long evictions;
+
+    /**
+     * @param maxSize the maximum number of entries kept
+     */
+    public BoundedLruCache(int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                if (size() <= maxSize) {
+                    return false;
+                }
+                evictions++;
+                return true;
+            }
+        };
+    }
+
+    /**
+     * @return the value of a key, marked most recently used, or null if it is not cached
+     */
+    public synchronized V get(K key) {
+        return entries.get(key);
+    }
+
+    /**
+     * Caches a value computed from data that can not have changed meanwhile, evicting the least recently used one if full.
+     */
+    public synchronized void put(K key, V value) {
+        entries.put(key, value);
+    }
+
+    /**
+     * Starts tracking a load of a key from the database.
+     * @return the load, to pass to finishLoad
+     */
+    public synchronized Object beginLoad(K key) {
+        Object load = new Object();
+        loads.put(key, load);
+        return load;
+    }
+
+    /**
+     * Ends a load and caches its value, unless the key changed since beginLoad.
+     * @param key the loaded key
+     * @param load the load returned by beginLoad
+     * @param value the loaded value, null if none was found, which is not cached
+     * @return the value cached by another load meanwhile if there is one, otherwise the given value
+     */
+    public synchronized V finishLoad(K key, Object load, V value) {
+        boolean current = loads.remove(key, load);
+        V cached = entries.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        if (current && value != null) {
+            entries.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Records a change to the rows of a key whose cached value was updated in place,
+     * so a load in progress and a value loaded while the change was being stored are not kept.
+     * @param key the changed key
+     * @param updated the cached value the change was applied to
+     */
+    public synchronized void changed(K key, V updated) {
+        loads.remove(key);
+        if (entries.get(key) != updated) {
+            entries.remove(key);
+        }
+    }
+
+    /**
+     * Drops a key, it is loaded again on next use.
+     * @return the value that was cached, or null
+     */
+    public synchronized V remove(K key) {
+        loads.remove(key);
+        return entries.remove(key);
+    }
+
+    /**
+     * Drops the values matching a filter, with every load in progress since any key may match.
+     */
+    public synchronized void removeIf(Predicate<? super V> filter) {
+        loads.clear();
+        entries.values().removeIf(filter);
+    }
+
+    /**
+     * Drops every value and every load in progress.
+     */
+    public synchronized void clear() {
+        loads.clear();
+        entries.clear();
+    }
+
+    /**
+     * @return the number of cached values
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return how many values were dropped to keep the cache within its bound
+     */
+    public synchronized long getEvictionCount() {
+        return evictions;
+    }
+}
@@ -0,0 +1,388 @@
+package dao;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Bounded pool of JDBC connections.
+ * At most maxSize physical connections are open at any time; callers that find the pool
+ * exhausted wait up to connectionTimeoutMs before getting an SQLException.
+ * Borrowed connections are handed out as proxies whose close() returns the physical
+ * connection to the pool instead of closing it, so DAO code keeps using try-with-resources.
+ * Idle connections are validated on borrow and retired after idleTimeoutMs or maxLifetimeMs.
+ * A background housekeeper reports connections held longer than leakDetectionThresholdMs
+ * and keeps at least minIdle connections open.
+ */
+class ConnectionPool implements ConnectionPoolMXBean {
+    private static final Logger LOGGER = Logger.getLogger(ConnectionPool.class.getName());
+
+    /**
+     * Opens a new physical connection to the database.
+     */
+    @FunctionalInterface
+    interface ConnectionFactory {
+        Connection create() throws SQLException;
+    }
+
+    private final ConnectionFactory factory;
+    private final int maxSize;
+    private final int minIdle;
+    private final long connectionTimeoutMillis;
+    private final int validationTimeoutSeconds;
+    private final boolean validateOnBorrow;
+    private final long idleTimeoutMillis;
+    private final long maxLifetimeMillis;
+    private final long leakDetectionThresholdMillis;
+
+    private final Semaphore permits;
+    private final LinkedBlockingDeque<PooledConnection> idle = new LinkedBlockingDeque<>();
+    private final Set<PooledConnection> active = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService housekeeper;
+    private volatile boolean closed;
+
+    private final AtomicInteger threadsAwaiting = new AtomicInteger();
+    private final AtomicLong waitCount = new AtomicLong();
+    private final AtomicLong totalWaitNanos = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+    private final AtomicLong validationFailureCount = new AtomicLong();
+    private final AtomicLong leakCount = new AtomicLong();
+
+    /**
+     * Creates the pool. Settings are read from the db.pool.* keys of the given properties,
+     * missing keys fall back to defaults.
+     * @param factory opens physical connections
+     * @param properties configuration, usually the contents of config.properties
+     */
+    ConnectionPool(ConnectionFactory factory, Properties properties) {
+        this.factory = factory;
+        this.maxSize = intProperty(properties, "db.pool.maxSize", 10);
+        this.minIdle = Math.min(intProperty(properties, "db.pool.minIdle", 2), maxSize);
+        this.connectionTimeoutMillis = longProperty(properties, "db.pool.connectionTimeoutMs", 30_000);
+        this.validationTimeoutSeconds = intProperty(properties, "db.pool.validationTimeoutSeconds", 2);
+        this.validateOnBorrow = Boolean.parseBoolean(properties.getProperty("db.pool.validateOnBorrow", "true"));
+        this.idleTimeoutMillis = longProperty(properties, "db.pool.idleTimeoutMs", 600_000);
+        this.maxLifetimeMillis = longProperty(properties, "db.pool.maxLifetimeMs", 1_800_000);
+        this.leakDetectionThresholdMillis = longProperty(properties, "db.pool.leakDetectionThresholdMs", 0);
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("db.pool.maxSize must be at least 1");
+        }
+        this.permits = new Semaphore(maxSize, true);
+
+        long housekeepingPeriod = longProperty(properties, "db.pool.housekeepingPeriodMs", 30_000);
+        this.housekeeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "connection-pool-housekeeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        housekeeper.scheduleWithFixedDelay(this::houseKeep, housekeepingPeriod, housekeepingPeriod, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Borrows a connection, waiting up to connectionTimeoutMs if all connections are in use.
+     * The returned connection must be closed to give it back to the pool.
+     * @return a validated connection
+     * @throws SQLException if the pool is closed, the wait timed out or no connection could be opened
+     */
+    Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool has been shut down");
+        }
+        acquirePermit();
+        try {
+            PooledConnection pooled = takeIdle();
+            if (pooled == null) {
+                pooled = new PooledConnection(factory.create());
+            }
+            Connection connection = pooled.lease(leakDetectionThresholdMillis > 0);
+            active.add(pooled);
+            return connection;
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    //Takes a permit for one open connection, recording the wait if the pool was exhausted
+    private void acquirePermit() throws SQLException {
+        if (permits.tryAcquire()) {
+            return;
+        }
+        long start = System.nanoTime();
+        threadsAwaiting.incrementAndGet();
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(connectionTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a database connection", e);
+        } finally {
+            threadsAwaiting.decrementAndGet();
+            waitCount.incrementAndGet();
+            totalWaitNanos.addAndGet(System.nanoTime() - start);
+        }
+        if (!acquired) {
+            timeoutCount.incrementAndGet();
+            throw new SQLException("Timed out after " + connectionTimeoutMillis + "ms waiting for a database connection ("
+                    + getActiveConnections() + " active, max " + maxSize + ")");
+        }
+    }
+
+    //Returns the most recently used idle connection that is still usable, discarding stale ones
+    private PooledConnection takeIdle() {
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            if (isExpired(pooled, System.currentTimeMillis())) {
+                pooled.closePhysical();
+                continue;
+            }
+            if (validateOnBorrow && !isValid(pooled)) {
+                validationFailureCount.incrementAndGet();
+                pooled.closePhysical();
+                continue;
+            }
+            return pooled;
+        }
+        return null;
+    }
+
+    private boolean isValid(PooledConnection pooled) {
+        try {
+            return pooled.physical.isValid(validationTimeoutSeconds);
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private boolean isExpired(PooledConnection pooled, long now) {
+        return (maxLifetimeMillis > 0 && now - pooled.createdAt > maxLifetimeMillis)
+                || (idleTimeoutMillis > 0 && now - pooled.lastReturnedAt > idleTimeoutMillis);
+    }
+
+    /*
+     * Called when a borrowed proxy is closed. Rolls back anything left uncommitted,
+     * restores auto-commit and puts the connection back on the idle stack.
+     */
+    private void giveBack(PooledConnection pooled) {
+        active.remove(pooled);
+        try {
+            boolean reusable = !closed && !pooled.physical.isClosed();
+            if (reusable && !pooled.physical.getAutoCommit()) {
+                pooled.physical.rollback();
+                pooled.physical.setAutoCommit(true);
+            }
+            pooled.lastReturnedAt = System.currentTimeMillis();
+            if (reusable && !isExpired(pooled, pooled.lastReturnedAt)) {
+                idle.offerFirst(pooled);
+            } else {
+                pooled.closePhysical();
+            }
+        } catch (SQLException e) {
+            pooled.closePhysical();
+        } finally {
+            permits.release();
+        }
+    }
+
+    /*
+     * Periodic maintenance: reports leaked connections, retires idle connections that
+     * timed out and opens new ones until minIdle are available, never more than maxSize in all.
+     */
+    void houseKeep() {
+        long now = System.currentTimeMillis();
+        if (leakDetectionThresholdMillis > 0) {
+            for (PooledConnection pooled : active) {
+                if (!pooled.leakReported && now - pooled.borrowedAt > leakDetectionThresholdMillis) {
+                    pooled.leakReported = true;
+                    leakCount.incrementAndGet();
+                    LOGGER.log(Level.WARNING, "Connection held for " + (now - pooled.borrowedAt)
+                            + "ms without being closed, possible leak", pooled.borrowSite);
+                }
+            }
+        }
+        for (PooledConnection pooled : idle) {
+            if (isExpired(pooled, now) && idle.remove(pooled)) {
+                pooled.closePhysical();
+            }
+        }
+        // a borrower holds its permit from before it opens a connection until it gives it back, and is not active
+        // until the connection is open, so the connections being opened are counted by the permits taken
+        while (!closed && idle.size() < minIdle && idle.size() + (maxSize - permits.availablePermits()) < maxSize
+                && permits.tryAcquire()) {
+            try {
+                idle.offerLast(new PooledConnection(factory.create()));
+            } catch (SQLException e) {
+                LOGGER.log(Level.WARNING, "Could not open idle database connection", e);
+                break;
+            } finally {
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Closes all idle connections and stops the housekeeper. Connections still borrowed
+     * are closed when they are given back.
+     */
+    void shutdown() {
+        closed = true;
+        housekeeper.shutdownNow();
+        PooledConnection pooled;
+        while ((pooled = idle.pollFirst()) != null) {
+            pooled.closePhysical();
+        }
+    }
+
+    @Override
+    public int getActiveConnections() {
+        return active.size();
+    }
+
+    @Override
+    public int getIdleConnections() {
+        return idle.size();
+    }
+
+    @Override
+    public int getTotalConnections() {
+        return getActiveConnections() + getIdleConnections();
+    }
+
+    @Override
+    public int getMaxPoolSize() {
+        return maxSize;
+    }
+
+    @Override
+    public int getThreadsAwaitingConnection() {
+        return threadsAwaiting.get();
+    }
+
+    @Override
+    public long getWaitCount() {
+        return waitCount.get();
+    }
+
+    @Override
+    public long getTotalWaitTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(totalWaitNanos.get());
+    }
+
+    @Override
+    public long getTimeoutCount() {
+        return timeoutCount.get();
+    }
+
+    @Override
+    public long getValidationFailureCount() {
+        return validationFailureCount.get();
+    }
+
+    @Override
+    public long getLeakCount() {
+        return leakCount.get();
+    }
+
+    private static int intProperty(Properties properties, String key, int defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Integer.parseInt(value.trim());
+    }
+
+    private static long longProperty(Properties properties, String key, long defaultValue) {
+        String value = properties.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : Long.parseLong(value.trim());
+    }
+
+    /*
+     * A physical connection together with its pooling state.
+     * Every borrow gets its own Lease proxy, so a caller that keeps a reference after
+     * closing it cannot use the connection once another caller has borrowed it.
+     */
+    private final class PooledConnection {
+        private final Connection physical;
+        private final long createdAt;
+        private volatile long lastReturnedAt;
+        private volatile long borrowedAt;
+        private volatile Throwable borrowSite;
+        private volatile boolean leakReported;
+
+        PooledConnection(Connection physical) {
+            this.physical = physical;
+            this.createdAt = System.currentTimeMillis();
+            this.lastReturnedAt = createdAt;
+        }
+
+        Connection lease(boolean recordBorrowSite) {
+            borrowedAt = System.currentTimeMillis();
+            borrowSite = recordBorrowSite ? new Throwable("Connection borrowed here") : null;
+            leakReported = false;
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[]{Connection.class}, new Lease(this));
+        }
+
+        void closePhysical() {
+            try {
+                physical.close();
+            } catch (SQLException ignored) {
+                // the connection is being discarded anyway
+            }
+        }
+    }
+
+    /*
+     * Handler behind the Connection a caller receives. close() gives the physical
+     * connection back exactly once, every other call is forwarded while the lease is open.
+     */
+    private final class Lease implements InvocationHandler {
+        private final PooledConnection pooled;
+        private final AtomicBoolean returned = new AtomicBoolean();
+
+        Lease(PooledConnection pooled) {
+            this.pooled = pooled;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    if (returned.compareAndSet(false, true)) {
+                        giveBack(pooled);
+                    }
+                    return null;
+                case "isClosed":
+                    return returned.get() || pooled.physical.isClosed();
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + pooled.physical;
+                default:
+                    if (returned.get()) {
+                        throw new SQLException("Connection is closed");
+                    }
+                    try {
+                        return method.invoke(pooled.physical, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package dao;
+
+/**
+ * Management interface of the JDBC connection pool.
+ * Registered with the platform MBean server as {@code dao:type=ConnectionPool}
+ * so pool usage can be watched from JConsole/VisualVM or scraped by a JMX exporter.
+ */
+public interface ConnectionPoolMXBean {
+
+    /**
+     * @return the number of connections currently borrowed by callers
+     */
+    int getActiveConnections();
+
+    /**
+     * @return the number of open connections sitting in the pool, ready to be borrowed
+     */
+    int getIdleConnections();
+
+    /**
+     * @return active plus idle connections
+     */
+    int getTotalConnections();
+
+    /**
+     * @return the configured upper bound of open connections
+     */
+    int getMaxPoolSize();
+
+    /**
+     * @return the number of threads currently blocked waiting for a connection
+     */
+    int getThreadsAwaitingConnection();
+
+    /**
+     * @return how many borrows had to wait because the pool was exhausted
+     */
+    long getWaitCount();
+
+    /**
+     * @return the total time in milliseconds callers spent waiting for a connection
+     */
+    long getTotalWaitTimeMillis();
+
+    /**
+     * @return how many borrows gave up because no connection became free in time
+     */
+    long getTimeoutCount();
+
+    /**
+     * @return how many connections failed validation on borrow and were discarded
+     */
+    long getValidationFailureCount();
+
+    /**
+     * @return how many connections were held longer than the leak detection threshold
+     */
+    long getLeakCount();
+}
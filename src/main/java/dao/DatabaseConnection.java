@@ -1,10 +1,17 @@
 package dao;
 
 import java.io.InputStream;
+import java.lang.management.ManagementFactory;
 import java.sql.Connection;
 import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.Properties;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
 
 
 public class DatabaseConnection {
@@ -12,6 +19,9 @@ public class DatabaseConnection {
     private static final String URL = properties.getProperty("db.url");
     private static final String USERNAME = properties.getProperty("db.username");
     private static final String PASSWORD = properties.getProperty("db.password");
+    private static final String MBEAN_NAME = "dao:type=ConnectionPool";
+    // set once the shared pool exists, so shutdown does not create one just to close it
+    private static volatile boolean poolCreated;
 
     /*
      * loading database properties like URL, USERNAME, PASSWORD from config.properties file
@@ -31,7 +41,68 @@ public class DatabaseConnection {
     }
 
     /**
-     * Tries to establish connection with the database.
+     * @param key the name of a setting in config.properties
+     * @param defaultValue the value to return when the setting is missing
+     * @return the value of the setting, or the default if it is not set
+     */
+    public static String getProperty(String key, String defaultValue) {
+        return properties.getProperty(key, defaultValue);
+    }
+
+    /*
+     * Holder of the shared pool, created on first use so the JDBC driver is loaded once
+     * and the MBean is only registered when the database is actually used.
+     */
+    private static class PoolHolder {
+        private static final ConnectionPool POOL = createPool();
+
+        private static ConnectionPool createPool() {
+            loadDriver();
+            Properties connectionProperties = connectionProperties();
+            ConnectionPool pool = new ConnectionPool(() -> DriverManager.getConnection(URL, connectionProperties), properties);
+            try {
+                MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+                ObjectName name = new ObjectName(MBEAN_NAME);
+                if (!server.isRegistered(name)) {
+                    server.registerMBean(new StandardMBean(pool, ConnectionPoolMXBean.class, true), name);
+                }
+            } catch (JMException e) {
+                e.printStackTrace();
+            }
+            poolCreated = true;
+            return pool;
+        }
+    }
+
+    /*
+     * The properties every physical connection is opened with. rewriteBatchedStatements lets the
+     * driver send a JDBC batch of inserts as multi-row INSERT statements instead of one per row,
+     * it is on unless config.properties turns it off.
+     */
+    private static Properties connectionProperties() {
+        Properties connectionProperties = new Properties();
+        if (USERNAME != null) {
+            connectionProperties.setProperty("user", USERNAME);
+        }
+        if (PASSWORD != null) {
+            connectionProperties.setProperty("password", PASSWORD);
+        }
+        connectionProperties.setProperty("rewriteBatchedStatements",
+                properties.getProperty("db.rewriteBatchedStatements", "true"));
+        return connectionProperties;
+    }
+
+    private static void loadDriver() {
+        try {
+            Class.forName("com.mysql.cj.jdbc.Driver");
+        } catch (ClassNotFoundException e) {
+            throw new RuntimeException("Could not load JDBC driver " + e.getMessage());
+        }
+    }
+
+    /**
+     * Borrows a connection from the shared connection pool.
+     * Closing the returned connection gives it back to the pool.
      * @return the connection
      * @throws RuntimeException if the connection could not be established or
      * the JDBC driver could not be loaded
@@ -40,20 +111,68 @@ public class DatabaseConnection {
         return getConnection(true);
     }
 
+    /**
+     * @param includeDbName false to connect to the server without selecting the database,
+     * such connections are not pooled and are meant for creating the database itself
+     * @return the connection
+     * @throws RuntimeException if the connection could not be established or
+     * the JDBC driver could not be loaded
+     */
     public static Connection getConnection(boolean includeDbName) {
         try {
-            Class.forName("com.mysql.cj.jdbc.Driver");
-        } catch (ClassNotFoundException e) {
-            throw new RuntimeException("Could not load JDBC driver " + e.getMessage());
-        }
-        try {
-            String url = includeDbName ? URL : URL.substring(0, URL.lastIndexOf('/'));
-            return DriverManager.getConnection(url, USERNAME, PASSWORD);
+            if (includeDbName) {
+                return PoolHolder.POOL.borrow();
+            }
+            loadDriver();
+            return DriverManager.getConnection(URL.substring(0, URL.lastIndexOf('/')), USERNAME, PASSWORD);
         } catch (SQLException e) {
             throw new RuntimeException("Could not establish connection with the database " + e.getMessage());
         }
     }
 
+    /**
+     * Prepares a query whose rows are streamed: the MySQL driver hands them out one at a time
+     * instead of reading them all into memory, for reading whole tables.
+     * The connection can not run another statement until the result set is closed.
+     * @param connection the connection to prepare the query on
+     * @param query the SQL query
+     * @return the prepared statement
+     * @throws SQLException if the statement could not be prepared
+     */
+    public static PreparedStatement prepareStreaming(Connection connection, String query) throws SQLException {
+        PreparedStatement preparedStatement = connection.prepareStatement(query,
+                ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+        preparedStatement.setFetchSize(Integer.MIN_VALUE);
+        return preparedStatement;
+    }
+
+    /**
+     * @return live metrics of the shared connection pool
+     */
+    public static ConnectionPoolMXBean getPoolMetrics() {
+        return PoolHolder.POOL;
+    }
+
+    /**
+     * Closes the pooled connections, should be called when the application stops.
+     * Does nothing if the database was never used.
+     */
+    public static void shutdown() {
+        if (!poolCreated) {
+            return;
+        }
+        PoolHolder.POOL.shutdown();
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
     /**
      * Tests if the connection is active
      * @return boolean indicating if connection is valid or not
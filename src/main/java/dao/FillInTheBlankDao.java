@@ -1,11 +1,14 @@
 package dao;
 
+import models.AnswerNormalizer;
 import models.FillInTheBlankQuestion;
 import models.Question;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Data access object for fill-in-the-blank questions.
@@ -35,26 +38,55 @@ public class FillInTheBlankDao extends AbstractQuestionDao {
     }
 
     @Override
-    protected void insertAnswersIntoDB(int questionId, Question question, Connection connection) throws SQLException {
-        FillInTheBlankQuestion currQuestion = (FillInTheBlankQuestion) question;
-        List<HashSet<String>> answersList = currQuestion.getCorrectAnswers();
+    protected Map<Integer, Object> getAnswersForQuizFromDB(Connection connection, int quizId) throws SQLException {
+        Map<Integer, Object> answers = new HashMap<>();
+        String query = "SELECT f.question_id, f.blank_index, f.acceptable_answer FROM FillInBlankAnswers f " +
+                "JOIN Questions q ON q.question_id = f.question_id WHERE q.quiz_id = ?";
+        try(PreparedStatement preparedStatement = connection.prepareStatement(query)){
+            preparedStatement.setInt(1, quizId);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                while (resultSet.next()) {
+                    ArrayList<HashSet<String>> answersList = (ArrayList<HashSet<String>>) answers.computeIfAbsent(
+                            resultSet.getInt("question_id"), id -> new ArrayList<HashSet<String>>());
+                    int blankIndex = resultSet.getInt("blank_index");
+                    while (answersList.size() <= blankIndex) {
+                        answersList.add(new HashSet<>());
+                    }
+                    answersList.get(blankIndex).add(resultSet.getString("acceptable_answer"));
+                }
+            }
+        }
+        return answers;
+    }
+
+    @Override
+    protected Object emptyAnswers() {
+        return new ArrayList<HashSet<String>>();
+    }
+
+    @Override
+    protected void insertAnswersIntoDB(List<Question> questions, Connection connection) throws SQLException {
         String query = "INSERT INTO FillInBlankAnswers (question_id, blank_index, acceptable_answer) VALUES (?, ?, ?)";
         try(PreparedStatement preparedStatement = connection.prepareStatement(query)){
-            for(int i = 0; i < answersList.size(); i++) {
-                HashSet<String> answers = answersList.get(i);
-                for(String answer : answers) {
-                    preparedStatement.setInt(1, questionId);
-                    preparedStatement.setInt(2, i);
-                    preparedStatement.setString(3, answer);
-                    preparedStatement.executeUpdate();
+            for (Question question : questions) {
+                List<HashSet<String>> answersList = ((FillInTheBlankQuestion) question).getCorrectAnswers();
+                for(int i = 0; i < answersList.size(); i++) {
+                    for(String answer : answersList.get(i)) {
+                        preparedStatement.setInt(1, question.getQuestionId());
+                        preparedStatement.setInt(2, i);
+                        preparedStatement.setString(3, answer);
+                        preparedStatement.addBatch();
+                    }
                 }
             }
+            preparedStatement.executeBatch();
         }
     }
 
     @Override
-    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl) {
-        return new FillInTheBlankQuestion(questionId, questionText, (ArrayList<HashSet<String>>)answers, quizId, orderInQuiz, maxScore);
+    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl, int answerTolerance) {
+        return new FillInTheBlankQuestion(questionId, questionText, (ArrayList<HashSet<String>>)answers, quizId, orderInQuiz, maxScore,
+                AnswerNormalizer.DEFAULT, answerTolerance);
     }
 
     @Override
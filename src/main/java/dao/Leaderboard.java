@@ -0,0 +1,314 @@
+package dao;
+
+import models.QuizAttempt;
+
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Materialized per-quiz leaderboards: the best SIZE attempts of all time, the best SIZE attempts
+ * started in the last 24 hours and the SIZE latest completions.
+ * QuizAttemptDao.completeAttempt feeds every completed attempt in, practice attempts excepted,
+ * so the boards are maintained incrementally and reading one costs O(SIZE) without touching the attempts table.
+ * The all-time and recent boards are stored in the LeaderboardEntries summary table, a quiz's boards are
+ * loaded from there on first use and kept in memory, the least recently used quizzes are dropped once
+ * more than the configured number are held. Today's board is served by the TodaysTopPerformers sliding window.
+ * Attempts completed or deleted without going through QuizAttemptDao are not seen, call invalidate
+ * (or invalidateAll) after such changes.
+ */
+public class Leaderboard {
+    /** The number of attempts on each board, V3__leaderboard_entries.sql stores this many. */
+    public static final int SIZE = 10;
+    static final String ALL_TIME = "ALL_TIME";
+    static final String RECENT = "RECENT";
+    static final String BOARD_QUERY = "SELECT e.board, a.* FROM LeaderboardEntries e " +
+            "JOIN UserQuizAttempts a ON a.attempt_id = e.attempt_id WHERE e.quiz_id = ?";
+
+    private static final SharedInstance<Leaderboard> INSTANCE = new SharedInstance<>(() -> new Leaderboard(
+            Integer.parseInt(DatabaseConnection.getProperty("leaderboard.maxQuizzes", "1024"))));
+
+    private final BoundedLruCache<Integer, QuizLeaderboard> boards;
+
+    /**
+     * @param maxQuizzes the maximum number of quizzes whose boards are kept in memory
+     */
+    public Leaderboard(int maxQuizzes) {
+        this.boards = new BoundedLruCache<>(maxQuizzes);
+    }
+
+    /**
+     * @return the leaderboard shared by all the DAOs
+     */
+    public static Leaderboard getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Retrieves the best attempts of a quiz, by score descending, then time taken ascending.
+     * @param quizId the ID of the quiz
+     * @param limit maximum number of attempts to return, at most SIZE are available
+     * @return list of the best QuizAttempt objects, empty if the board could not be loaded
+     */
+    public List<QuizAttempt> getTopPerformers(int quizId, int limit) {
+        QuizLeaderboard board = getBoard(quizId);
+        if (board == null) {
+            return new ArrayList<>();
+        }
+        synchronized (board) {
+            return board.top(limit);
+        }
+    }
+
+    /**
+     * Retrieves the best attempts of a quiz started in the last 24 hours, from the TodaysTopPerformers
+     * sliding window, by score descending, then time taken ascending.
+     * @param quizId the ID of the quiz
+     * @param limit maximum number of attempts to return, at most SIZE are available
+     * @return list of the best QuizAttempt objects of the last 24 hours
+     */
+    public List<QuizAttempt> getTodaysTopPerformers(int quizId, int limit) {
+        return TodaysTopPerformers.getInstance().getTopPerformers(quizId, limit);
+    }
+
+    /**
+     * Retrieves the latest completed attempts of a quiz, most recent first.
+     * @param quizId the ID of the quiz
+     * @param limit maximum number of attempts to return, at most SIZE are available
+     * @return list of the latest QuizAttempt objects, empty if the board could not be loaded
+     */
+    public List<QuizAttempt> getRecentPerformers(int quizId, int limit) {
+        QuizLeaderboard board = getBoard(quizId);
+        if (board == null) {
+            return new ArrayList<>();
+        }
+        synchronized (board) {
+            return board.recent(limit);
+        }
+    }
+
+    /**
+     * Puts a completed attempt on the boards of its quiz and stores the changed boards.
+     * The boards are only locked while they change in memory, readers do not wait for the database.
+     * The attempt is also added to the TodaysTopPerformers window.
+     * @param attempt the completed attempt, with its end time and final score
+     * @return true if the boards were updated, false if they could not be loaded or stored
+     */
+    public boolean record(QuizAttempt attempt) {
+        if (attempt.getEndTime() == null) {
+            throw new IllegalArgumentException("Only completed attempts can be put on a leaderboard");
+        }
+        TodaysTopPerformers.getInstance().add(attempt);
+        QuizLeaderboard board = getBoard(attempt.getQuizId());
+        if (board == null) {
+            return false;
+        }
+        // the changes of a quiz are stored in the order they were made
+        synchronized (board.storeLock) {
+            QuizLeaderboard.Change change;
+            synchronized (board) {
+                change = board.add(attempt);
+            }
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                connection.setAutoCommit(false);
+                try {
+                    storeChange(connection, attempt.getQuizId(), change);
+                    connection.commit();
+                } catch (SQLException e) {
+                    connection.rollback();
+                    throw e;
+                }
+            } catch (SQLException e) {
+                e.printStackTrace();
+                invalidate(attempt.getQuizId());
+                return false;
+            }
+            boards.changed(attempt.getQuizId(), board);
+            if (change.allTimeStale) {
+                invalidate(attempt.getQuizId());
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Returns the quizzes whose stored boards hold an attempt of a user, read before the user is deleted
+     * so that attemptsRemoved can be called for each of them afterwards.
+     * @param userId the id of the user
+     * @return the ids of the quizzes, empty if a database error occurs
+     */
+    public List<Integer> getRankedQuizIds(int userId) {
+        List<Integer> quizIds = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     "SELECT DISTINCT e.quiz_id FROM LeaderboardEntries e " +
+                             "JOIN UserQuizAttempts a ON a.attempt_id = e.attempt_id WHERE a.user_id = ?")) {
+            preparedStatement.setInt(1, userId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    quizIds.add(resultSet.getInt(1));
+                }
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        return quizIds;
+    }
+
+    /**
+     * Recomputes the stored boards of a quiz from the attempts table after attempts on it were deleted,
+     * the deleted ones left holes the next best attempts have to fill, and drops them from memory.
+     * @param quizId the id of a quiz
+     * @return true if the boards were stored again, false if a database error occurs
+     */
+    public boolean attemptsRemoved(int quizId) {
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try {
+                rebuildAllTime(connection, quizId);
+                rebuildRecent(connection, quizId);
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return false;
+        } finally {
+            invalidate(quizId);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the boards of a quiz from memory, they are loaded again on next use.
+     * @param quizId the id of a quiz
+     */
+    public void invalidate(int quizId) {
+        boards.remove(quizId);
+    }
+
+    /**
+     * Drops the boards of every quiz from memory.
+     */
+    public void invalidateAll() {
+        boards.clear();
+    }
+
+    /**
+     * @return the number of quizzes whose boards are held in memory
+     */
+    public int size() {
+        return boards.size();
+    }
+
+    //helper method, returns the boards of a quiz, loading them on a miss, or null if they could not be loaded
+    private QuizLeaderboard getBoard(int quizId) {
+        QuizLeaderboard board = boards.get(quizId);
+        if (board != null) {
+            return board;
+        }
+        Object load = boards.beginLoad(quizId);
+        QuizLeaderboard loaded = null;
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            loaded = loadBoard(connection, quizId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+        // a board whose load missed a change is used once but not kept
+        return boards.finishLoad(quizId, load, loaded);
+    }
+
+    //helper method, reads the stored boards of a quiz
+    private QuizLeaderboard loadBoard(Connection connection, int quizId) throws SQLException {
+        List<QuizAttempt> allTime = new ArrayList<>();
+        List<QuizAttempt> recent = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(BOARD_QUERY)) {
+            preparedStatement.setInt(1, quizId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    QuizAttempt attempt = QuizAttemptDao.getAttemptFromResultSet(resultSet, resultSet.getInt("attempt_id"));
+                    if (ALL_TIME.equals(resultSet.getString("board"))) {
+                        allTime.add(attempt);
+                    } else {
+                        recent.add(attempt);
+                    }
+                }
+            }
+        }
+        return new QuizLeaderboard(SIZE, allTime, recent);
+    }
+
+    //helper method, applies the changes of one added attempt to the summary table
+    private void storeChange(Connection connection, int quizId, QuizLeaderboard.Change change) throws SQLException {
+        if (change.allTimeStale) {
+            rebuildAllTime(connection, quizId);
+        } else {
+            storeEntry(connection, quizId, ALL_TIME, change.allTimeRemoved, change.allTimeAdded);
+        }
+        storeEntry(connection, quizId, RECENT, change.recentRemoved, change.recentAdded);
+    }
+
+    private void storeEntry(Connection connection, int quizId, String board, QuizAttempt removed, QuizAttempt added) throws SQLException {
+        if (removed != null) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                    "DELETE FROM LeaderboardEntries WHERE quiz_id = ? AND board = ? AND attempt_id = ?")) {
+                preparedStatement.setInt(1, quizId);
+                preparedStatement.setString(2, board);
+                preparedStatement.setInt(3, removed.getAttemptId());
+                preparedStatement.executeUpdate();
+            }
+        }
+        if (added != null) {
+            try (PreparedStatement preparedStatement = connection.prepareStatement(
+                    "INSERT IGNORE INTO LeaderboardEntries (quiz_id, board, attempt_id) VALUES (?, ?, ?)")) {
+                preparedStatement.setInt(1, quizId);
+                preparedStatement.setString(2, board);
+                preparedStatement.setInt(3, added.getAttemptId());
+                preparedStatement.executeUpdate();
+            }
+        }
+    }
+
+    /*
+     * Recomputes the stored all-time board from the attempts table, for the rare case of an attempt
+     * on a full board being completed again with a worse result, and after attempts were deleted.
+     */
+    private void rebuildAllTime(Connection connection, int quizId) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "DELETE FROM LeaderboardEntries WHERE quiz_id = ? AND board = ?")) {
+            preparedStatement.setInt(1, quizId);
+            preparedStatement.setString(2, ALL_TIME);
+            preparedStatement.executeUpdate();
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "INSERT INTO LeaderboardEntries (quiz_id, board, attempt_id) " +
+                        "SELECT quiz_id, ?, attempt_id FROM UserQuizAttempts WHERE quiz_id = ? AND end_time IS NOT NULL " +
+                        "AND NOT is_practice ORDER BY score DESC, time_taken_seconds, attempt_id LIMIT ?")) {
+            preparedStatement.setString(1, ALL_TIME);
+            preparedStatement.setInt(2, quizId);
+            preparedStatement.setInt(3, SIZE);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    //helper method, recomputes the stored recent board from the attempts table
+    private void rebuildRecent(Connection connection, int quizId) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "DELETE FROM LeaderboardEntries WHERE quiz_id = ? AND board = ?")) {
+            preparedStatement.setInt(1, quizId);
+            preparedStatement.setString(2, RECENT);
+            preparedStatement.executeUpdate();
+        }
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "INSERT INTO LeaderboardEntries (quiz_id, board, attempt_id) " +
+                        "SELECT quiz_id, ?, attempt_id FROM UserQuizAttempts WHERE quiz_id = ? AND end_time IS NOT NULL " +
+                        "AND NOT is_practice ORDER BY end_time DESC, attempt_id DESC LIMIT ?")) {
+            preparedStatement.setString(1, RECENT);
+            preparedStatement.setInt(2, quizId);
+            preparedStatement.setInt(3, SIZE);
+            preparedStatement.executeUpdate();
+        }
+    }
+}
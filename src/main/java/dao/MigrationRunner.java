@@ -0,0 +1,347 @@
+package dao;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Brings the database schema up to date with the versioned scripts in db/migration
+ * (see SqlScript), recording every applied version in the schema_history table.
+ * Only scripts newer than the recorded versions are run, so existing data is kept and starting
+ * against an up-to-date database costs a single query: reading the history, which runs while the
+ * scripts are parsed and checksummed in parallel. An applied script whose checksum changed stops
+ * the migration, released scripts must not be edited.
+ * Every pending script is applied in its own transaction together with its history row. MySQL commits
+ * DDL statements implicitly though, so a script failing halfway keeps its earlier DDL statements and
+ * has to be fixed by hand; keeping one schema change per script makes that rare.
+ * A named lock keeps servers starting at the same time from applying the same scripts twice.
+ */
+public class MigrationRunner {
+    static final String HISTORY_TABLE = "schema_history";
+    private static final String LOCK_NAME = "schema_migration";
+    private static final int LOCK_TIMEOUT_SECONDS = 60;
+    private static final int ER_NO_SUCH_TABLE = 1146;
+    private static final Pattern CREATE_TABLE = Pattern.compile("CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?`?(\\w+)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Applies every pending migration.
+     * @return the number of migrations applied, 0 if the schema was up to date
+     * @throws SQLException if reading the history or applying a migration fails
+     * @throws IOException if a migration script can not be read
+     * @throws IllegalStateException if an applied migration was changed or its script is gone,
+     * or the database has only part of the base schema and no history
+     */
+    public int migrate() throws SQLException, IOException {
+        CompletableFuture<Map<Integer, String>> history = CompletableFuture.supplyAsync(() -> {
+            try (Connection connection = DatabaseConnection.getConnection()) {
+                return readHistory(connection);
+            } catch (SQLException e) {
+                throw new CompletionException(e);
+            }
+        });
+        List<Migration> migrations;
+        try {
+            migrations = SqlScript.migrationScripts().parallelStream()
+                    .map(MigrationRunner::loadUnchecked)
+                    .collect(Collectors.toList());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        Map<Integer, String> applied;
+        try {
+            applied = history.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof SQLException) {
+                throw (SQLException) e.getCause();
+            }
+            throw e;
+        }
+        if (applied != null && pending(applied, migrations).isEmpty()) {
+            return 0;
+        }
+
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            acquireLock(connection);
+            try {
+                createHistoryTable(connection);
+                // another server may have migrated while this one waited for the lock
+                applied = readHistory(connection);
+                List<Migration> pending = pending(applied, migrations);
+                for (Migration migration : pending) {
+                    apply(connection, migration);
+                }
+                return pending.size();
+            } finally {
+                releaseLock(connection);
+            }
+        }
+    }
+
+    /**
+     * Runs an opt-in data script, like the sample data of a development database, in one transaction.
+     * Data scripts are not recorded in the history, they should be safe to run more than once.
+     * @param resource the classpath path of the script
+     * @throws SQLException if a statement fails, nothing of the script is kept then
+     * @throws IOException if the script can not be read
+     */
+    public void seed(String resource) throws SQLException, IOException {
+        List<String> statements = SqlScript.readStatements(resource);
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            connection.setAutoCommit(false);
+            try (Statement statement = connection.createStatement()) {
+                for (String query : statements) {
+                    statement.execute(query);
+                }
+                connection.commit();
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                restoreForeignKeyChecks(connection);
+            }
+        }
+    }
+
+    /*
+     * Returns the checksums of the applied versions, or null if there is no history table yet.
+     */
+    private Map<Integer, String> readHistory(Connection connection) throws SQLException {
+        Map<Integer, String> applied = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT version, checksum FROM " + HISTORY_TABLE)) {
+            while (resultSet.next()) {
+                applied.put(resultSet.getInt("version"), resultSet.getString("checksum"));
+            }
+        } catch (SQLException e) {
+            if (e.getErrorCode() == ER_NO_SUCH_TABLE) {
+                return null;
+            }
+            throw e;
+        }
+        return applied;
+    }
+
+    /*
+     * Creates the history table. A database created before there was a history (by running the
+     * whole base schema on every start) already has every table of version 1, which is then
+     * recorded as applied instead of being run again. A database with only some of those tables
+     * is neither: running version 1 would fail halfway and skipping it would leave tables missing.
+     */
+    private void createHistoryTable(Connection connection) throws SQLException, IOException {
+        if (readHistory(connection) != null) {
+            return;
+        }
+        List<String> scripts = SqlScript.migrationScripts();
+        Migration base = !scripts.isEmpty() && SqlScript.versionOf(scripts.get(0)) == 1 ? load(scripts.get(0)) : null;
+        boolean hasBaseSchema = false;
+        if (base != null) {
+            Set<String> missing = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+            missing.addAll(createdTables(base));
+            int expected = missing.size();
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT table_name FROM information_schema.tables " +
+                         "WHERE table_schema = DATABASE()")) {
+                while (resultSet.next()) {
+                    missing.remove(resultSet.getString(1));
+                }
+            }
+            if (!missing.isEmpty() && missing.size() < expected) {
+                throw new IllegalStateException("The database has some of the tables of " + base.script
+                        + " but not " + missing + ", it can not be migrated");
+            }
+            hasBaseSchema = missing.isEmpty();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE " + HISTORY_TABLE + " (" +
+                    "version INT PRIMARY KEY, " +
+                    "description VARCHAR(200) NOT NULL, " +
+                    "checksum CHAR(64) NOT NULL, " +
+                    "installed_on TIMESTAMP DEFAULT CURRENT_TIMESTAMP, " +
+                    "execution_ms INT NOT NULL)");
+        }
+        if (hasBaseSchema) {
+            recordApplied(connection, base, 0);
+        }
+    }
+
+    /**
+     * @param migration a migration script
+     * @return the names of the tables the script creates, in script order
+     */
+    static List<String> createdTables(Migration migration) {
+        List<String> tables = new ArrayList<>();
+        for (String statement : migration.statements) {
+            Matcher matcher = CREATE_TABLE.matcher(statement);
+            if (matcher.lookingAt()) {
+                tables.add(matcher.group(1));
+            }
+        }
+        return tables;
+    }
+
+    //helper method, runs the statements of a migration and records it, all in one transaction
+    private void apply(Connection connection, Migration migration) throws SQLException {
+        long start = System.currentTimeMillis();
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            for (String query : migration.statements) {
+                statement.execute(query);
+            }
+            recordApplied(connection, migration, System.currentTimeMillis() - start);
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw new SQLException("Migration " + migration.script + " failed: " + e.getMessage(), e.getSQLState(), e.getErrorCode(), e);
+        } finally {
+            try {
+                connection.setAutoCommit(true);
+            } finally {
+                restoreForeignKeyChecks(connection);
+            }
+        }
+    }
+
+    /*
+     * Scripts may turn foreign key checks off for their session, and the connection goes back to the pool
+     * afterwards, so they are turned back on even when the script failed. A connection on which that
+     * fails is closed for good, the pool then discards it instead of lending it out again.
+     */
+    private static void restoreForeignKeyChecks(Connection connection) {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET FOREIGN_KEY_CHECKS=1");
+        } catch (SQLException e) {
+            try {
+                connection.abort(Runnable::run);
+            } catch (SQLException ignored) {
+                // nothing more can be done with the connection
+            }
+        }
+    }
+
+    private void recordApplied(Connection connection, Migration migration, long executionMillis) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement(
+                "INSERT INTO " + HISTORY_TABLE + " (version, description, checksum, execution_ms) VALUES (?, ?, ?, ?)")) {
+            preparedStatement.setInt(1, migration.version);
+            preparedStatement.setString(2, migration.description);
+            preparedStatement.setString(3, migration.checksum);
+            preparedStatement.setLong(4, executionMillis);
+            preparedStatement.executeUpdate();
+        }
+    }
+
+    private void acquireLock(Connection connection) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT GET_LOCK(?, ?)")) {
+            preparedStatement.setString(1, LOCK_NAME);
+            preparedStatement.setInt(2, LOCK_TIMEOUT_SECONDS);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                if (!resultSet.next() || resultSet.getInt(1) != 1) {
+                    throw new SQLException("Timed out waiting for the schema migration lock");
+                }
+            }
+        }
+    }
+
+    private void releaseLock(Connection connection) throws SQLException {
+        try (PreparedStatement preparedStatement = connection.prepareStatement("SELECT RELEASE_LOCK(?)")) {
+            preparedStatement.setString(1, LOCK_NAME);
+            preparedStatement.executeQuery().close();
+        }
+    }
+
+    /**
+     * Works out which migrations still have to be applied.
+     * @param applied the checksums of the applied versions, null if nothing was ever applied
+     * @param migrations all the migration scripts
+     * @return the migrations that were not applied yet, in version order
+     * @throws IllegalStateException if an applied migration was changed or its script is missing
+     */
+    static List<Migration> pending(Map<Integer, String> applied, List<Migration> migrations) {
+        if (applied == null) {
+            applied = Collections.emptyMap();
+        }
+        Map<Integer, Migration> byVersion = new HashMap<>();
+        for (Migration migration : migrations) {
+            byVersion.put(migration.version, migration);
+        }
+        for (Map.Entry<Integer, String> entry : applied.entrySet()) {
+            Migration migration = byVersion.get(entry.getKey());
+            if (migration == null) {
+                throw new IllegalStateException("Applied migration V" + entry.getKey() + " has no script");
+            }
+            if (!migration.checksum.equals(entry.getValue())) {
+                throw new IllegalStateException("Applied migration " + migration.script + " was changed");
+            }
+        }
+        List<Migration> pending = new ArrayList<>();
+        for (Migration migration : migrations) {
+            if (!applied.containsKey(migration.version)) {
+                pending.add(migration);
+            }
+        }
+        pending.sort(Comparator.comparingInt(migration -> migration.version));
+        return pending;
+    }
+
+    /**
+     * Reads and checksums a migration script. The checksum covers the statements only,
+     * so comments and blank lines can be edited.
+     * @param script the classpath path of the script
+     * @return the migration
+     * @throws IOException if the script can not be read
+     */
+    static Migration load(String script) throws IOException {
+        List<String> statements = SqlScript.readStatements(script);
+        String name = script.substring(script.lastIndexOf('/') + 1);
+        String description = name.substring(name.indexOf("__") + 2, name.length() - ".sql".length()).replace('_', ' ');
+        return new Migration(SqlScript.versionOf(script), description, script, statements, checksum(statements));
+    }
+
+    private static Migration loadUnchecked(String script) {
+        try {
+            return load(script);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String checksum(List<String> statements) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.join(";\n", statements).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (byte b : hash) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //A migration script with its parsed statements
+    static class Migration {
+        final int version;
+        final String description;
+        final String script;
+        final List<String> statements;
+        final String checksum;
+
+        Migration(int version, String description, String script, List<String> statements, String checksum) {
+            this.version = version;
+            this.description = description;
+            this.script = script;
+            this.statements = statements;
+            this.checksum = checksum;
+        }
+    }
+}
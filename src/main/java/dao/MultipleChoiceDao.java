@@ -1,6 +1,8 @@
 package dao;
 
 import models.MultipleChoiceQuestion;
+import models.MultipleChoiceWithMultipleAnswersQuestion;
+import models.OptionIndex;
 import models.Question;
 
 import java.sql.Connection;
@@ -8,6 +10,8 @@ import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -22,38 +26,84 @@ public class MultipleChoiceDao extends AbstractQuestionDao {
 
     @Override
     protected Object getAnswersFromDB(Connection connection, int questionId) throws SQLException {
-        Map<String, Boolean> options = new HashMap<>();
-        try(PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM AnswerOptionsMC WHERE question_id = ?")){
+        try(PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT * FROM AnswerOptionsMC WHERE question_id = ? ORDER BY option_id")){
             preparedStatement.setInt(1, questionId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
-                while (resultSet.next()) {
-                    String answerText = resultSet.getString("option_text");
-                    Boolean isCorrect = resultSet.getBoolean("is_correct");
-                    options.put(answerText, isCorrect);
-                }
+                Map<Integer, Object> options = readOptionIndexes(resultSet);
+                return options.containsKey(questionId) ? options.get(questionId) : emptyAnswers();
             }
         }
-        return options;
     }
 
     @Override
-    protected void insertAnswersIntoDB(int questionId, Question question, Connection connection) throws SQLException {
-        MultipleChoiceQuestion multipleChoiceQuestion = (MultipleChoiceQuestion)question;
-        Map<String, Boolean> options = multipleChoiceQuestion.getOptions();
+    protected Map<Integer, Object> getAnswersForQuizFromDB(Connection connection, int quizId) throws SQLException {
+        String query = "SELECT a.option_id, a.question_id, a.option_text, a.is_correct FROM AnswerOptionsMC a " +
+                "JOIN Questions q ON q.question_id = a.question_id WHERE q.quiz_id = ? ORDER BY a.option_id";
+        try(PreparedStatement preparedStatement = connection.prepareStatement(query)){
+            preparedStatement.setInt(1, quizId);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                return readOptionIndexes(resultSet);
+            }
+        }
+    }
+
+    /*
+     * Builds the option index of every question found in the result set of AnswerOptionsMC rows,
+     * keyed by question id. The option ids are kept so answers can be saved without looking them up.
+     * Shared by both multiple choice daos, which store their options in the same table.
+     */
+    static Map<Integer, Object> readOptionIndexes(ResultSet resultSet) throws SQLException {
+        Map<Integer, Map<String, Boolean>> options = new LinkedHashMap<>();
+        Map<Integer, Map<String, Integer>> optionIds = new HashMap<>();
+        while (resultSet.next()) {
+            int questionId = resultSet.getInt("question_id");
+            String answerText = resultSet.getString("option_text");
+            options.computeIfAbsent(questionId, id -> new LinkedHashMap<>()).put(answerText, resultSet.getBoolean("is_correct"));
+            optionIds.computeIfAbsent(questionId, id -> new HashMap<>()).put(answerText, resultSet.getInt("option_id"));
+        }
+        Map<Integer, Object> indexes = new HashMap<>();
+        for (Map.Entry<Integer, Map<String, Boolean>> entry : options.entrySet()) {
+            indexes.put(entry.getKey(), new OptionIndex(entry.getValue(), optionIds.get(entry.getKey())));
+        }
+        return indexes;
+    }
+
+    @Override
+    protected Object emptyAnswers() {
+        return new OptionIndex(new HashMap<>());
+    }
+
+    @Override
+    protected void insertAnswersIntoDB(List<Question> questions, Connection connection) throws SQLException {
+        insertOptions(questions, connection);
+    }
+
+    /*
+     * Inserts the options of multiple choice questions with one batch.
+     * Shared by both multiple choice daos, which store their options in the same table.
+     */
+    static void insertOptions(List<Question> questions, Connection connection) throws SQLException {
         String query = "INSERT INTO AnswerOptionsMC (question_id, option_text, is_correct) VALUES (?, ?, ?)";
         try(PreparedStatement preparedStatement = connection.prepareStatement(query)){
-            for(String answer : options.keySet()) {
-                preparedStatement.setInt(1, questionId);
-                preparedStatement.setString(2, answer);
-                preparedStatement.setBoolean(3, options.get(answer));
-                preparedStatement.executeUpdate();
+            for (Question question : questions) {
+                Map<String, Boolean> options = question instanceof MultipleChoiceQuestion
+                        ? ((MultipleChoiceQuestion) question).getOptions()
+                        : ((MultipleChoiceWithMultipleAnswersQuestion) question).getOptions();
+                for (Map.Entry<String, Boolean> option : options.entrySet()) {
+                    preparedStatement.setInt(1, question.getQuestionId());
+                    preparedStatement.setString(2, option.getKey());
+                    preparedStatement.setBoolean(3, option.getValue());
+                    preparedStatement.addBatch();
+                }
             }
+            preparedStatement.executeBatch();
         }
     }
 
     @Override
-    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl){
-        return new MultipleChoiceQuestion(questionId, questionText, (Map<String, Boolean>)answers, quizId, orderInQuiz, maxScore);
+    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl, int answerTolerance){
+        return new MultipleChoiceQuestion(questionId, questionText, (OptionIndex)answers, quizId, orderInQuiz, maxScore);
     }
 
     @Override
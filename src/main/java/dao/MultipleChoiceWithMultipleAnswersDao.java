@@ -1,10 +1,13 @@
 package dao;
 
 import models.MultipleChoiceWithMultipleAnswersQuestion;
+import models.OptionIndex;
 import models.Question;
 
 import java.sql.*;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -19,38 +22,41 @@ public class MultipleChoiceWithMultipleAnswersDao extends AbstractQuestionDao {
 
     @Override
     protected Object getAnswersFromDB(Connection connection, int questionId) throws SQLException {
-        Map<String, Boolean> options = new HashMap<>();
-        try(PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM AnswerOptionsMC WHERE question_id = ?")){
+        try(PreparedStatement preparedStatement = connection.prepareStatement(
+                "SELECT * FROM AnswerOptionsMC WHERE question_id = ? ORDER BY option_id")){
             preparedStatement.setInt(1, questionId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
-                while (resultSet.next()) {
-                    String answerText = resultSet.getString("option_text");
-                    Boolean isCorrect = resultSet.getBoolean("is_correct");
-                    options.put(answerText, isCorrect);
-                }
+                Map<Integer, Object> options = MultipleChoiceDao.readOptionIndexes(resultSet);
+                return options.containsKey(questionId) ? options.get(questionId) : emptyAnswers();
             }
         }
-        return options;
     }
 
     @Override
-    protected void insertAnswersIntoDB(int questionId, Question question, Connection connection) throws SQLException {
-        MultipleChoiceWithMultipleAnswersQuestion multipleChoiceWithMultipleAnswersQuestion = (MultipleChoiceWithMultipleAnswersQuestion)question;
-        Map<String, Boolean> options = multipleChoiceWithMultipleAnswersQuestion.getOptions();
-        String query = "INSERT INTO AnswerOptionsMC (question_id, option_text, is_correct) VALUES (?, ?, ?)";
+    protected Map<Integer, Object> getAnswersForQuizFromDB(Connection connection, int quizId) throws SQLException {
+        String query = "SELECT a.option_id, a.question_id, a.option_text, a.is_correct FROM AnswerOptionsMC a " +
+                "JOIN Questions q ON q.question_id = a.question_id WHERE q.quiz_id = ? ORDER BY a.option_id";
         try(PreparedStatement preparedStatement = connection.prepareStatement(query)){
-            for(String answer : options.keySet()) {
-                preparedStatement.setInt(1, questionId);
-                preparedStatement.setString(2, answer);
-                preparedStatement.setBoolean(3, options.get(answer));
-                preparedStatement.executeUpdate();
+            preparedStatement.setInt(1, quizId);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                return MultipleChoiceDao.readOptionIndexes(resultSet);
             }
         }
     }
 
     @Override
-    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl){
-        return new MultipleChoiceWithMultipleAnswersQuestion(questionId, questionText, (Map<String, Boolean>)answers, quizId, orderInQuiz, maxScore);
+    protected Object emptyAnswers() {
+        return new OptionIndex(new HashMap<>());
+    }
+
+    @Override
+    protected void insertAnswersIntoDB(List<Question> questions, Connection connection) throws SQLException {
+        MultipleChoiceDao.insertOptions(questions, connection);
+    }
+
+    @Override
+    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl, int answerTolerance){
+        return new MultipleChoiceWithMultipleAnswersQuestion(questionId, questionText, (OptionIndex)answers, quizId, orderInQuiz, maxScore);
     }
 
     @Override
@@ -1,5 +1,6 @@
 package dao;
 
+import models.AnswerNormalizer;
 import models.Question;
 import models.PictureResponse;
 import models.QuestionType;
@@ -8,7 +9,10 @@ import java.sql.Connection;
 import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 
 public class PictureResponseDao extends AbstractQuestionDao{
     @Override
@@ -26,21 +30,44 @@ public class PictureResponseDao extends AbstractQuestionDao{
     }
 
     @Override
-    protected void insertAnswersIntoDB(int questionId, Question question, Connection connection) throws SQLException {
-        PictureResponse pR = (PictureResponse) question;
-        HashSet<String> answers = (HashSet<String>) pR.getCorrectAnswers();
+    protected Map<Integer, Object> getAnswersForQuizFromDB(Connection connection, int quizId) throws SQLException {
+        Map<Integer, Object> answers = new HashMap<>();
+        try(PreparedStatement ps = connection.prepareStatement("SELECT a.question_id, a.option_text FROM " + getAnswerTableName() +
+                " a JOIN Questions q ON q.question_id = a.question_id WHERE q.quiz_id = ?")){
+            ps.setInt(1, quizId);
+            try(ResultSet rs = ps.executeQuery()){
+                while(rs.next()){
+                    HashSet<String> questionAnswers = (HashSet<String>) answers.computeIfAbsent(rs.getInt("question_id"), id -> new HashSet<String>());
+                    questionAnswers.add(rs.getString("option_text"));
+                }
+            }
+        }
+        return answers;
+    }
+
+    @Override
+    protected Object emptyAnswers() {
+        return new HashSet<String>();
+    }
+
+    @Override
+    protected void insertAnswersIntoDB(List<Question> questions, Connection connection) throws SQLException {
         try(PreparedStatement preparedStatement = connection.prepareStatement("INSERT INTO "+ getAnswerTableName() +" (question_id, option_text) VALUES (?, ?)")){
-            for(String answer : answers) {
-                preparedStatement.setInt(1, questionId);
-                preparedStatement.setString(2, answer);
-                preparedStatement.executeUpdate();
+            for (Question question : questions) {
+                for(String answer : (HashSet<String>) ((PictureResponse) question).getCorrectAnswers()) {
+                    preparedStatement.setInt(1, question.getQuestionId());
+                    preparedStatement.setString(2, answer);
+                    preparedStatement.addBatch();
+                }
             }
+            preparedStatement.executeBatch();
         }
     }
 
     @Override
-    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl) {
-        return new PictureResponse(questionId,questionText, QuestionType.PICTURE_RESPONSE,quizId, orderInQuiz, (HashSet<String>)answers ,maxScore);
+    protected Question createQuestionObject(int questionId, String questionText, Object answers, int quizId, int orderInQuiz, double maxScore, String imageUrl, int answerTolerance) {
+        return new PictureResponse(questionId,questionText, QuestionType.PICTURE_RESPONSE,quizId, orderInQuiz, imageUrl, (HashSet<String>)answers ,maxScore,
+                AnswerNormalizer.DEFAULT, answerTolerance);
     }
 
     @Override
@@ -4,6 +4,7 @@ import models.QuizAttempt;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Consumer;
 
 /**
  * Dao object for quiz attempts.
@@ -16,6 +17,16 @@ import java.util.List;
  * and scoring information for quiz history and performance tracking.
  */
 public class QuizAttemptDao {
+    static final String USER_ATTEMPTS_QUERY = "SELECT * FROM UserQuizAttempts WHERE user_id = ? ORDER BY start_time DESC";
+    static final String QUIZ_ATTEMPTS_QUERY =
+            "SELECT * FROM UserQuizAttempts WHERE quiz_id = ? ORDER BY score DESC, time_taken_seconds ASC";
+    static final String RECENT_PERFORMERS_QUERY =
+            "SELECT * FROM UserQuizAttempts WHERE quiz_id = ? AND end_time IS NOT NULL AND NOT is_practice " +
+                    "ORDER BY end_time DESC LIMIT ?";
+    static final String USER_QUIZ_HISTORY_QUERY =
+            "SELECT * FROM UserQuizAttempts WHERE user_id = ? AND quiz_id = ? ORDER BY start_time DESC";
+    static final String COMPLETED_SINCE_QUERY =
+            "SELECT * FROM UserQuizAttempts WHERE start_time >= ? AND end_time IS NOT NULL AND NOT is_practice";
 
     /**
      * Creates a new quiz attempt record in the database.
@@ -60,48 +71,73 @@ public class QuizAttemptDao {
      * @return the QuizAttempt object if found, null otherwise
      */
     public QuizAttempt getAttemptById(int attemptId){
-        try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE attempt_id = ?")){
+        try(Connection connection = DatabaseConnection.getConnection()){
+            return getAttemptById(connection, attemptId);
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+    }
+
+    //helper method, reads an attempt by its id using the given connection
+    private QuizAttempt getAttemptById(Connection connection, int attemptId) throws SQLException {
+        try(PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE attempt_id = ?")){
             preparedStatement.setInt(1, attemptId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
                 if (resultSet.next()) {
                     return getAttemptFromResultSet(resultSet, attemptId);
                 }
             } return null;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return null;
         }
     }
 
     /**
      * Completes an existing quiz attempt by updating it with final results.
      * Sets end_time to current timestamp, stores the final score, and calculates
-     * time_taken_seconds
+     * time_taken_seconds from the stored start_time, all in a single UPDATE.
+     * The completed attempt is then put on the leaderboards of its quiz.
+     * @param attemptId the ID of the attempt to complete
+     * @param score the final score achieved by the user
+     * @return the completed QuizAttempt as stored, null if it does not exist or a database error occurs
+     */
+    public QuizAttempt completeAttempt(int attemptId, double score){
+        return completeAttempt(attemptId, score, false);
+    }
+
+    /**
+     * Completes an existing quiz attempt like completeAttempt(attemptId, score), a practice attempt is marked
+     * as such and kept off the leaderboards.
      * @param attemptId the ID of the attempt to complete
      * @param score the final score achieved by the user
-     * @return true if the attempt was completed successfully, false otherwise
+     * @param practice whether the quiz was taken in practice mode
+     * @return the completed QuizAttempt as stored, null if it does not exist or a database error occurs
      */
-    public boolean completeAttempt(int attemptId, double score){
+    public QuizAttempt completeAttempt(int attemptId, double score, boolean practice){
+        QuizAttempt completed;
         try(Connection connection = DatabaseConnection.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement(
-                    "UPDATE UserQuizAttempts SET score = ?, end_time = ?, time_taken_seconds = ? " +
-                            "WHERE attempt_id = ?")){
-            QuizAttempt quizAttempt = getAttemptById(attemptId);
-            if(quizAttempt == null) {
-                return false;
-            }
+                    "UPDATE UserQuizAttempts SET score = ?, end_time = ?, time_taken_seconds = TIMESTAMPDIFF(SECOND, start_time, ?), " +
+                            "is_practice = ? WHERE attempt_id = ?")){
             preparedStatement.setDouble(1, score);
             Timestamp timestamp = new Timestamp(System.currentTimeMillis());
             preparedStatement.setTimestamp(2, timestamp);
-            preparedStatement.setInt(3, (int)((timestamp.getTime() - quizAttempt.getStartTime().getTime()) / 1000));
-            preparedStatement.setInt(4, attemptId);
+            preparedStatement.setTimestamp(3, timestamp);
+            preparedStatement.setBoolean(4, practice);
+            preparedStatement.setInt(5, attemptId);
             int rows = preparedStatement.executeUpdate();
-            return rows != 0;
+            if (rows == 0) {
+                return null;
+            }
+            // read back, the stored times are rounded by the database
+            completed = getAttemptById(connection, attemptId);
         }catch(SQLException e){
             e.printStackTrace();
-            return false;
+            return null;
         }
+        if (completed != null && !practice) {
+            Leaderboard.getInstance().record(completed);
+        }
+        return completed;
     }
 
     /**
@@ -112,7 +148,7 @@ public class QuizAttemptDao {
      */
     public List<QuizAttempt> getUserAttempts(int userId){
         try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE user_id = ? ORDER BY start_time DESC")){
+            PreparedStatement preparedStatement = connection.prepareStatement(USER_ATTEMPTS_QUERY)){
             preparedStatement.setInt(1, userId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
                 return getUserAttempts(resultSet);
@@ -136,14 +172,14 @@ public class QuizAttemptDao {
 
     /**
      * Retrieves all attempts for a specific quiz across all users.
-     * Used for generating leaderboards and quiz statistics.
+     * Used for quiz statistics, leaderboards should use getTopPerformers which does not read every attempt.
      * Results are ordered by score descending, then by time_taken_seconds ascending.
      * @param quizId the ID of the quiz whose attempts to retrieve
      * @return list of QuizAttempt objects, empty list if no attempts found
      */
     public List<QuizAttempt> getQuizAttempts(int quizId){
         try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE quiz_id = ? ORDER BY score DESC, time_taken_seconds ASC")){
+            PreparedStatement preparedStatement = connection.prepareStatement(QUIZ_ATTEMPTS_QUERY)){
             preparedStatement.setInt(1, quizId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
                 return getUserAttempts(resultSet);
@@ -155,36 +191,41 @@ public class QuizAttemptDao {
     }
 
     /**
-     * Retrieves top performers for a specific quiz within the last 24 hours.
+     * Retrieves the best attempts of all time for a specific quiz, served from its materialized Leaderboard.
+     * Results are ordered by score descending, then by time_taken_seconds ascending.
+     * @param quizId the ID of the quiz
+     * @param limit maximum number of attempts to return, at most Leaderboard.SIZE
+     * @return list of the best QuizAttempt objects
+     */
+    public List<QuizAttempt> getTopPerformers(int quizId, int limit){
+        return Leaderboard.getInstance().getTopPerformers(quizId, limit);
+    }
+
+    /**
+     * Retrieves top performers for a specific quiz within the last 24 hours,
+     * the best Leaderboard.SIZE of them, served from the quiz's materialized Leaderboard.
      * Results are ordered by score descending, then by time_taken_seconds ascending.
      * @param quizId the ID of the quiz
      * @return list of QuizAttempt objects from last 24 hours, ordered by performance
      */
     public List <QuizAttempt> getTodaysTopPerformers(int quizId){
-        try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE quiz_id = ? AND " +
-                    "start_time >= DATE_SUB(NOW(), INTERVAL 24 HOUR) AND end_time IS NOT NULL " +
-                    "ORDER BY score DESC, time_taken_seconds")){
-            preparedStatement.setInt(1, quizId);
-            try(ResultSet resultSet = preparedStatement.executeQuery()){
-                return getUserAttempts(resultSet);
-            }
-        } catch (SQLException e){
-            e.printStackTrace();
-            return new ArrayList<>();
-        }
+        return Leaderboard.getInstance().getTodaysTopPerformers(quizId, Leaderboard.SIZE);
     }
 
     /**
      * Retrieves recent quiz attempts regardless of score (chronological order).
+     * Up to Leaderboard.SIZE attempts are served from the quiz's materialized Leaderboard,
+     * larger limits read the attempts table.
      * @param quizId the ID of the quiz
      * @param limit maximum number of recent attempts to return
      * @return list of recent QuizAttempt objects ordered by most recent first
      */
     public List<QuizAttempt>getRecentPerformers(int quizId, int limit){
+        if (limit <= Leaderboard.SIZE) {
+            return Leaderboard.getInstance().getRecentPerformers(quizId, limit);
+        }
         try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE quiz_id = ? AND end_time IS NOT NULL " +
-                    "ORDER BY end_time DESC LIMIT ?")){
+            PreparedStatement preparedStatement = connection.prepareStatement(RECENT_PERFORMERS_QUERY)){
             preparedStatement.setInt(1, quizId);
             preparedStatement.setInt(2, limit);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
@@ -204,8 +245,7 @@ public class QuizAttemptDao {
      */
     public List<QuizAttempt>getUserQuizHistory(int userId, int quizId){
         try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM UserQuizAttempts WHERE user_id = ? AND quiz_id = ? " +
-                    "ORDER BY start_time DESC")){
+            PreparedStatement preparedStatement = connection.prepareStatement(USER_QUIZ_HISTORY_QUERY)){
             preparedStatement.setInt(1, userId);
             preparedStatement.setInt(2, quizId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
@@ -217,8 +257,33 @@ public class QuizAttemptDao {
         }
     }
 
+    /**
+     * Streams the completed attempts started since a given time, practice attempts excepted,
+     * without holding them all in memory. Used to rebuild TodaysTopPerformers.
+     * @param since the earliest start time read
+     * @param consumer receives every attempt, in no particular order
+     * @return the number of attempts read, -1 if a database error occurs
+     */
+    public int forEachCompletedSince(Timestamp since, Consumer<QuizAttempt> consumer){
+        int count = 0;
+        try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement preparedStatement = DatabaseConnection.prepareStreaming(connection, COMPLETED_SINCE_QUERY)){
+            preparedStatement.setTimestamp(1, since);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                while(resultSet.next()){
+                    consumer.accept(getAttemptFromResultSet(resultSet, resultSet.getInt("attempt_id")));
+                    count++;
+                }
+            }
+        }catch (SQLException e){
+            e.printStackTrace();
+            return -1;
+        }
+        return count;
+    }
+
     //helper method, gets all the parameters from resultset, constructs a QuizAttempt with them and returns it
-    private QuizAttempt getAttemptFromResultSet(ResultSet resultSet, int attemptId) throws SQLException {
+    static QuizAttempt getAttemptFromResultSet(ResultSet resultSet, int attemptId) throws SQLException {
         int userId = resultSet.getInt("user_id");
         int quizId = resultSet.getInt("quiz_id");
         Timestamp startTime = resultSet.getTimestamp("start_time");
@@ -0,0 +1,162 @@
+package dao;
+
+import models.Quiz;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded in-process read-through cache of quizzes keyed by quiz id.
+ * Quizzes are read far more often than they are written, so QuizDao serves getQuizById
+ * from here and only goes to the database on a miss.
+ * The least recently used quiz is evicted once the cache is full, and entries older than
+ * the configured time to live are reloaded. Any write to a quiz or to one of its questions
+ * invalidates its entry.
+ * Every get returns a fresh Quiz object, but the question list is unmodifiable and the
+ * Question objects in it are shared by everyone reading that quiz, so they must be treated
+ * as read-only. A caller that wants another order (for example a random one) copies the list.
+ */
+public class QuizCache {
+    private static final SharedInstance<QuizCache> INSTANCE = new SharedInstance<>(() -> new QuizCache(
+            Integer.parseInt(DatabaseConnection.getProperty("cache.quiz.maxSize", "256")),
+            Long.parseLong(DatabaseConnection.getProperty("cache.quiz.ttlMs", "300000"))));
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final BoundedLruCache<Integer, Entry> entries;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxSize the maximum number of quizzes kept, 0 disables caching
+     * @param ttlMillis how long a cached quiz is served before it is reloaded, 0 for no limit
+     */
+    public QuizCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    //Constructor with a custom clock, used by tests to expire entries
+    QuizCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+        this.entries = new BoundedLruCache<>(maxSize);
+    }
+
+    /**
+     * @return the cache shared by all the DAOs
+     */
+    public static QuizCache getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Returns the quiz with the given id, loading and caching it on a miss.
+     * Quizzes that were not found (null) are not cached.
+     * @param quizId the id of a quiz
+     * @param loader loads the quiz from the database
+     * @return a copy of the cached quiz sharing its read-only questions, or null if the loader found none
+     */
+    public Quiz get(int quizId, IntFunction<Quiz> loader) {
+        if (maxSize <= 0) {
+            misses.incrementAndGet();
+            Quiz quiz = loader.apply(quizId);
+            return quiz != null ? readOnlyQuestions(quiz) : null;
+        }
+        Entry entry = entries.get(quizId);
+        if (entry != null && !isExpired(entry)) {
+            hits.incrementAndGet();
+            return new Quiz(entry.quiz);
+        }
+        if (entry != null) {
+            entries.remove(quizId);
+        }
+        misses.incrementAndGet();
+        Object load = entries.beginLoad(quizId);
+        Quiz quiz = loader.apply(quizId);
+        if (quiz == null) {
+            entries.finishLoad(quizId, load, null);
+            return null;
+        }
+        Entry loaded = new Entry(readOnlyQuestions(quiz), clock.getAsLong());
+        return new Quiz(entries.finishLoad(quizId, load, loaded).quiz);
+    }
+
+    //Makes the question list of a loaded quiz unmodifiable, the Question objects are shared from then on
+    private static Quiz readOnlyQuestions(Quiz quiz) {
+        quiz.setQuestions(Collections.unmodifiableList(new ArrayList<>(quiz.getQuestions())));
+        return quiz;
+    }
+
+    private boolean isExpired(Entry entry) {
+        return ttlMillis > 0 && clock.getAsLong() - entry.loadedAt >= ttlMillis;
+    }
+
+    /**
+     * Drops the quiz with the given id, should be called after the quiz or its questions change.
+     * @param quizId the id of a quiz
+     */
+    public void invalidate(int quizId) {
+        entries.remove(quizId);
+    }
+
+    /**
+     * Drops the quiz containing the question with the given id, if it is cached.
+     * @param questionId the id of a question
+     */
+    public void invalidateQuestion(int questionId) {
+        entries.removeIf(entry -> entry.quiz.getQuestions().stream()
+                .anyMatch(question -> question.getQuestionId() == questionId));
+    }
+
+    /**
+     * Drops every cached quiz.
+     */
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    /**
+     * @return the number of quizzes currently cached
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return how many gets were served from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return how many gets had to load the quiz from the database
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return how many quizzes were dropped to keep the cache within its bound
+     */
+    public long getEvictionCount() {
+        return entries.getEvictionCount();
+    }
+
+    //A cached quiz and the time it was loaded
+    private static class Entry {
+        private final Quiz quiz;
+        private final long loadedAt;
+
+        private Entry(Quiz quiz, long loadedAt) {
+            this.quiz = quiz;
+            this.loadedAt = loadedAt;
+        }
+    }
+}
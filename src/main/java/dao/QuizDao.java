@@ -1,12 +1,18 @@
 package dao;
 
+import factory.QuestionDaoFactory;
+import models.Question;
 import models.QuizDisplayType;
 import models.Quiz;
+import models.QuizSummary;
+import service.AchievementsService;
 
 import java.sql.*;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for Quiz entities.
@@ -17,9 +23,27 @@ import java.util.List;
  * quiz management.
  */
 public class QuizDao {
+    static final String QUESTIONS_OF_QUIZ_QUERY = "SELECT * FROM Questions WHERE quiz_id = ? ORDER BY order_in_quiz, question_id";
+    static final String RECENT_QUIZZES_QUERY = "SELECT * FROM Quizzes ORDER BY creation_date DESC LIMIT ?";
+    private static final String QUIZ_SUMMARIES_SELECT = "SELECT z.quiz_id, z.creator_user_id, z.title, z.creation_date, " +
+            "(SELECT COUNT(*) FROM Questions q WHERE q.quiz_id = z.quiz_id) AS question_count FROM Quizzes z ";
+    static final String QUIZ_SUMMARIES_QUERY = QUIZ_SUMMARIES_SELECT +
+            "ORDER BY z.creation_date DESC, z.quiz_id DESC LIMIT ?";
+    static final String QUIZ_SUMMARIES_AFTER_QUERY = QUIZ_SUMMARIES_SELECT +
+            "WHERE z.creation_date < ? OR (z.creation_date = ? AND z.quiz_id < ?) " +
+            "ORDER BY z.creation_date DESC, z.quiz_id DESC LIMIT ?";
 
     /**
-     * Adds the Quiz to the database
+     * Receives the searchable text of the quizzes streamed by forEachQuizText: one call per question,
+     * or one call with a null question text for a quiz without questions. The calls of a quiz come in a row.
+     */
+    public interface QuizTextConsumer {
+        void accept(int quizId, int creatorUserId, String title, String description, LocalDateTime creationDate,
+                    String questionText);
+    }
+
+    /**
+     * Adds the Quiz to the database and counts it for the creator's achievements
      * @param quiz the quiz given by the user
      * @return returns true if quiz was added successfully. Returns false otherwise.
      */
@@ -46,6 +70,8 @@ public class QuizDao {
             e.printStackTrace();
             return false;
         }
+        QuizSearchIndex.getInstance().quizAdded(quiz);
+        AchievementsService.getInstance().quizCreated(quiz.getCreatorUserId());
         return true;
     }
 
@@ -62,32 +88,35 @@ public class QuizDao {
     }
 
     /**
-     * Returns the quiz with the given id from the database
+     * Returns the quiz with the given id. Served from the shared QuizCache,
+     * the database is only read when the quiz is not cached.
+     * The questions of the returned quiz are shared with other readers and must not be modified.
      * @param quizId the id of a quiz to return
      * @return the Quiz that has the given id
      */
     public Quiz getQuizById(int quizId){
+        return QuizCache.getInstance().get(quizId, this::loadQuizById);
+    }
+
+    /**
+     * Reads the quiz with the given id and all its questions from the database without going through
+     * the QuizCache, for bulk reads (like exports) that would otherwise evict the quizzes people are taking.
+     * @param quizId the id of a quiz to return
+     * @return the Quiz that has the given id, null if there is none
+     */
+    public Quiz getQuizByIdUncached(int quizId){
+        return loadQuizById(quizId);
+    }
+
+    //helper method, reads the quiz with the given id and all its questions from the database
+    private Quiz loadQuizById(int quizId){
         try(Connection connection = DatabaseConnection.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Quizzes WHERE quiz_id = ? ")){
             preparedStatement.setInt(1, quizId);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
                 if (resultSet.next()) {
                    Quiz quiz = getQuizFromResultSet(resultSet, quizId);
-                   // Now, fetch the questions for this quiz
-                   List<models.Question> questions = new ArrayList<>();
-                   String questionsQuery = "SELECT question_id, question_type FROM Questions WHERE quiz_id = ? ORDER BY order_in_quiz";
-                   try (PreparedStatement questionsStmt = connection.prepareStatement(questionsQuery)) {
-                       questionsStmt.setInt(1, quizId);
-                       try (ResultSet questionsRs = questionsStmt.executeQuery()) {
-                           while (questionsRs.next()) {
-                               int questionId = questionsRs.getInt("question_id");
-                               String questionTypeStr = questionsRs.getString("question_type");
-                               AbstractQuestionDao questionDao = factory.QuestionDaoFactory.getDao(questionTypeStr);
-                               questions.add(questionDao.getQuestionById(questionId));
-                           }
-                       }
-                   }
-                   quiz.setQuestions(questions);
+                   quiz.setQuestions(getQuestionsOfQuiz(connection, quizId));
                    return quiz;
                }
            }
@@ -98,12 +127,68 @@ public class QuizDao {
         }
     }
 
+    /*
+     * Loads all the questions of the quiz on the given connection. Instead of a lookup per question,
+     * one query reads the Questions rows and one more per answer table used by the quiz reads the answers
+     * of all its questions at once, so the number of queries does not grow with the number of questions.
+     * The answers are then matched to their questions in memory.
+     */
+    private List<Question> getQuestionsOfQuiz(Connection connection, int quizId) throws SQLException {
+        List<QuestionRow> rows = new ArrayList<>();
+        try (PreparedStatement preparedStatement = connection.prepareStatement(QUESTIONS_OF_QUIZ_QUERY)) {
+            preparedStatement.setInt(1, quizId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    rows.add(new QuestionRow(resultSet));
+                }
+            }
+        }
+        Map<String, Map<Integer, Object>> answersByTable = new HashMap<>();
+        List<Question> questions = new ArrayList<>();
+        for (QuestionRow row : rows) {
+            AbstractQuestionDao questionDao = QuestionDaoFactory.getDao(row.questionType);
+            Map<Integer, Object> answers = answersByTable.get(questionDao.getAnswerTableName());
+            if (answers == null) {
+                answers = questionDao.getAnswersForQuizFromDB(connection, quizId);
+                answersByTable.put(questionDao.getAnswerTableName(), answers);
+            }
+            Object questionAnswers = answers.containsKey(row.questionId) ? answers.get(row.questionId) : questionDao.emptyAnswers();
+            Question question = questionDao.createQuestionObject(row.questionId, row.questionText, questionAnswers,
+                    quizId, row.orderInQuiz, row.maxScore, row.imageUrl, row.answerTolerance);
+            question.setImageUrl(row.imageUrl);
+            questions.add(question);
+        }
+        return questions;
+    }
+
+    //A row of the Questions table, kept until the answers of the quiz are fetched
+    private static class QuestionRow {
+        private final int questionId;
+        private final String questionText;
+        private final String questionType;
+        private final String imageUrl;
+        private final int orderInQuiz;
+        private final double maxScore;
+        private final int answerTolerance;
+
+        private QuestionRow(ResultSet resultSet) throws SQLException {
+            questionId = resultSet.getInt("question_id");
+            questionText = resultSet.getString("question_text");
+            questionType = resultSet.getString("question_type");
+            imageUrl = resultSet.getString("image_url");
+            orderInQuiz = resultSet.getInt("order_in_quiz");
+            maxScore = resultSet.getDouble("max_score");
+            answerTolerance = AbstractQuestionDao.getAnswerTolerance(resultSet);
+        }
+    }
+
     /**
      * Changes the quiz to a new quiz. The quiz_id remains the same.
      * @param quiz A new quiz containing quiz_id of an old question
      * @return returns boolean indicating if the operation was successful or not
      */
     public boolean updateQuiz(Quiz quiz){
+        int rows;
         try(Connection connection = DatabaseConnection.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement(
                     "UPDATE Quizzes SET creator_user_id = ?, title = ?, description = ?, " +
@@ -111,12 +196,17 @@ public class QuizDao {
                             "is_immediate_correction = ?, is_practice_mode_enabled = ? WHERE quiz_id = ?")){
             setQuizParameters(preparedStatement, quiz);
             preparedStatement.setInt(9, quiz.getQuizId());
-            int rows = preparedStatement.executeUpdate();
-            return rows != 0;
+            rows = preparedStatement.executeUpdate();
         }catch(SQLException e){
             e.printStackTrace();
             return false;
         }
+        QuizCache.getInstance().invalidate(quiz.getQuizId());
+        // the index reads the quiz again, with a connection of its own
+        if (rows != 0) {
+            QuizSearchIndex.getInstance().quizChanged(quiz.getQuizId());
+        }
+        return rows != 0;
     }
 
     /**
@@ -125,15 +215,29 @@ public class QuizDao {
      * @return returns boolean indicating if the operation was successful or not
      */
     public boolean deleteQuiz(int quizId){
+        int rows;
         try(Connection connection = DatabaseConnection.getConnection();
             PreparedStatement preparedStatement = connection.prepareStatement("DELETE FROM Quizzes WHERE quiz_id = ?")){
             preparedStatement.setInt(1, quizId);
-            int rows = preparedStatement.executeUpdate();
-            return rows != 0;
+            rows = preparedStatement.executeUpdate();
         }catch(SQLException e){
             e.printStackTrace();
             return false;
         }
+        quizRemoved(quizId);
+        return rows != 0;
+    }
+
+    /**
+     * Drops a deleted quiz from the caches and indexes held in memory: QuizCache, the Leaderboard,
+     * TodaysTopPerformers and the QuizSearchIndex. Also called for the quizzes of a deleted user.
+     * @param quizId the id of the deleted quiz
+     */
+    public static void quizRemoved(int quizId){
+        QuizCache.getInstance().invalidate(quizId);
+        Leaderboard.getInstance().invalidate(quizId);
+        TodaysTopPerformers.getInstance().quizRemoved(quizId);
+        QuizSearchIndex.getInstance().quizRemoved(quizId);
     }
 
     /**
@@ -154,6 +258,28 @@ public class QuizDao {
         }
     }
 
+    /**
+     * Returns the ids of the quizzes created by the user, without reading the quizzes
+     * @param creatorUserId the id of a user
+     * @return the list of ids of the quizzes created by a user
+     */
+    public List<Integer> getQuizIdsByCreator(int creatorUserId){
+        try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement("SELECT quiz_id FROM Quizzes WHERE creator_user_id = ?")){
+            preparedStatement.setInt(1, creatorUserId);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                List<Integer> quizIds = new ArrayList<>();
+                while (resultSet.next()) {
+                    quizIds.add(resultSet.getInt("quiz_id"));
+                }
+                return quizIds;
+            }
+        }catch(SQLException e){
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
     //helper method, gets all the parameters from resultset, constructs a quiz with them and returns it
     private List<Quiz> getQuizzes(ResultSet resultSet) throws SQLException {
         List<Quiz> quizzes = new ArrayList<>();
@@ -180,6 +306,52 @@ public class QuizDao {
         }
     }
 
+    /**
+     * Streams the title, description and question texts of every quiz, by ascending quiz id,
+     * without reading them all into memory. Used to build the QuizSearchIndex.
+     * @param consumer receives the text of every quiz, see QuizTextConsumer
+     * @return the number of quizzes read, or -1 if the database could not be read
+     */
+    public int forEachQuizText(QuizTextConsumer consumer){
+        return forEachQuizText(0, consumer);
+    }
+
+    /**
+     * Reads the title, description and question texts of one quiz.
+     * @param quizId the id of a quiz, 0 for every quiz
+     * @param consumer receives the text of the quiz, see QuizTextConsumer
+     * @return the number of quizzes read (0 if there is no such quiz), or -1 if the database could not be read
+     */
+    public int forEachQuizText(int quizId, QuizTextConsumer consumer){
+        String query = "SELECT z.quiz_id, z.creator_user_id, z.title, z.description, z.creation_date, q.question_text " +
+                "FROM Quizzes z LEFT JOIN Questions q ON q.quiz_id = z.quiz_id " +
+                (quizId > 0 ? "WHERE z.quiz_id = ? " : "") + "ORDER BY z.quiz_id";
+        try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement preparedStatement = quizId > 0 ? connection.prepareStatement(query)
+                    : DatabaseConnection.prepareStreaming(connection, query)){
+            if (quizId > 0) {
+                preparedStatement.setInt(1, quizId);
+            }
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                int quizzes = 0;
+                int previousQuizId = 0;
+                while (resultSet.next()) {
+                    int rowQuizId = resultSet.getInt(1);
+                    if (rowQuizId != previousQuizId) {
+                        quizzes++;
+                        previousQuizId = rowQuizId;
+                    }
+                    consumer.accept(rowQuizId, resultSet.getInt(2), resultSet.getString(3), resultSet.getString(4),
+                            resultSet.getTimestamp(5).toLocalDateTime(), resultSet.getString(6));
+                }
+                return quizzes;
+            }
+        }catch(SQLException e){
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
     //helper method, gets all the parameters from resultset, constructs a quiz with them and returns it
     private Quiz getQuizFromResultSet(ResultSet resultSet, int quizId) throws SQLException {
         int creatorUserId = resultSet.getInt("creator_user_id");
@@ -195,6 +367,69 @@ public class QuizDao {
                 immediateCorrection, practiceModeEnabled);
     }
 
+    /**
+     * Returns the ids of the quizzes following the given id in ascending order, used to walk
+     * through all the quizzes a page at a time.
+     * @param afterQuizId the last id of the previous page, 0 for the first page
+     * @param limit the maximum number of ids to return
+     * @return the ids of the next page of quizzes, empty when there are no more
+     */
+    public List<Integer> getQuizIdsAfter(int afterQuizId, int limit){
+        try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(
+                    "SELECT quiz_id FROM Quizzes WHERE quiz_id > ? ORDER BY quiz_id LIMIT ?")){
+            preparedStatement.setInt(1, afterQuizId);
+            preparedStatement.setInt(2, limit);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                List<Integer> quizIds = new ArrayList<>();
+                while (resultSet.next()) {
+                    quizIds.add(resultSet.getInt("quiz_id"));
+                }
+                return quizIds;
+            }
+        }catch(SQLException e){
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Returns a page of quiz summaries, newest first, using keyset pagination on (creation_date, quiz_id):
+     * a page starts right after the last quiz of the previous one instead of skipping rows with OFFSET,
+     * so every page costs the same however deep it is and quizzes added meanwhile do not shift the pages.
+     * Descriptions are not read, the question count of every quiz comes from the same query.
+     * @param afterCreationDate the creation date of the last quiz of the previous page, null for the first page
+     * @param afterQuizId the id of the last quiz of the previous page, ignored for the first page
+     * @param limit the maximum number of quizzes to return
+     * @return the summaries of the next page of quizzes, empty when there are no more
+     */
+    public List<QuizSummary> getQuizSummaries(LocalDateTime afterCreationDate, int afterQuizId, int limit){
+        String query = afterCreationDate == null ? QUIZ_SUMMARIES_QUERY : QUIZ_SUMMARIES_AFTER_QUERY;
+        try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(query)){
+            int parameter = 1;
+            if (afterCreationDate != null) {
+                Timestamp timestamp = Timestamp.valueOf(afterCreationDate);
+                preparedStatement.setTimestamp(parameter++, timestamp);
+                preparedStatement.setTimestamp(parameter++, timestamp);
+                preparedStatement.setInt(parameter++, afterQuizId);
+            }
+            preparedStatement.setInt(parameter, limit);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                List<QuizSummary> summaries = new ArrayList<>();
+                while (resultSet.next()) {
+                    summaries.add(new QuizSummary(resultSet.getInt("quiz_id"), resultSet.getInt("creator_user_id"),
+                            resultSet.getString("title"), resultSet.getTimestamp("creation_date").toLocalDateTime(),
+                            resultSet.getInt("question_count")));
+                }
+                return summaries;
+            }
+        }catch(SQLException e){
+            e.printStackTrace();
+            return new ArrayList<>();
+        }
+    }
+
     /**
      * Returns the list of recently created quizzes up to the limit specified by the user
      * @param limit the maximum limit of quizzes to return
@@ -202,7 +437,7 @@ public class QuizDao {
      */
     public List<Quiz> getRecentlyCreatedQuizzes(int limit){
         try(Connection connection = DatabaseConnection.getConnection();
-            PreparedStatement preparedStatement = connection.prepareStatement("SELECT * FROM Quizzes ORDER BY creation_date DESC LIMIT ?")){
+            PreparedStatement preparedStatement = connection.prepareStatement(RECENT_QUIZZES_QUERY)){
             preparedStatement.setInt(1, limit);
             try(ResultSet resultSet = preparedStatement.executeQuery()){
                 return getQuizzes(resultSet);
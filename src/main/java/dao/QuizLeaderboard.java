@@ -0,0 +1,137 @@
+package dao;
+
+import models.QuizAttempt;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * The stored leaderboards of a single quiz, kept in memory by Leaderboard: the best attempts of all time
+ * and the latest completions, at most size attempts each.
+ * Attempts that fall off a full board are forgotten, so a board can only be trusted as long as it was
+ * fed every completion since it was loaded.
+ * Not thread safe, Leaderboard locks it while using it.
+ */
+class QuizLeaderboard {
+    /** Best first: higher score, then less time taken, then the earlier attempt. */
+    static final Comparator<QuizAttempt> BY_PERFORMANCE = (a, b) -> {
+        int compare = Double.compare(b.getScore(), a.getScore());
+        if (compare == 0) {
+            compare = Integer.compare(a.getTimeTakenSeconds(), b.getTimeTakenSeconds());
+        }
+        return compare != 0 ? compare : Integer.compare(a.getAttemptId(), b.getAttemptId());
+    };
+
+    /** Latest completion first, then the later attempt. */
+    static final Comparator<QuizAttempt> BY_COMPLETION = (a, b) -> {
+        int compare = b.getEndTime().compareTo(a.getEndTime());
+        return compare != 0 ? compare : Integer.compare(b.getAttemptId(), a.getAttemptId());
+    };
+
+    /** Held by Leaderboard while it stores a change of these boards, the board itself is not. */
+    final Object storeLock = new Object();
+
+    private final int size;
+    private final TreeSet<QuizAttempt> allTime = new TreeSet<>(BY_PERFORMANCE);
+    private final TreeSet<QuizAttempt> recent = new TreeSet<>(BY_COMPLETION);
+
+    /**
+     * @param size the maximum number of attempts on each board
+     * @param allTime the best attempts of all time
+     * @param recent the latest completed attempts
+     */
+    QuizLeaderboard(int size, Collection<QuizAttempt> allTime, Collection<QuizAttempt> recent) {
+        this.size = size;
+        this.allTime.addAll(allTime);
+        this.recent.addAll(recent);
+        trim(this.allTime);
+        trim(this.recent);
+    }
+
+    /**
+     * Puts a completed attempt on the boards it makes. An attempt that is already on a board
+     * (because it was completed again) is replaced.
+     * @param attempt a completed attempt of this quiz
+     * @return the changes to the boards that are stored in the summary table
+     */
+    Change add(QuizAttempt attempt) {
+        Change change = new Change();
+        QuizAttempt previous = remove(allTime, attempt.getAttemptId());
+        boolean wasFull = previous != null && allTime.size() + 1 >= size;
+        allTime.add(attempt);
+        QuizAttempt removed = trim(allTime);
+        if (removed != attempt) {
+            change.allTimeAdded = attempt;
+            change.allTimeRemoved = removed;
+        }
+        // a worse result for an attempt on a full board may let a forgotten attempt overtake it
+        change.allTimeStale = wasFull && BY_PERFORMANCE.compare(attempt, previous) > 0;
+
+        remove(recent, attempt.getAttemptId());
+        recent.add(attempt);
+        removed = trim(recent);
+        if (removed != attempt) {
+            change.recentAdded = attempt;
+            change.recentRemoved = removed;
+        }
+        return change;
+    }
+
+    /**
+     * @param limit the maximum number of attempts returned
+     * @return the best attempts of all time, best first
+     */
+    List<QuizAttempt> top(int limit) {
+        return first(allTime, limit);
+    }
+
+    /**
+     * @param limit the maximum number of attempts returned
+     * @return the latest completed attempts, latest first
+     */
+    List<QuizAttempt> recent(int limit) {
+        return first(recent, limit);
+    }
+
+    //helper method, removes and returns the worst attempt if the board holds too many
+    private QuizAttempt trim(TreeSet<QuizAttempt> board) {
+        return board.size() > size ? board.pollLast() : null;
+    }
+
+    //helper method, removes the attempt with the given id from a board and returns it
+    private static QuizAttempt remove(TreeSet<QuizAttempt> board, int attemptId) {
+        for (QuizAttempt attempt : board) {
+            if (attempt.getAttemptId() == attemptId) {
+                board.remove(attempt);
+                return attempt;
+            }
+        }
+        return null;
+    }
+
+    private static List<QuizAttempt> first(TreeSet<QuizAttempt> board, int limit) {
+        List<QuizAttempt> attempts = new ArrayList<>(Math.min(limit, board.size()));
+        for (QuizAttempt attempt : board) {
+            if (attempts.size() >= limit) {
+                break;
+            }
+            attempts.add(attempt);
+        }
+        return attempts;
+    }
+
+    /*
+     * What adding an attempt changed on the stored boards, null fields for no change.
+     */
+    static class Change {
+        QuizAttempt allTimeAdded;
+        QuizAttempt allTimeRemoved;
+        QuizAttempt recentAdded;
+        QuizAttempt recentRemoved;
+        // the all-time board may miss attempts and has to be rebuilt from the attempts table
+        boolean allTimeStale;
+    }
+}
@@ -0,0 +1,533 @@
+package dao;
+
+import models.Question;
+import models.Quiz;
+import models.QuizSummary;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+/**
+ * In-memory full-text search over the title, description and question texts of every quiz.
+ * The text is split into lowercase words (letters and digits, common English words left out), and every
+ * word maps to the ascending ids of the quizzes containing it with how often they do, a title word counting
+ * TITLE_WEIGHT times. A search scores the quizzes containing any of its words with BM25: rarer words weigh
+ * more, repeats of a word add less and less, and long quizzes are not favoured for their length alone.
+ * The index is streamed from the database on first use (LoginListener does it on startup). QuizDao and the
+ * question DAOs report every quiz and question change, and the changed quiz is read again on its own.
+ * Search results carry what a listing shows (title, creator, creation date, question count), so a search
+ * reads nothing from the database.
+ */
+public class QuizSearchIndex {
+    /** The number of quizzes a search ranks, pages past it are empty. */
+    public static final int MAX_RESULTS = 1000;
+    /** How many times a word of a title counts, a word of the description or of a question counts once. */
+    static final int TITLE_WEIGHT = 3;
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int MAX_FREQUENCY = 255;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "are", "as", "at", "be", "by", "for",
+            "from", "in", "is", "it", "of", "on", "or", "that", "the", "this", "to", "was", "what", "which", "who",
+            "with");
+
+    private static final SharedInstance<QuizSearchIndex> INSTANCE = new SharedInstance<>(() -> new QuizSearchIndex(new QuizDao()));
+
+    private final QuizDao quizDao;
+    // taken by every change before the write lock, so the changes of a quiz are read and applied in order
+    private final Object changeLock = new Object();
+
+    // guards everything below, searches run under the read lock and changes under the write lock
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Map<String, Integer> termIds = new HashMap<>();
+    // postings by term id, a term stays when its last quiz is gone
+    private List<Postings> postings = new ArrayList<>();
+    // the indexed quizzes by quiz id, a null title for ids without a quiz
+    private String[] titles = new String[1024];
+    private int[] creators = new int[1024];
+    private long[] creationTimes = new long[1024];
+    private int[] questionCounts = new int[1024];
+    private int[] lengths = new int[1024];
+    // the term ids of every quiz, to take it out of their postings
+    private int[][] quizTerms = new int[1024][];
+    private int size;
+    private long totalLength;
+    private volatile boolean loaded;
+
+    /**
+     * @param quizDao the DAO the quiz texts are read with
+     */
+    public QuizSearchIndex(QuizDao quizDao) {
+        this.quizDao = quizDao;
+    }
+
+    /**
+     * @return the index shared by the DAOs and the quiz search
+     */
+    public static QuizSearchIndex getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Returns a page of the quizzes matching a text, best match first, then by quiz id.
+     * @param query the searched words, case is ignored
+     * @param offset the number of results on the previous pages
+     * @param limit the maximum number of results to return
+     * @return the quizzes of the page, empty past the last one, past MAX_RESULTS, or if the index could not be read
+     */
+    public List<QuizSummary> search(String query, int offset, int limit) {
+        List<QuizSummary> results = new ArrayList<>();
+        int wanted = Math.min(offset + limit, MAX_RESULTS);
+        List<String> words = new ArrayList<>();
+        if (query != null) {
+            forEachWord(query, word -> {
+                if (!words.contains(word)) {
+                    words.add(word);
+                }
+            });
+        }
+        if (words.isEmpty() || offset < 0 || wanted <= offset || !ensureLoaded()) {
+            return results;
+        }
+        lock.readLock().lock();
+        try {
+            long[] ranked = rank(words, wanted);
+            for (int i = offset; i < ranked.length; i++) {
+                int quizId = Integer.MAX_VALUE - (int) ranked[i];
+                results.add(new QuizSummary(quizId, creators[quizId], titles[quizId],
+                        LocalDateTime.ofEpochSecond(creationTimes[quizId], 0, ZoneOffset.UTC), questionCounts[quizId]));
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a quiz stored in the database, with the questions it was stored with.
+     */
+    public void quizAdded(Quiz quiz) {
+        if (!loaded) {
+            // an index not read yet is read with the quiz in it
+            return;
+        }
+        Document document = new Document(quiz.getQuizId(), quiz.getCreatorUserId(), quiz.getTitle(),
+                quiz.getDescription(), quiz.getCreationDate());
+        if (quiz.getQuestions() != null) {
+            for (Question question : quiz.getQuestions()) {
+                document.addQuestion(question.getQuestionText());
+            }
+        }
+        synchronized (changeLock) {
+            lock.writeLock().lock();
+            try {
+                put(document);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Records a change of a stored quiz or of its questions: the quiz is read again from the database.
+     */
+    public void quizChanged(int quizId) {
+        if (!loaded) {
+            return;
+        }
+        synchronized (changeLock) {
+            List<Document> documents = new ArrayList<>();
+            DocumentReader reader = new DocumentReader(documents::add);
+            if (quizDao.forEachQuizText(quizId, reader) < 0) {
+                // keeps the old text rather than losing the quiz, it is read again on the next change
+                return;
+            }
+            reader.finish();
+            lock.writeLock().lock();
+            try {
+                if (documents.isEmpty()) {
+                    remove(quizId);
+                } else {
+                    put(documents.get(0));
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Records a quiz deleted from the database.
+     */
+    public void quizRemoved(int quizId) {
+        synchronized (changeLock) {
+            lock.writeLock().lock();
+            try {
+                remove(quizId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Replaces the index with the quiz texts streamed from the database.
+     * @return the number of quizzes read, or -1 if the database could not be read
+     */
+    public int rebuild() {
+        synchronized (changeLock) {
+            lock.writeLock().lock();
+            try {
+                clearIndex();
+                DocumentReader reader = new DocumentReader(this::put);
+                int count = quizDao.forEachQuizText(reader);
+                if (count < 0) {
+                    clearIndex();
+                    loaded = false;
+                    return -1;
+                }
+                reader.finish();
+                // the postings grew by doubling, what they will not use is given back
+                for (Postings termPostings : postings) {
+                    termPostings.trim();
+                }
+                loaded = true;
+                return count;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * Empties the index, it is read again from the database on next use.
+     */
+    public void clear() {
+        synchronized (changeLock) {
+            lock.writeLock().lock();
+            try {
+                clearIndex();
+                loaded = false;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    /**
+     * @return the number of quizzes in the index
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    //helper method, reads the index the first time it is used, false if it could not be read
+    private boolean ensureLoaded() {
+        if (!loaded) {
+            synchronized (changeLock) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+        return loaded;
+    }
+
+    /*
+     * Scores every quiz containing one of the words, one word at a time into an array indexed by quiz id,
+     * and keeps the best in a bounded min-heap. A result is packed into a long, the score's bits (a positive
+     * float's bits order like the float) above Integer.MAX_VALUE - quiz id, so the larger long is the better
+     * result. Must be called holding the read lock.
+     * Returns the best results, best first.
+     */
+    private long[] rank(List<String> words, int wanted) {
+        float[] scores = new float[titles.length];
+        int[] scored = new int[64];
+        int scoredCount = 0;
+        float averageLength = size == 0 ? 1 : Math.max(1, (float) totalLength / size);
+        // the length normalisation K1 * (1 - B + B * length / averageLength) as base + perLength * length
+        float base = K1 * (1 - B);
+        float perLength = K1 * B / averageLength;
+        for (String word : words) {
+            Integer termId = termIds.get(word);
+            if (termId == null || postings.get(termId).size == 0) {
+                continue;
+            }
+            Postings termPostings = postings.get(termId);
+            float weight = (float) Math.log(1 + (size - termPostings.size + 0.5) / (termPostings.size + 0.5)) * (K1 + 1);
+            int[] quizIds = termPostings.quizIds;
+            byte[] frequencies = termPostings.frequencies;
+            if (scored.length < scoredCount + termPostings.size) {
+                scored = Arrays.copyOf(scored, Math.max(scored.length * 2, scoredCount + termPostings.size));
+            }
+            for (int i = 0; i < termPostings.size; i++) {
+                int quizId = quizIds[i];
+                int frequency = frequencies[i] & 0xFF;
+                if (scores[quizId] == 0) {
+                    scored[scoredCount++] = quizId;
+                }
+                scores[quizId] += weight * frequency / (frequency + base + perLength * lengths[quizId]);
+            }
+        }
+
+        long[] heap = new long[Math.min(wanted, scoredCount)];
+        int heapSize = 0;
+        for (int i = 0; i < scoredCount; i++) {
+            int quizId = scored[i];
+            long result = (long) Float.floatToIntBits(scores[quizId]) << 32 | (Integer.MAX_VALUE - quizId);
+            if (heapSize < heap.length) {
+                heap[heapSize] = result;
+                siftUp(heap, heapSize++);
+            } else if (heapSize > 0 && result > heap[0]) {
+                heap[0] = result;
+                siftDown(heap, heapSize);
+            }
+        }
+        Arrays.sort(heap, 0, heapSize);
+        long[] ranked = new long[heapSize];
+        for (int i = 0; i < heapSize; i++) {
+            ranked[i] = heap[heapSize - 1 - i];
+        }
+        return ranked;
+    }
+
+    private static void siftUp(long[] heap, int index) {
+        while (index > 0) {
+            int parent = (index - 1) / 2;
+            if (heap[parent] <= heap[index]) {
+                return;
+            }
+            long value = heap[parent];
+            heap[parent] = heap[index];
+            heap[index] = value;
+            index = parent;
+        }
+    }
+
+    private static void siftDown(long[] heap, int size) {
+        int index = 0;
+        while (true) {
+            int smallest = index;
+            for (int child = 2 * index + 1; child <= 2 * index + 2 && child < size; child++) {
+                if (heap[child] < heap[smallest]) {
+                    smallest = child;
+                }
+            }
+            if (smallest == index) {
+                return;
+            }
+            long value = heap[index];
+            heap[index] = heap[smallest];
+            heap[smallest] = value;
+            index = smallest;
+        }
+    }
+
+    //Replaces the quiz of a document with it. Must be called holding the write lock
+    private void put(Document document) {
+        int quizId = document.quizId;
+        remove(quizId);
+        if (quizId >= titles.length) {
+            int length = titles.length;
+            while (length <= quizId) {
+                length <<= 1;
+            }
+            titles = Arrays.copyOf(titles, length);
+            creators = Arrays.copyOf(creators, length);
+            creationTimes = Arrays.copyOf(creationTimes, length);
+            questionCounts = Arrays.copyOf(questionCounts, length);
+            lengths = Arrays.copyOf(lengths, length);
+            quizTerms = Arrays.copyOf(quizTerms, length);
+        }
+        int[] terms = new int[document.frequencies.size()];
+        int count = 0;
+        for (Map.Entry<String, int[]> entry : document.frequencies.entrySet()) {
+            Integer termId = termIds.get(entry.getKey());
+            if (termId == null) {
+                termId = postings.size();
+                termIds.put(entry.getKey(), termId);
+                postings.add(new Postings());
+            }
+            postings.get(termId).add(quizId, Math.min(entry.getValue()[0], MAX_FREQUENCY));
+            terms[count++] = termId;
+        }
+        titles[quizId] = document.title;
+        creators[quizId] = document.creatorUserId;
+        creationTimes[quizId] = document.creationDate.toEpochSecond(ZoneOffset.UTC);
+        questionCounts[quizId] = document.questionCount;
+        lengths[quizId] = document.length;
+        quizTerms[quizId] = terms;
+        totalLength += document.length;
+        size++;
+    }
+
+    //Takes a quiz out of the index. Must be called holding the write lock
+    private void remove(int quizId) {
+        if (quizId <= 0 || quizId >= titles.length || titles[quizId] == null) {
+            return;
+        }
+        for (int termId : quizTerms[quizId]) {
+            postings.get(termId).remove(quizId);
+        }
+        totalLength -= lengths[quizId];
+        titles[quizId] = null;
+        quizTerms[quizId] = null;
+        lengths[quizId] = 0;
+        size--;
+    }
+
+    private void clearIndex() {
+        termIds = new HashMap<>();
+        postings = new ArrayList<>();
+        titles = new String[1024];
+        creators = new int[1024];
+        creationTimes = new long[1024];
+        questionCounts = new int[1024];
+        lengths = new int[1024];
+        quizTerms = new int[1024][];
+        size = 0;
+        totalLength = 0;
+    }
+
+    /**
+     * Splits a text into lowercase words of letters and digits, leaving out single characters and common words.
+     */
+    static void forEachWord(String text, Consumer<String> consumer) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordCharacter = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordCharacter && start < 0) {
+                start = i;
+            } else if (!wordCharacter && start >= 0) {
+                if (i - start > 1) {
+                    String word = text.substring(start, i).toLowerCase(Locale.ROOT);
+                    if (!STOP_WORDS.contains(word)) {
+                        consumer.accept(word);
+                    }
+                }
+                start = -1;
+            }
+        }
+    }
+
+    /*
+     * The words of one quiz with how often they occur, a title word counting TITLE_WEIGHT times.
+     */
+    private static class Document {
+        private final int quizId;
+        private final int creatorUserId;
+        private final String title;
+        private final LocalDateTime creationDate;
+        private final Map<String, int[]> frequencies = new HashMap<>();
+        private int questionCount;
+        private int length;
+
+        Document(int quizId, int creatorUserId, String title, String description, LocalDateTime creationDate) {
+            this.quizId = quizId;
+            this.creatorUserId = creatorUserId;
+            this.title = title;
+            this.creationDate = creationDate;
+            addText(title, TITLE_WEIGHT);
+            addText(description, 1);
+        }
+
+        void addQuestion(String questionText) {
+            questionCount++;
+            addText(questionText, 1);
+        }
+
+        private void addText(String text, int weight) {
+            forEachWord(text, word -> {
+                frequencies.computeIfAbsent(word, key -> new int[1])[0] += weight;
+                length += weight;
+            });
+        }
+    }
+
+    /*
+     * Gathers the rows streamed by QuizDao.forEachQuizText into one document per quiz.
+     */
+    private static class DocumentReader implements QuizDao.QuizTextConsumer {
+        private final Consumer<Document> documents;
+        private Document current;
+
+        DocumentReader(Consumer<Document> documents) {
+            this.documents = documents;
+        }
+
+        @Override
+        public void accept(int quizId, int creatorUserId, String title, String description, LocalDateTime creationDate,
+                           String questionText) {
+            if (current == null || current.quizId != quizId) {
+                finish();
+                current = new Document(quizId, creatorUserId, title, description, creationDate);
+            }
+            if (questionText != null) {
+                current.addQuestion(questionText);
+            }
+        }
+
+        //Hands over the last document
+        void finish() {
+            if (current != null) {
+                documents.accept(current);
+                current = null;
+            }
+        }
+    }
+
+    /*
+     * The ids of the quizzes containing one term in ascending order, with how often they contain it
+     * (up to MAX_FREQUENCY, stored in an unsigned byte).
+     */
+    private static class Postings {
+        private int[] quizIds = new int[2];
+        private byte[] frequencies = new byte[2];
+        private int size;
+
+        void add(int quizId, int frequency) {
+            // new quizzes have the largest id, so this is almost always an append
+            int index = size == 0 || quizIds[size - 1] < quizId ? size : -Arrays.binarySearch(quizIds, 0, size, quizId) - 1;
+            if (size == quizIds.length) {
+                quizIds = Arrays.copyOf(quizIds, Math.max(2, size * 2));
+                frequencies = Arrays.copyOf(frequencies, Math.max(2, size * 2));
+            }
+            System.arraycopy(quizIds, index, quizIds, index + 1, size - index);
+            System.arraycopy(frequencies, index, frequencies, index + 1, size - index);
+            quizIds[index] = quizId;
+            frequencies[index] = (byte) frequency;
+            size++;
+        }
+
+        void remove(int quizId) {
+            int index = Arrays.binarySearch(quizIds, 0, size, quizId);
+            if (index >= 0) {
+                System.arraycopy(quizIds, index + 1, quizIds, index, size - index - 1);
+                System.arraycopy(frequencies, index + 1, frequencies, index, size - index - 1);
+                size--;
+            }
+        }
+
+        void trim() {
+            quizIds = Arrays.copyOf(quizIds, size);
+            frequencies = Arrays.copyOf(frequencies, size);
+        }
+    }
+}
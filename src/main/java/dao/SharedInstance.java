@@ -0,0 +1,38 @@
+package dao;
+
+import java.util.function.Supplier;
+
+/**
+ * The instance of a class shared by the whole application, created on first use,
+ * so its settings are read from config.properties only once it is needed.
+ *
+ * @param <T> the type of the instance
+ */
+public class SharedInstance<T> {
+    private final Supplier<T> factory;
+    private volatile T instance;
+
+    /**
+     * @param factory creates the instance, called once
+     */
+    public SharedInstance(Supplier<T> factory) {
+        this.factory = factory;
+    }
+
+    /**
+     * @return the shared instance, created by the first call
+     */
+    public T get() {
+        T result = instance;
+        if (result == null) {
+            synchronized (this) {
+                result = instance;
+                if (result == null) {
+                    result = factory.get();
+                    instance = result;
+                }
+            }
+        }
+        return result;
+    }
+}
@@ -0,0 +1,123 @@
+package dao;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.net.JarURLConnection;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.jar.JarEntry;
+import java.util.jar.JarFile;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reads SQL scripts from the classpath.
+ * Versioned schema migrations live in db/migration and are named V&lt;version&gt;__&lt;description&gt;.sql,
+ * version 1 is the base schema and MigrationRunner applies them in version order.
+ */
+public final class SqlScript {
+    public static final String MIGRATION_DIRECTORY = "db/migration";
+    private static final Pattern MIGRATION_NAME = Pattern.compile("V(\\d+)__[\\w-]+\\.sql");
+
+    private SqlScript() {
+    }
+
+    /**
+     * Splits a script into its statements. A statement ends with a line ending in ';',
+     * lines starting with "--" are comments and are skipped.
+     * @param resource the classpath path of the script
+     * @return the statements of the script without their trailing ';'
+     * @throws IOException if the script can not be found or read
+     */
+    public static List<String> readStatements(String resource) throws IOException {
+        InputStream inputStream = SqlScript.class.getClassLoader().getResourceAsStream(resource);
+        if (inputStream == null) {
+            throw new IOException("Cannot find " + resource + " in classpath");
+        }
+        List<String> statements = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
+            StringBuilder statement = new StringBuilder();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                statement.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    String text = statement.toString().trim();
+                    statements.add(text.substring(0, text.length() - 1).trim());
+                    statement = new StringBuilder();
+                }
+            }
+            if (statement.toString().trim().length() > 0) {
+                statements.add(statement.toString().trim());
+            }
+        }
+        return statements;
+    }
+
+    /**
+     * @return the classpath paths of all the migration scripts, ordered by version
+     * @throws IOException if the migration directory can not be listed
+     */
+    public static List<String> migrationScripts() throws IOException {
+        List<String> names = new ArrayList<>();
+        URL directory = SqlScript.class.getClassLoader().getResource(MIGRATION_DIRECTORY);
+        if (directory == null) {
+            return names;
+        }
+        if (directory.getProtocol().equals("jar")) {
+            JarURLConnection connection = (JarURLConnection) directory.openConnection();
+            connection.setUseCaches(false);
+            try (JarFile jar = connection.getJarFile()) {
+                Enumeration<JarEntry> entries = jar.entries();
+                while (entries.hasMoreElements()) {
+                    String entry = entries.nextElement().getName();
+                    if (entry.startsWith(MIGRATION_DIRECTORY + "/")) {
+                        names.add(entry.substring(MIGRATION_DIRECTORY.length() + 1));
+                    }
+                }
+            }
+        } else {
+            try (Stream<Path> files = Files.list(Paths.get(directory.toURI()))) {
+                files.forEach(file -> names.add(file.getFileName().toString()));
+            } catch (URISyntaxException e) {
+                throw new IOException("Cannot list " + directory, e);
+            }
+        }
+        List<String> scripts = new ArrayList<>();
+        for (String name : names) {
+            if (MIGRATION_NAME.matcher(name).matches()) {
+                scripts.add(MIGRATION_DIRECTORY + "/" + name);
+            }
+        }
+        scripts.sort(Comparator.comparingInt(SqlScript::versionOf));
+        return scripts;
+    }
+
+    /**
+     * @param script the path or file name of a migration script
+     * @return the version in the name of the script
+     * @throws IllegalArgumentException if the name does not follow V&lt;version&gt;__&lt;description&gt;.sql
+     */
+    public static int versionOf(String script) {
+        String name = script.substring(script.lastIndexOf('/') + 1);
+        Matcher matcher = MIGRATION_NAME.matcher(name);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Not a migration script: " + script);
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+}
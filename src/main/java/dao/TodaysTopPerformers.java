@@ -0,0 +1,339 @@
+package dao;
+
+import models.QuizAttempt;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.StandardMBean;
+import java.lang.management.ManagementFactory;
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Sliding 24 hour window of the best attempts of every quiz, behind Leaderboard.getTodaysTopPerformers.
+ * Completed attempts are put in time buckets by their start time (one hour wide unless configured),
+ * every bucket keeps only its best SIZE attempts in a heap, so a quiz holds at most SIZE attempts per
+ * bucket however many are taken. Buckets older than the window are dropped as time moves on.
+ * The merged best SIZE of a quiz is cached and kept up to date on every add, so reading it costs
+ * O(SIZE); it is only merged again from the buckets once one of its attempts left the window.
+ * The window ends exactly 24 hours ago: attempts of the oldest bucket that started before that are
+ * skipped. Its attempts that did not make the bucket's best SIZE are gone though, so when a quiz has
+ * fewer than SIZE attempts in the rest of the window the result can miss one of them.
+ * The engine is rebuilt from the database on first use (LoginListener does it on startup) by streaming
+ * the attempts started in the window, afterwards QuizAttemptDao.completeAttempt feeds it through Leaderboard.
+ */
+public class TodaysTopPerformers implements TodaysTopPerformersMXBean {
+    private static final String MBEAN_NAME = "dao:type=TodaysTopPerformers";
+    static final long WINDOW_MILLIS = 24L * 60 * 60 * 1000;
+
+    /*
+     * Rough heap sizes with compressed references, for getEstimatedBytes: a QuizAttempt with its two
+     * Timestamps plus its heap slot, a bucket with its heap and tree entry, a quiz with its map entry and cached list.
+     */
+    private static final int ATTEMPT_BYTES = 112;
+    private static final int BUCKET_BYTES = 176;
+    private static final int QUIZ_BYTES = 208;
+
+    private static final SharedInstance<TodaysTopPerformers> INSTANCE = new SharedInstance<>(TodaysTopPerformers::create);
+
+    private final QuizAttemptDao quizAttemptDao;
+    private final int size;
+    private final long bucketMillis;
+    private final LongSupplier clock;
+    private final ConcurrentHashMap<Integer, Window> windows = new ConcurrentHashMap<>();
+    private final AtomicLong lastSweptBucket = new AtomicLong();
+    private volatile boolean loaded;
+    private volatile long lastRebuildMillis = -1;
+
+    /**
+     * @param quizAttemptDao the DAO the attempts of the window are streamed from
+     * @param size the number of attempts kept per bucket, and the most a query can return
+     * @param bucketMillis the width of a time bucket in milliseconds
+     */
+    public TodaysTopPerformers(QuizAttemptDao quizAttemptDao, int size, long bucketMillis) {
+        this(quizAttemptDao, size, bucketMillis, System::currentTimeMillis);
+    }
+
+    //Constructor with a custom clock, used by tests and benchmarks to move time
+    TodaysTopPerformers(QuizAttemptDao quizAttemptDao, int size, long bucketMillis, LongSupplier clock) {
+        if (bucketMillis <= 0 || bucketMillis > WINDOW_MILLIS) {
+            throw new IllegalArgumentException("Bucket width must be between 1 ms and 24 hours");
+        }
+        this.quizAttemptDao = quizAttemptDao;
+        this.size = size;
+        this.bucketMillis = bucketMillis;
+        this.clock = clock;
+    }
+
+    //Creates the shared engine from config.properties and registers it as an MBean
+    private static TodaysTopPerformers create() {
+        TodaysTopPerformers engine = new TodaysTopPerformers(new QuizAttemptDao(), Leaderboard.SIZE,
+                Long.parseLong(DatabaseConnection.getProperty("leaderboard.today.bucketSeconds", "3600")) * 1000);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(new StandardMBean(engine, TodaysTopPerformersMXBean.class, true), name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+        return engine;
+    }
+
+    /**
+     * @return the engine shared by the leaderboards
+     */
+    public static TodaysTopPerformers getInstance() {
+        return INSTANCE.get();
+    }
+
+    /**
+     * Unregisters the MBean of the shared engine, should be called when the application stops.
+     */
+    public static void shutdown() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(MBEAN_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+        } catch (JMException e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Puts a completed attempt in the window of its quiz, replacing it if it was completed before.
+     * Attempts that started before the window are ignored.
+     * @param attempt the completed attempt
+     */
+    public void add(QuizAttempt attempt) {
+        ensureLoaded();
+        long now = clock.getAsLong();
+        insert(attempt, now - WINDOW_MILLIS);
+        sweepIfDue(now);
+    }
+
+    /**
+     * Retrieves the best attempts of a quiz started in the last 24 hours,
+     * by score descending, then time taken ascending.
+     * @param quizId the ID of the quiz
+     * @param limit maximum number of attempts to return, at most size are available
+     * @return list of the best QuizAttempt objects of the window, empty if the quiz has none
+     */
+    public List<QuizAttempt> getTopPerformers(int quizId, int limit) {
+        ensureLoaded();
+        Window window = windows.get(quizId);
+        if (window == null) {
+            return new ArrayList<>();
+        }
+        synchronized (window) {
+            long cutoff = clock.getAsLong() - WINDOW_MILLIS;
+            window.expire(cutoff);
+            List<QuizAttempt> top = window.top(cutoff);
+            return new ArrayList<>(top.subList(0, Math.min(limit, top.size())));
+        }
+    }
+
+    /**
+     * Replaces the content of the engine with the completed attempts started in the window,
+     * streamed from the database.
+     * @return the number of attempts read, or -1 if the database could not be read
+     */
+    public synchronized int rebuild() {
+        long start = System.currentTimeMillis();
+        windows.clear();
+        long cutoff = clock.getAsLong() - WINDOW_MILLIS;
+        int count = quizAttemptDao.forEachCompletedSince(new Timestamp(cutoff), attempt -> insert(attempt, cutoff));
+        if (count < 0) {
+            windows.clear();
+            return -1;
+        }
+        loaded = true;
+        lastRebuildMillis = System.currentTimeMillis() - start;
+        return count;
+    }
+
+    /**
+     * Drops the window of a deleted quiz.
+     * @param quizId the id of the quiz
+     */
+    public void quizRemoved(int quizId) {
+        windows.remove(quizId);
+    }
+
+    /**
+     * Records a deleted user. A bucket keeps only its best attempts and can not refill without the user's,
+     * so if any window holds one of them the engine is emptied and rebuilt from the database on next use.
+     * @param userId the id of the user
+     */
+    public synchronized void userRemoved(int userId) {
+        for (Window window : windows.values()) {
+            synchronized (window) {
+                for (PriorityQueue<QuizAttempt> bucket : window.buckets.values()) {
+                    for (QuizAttempt attempt : bucket) {
+                        if (attempt.getUserId() == userId) {
+                            clear();
+                            return;
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Empties the engine, it is rebuilt from the database on next use.
+     */
+    public synchronized void clear() {
+        windows.clear();
+        loaded = false;
+    }
+
+    @Override
+    public int getQuizCount() {
+        return windows.size();
+    }
+
+    @Override
+    public int getBucketCount() {
+        int buckets = 0;
+        for (Window window : windows.values()) {
+            synchronized (window) {
+                buckets += window.buckets.size();
+            }
+        }
+        return buckets;
+    }
+
+    @Override
+    public int getAttemptCount() {
+        int attempts = 0;
+        for (Window window : windows.values()) {
+            synchronized (window) {
+                for (PriorityQueue<QuizAttempt> bucket : window.buckets.values()) {
+                    attempts += bucket.size();
+                }
+            }
+        }
+        return attempts;
+    }
+
+    @Override
+    public long getEstimatedBytes() {
+        return (long) getQuizCount() * QUIZ_BYTES + (long) getBucketCount() * BUCKET_BYTES
+                + (long) getAttemptCount() * ATTEMPT_BYTES;
+    }
+
+    @Override
+    public long getLastRebuildMillis() {
+        return lastRebuildMillis;
+    }
+
+    //helper method, rebuilds the engine the first time it is used
+    private void ensureLoaded() {
+        if (!loaded) {
+            synchronized (this) {
+                if (!loaded) {
+                    rebuild();
+                }
+            }
+        }
+    }
+
+    //helper method, puts an attempt in the window of its quiz unless it started before the cutoff
+    private void insert(QuizAttempt attempt, long cutoff) {
+        long start = attempt.getStartTime().getTime();
+        if (start < cutoff) {
+            return;
+        }
+        long bucket = start / bucketMillis;
+        while (true) {
+            Window window = windows.computeIfAbsent(attempt.getQuizId(), quizId -> new Window());
+            synchronized (window) {
+                // a window emptied by a sweep is removed from the map, start over with a new one
+                if (windows.get(attempt.getQuizId()) == window) {
+                    window.add(attempt, bucket);
+                    return;
+                }
+            }
+        }
+    }
+
+    //helper method, drops expired buckets and empty windows of every quiz, once per bucket width
+    private void sweepIfDue(long now) {
+        long current = now / bucketMillis;
+        long last = lastSweptBucket.get();
+        if (current <= last || !lastSweptBucket.compareAndSet(last, current)) {
+            return;
+        }
+        for (Map.Entry<Integer, Window> entry : windows.entrySet()) {
+            Window window = entry.getValue();
+            synchronized (window) {
+                window.expire(now - WINDOW_MILLIS);
+                if (window.buckets.isEmpty()) {
+                    windows.remove(entry.getKey(), window);
+                }
+            }
+        }
+    }
+
+    /*
+     * The buckets of one quiz with the cached best attempts over all of them. Guarded by its own lock.
+     */
+    private class Window {
+        // bucket index to its best attempts, the worst of them at the head of the heap
+        private final TreeMap<Long, PriorityQueue<QuizAttempt>> buckets = new TreeMap<>();
+        // the best attempts over all buckets, best first, null when it has to be merged again
+        private List<QuizAttempt> top = new ArrayList<>();
+
+        void add(QuizAttempt attempt, long bucketIndex) {
+            PriorityQueue<QuizAttempt> bucket = buckets.computeIfAbsent(bucketIndex,
+                    index -> new PriorityQueue<>(size + 1, QuizLeaderboard.BY_PERFORMANCE.reversed()));
+            // the start time of an attempt does not change, so one completed again is in this bucket
+            if (bucket.removeIf(old -> old.getAttemptId() == attempt.getAttemptId())) {
+                top = null;
+            }
+            bucket.offer(attempt);
+            if (bucket.size() > size && bucket.poll() == attempt) {
+                return;
+            }
+            if (top != null) {
+                int position = Collections.binarySearch(top, attempt, QuizLeaderboard.BY_PERFORMANCE);
+                top.add(-position - 1, attempt);
+                if (top.size() > size) {
+                    top.remove(top.size() - 1);
+                }
+            }
+        }
+
+        //Drops the buckets that ended before the cutoff and forgets the merged best if one of them left
+        void expire(long cutoff) {
+            buckets.headMap(cutoff / bucketMillis).clear();
+            if (top != null && top.removeIf(attempt -> attempt.getStartTime().getTime() < cutoff)) {
+                top = null;
+            }
+        }
+
+        List<QuizAttempt> top(long cutoff) {
+            if (top == null) {
+                List<QuizAttempt> merged = new ArrayList<>();
+                for (PriorityQueue<QuizAttempt> bucket : buckets.values()) {
+                    for (QuizAttempt attempt : bucket) {
+                        if (attempt.getStartTime().getTime() >= cutoff) {
+                            merged.add(attempt);
+                        }
+                    }
+                }
+                merged.sort(QuizLeaderboard.BY_PERFORMANCE);
+                top = new ArrayList<>(merged.subList(0, Math.min(size, merged.size())));
+            }
+            return top;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package dao;
+
+/**
+ * Management interface of the sliding-window engine behind today's top performers.
+ * Registered with the platform MBean server as {@code dao:type=TodaysTopPerformers}
+ * so its memory footprint can be watched next to the connection pool.
+ */
+public interface TodaysTopPerformersMXBean {
+
+    /**
+     * @return the number of quizzes with attempts in the window
+     */
+    int getQuizCount();
+
+    /**
+     * @return the number of non-empty time buckets over all quizzes
+     */
+    int getBucketCount();
+
+    /**
+     * @return the number of attempts held over all buckets
+     */
+    int getAttemptCount();
+
+    /**
+     * @return an estimate of the heap held by the engine in bytes
+     */
+    long getEstimatedBytes();
+
+    /**
+     * @return how long the last rebuild from the database took in milliseconds, -1 before the first
+     */
+    long getLastRebuildMillis();
+}
@@ -4,6 +4,7 @@ import models.UserAnswer;
 import java.sql.*;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * DAO for user answers.
@@ -118,6 +119,27 @@ public class UserAnswerDao {
         }
     }
 
+    /**
+     * Checks whether a question of a quiz attempt has saved answers.
+     * @param attemptId the ID of the quiz attempt
+     * @param questionId the ID of the question
+     * @return true if the question has answers, false if it has none or a database error occurred
+     */
+    public boolean hasAnswers(int attemptId, int questionId) {
+        try(Connection connection = DatabaseConnection.getConnection();
+            PreparedStatement preparedStatement = connection.prepareStatement(
+                    "SELECT 1 FROM UserAnswers WHERE attempt_id = ? AND question_id = ? LIMIT 1")) {
+            preparedStatement.setInt(1, attemptId);
+            preparedStatement.setInt(2, questionId);
+            try(ResultSet resultSet = preparedStatement.executeQuery()){
+                return resultSet.next();
+            }
+        } catch(SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * Deletes all user answers for a specific question within a quiz attempt.
      * Used when a user changes their answer to a question - removes the old answers
@@ -140,6 +162,64 @@ public class UserAnswerDao {
         }
     }
 
+    /**
+     * Replaces the saved answers of the given questions within an attempt.
+     * The old answers of every question are deleted and the new ones inserted in one transaction,
+     * each kind of statement sent as a single JDBC batch, so either all the questions are saved or none.
+     * Assigns the generated user_answer_id to every inserted answer once the transaction is committed.
+     * @param attemptId the ID of the quiz attempt
+     * @param answersByQuestion the new answers keyed by question ID
+     * @return true if all the answers were saved, false if database error occurred
+     */
+    public boolean replaceAnswers(int attemptId, Map<Integer, List<UserAnswer>> answersByQuestion) {
+        if (answersByQuestion.isEmpty()) {
+            return true;
+        }
+        try(Connection connection = DatabaseConnection.getConnection()){
+            connection.setAutoCommit(false);
+            String query = "INSERT INTO UserAnswers (attempt_id, question_id, answer_given_text, selected_option_id, is_correct)" +
+                    " VALUES (?, ?, ?, ?, ?)";
+            try(PreparedStatement deleteStatement = connection.prepareStatement(
+                    "DELETE FROM UserAnswers WHERE attempt_id = ? AND question_id = ?");
+                PreparedStatement insertStatement = connection.prepareStatement(query, Statement.RETURN_GENERATED_KEYS)) {
+                List<UserAnswer> inserted = new ArrayList<>();
+                for (Map.Entry<Integer, List<UserAnswer>> entry : answersByQuestion.entrySet()) {
+                    deleteStatement.setInt(1, attemptId);
+                    deleteStatement.setInt(2, entry.getKey());
+                    deleteStatement.addBatch();
+                    for (UserAnswer answer : entry.getValue()) {
+                        setUserAnswerParameters(insertStatement, answer);
+                        insertStatement.addBatch();
+                        inserted.add(answer);
+                    }
+                }
+                deleteStatement.executeBatch();
+                List<Integer> generatedIds = new ArrayList<>();
+                if (!inserted.isEmpty()) {
+                    insertStatement.executeBatch();
+                    try (ResultSet resultSet = insertStatement.getGeneratedKeys()) {
+                        while (resultSet.next()) {
+                            generatedIds.add(resultSet.getInt(1));
+                        }
+                    }
+                }
+                connection.commit();
+                for (int i = 0; i < inserted.size() && i < generatedIds.size(); i++) {
+                    if (inserted.get(i).getUserAnswerId() == -1) {
+                        inserted.get(i).setUserAnswerId(generatedIds.get(i));
+                    }
+                }
+                return true;
+            } catch (SQLException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch(SQLException e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     //helper method, gets all the parameters from resultset, constructs a quiz with them and returns it
     private List<UserAnswer> getUserAnswers(ResultSet resultSet) throws SQLException {
         List<UserAnswer> userAnswers = new ArrayList<>();
@@ -0,0 +1,186 @@
+package models;
+
+import java.util.Collection;
+
+/**
+ * The accepted answers of one blank or question, normalized once when the question is built, in a small
+ * open-addressing hash table. A typed answer is matched without building its normalized form: its hash is
+ * computed while normalizing it a character at a time, and the candidates with that hash are compared the
+ * same way, so checking an answer allocates nothing whatever the answer looks like.
+ * A tolerant matcher also accepts answers a few typos away from an accepted one (see allowedTypos),
+ * an inserted, deleted or changed character or two swapped neighbours counting as one typo. That is only
+ * looked for when the answer has no exact match, through a TypoIndex of the accepted answers that skips
+ * most of them without computing a distance, so a question may accept many answers and still be graded inline.
+ */
+public final class AnswerMatcher {
+    /**
+     * The most typos a question may tolerate.
+     */
+    public static final int MAX_TOLERANCE = 3;
+
+    private final AnswerNormalizer normalizer;
+    private final int tolerance;
+    // the distinct normalized answers, indexed for tolerant matching, null for exact matching
+    private final TypoIndex typoIndex;
+    // normalized accepted answers by slot, null for empty slots, and their hashes
+    private final String[] slots;
+    private final int[] hashes;
+    private final int size;
+
+    /**
+     * @param acceptedAnswers the accepted answers as they were entered
+     * @param normalizer how answers are normalized before they are compared
+     */
+    public AnswerMatcher(Collection<String> acceptedAnswers, AnswerNormalizer normalizer) {
+        this(acceptedAnswers, normalizer, 0);
+    }
+
+    /**
+     * @param acceptedAnswers the accepted answers as they were entered
+     * @param normalizer how answers are normalized before they are compared
+     * @param tolerance the most typos an answer may have, 0 for exact matching
+     * @throws IllegalArgumentException if the tolerance is negative or above MAX_TOLERANCE
+     */
+    public AnswerMatcher(Collection<String> acceptedAnswers, AnswerNormalizer normalizer, int tolerance) {
+        if (tolerance < 0 || tolerance > MAX_TOLERANCE) {
+            throw new IllegalArgumentException("Answer tolerance must be between 0 and " + MAX_TOLERANCE);
+        }
+        this.normalizer = normalizer;
+        this.tolerance = tolerance;
+        int capacity = 4;
+        while (capacity < acceptedAnswers.size() * 2) {
+            capacity <<= 1;
+        }
+        this.slots = new String[capacity];
+        this.hashes = new int[capacity];
+        int count = 0;
+        for (String accepted : acceptedAnswers) {
+            if (accepted == null) {
+                continue;
+            }
+            String normalized = normalizer.normalize(accepted);
+            int hash = normalized.hashCode();
+            int slot = hash & (capacity - 1);
+            while (slots[slot] != null && !(hashes[slot] == hash && slots[slot].equals(normalized))) {
+                slot = (slot + 1) & (capacity - 1);
+            }
+            if (slots[slot] == null) {
+                slots[slot] = normalized;
+                hashes[slot] = hash;
+                count++;
+            }
+        }
+        this.size = count;
+        if (tolerance == 0) {
+            this.typoIndex = null;
+        } else {
+            String[] distinct = new String[count];
+            int next = 0;
+            for (String slot : slots) {
+                if (slot != null) {
+                    distinct[next++] = slot;
+                }
+            }
+            this.typoIndex = new TypoIndex(distinct);
+        }
+    }
+
+    /**
+     * How many typos an answer may have to be taken for an accepted answer: none below 4 characters,
+     * then one typo for every 4 characters of the accepted answer, never more than the tolerance.
+     * So a tolerance of 2 accepts "Tbilissi" for "Tbilisi" (one typo), "Grogasli" for "Gorgasali" (two)
+     * and nothing but "Rio" itself for "Rio".
+     * @param accepted a normalized accepted answer
+     * @param tolerance the typos the question allows
+     * @return the typos allowed for that answer
+     */
+    static int allowedTypos(String accepted, int tolerance) {
+        return Math.min(tolerance, accepted.length() / 4);
+    }
+
+    /**
+     * @param answer a typed answer
+     * @return true if the normalized answer is one of the normalized accepted answers,
+     * or is within the allowed typos of one for a tolerant matcher
+     */
+    public boolean matches(String answer) {
+        if (answer == null || size == 0) {
+            return false;
+        }
+        int hash = normalizedHash(answer);
+        int mask = slots.length - 1;
+        for (int slot = hash & mask; slots[slot] != null; slot = (slot + 1) & mask) {
+            if (hashes[slot] == hash && normalizedEquals(answer, slots[slot])) {
+                return true;
+            }
+        }
+        return typoIndex != null && typoIndex.containsWithin(normalizer.normalize(answer), tolerance);
+    }
+
+    /**
+     * @return the most typos an answer may have, 0 for exact matching
+     */
+    public int getTolerance() {
+        return tolerance;
+    }
+
+    /**
+     * @return the number of distinct accepted answers after normalization
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the normalizer the answers are compared with
+     */
+    public AnswerNormalizer getNormalizer() {
+        return normalizer;
+    }
+
+    //String.hashCode of the normalized answer, computed without building it
+    private int normalizedHash(String answer) {
+        int hash = 0;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < answer.length(); i++) {
+            int c = normalizer.fold(answer.charAt(i));
+            if (c == AnswerNormalizer.SPACE) {
+                pendingSpace = started;
+            } else if (c != AnswerNormalizer.DROPPED) {
+                if (pendingSpace) {
+                    hash = 31 * hash + ' ';
+                    pendingSpace = false;
+                }
+                hash = 31 * hash + c;
+                started = true;
+            }
+        }
+        return hash;
+    }
+
+    //Compares the normalized answer with a normalized accepted answer, without building the former
+    private boolean normalizedEquals(String answer, String normalized) {
+        int position = 0;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < answer.length(); i++) {
+            int c = normalizer.fold(answer.charAt(i));
+            if (c == AnswerNormalizer.SPACE) {
+                pendingSpace = started;
+            } else if (c != AnswerNormalizer.DROPPED) {
+                if (pendingSpace) {
+                    if (position == normalized.length() || normalized.charAt(position++) != ' ') {
+                        return false;
+                    }
+                    pendingSpace = false;
+                }
+                if (position == normalized.length() || normalized.charAt(position++) != c) {
+                    return false;
+                }
+                started = true;
+            }
+        }
+        return position == normalized.length();
+    }
+}
@@ -0,0 +1,116 @@
+package models;
+
+import java.text.Normalizer;
+
+/**
+ * Normalizes typed answers before they are compared with the accepted ones: leading and trailing
+ * whitespace is dropped and every run of whitespace inside becomes one space. Optionally letters are
+ * compared without case ("Paris" matches "paris") and without accents ("Tbilisi" matches "Tbílisi").
+ * Whitespace is every character up to the space character, which covers what String.trim removes
+ * and what the regex \s matches. The normalization is done one character at a time
+ * (see AnswerMatcher), normalize builds the normalized form as a string.
+ */
+public final class AnswerNormalizer {
+    /**
+     * Whitespace is normalized, case and accents are kept as typed.
+     */
+    public static final AnswerNormalizer DEFAULT = new AnswerNormalizer(false, false);
+
+    // what fold returns for whitespace and for characters left out of the comparison
+    static final int SPACE = -1;
+    static final int DROPPED = -2;
+
+    // the base letter of every accented character up to FOLDED_RANGE, the character itself if it has no accent
+    private static final int FOLDED_RANGE = 0x0250;
+    private static final char[] BASE_LETTERS = new char[FOLDED_RANGE];
+
+    static {
+        for (char c = 0; c < FOLDED_RANGE; c++) {
+            String decomposed = Normalizer.normalize(String.valueOf(c), Normalizer.Form.NFD);
+            BASE_LETTERS[c] = decomposed.length() > 1 && isCombiningMark(decomposed.charAt(1)) ? decomposed.charAt(0) : c;
+        }
+    }
+
+    private final boolean foldCase;
+    private final boolean stripAccents;
+
+    /**
+     * @param foldCase true to compare letters without case
+     * @param stripAccents true to compare letters without accents, for the Latin letters
+     */
+    public AnswerNormalizer(boolean foldCase, boolean stripAccents) {
+        this.foldCase = foldCase;
+        this.stripAccents = stripAccents;
+    }
+
+    /**
+     * @return true if letters are compared without case
+     */
+    public boolean isFoldCase() {
+        return foldCase;
+    }
+
+    /**
+     * @return true if letters are compared without accents
+     */
+    public boolean isStripAccents() {
+        return stripAccents;
+    }
+
+    /**
+     * @param answer a typed answer
+     * @return the normalized answer
+     */
+    public String normalize(String answer) {
+        StringBuilder normalized = new StringBuilder(answer.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < answer.length(); i++) {
+            int c = fold(answer.charAt(i));
+            if (c == SPACE) {
+                pendingSpace = normalized.length() > 0;
+            } else if (c != DROPPED) {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append((char) c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Normalizes one character.
+     * @return the character to compare, SPACE for whitespace or DROPPED for a combining accent when accents are stripped
+     */
+    int fold(char c) {
+        if (c <= ' ') {
+            return SPACE;
+        }
+        if (stripAccents) {
+            if (c < FOLDED_RANGE) {
+                c = BASE_LETTERS[c];
+            } else if (isCombiningMark(c)) {
+                return DROPPED;
+            }
+        }
+        return foldCase ? Character.toLowerCase(c) : c;
+    }
+
+    private static boolean isCombiningMark(char c) {
+        return c >= 0x0300 && c <= 0x036F;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof AnswerNormalizer)) return false;
+        AnswerNormalizer that = (AnswerNormalizer) o;
+        return foldCase == that.foldCase && stripAccents == that.stripAccents;
+    }
+
+    @Override
+    public int hashCode() {
+        return (foldCase ? 1 : 0) + (stripAccents ? 2 : 0);
+    }
+}
@@ -0,0 +1,52 @@
+package models;
+
+/**
+ * Edit distances between normalized answers, for tolerant grading (see AnswerMatcher).
+ */
+final class EditDistance {
+
+    private EditDistance() {
+    }
+
+    /**
+     * Optimal string alignment distance: the fewest single character inserts, deletes, substitutions
+     * and swaps of two adjacent characters that turn one string into the other, a swap counting as one typo.
+     * Gives up as soon as the distance is known to be larger than max.
+     * @param max the distance past which the exact value is not needed
+     * @return the distance, or max + 1 if it is larger than max
+     */
+    static int typos(String a, String b, int max) {
+        if (Math.abs(a.length() - b.length()) > max) {
+            return max + 1;
+        }
+        int[] beforePrevious = new int[a.length() + 1];
+        int[] previous = new int[a.length() + 1];
+        int[] current = new int[a.length() + 1];
+        for (int i = 0; i <= a.length(); i++) {
+            previous[i] = i;
+        }
+        for (int j = 1; j <= b.length(); j++) {
+            current[0] = j;
+            int rowMin = j;
+            char bj = b.charAt(j - 1);
+            for (int i = 1; i <= a.length(); i++) {
+                char ai = a.charAt(i - 1);
+                int value = Math.min(Math.min(current[i - 1] + 1, previous[i] + 1), previous[i - 1] + (ai == bj ? 0 : 1));
+                if (i > 1 && j > 1 && ai == b.charAt(j - 2) && a.charAt(i - 2) == bj) {
+                    value = Math.min(value, beforePrevious[i - 2] + 1);
+                }
+                current[i] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            // every later row is at least the minimum of this one
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] reused = beforePrevious;
+            beforePrevious = previous;
+            previous = current;
+            current = reused;
+        }
+        return Math.min(previous[a.length()], max + 1);
+    }
+}
@@ -8,7 +8,10 @@ import java.util.Objects;
 /**
  * Represents a fill-in-the-blank question where users provide text answers.
  * Each blank can have multiple acceptable answers, and answers are checked
- * with normalized whitespace (trimmed and collapsed).
+ * with normalized whitespace (trimmed and collapsed), optionally without case and accents
+ * (see AnswerNormalizer). The accepted answers of every blank are normalized once, into an AnswerMatcher.
+ * A question with an answer tolerance also grades answers a few typos off as correct, so the creator
+ * does not have to list every misspelling.
  * Example: "The capital of _____ is _____"
  * with answers [["France", "france"], ["Paris"]] for the two blanks.
  */
@@ -18,15 +21,32 @@ public class FillInTheBlankQuestion extends Question {
      * storing possible correct answers for one blank
      */
     private final List<HashSet<String>> answersList;
+    // the accepted answers of every blank, normalized
+    private final AnswerMatcher[] blankMatchers;
+    private final int answerTolerance;
 
     public FillInTheBlankQuestion(int questionId, String questionText, List<HashSet<String>> answers, int quizId, int orderInQuiz, double maxScore) {
+        this(questionId, questionText, answers, quizId, orderInQuiz, maxScore, AnswerNormalizer.DEFAULT, 0);
+    }
+
+    /**
+     * Creates a question whose answers are compared with the given normalizer and tolerance.
+     * @param answerTolerance the most typos an answer may have, 0 for exact grading
+     * @throws IllegalArgumentException if the tolerance is negative or above AnswerMatcher.MAX_TOLERANCE
+     */
+    public FillInTheBlankQuestion(int questionId, String questionText, List<HashSet<String>> answers, int quizId, int orderInQuiz, double maxScore,
+                                  AnswerNormalizer normalizer, int answerTolerance) {
         super(questionId, questionText, QuestionType.FILL_IN_BLANK, quizId, orderInQuiz, maxScore);
-        this.answersList = answers;
+        this.answersList = copyAnswers(answers);
+        this.answerTolerance = answerTolerance;
+        this.blankMatchers = matchers(answersList, normalizer, answerTolerance);
     }
 
     public FillInTheBlankQuestion(String questionText, List<HashSet<String>> answers, int quizId, int orderInQuiz, int maxScore) {
         super(questionText, QuestionType.FILL_IN_BLANK, quizId, orderInQuiz, maxScore);
-        this.answersList = answers;
+        this.answersList = copyAnswers(answers);
+        this.answerTolerance = 0;
+        this.blankMatchers = matchers(answersList, AnswerNormalizer.DEFAULT, 0);
     }
 
     @Override
@@ -34,37 +54,60 @@ public class FillInTheBlankQuestion extends Question {
         checkUserAnswersException(userAnswers);
         List<Boolean> result = new ArrayList<>();
         for(int i = 0; i < userAnswers.size(); i++){
-            if(answersList.get(i).contains(cleanString(userAnswers.get(i)))){
-                result.add(true);
-            }else{
-                result.add(false);
-            }
+            result.add(blankMatchers[i].matches(userAnswers.get(i)));
         }
         return result;
     }
 
-    //Cleans the string from trimmed spaces
-    private String cleanString(String str){
-        return str.trim().replaceAll("\\s+", " ");
+    //Builds the matcher of every blank
+    private static AnswerMatcher[] matchers(List<HashSet<String>> answers, AnswerNormalizer normalizer, int tolerance) {
+        if (tolerance < 0 || tolerance > AnswerMatcher.MAX_TOLERANCE) {
+            throw new IllegalArgumentException("Answer tolerance must be between 0 and " + AnswerMatcher.MAX_TOLERANCE);
+        }
+        if (answers == null) {
+            return new AnswerMatcher[0];
+        }
+        AnswerMatcher[] matchers = new AnswerMatcher[answers.size()];
+        for (int i = 0; i < matchers.length; i++) {
+            matchers[i] = new AnswerMatcher(answers.get(i), normalizer, tolerance);
+        }
+        return matchers;
+    }
+
+    @Override
+    public int getAnswerTolerance() {
+        return answerTolerance;
     }
 
     @Override
     public List <HashSet<String>> getCorrectAnswers() {
-        return new ArrayList<>(answersList);
+        return copyAnswers(answersList);
+    }
+
+    //Copies the list together with the sets of every blank, so the question never shares them with the caller
+    private static List<HashSet<String>> copyAnswers(List<HashSet<String>> answers) {
+        if (answers == null) {
+            return null;
+        }
+        List<HashSet<String>> copy = new ArrayList<>();
+        for (HashSet<String> blankAnswers : answers) {
+            copy.add(new HashSet<>(blankAnswers));
+        }
+        return copy;
     }
 
     @Override
     public double calculateScore(List<String> userAnswers) {
         int correctAnswers = countCorrectAnswers(userAnswers);
-        return ((double)correctAnswers / (double)answersList.size()) * getMaxScore();
+        return ((double)correctAnswers / (double)blankMatchers.length) * getMaxScore();
     }
 
-    //Counts how many correct answers where provided by the user
+    //Counts how many correct answers where provided by the user, without allocating
     private int countCorrectAnswers(List<String> userAnswers) {
+        checkUserAnswersException(userAnswers);
         int count = 0;
-        List<Boolean> answerCorrectnessList = checkAnswers(userAnswers);
-        for(boolean bool : answerCorrectnessList){
-            if(bool){
+        for(int i = 0; i < blankMatchers.length; i++){
+            if(blankMatchers[i].matches(userAnswers.get(i))){
                 count ++;
             }
         }
@@ -77,7 +120,7 @@ public class FillInTheBlankQuestion extends Question {
      * @throws IllegalArgumentException
      */
     public void checkUserAnswersException(List<String> userAnswers)throws IllegalArgumentException{
-        if(userAnswers.size() != answersList.size()){
+        if(userAnswers.size() != blankMatchers.length){
             throw new IllegalArgumentException("Wrong number of user answers");
         }
     }
@@ -90,6 +133,6 @@ public class FillInTheBlankQuestion extends Question {
         return getQuestionId() == that.getQuestionId() && getQuizId() == that.getQuizId()
                 && getQuestionType().equals(that.getQuestionType()) && getCorrectAnswers().equals(getCorrectAnswers()) &&
                 getQuestionText().equals(that.getQuestionText()) && Objects.equals(getImageUrl(), that.getImageUrl()) &&
-                getOrderInQuiz().equals(that.getOrderInQuiz());
+                getOrderInQuiz().equals(that.getOrderInQuiz()) && answerTolerance == that.answerTolerance;
     }
 }
\ No newline at end of file
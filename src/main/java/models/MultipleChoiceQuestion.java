@@ -9,9 +9,18 @@ import java.util.*;
  * Uses the "AnswerOptionsMC" table to store options with their correctness flags.
  */
 public class MultipleChoiceQuestion extends Question {
-    private final Map<String, Boolean> options;
+    //The options with their correctness flags and database ids
+    private final OptionIndex options;
 
     public MultipleChoiceQuestion(int questionId, String questionText, Map<String, Boolean> options, int quizId, int orderInQuiz, double maxScore) {
+        this(questionId, questionText, new OptionIndex(options), quizId, orderInQuiz, maxScore);
+    }
+
+    /**
+     * Constructor used when the question is loaded together with the database ids of its options
+     * @param options the index of the options, their correctness and ids
+     */
+    public MultipleChoiceQuestion(int questionId, String questionText, OptionIndex options, int quizId, int orderInQuiz, double maxScore) {
         super(questionId, questionText, QuestionType.MULTIPLE_CHOICE, quizId, orderInQuiz, maxScore);
         validateSingleCorrectAnswer(options);
         this.options = options;
@@ -19,8 +28,9 @@ public class MultipleChoiceQuestion extends Question {
 
     public MultipleChoiceQuestion(String questionText, Map<String, Boolean> options, int quizId, int orderInQuiz, double maxScore) {
         super(questionText, QuestionType.MULTIPLE_CHOICE, quizId, orderInQuiz, maxScore);
-        validateSingleCorrectAnswer(options);
-        this.options = options;
+        OptionIndex optionIndex = new OptionIndex(options);
+        validateSingleCorrectAnswer(optionIndex);
+        this.options = optionIndex;
     }
 
     /**
@@ -33,7 +43,7 @@ public class MultipleChoiceQuestion extends Question {
     public List<Boolean> checkAnswers(List<String> userAnswers) {
         checkUserAnswersException(userAnswers);
         List<Boolean> correctAnswers = new ArrayList<>();
-        correctAnswers.add(options.get(userAnswers.get(0)));
+        correctAnswers.add(options.isCorrect(userAnswers.get(0)));
         return correctAnswers;
     }
 
@@ -46,7 +56,7 @@ public class MultipleChoiceQuestion extends Question {
         if(userAnswers.size() != 1){
             throw new IllegalArgumentException("Must select exactly one answer!");
         }else{
-            if (!options.containsKey(userAnswers.get(0))) {
+            if (!options.contains(userAnswers.get(0))) {
                 throw new IllegalArgumentException("Invalid answer option!");
             }
         }
@@ -58,13 +68,7 @@ public class MultipleChoiceQuestion extends Question {
      */
     @Override
     public List<String> getCorrectAnswers() {
-        List<String> correctAnswers = new ArrayList<>();
-        for(String key : options.keySet()) {
-            if(options.get(key)) {
-                correctAnswers.add(key);
-            }
-        }
-        return correctAnswers;
+        return options.getCorrectOptions();
     }
 
     /**
@@ -77,7 +81,7 @@ public class MultipleChoiceQuestion extends Question {
     public double calculateScore(List<String> userAnswers) {
         checkUserAnswersException(userAnswers);
         String userAnswer = userAnswers.get(0);
-        return (options.get(userAnswer) ? 1.0 : 0.0) * getMaxScore();
+        return (options.isCorrect(userAnswer) ? 1.0 : 0.0) * getMaxScore();
     }
 
     /**
@@ -85,7 +89,23 @@ public class MultipleChoiceQuestion extends Question {
      * @return defensive copy of the options map
      */
     public Map<String, Boolean> getOptions() {
-        return new HashMap<>(options);
+        return options.toMap();
+    }
+
+    /**
+     * Resolves the database id of an option from memory, used when saving a user's answer.
+     * @param optionText the text of the option
+     * @return the option_id of the option, null if there is no such option or its id is unknown
+     */
+    public Integer getOptionId(String optionText) {
+        return options.getOptionId(optionText);
+    }
+
+    /**
+     * @return the read-only index of the options, which numbers every option by an ordinal
+     */
+    public OptionIndex getOptionIndex() {
+        return options;
     }
 
     @Override
@@ -102,14 +122,8 @@ public class MultipleChoiceQuestion extends Question {
     /*
      * Validates that exactly one correct answer exists in the options.
      */
-    private void validateSingleCorrectAnswer(Map<String, Boolean> options) {
-        int correctCount = 0;
-        for (Boolean isCorrect : options.values()) {
-            if (isCorrect) {
-                correctCount++;
-            }
-        }
-        if (correctCount != 1) {
+    private void validateSingleCorrectAnswer(OptionIndex options) {
+        if (options.getCorrectCount() != 1) {
             throw new IllegalArgumentException("Multiple choice questions must have exactly one correct answer");
         }
     }
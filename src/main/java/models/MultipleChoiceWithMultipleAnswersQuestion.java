@@ -5,26 +5,38 @@ import java.util.*;
 /**
  * Represents a multiple choice question with predefined multiple choice options.
  * Users select from available choices, and scoring requires all
- * selected answers to be correct (partial credit results in zero score).
+ * selected answers to be correct (selecting any incorrect option results in zero score);
+ * selecting only some of the correct options earns their share of the max score.
+ * The answers are graded as a selection mask of option ordinals against the correct options' mask
+ * (see OptionIndex), so a score costs one lookup per answer and a few bit operations.
  * Questions must have at least one correct option and at least one
  * incorrect option to be valid. Uses the "AnswerOptionsMC" table to store options with
  *  * their correctness flags.
  */
 public class MultipleChoiceWithMultipleAnswersQuestion extends Question {
-    //A map where answer option and their correctness is stored
-    private final Map<String, Boolean> options;
+    //The answer options with their correctness flags and database ids
+    private final OptionIndex options;
 
 
     public MultipleChoiceWithMultipleAnswersQuestion(int questionId, String questionText, Map<String, Boolean> options, int quizId, int orderInQuiz, double maxScore) {
+        this(questionId, questionText, new OptionIndex(options), quizId, orderInQuiz, maxScore);
+    }
+
+    /**
+     * Constructor used when the question is loaded together with the database ids of its options
+     * @param options the index of the options, their correctness and ids
+     */
+    public MultipleChoiceWithMultipleAnswersQuestion(int questionId, String questionText, OptionIndex options, int quizId, int orderInQuiz, double maxScore) {
         super(questionId, questionText, QuestionType.MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS, quizId, orderInQuiz, maxScore);
-        checkOptionsException(options);
+        checkOptionsException(options.getCorrectCount(), options.size());
         this.options = options;
     }
 
     public MultipleChoiceWithMultipleAnswersQuestion(String questionText, Map<String, Boolean> options, int quizId, int orderInQuiz, double maxScore) {
         super(questionText, QuestionType.MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS, quizId, orderInQuiz, maxScore);
-        checkOptionsException(options);
-        this.options = options;
+        OptionIndex optionIndex = new OptionIndex(options);
+        checkOptionsException(optionIndex.getCorrectCount(), optionIndex.size());
+        this.options = optionIndex;
     }
 
     /**
@@ -33,14 +45,19 @@ public class MultipleChoiceWithMultipleAnswersQuestion extends Question {
      */
     public void checkOptionsException(Map<String, Boolean> options) throws IllegalArgumentException {
         int correctAnswers = 0;
-        for(String option : options.keySet()) {
-            if(options.get(option)) {
+        for(Boolean correct : options.values()) {
+            if(correct) {
                 correctAnswers++;
             }
         }
+        checkOptionsException(correctAnswers, options.size());
+    }
+
+    //Checks the counts of the options, the index already counted its correct ones
+    private static void checkOptionsException(int correctAnswers, int optionCount) {
         if(correctAnswers == 0){
             throw new IllegalArgumentException("At least one option must be correct");
-        }else if (correctAnswers == options.size()){
+        }else if (correctAnswers == optionCount){
             throw new IllegalArgumentException("All options can't be correct");
         }
     }
@@ -48,13 +65,9 @@ public class MultipleChoiceWithMultipleAnswersQuestion extends Question {
     @Override
     public List<Boolean> checkAnswers(List<String> userAnswers) {
         checkUserAnswersException(userAnswers);
-        List<Boolean> correctAnswers = new ArrayList<>();
+        List<Boolean> correctAnswers = new ArrayList<>(userAnswers.size());
         for(String answer : userAnswers) {
-            if(options.get(answer)) {
-                correctAnswers.add(true);
-            }else{
-                correctAnswers.add(false);
-            }
+            correctAnswers.add(options.isCorrect(answer));
         }
         return correctAnswers;
     }
@@ -66,48 +79,60 @@ public class MultipleChoiceWithMultipleAnswersQuestion extends Question {
      * @throws IllegalArgumentException
      */
     public void checkUserAnswersException(List<String> userAnswers) throws IllegalArgumentException{
+        select(userAnswers);
+    }
+
+    //Checks the user answers as checkUserAnswersException does and returns them as a selection of option ordinals
+    private long[] select(List<String> userAnswers) {
         if(userAnswers.size() > options.size()){
             throw new IllegalArgumentException("Wrong number of user answers!");
-        }else{
-            for(int i = 0; i < userAnswers.size(); i++){
-                if(!options.containsKey(userAnswers.get(i))){
-                    throw new IllegalArgumentException("Wrong answer at index " + i + "!");
-                }
+        }
+        long[] selection = options.emptySelection();
+        for(int i = 0; i < userAnswers.size(); i++){
+            int ordinal = options.ordinalOf(userAnswers.get(i));
+            if(ordinal == -1){
+                throw new IllegalArgumentException("Wrong answer at index " + i + "!");
             }
+            OptionIndex.select(selection, ordinal);
         }
+        return selection;
     }
 
     @Override
     public List<String> getCorrectAnswers() {
-        List<String> correctAnswers = new ArrayList<>();
-        for(String key : options.keySet()) {
-            if(options.get(key)) {
-                correctAnswers.add(key);
-            }
-        }
-        return correctAnswers;
+        return options.getCorrectOptions();
     }
 
     @Override
     public double calculateScore(List<String> userAnswers) {
-        checkUserAnswersException(userAnswers);
-        List<String> correctAnswers = getCorrectAnswers();
-        double correctAnswersCount = 0;
-        for(String userAnswer : userAnswers) {
-            if(correctAnswers.contains(userAnswer)) {
-                correctAnswersCount++;
-            }else{
-                return 0.0;
-            }
+        long[] selection = select(userAnswers);
+        if(options.selectsIncorrect(selection)) {
+            return 0.0;
         }
-        return (correctAnswersCount / correctAnswers.size()) * getMaxScore();
+        return ((double) options.countCorrect(selection) / options.getCorrectCount()) * getMaxScore();
     }
 
     /**
      * @return defensive copy of the options map
      */
     public Map<String, Boolean> getOptions() {
-        return new HashMap<>(options);
+        return options.toMap();
+    }
+
+    /**
+     * Resolves the database id of an option from memory, used when saving a user's answers.
+     * @param optionText the text of the option
+     * @return the option_id of the option, null if there is no such option or its id is unknown
+     */
+    public Integer getOptionId(String optionText) {
+        return options.getOptionId(optionText);
+    }
+
+    /**
+     * @return the read-only index of the options, which numbers every option by an ordinal
+     */
+    public OptionIndex getOptionIndex() {
+        return options;
     }
 
     @Override
@@ -0,0 +1,192 @@
+package models;
+
+import java.util.*;
+
+/**
+ * Compact read-only index of the answer options of a multiple choice question.
+ * Every option gets an ordinal (its position in the index); the option texts and their database ids
+ * are kept in arrays by ordinal and a single hash map resolves text to ordinal. The correct options are
+ * a bitmask by ordinal, so a selection of options (see emptySelection) is graded with an AND and a popcount.
+ * Built once when a question is created or loaded, so answer submission can check an option and
+ * resolve its option_id without going to the database.
+ */
+public final class OptionIndex {
+    private final Map<String, Integer> ordinals;
+    private final String[] texts;
+    private final int[] optionIds;
+    // bit ordinal % 64 of word ordinal / 64 is set for every correct option
+    private final long[] correctMask;
+    private final int correctCount;
+
+    /**
+     * Creates an index of options whose database ids are not known (not yet saved).
+     * @param options the option texts with their correctness flags
+     */
+    public OptionIndex(Map<String, Boolean> options) {
+        this(options, Collections.emptyMap());
+    }
+
+    /**
+     * @param options the option texts with their correctness flags, ordinals follow the map's iteration order
+     * @param optionIds the database ids of the options, options missing from this map have no id
+     */
+    public OptionIndex(Map<String, Boolean> options, Map<String, Integer> optionIds) {
+        int size = options.size();
+        this.ordinals = new HashMap<>(size * 2);
+        this.texts = new String[size];
+        this.optionIds = new int[size];
+        this.correctMask = new long[(size + 63) >>> 6];
+        int ordinal = 0;
+        int correctOptions = 0;
+        for (Map.Entry<String, Boolean> option : options.entrySet()) {
+            texts[ordinal] = option.getKey();
+            Integer optionId = optionIds.get(option.getKey());
+            this.optionIds[ordinal] = optionId == null ? -1 : optionId;
+            if (Boolean.TRUE.equals(option.getValue())) {
+                select(correctMask, ordinal);
+                correctOptions++;
+            }
+            ordinals.put(option.getKey(), ordinal);
+            ordinal++;
+        }
+        this.correctCount = correctOptions;
+    }
+
+    /**
+     * @return the number of options
+     */
+    public int size() {
+        return texts.length;
+    }
+
+    /**
+     * @param optionText the text of an option
+     * @return the ordinal of the option, -1 if there is no such option
+     */
+    public int ordinalOf(String optionText) {
+        Integer ordinal = ordinals.get(optionText);
+        return ordinal == null ? -1 : ordinal;
+    }
+
+    /**
+     * @param ordinal the ordinal of an option
+     * @return the text of the option
+     * @throws ArrayIndexOutOfBoundsException if there is no option with that ordinal
+     */
+    public String getText(int ordinal) {
+        return texts[ordinal];
+    }
+
+    /**
+     * @param optionText the text of an option
+     * @return boolean indicating if the question has such an option
+     */
+    public boolean contains(String optionText) {
+        return ordinals.containsKey(optionText);
+    }
+
+    /**
+     * @param optionText the text of an option
+     * @return boolean indicating if the option exists and is correct
+     */
+    public boolean isCorrect(String optionText) {
+        int ordinal = ordinalOf(optionText);
+        return ordinal != -1 && isCorrect(ordinal);
+    }
+
+    /**
+     * @param ordinal the ordinal of an option
+     * @return boolean indicating if the option is correct
+     * @throws ArrayIndexOutOfBoundsException if there is no option with that ordinal
+     */
+    public boolean isCorrect(int ordinal) {
+        if (ordinal >= texts.length) {
+            throw new ArrayIndexOutOfBoundsException(ordinal);
+        }
+        return (correctMask[ordinal >>> 6] & (1L << ordinal)) != 0;
+    }
+
+    /**
+     * @return a selection of none of the options, a mask with a bit for every ordinal
+     */
+    public long[] emptySelection() {
+        return new long[correctMask.length];
+    }
+
+    /**
+     * Adds an option to a selection.
+     * @param selection a selection of this index's options
+     * @param ordinal the ordinal of the selected option
+     */
+    public static void select(long[] selection, int ordinal) {
+        selection[ordinal >>> 6] |= 1L << ordinal;
+    }
+
+    /**
+     * @param selection a selection of this index's options
+     * @return the number of correct options in the selection, an option selected twice counts once
+     */
+    public int countCorrect(long[] selection) {
+        int count = 0;
+        for (int i = 0; i < correctMask.length; i++) {
+            count += Long.bitCount(selection[i] & correctMask[i]);
+        }
+        return count;
+    }
+
+    /**
+     * @param selection a selection of this index's options
+     * @return true if the selection has an option that is not correct
+     */
+    public boolean selectsIncorrect(long[] selection) {
+        for (int i = 0; i < correctMask.length; i++) {
+            if ((selection[i] & ~correctMask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param optionText the text of an option
+     * @return the database id of the option, null if there is no such option or it was never saved
+     */
+    public Integer getOptionId(String optionText) {
+        int ordinal = ordinalOf(optionText);
+        if (ordinal == -1 || optionIds[ordinal] == -1) {
+            return null;
+        }
+        return optionIds[ordinal];
+    }
+
+    /**
+     * @return the number of correct options
+     */
+    public int getCorrectCount() {
+        return correctCount;
+    }
+
+    /**
+     * @return the texts of the correct options in ordinal order
+     */
+    public List<String> getCorrectOptions() {
+        List<String> correctOptions = new ArrayList<>(correctCount);
+        for (int i = 0; i < texts.length; i++) {
+            if (isCorrect(i)) {
+                correctOptions.add(texts[i]);
+            }
+        }
+        return correctOptions;
+    }
+
+    /**
+     * @return a new map of the option texts and their correctness flags, iterating in ordinal order
+     */
+    public Map<String, Boolean> toMap() {
+        Map<String, Boolean> options = new LinkedHashMap<>();
+        for (int i = 0; i < texts.length; i++) {
+            options.put(texts[i], isCorrect(i));
+        }
+        return options;
+    }
+}
@@ -11,60 +11,76 @@ import java.util.Objects;
 * the user enters an answer based on the provided image and question(Example image: George Washington, question; who is shown on the image)*
 * the resulting points to this type of question are binary(either 0 or 1)
 * there may be multiple allowed answers(Example: "George Washington", Washington, "the first president of the US" and etc.)
+* answers are compared after normalizing whitespace, and optionally case and accents (see AnswerNormalizer),
+* against the allowed answers normalized once into an AnswerMatcher
+* with an answer tolerance, answers a few typos off an allowed answer are accepted too
 * */
 public class PictureResponse extends Question {
-    private HashSet<String> allowedAnswers;
+    private final HashSet<String> allowedAnswers;
+    private final AnswerMatcher matcher;
+    private final int answerTolerance;
 
     public PictureResponse(String questionText, QuestionType questionType, int quiz_Id, int orderInQuiz, String imageUrl, HashSet<String> allowedAnswers, double maxScore) {
         super(questionText, questionType, quiz_Id, orderInQuiz, maxScore);
         this.setImageUrl(imageUrl);
-        this.allowedAnswers = allowedAnswers;
+        this.allowedAnswers = new HashSet<>(allowedAnswers);
+        this.matcher = new AnswerMatcher(this.allowedAnswers, AnswerNormalizer.DEFAULT);
+        this.answerTolerance = 0;
     }
 
     public PictureResponse(int questionId,String questionText, QuestionType questionType, int quiz_Id, int orderInQuiz, String imageUrl, HashSet<String> allowedAnswers, double maxScore) {
+        this(questionId, questionText, questionType, quiz_Id, orderInQuiz, imageUrl, allowedAnswers, maxScore, AnswerNormalizer.DEFAULT, 0);
+    }
+
+    /*
+     * Creates a question whose answers are compared with the given normalizer, accepting up to answerTolerance typos
+     * throws IllegalArgumentException if the tolerance is negative or above AnswerMatcher.MAX_TOLERANCE
+     */
+    public PictureResponse(int questionId,String questionText, QuestionType questionType, int quiz_Id, int orderInQuiz, String imageUrl, HashSet<String> allowedAnswers, double maxScore,
+                           AnswerNormalizer normalizer, int answerTolerance) {
         super(questionId, questionText, questionType, quiz_Id, orderInQuiz, maxScore);
         this.setImageUrl(imageUrl);
-        this.allowedAnswers = allowedAnswers;
+        this.allowedAnswers = new HashSet<>(allowedAnswers);
+        this.matcher = new AnswerMatcher(this.allowedAnswers, normalizer, answerTolerance);
+        this.answerTolerance = answerTolerance;
     }
 
     public PictureResponse(int questionId, String questionText, QuestionType questionType, int quizId, int orderInQuiz, HashSet<String> allowedAnswers, double maxScore) {
-        super(questionId, questionText, questionType, quizId, orderInQuiz, maxScore);
-        this.allowedAnswers = allowedAnswers;
+        this(questionId, questionText, questionType, quizId, orderInQuiz, null, allowedAnswers, maxScore, AnswerNormalizer.DEFAULT, 0);
     }
 
     @Override
     public List<Boolean> checkAnswers(List<String> userAnswers) {
         List<Boolean> answers = new ArrayList<>();
         for (String userAnswer : userAnswers) {
-            if (!allowedAnswers.contains(cleanString(userAnswer))) {
-                answers.add(false);
-            }else{
-                answers.add(true);
-            }
+            answers.add(matcher.matches(userAnswer));
         }
         return answers;
     }
 
+    /*
+     * returns a copy of the allowed answers, the question matches answers against the ones it was built with
+     */
     @Override
     public Object getCorrectAnswers() {
-        return allowedAnswers;
+        return new HashSet<>(allowedAnswers);
+    }
+
+    @Override
+    public int getAnswerTolerance() {
+        return answerTolerance;
     }
 
     @Override
     public double calculateScore(List<String> userAnswers) {
-        for (String userAnswer : userAnswers) {
-            if (!allowedAnswers.contains(cleanString(userAnswer))) {
+        for (int i = 0; i < userAnswers.size(); i++) {
+            if (!matcher.matches(userAnswers.get(i))) {
                 return 0.0;
             }
         }
         return getMaxScore();
     }
 
-    //Cleans the string from trimmed spaces
-    private String cleanString(String str){
-        return str.trim().replaceAll("\\s+", " ");
-    }
-
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
@@ -76,7 +92,8 @@ public class PictureResponse extends Question {
                 Objects.equals(this.getQuestionType(), that.getQuestionType()) &&
                 Objects.equals(this.getImageUrl(), that.getImageUrl()) &&
                 Objects.equals(this.getOrderInQuiz(), that.getOrderInQuiz()) &&
-                allowedAnswers.equals(that.allowedAnswers) && Objects.equals(this.getMaxScore(), that.getMaxScore());
+                allowedAnswers.equals(that.allowedAnswers) && Objects.equals(this.getMaxScore(), that.getMaxScore()) &&
+                answerTolerance == that.answerTolerance;
     }
 
 }
@@ -7,6 +7,8 @@ import java.util.List;
  * Defines common properties shared by all question types.
  * Subclasses must implement answer checking, scoring,
  * and provide type-specific answer formats.
+ * Questions loaded through QuizDao are cached and shared between quiz sessions, so they
+ * must not be modified after loading. Subclasses copy their answers in and out for this reason.
  */
 public abstract class Question {
     private final String questionText;
@@ -101,6 +103,15 @@ public abstract class Question {
     public double getMaxScore() {
         return maxScore;
     }
+
+    /**
+     * @return the most typos a typed answer may have and still be graded correct,
+     * 0 for exact grading, which is how the question types without typed answers grade
+     */
+    public int getAnswerTolerance() {
+        return 0;
+    }
+
     /**
      * @param imageUrl the URL of an image to be included in a question
      */
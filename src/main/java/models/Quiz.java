@@ -97,6 +97,23 @@ public class Quiz {
         this.quizId = quizId;
     }
 
+    /**
+     * Copy constructor. The copy gets its own settings but shares the question list of the original.
+     * @param other the quiz to copy
+     */
+    public Quiz(Quiz other) {
+        this.quizId = other.quizId;
+        this.creatorUserId = other.creatorUserId;
+        this.title = other.title;
+        this.description = other.description;
+        this.creationDate = other.creationDate;
+        this.isRandomOrder = other.isRandomOrder;
+        this.quizDisplayType = other.quizDisplayType;
+        this.isImmediateCorrection = other.isImmediateCorrection;
+        this.isPracticeModeEnabled = other.isPracticeModeEnabled;
+        this.questions = other.questions;
+    }
+
     public int getQuizId() {
         return quizId;
     }
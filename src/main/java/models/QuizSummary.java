@@ -0,0 +1,75 @@
+package models;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Lightweight read-only view of a quiz for listings: the columns a list shows plus the number
+ * of questions, without the description or the questions themselves.
+ */
+public class QuizSummary {
+    private final int quizId;
+    private final int creatorUserId;
+    private final String title;
+    private final LocalDateTime creationDate;
+    private final int questionCount;
+
+    /**
+     * @param quizId the id of a quiz
+     * @param creatorUserId the id of a user who created a quiz
+     * @param title the title of a quiz
+     * @param creationDate the date when the quiz was created
+     * @param questionCount the number of questions in a quiz
+     */
+    public QuizSummary(int quizId, int creatorUserId, String title, LocalDateTime creationDate, int questionCount) {
+        this.quizId = quizId;
+        this.creatorUserId = creatorUserId;
+        this.title = title;
+        this.creationDate = creationDate;
+        this.questionCount = questionCount;
+    }
+
+    public int getQuizId() {
+        return quizId;
+    }
+
+    public int getCreatorUserId() {
+        return creatorUserId;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public LocalDateTime getCreationDate() {
+        return creationDate;
+    }
+
+    public int getQuestionCount() {
+        return questionCount;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuizSummary)) return false;
+        QuizSummary that = (QuizSummary) o;
+        return quizId == that.quizId && creatorUserId == that.creatorUserId && questionCount == that.questionCount
+                && Objects.equals(title, that.title) && Objects.equals(creationDate, that.creationDate);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(quizId, creatorUserId, title, creationDate, questionCount);
+    }
+
+    @Override
+    public String toString() {
+        return "QuizSummary{" +
+                "quizId=" + quizId +
+                ", title='" + title + '\'' +
+                ", creationDate=" + creationDate +
+                ", questionCount=" + questionCount +
+                '}';
+    }
+}
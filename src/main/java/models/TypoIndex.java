@@ -0,0 +1,84 @@
+package models;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The normalized accepted answers of a tolerant question, indexed so that a misspelled answer is compared
+ * with as few of them as possible (see AnswerMatcher). An answer within k typos of an accepted one has a
+ * length at most k apart, so the answers are kept sorted by length and only the few lengths around the
+ * typed one are looked at. Each answer also has a mask of the characters it contains, hashed to 64 bits:
+ * one typo changes at most two bits of it, so an answer whose mask differs from the typed one in more than
+ * 2k bits is skipped without computing the distance. Only the answers left are compared with EditDistance.typos.
+ */
+final class TypoIndex {
+    // answers sorted by length, their character masks, and where the answers of every length start
+    private final String[] terms;
+    private final long[] masks;
+    private final int[] firstOfLength;
+
+    /**
+     * @param terms distinct normalized answers
+     */
+    TypoIndex(String[] terms) {
+        this.terms = terms.clone();
+        Arrays.sort(this.terms, Comparator.comparingInt(String::length));
+        this.masks = new long[this.terms.length];
+        int longest = this.terms.length == 0 ? 0 : this.terms[this.terms.length - 1].length();
+        this.firstOfLength = new int[longest + 2];
+        int length = 0;
+        for (int i = 0; i < this.terms.length; i++) {
+            masks[i] = mask(this.terms[i]);
+            while (length <= this.terms[i].length()) {
+                firstOfLength[length++] = i;
+            }
+        }
+        while (length < firstOfLength.length) {
+            firstOfLength[length++] = this.terms.length;
+        }
+    }
+
+    //One bit for every character the string contains, characters hashed by their low 6 bits
+    private static long mask(String term) {
+        long mask = 0;
+        for (int i = 0; i < term.length(); i++) {
+            mask |= 1L << term.charAt(i);
+        }
+        return mask;
+    }
+
+    /**
+     * @param query the normalized typed answer
+     * @param tolerance the typos a question allows
+     * @return true if some answer is within the typos AnswerMatcher.allowedTypos allows it
+     */
+    boolean containsWithin(String query, int tolerance) {
+        int length = query.length();
+        int from = Math.max(0, length - tolerance);
+        if (from >= firstOfLength.length) {
+            return false;
+        }
+        int start = firstOfLength[from];
+        int end = firstOfLength[Math.min(firstOfLength.length - 1, length + tolerance + 1)];
+        long queryMask = mask(query);
+        for (int i = start; i < end; i++) {
+            String term = terms[i];
+            int allowed = AnswerMatcher.allowedTypos(term, tolerance);
+            if (allowed == 0 || Math.abs(term.length() - length) > allowed
+                    || Long.bitCount(masks[i] ^ queryMask) > 2 * allowed) {
+                continue;
+            }
+            if (EditDistance.typos(query, term, allowed) <= allowed) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of answers in the index
+     */
+    int size() {
+        return terms.length;
+    }
+}
@@ -0,0 +1,45 @@
+package quiz_engine;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Shares one instance of each typed answer among the quiz sessions of this server, so an answer many users
+ * give ("Paris") is held once however many sessions hold it. Unlike String.intern the pool is bounded:
+ * only answers of at most MAX_LENGTH characters are pooled, and once MAX_ENTRIES answers are pooled further
+ * answers are kept as they are. The pool lives as long as the server, like the answers people commonly give.
+ */
+final class AnswerInterner {
+    static final int MAX_LENGTH = 64;
+    static final int MAX_ENTRIES = 100000;
+
+    private static final ConcurrentHashMap<String, String> POOL = new ConcurrentHashMap<>();
+
+    private AnswerInterner() {
+    }
+
+    /**
+     * @param answer a typed answer
+     * @return the pooled instance equal to the answer, or the answer itself if it is not pooled
+     */
+    static String intern(String answer) {
+        if (answer == null || answer.length() > MAX_LENGTH) {
+            return answer;
+        }
+        String pooled = POOL.get(answer);
+        if (pooled != null) {
+            return pooled;
+        }
+        if (POOL.size() >= MAX_ENTRIES) {
+            return answer;
+        }
+        pooled = POOL.putIfAbsent(answer, answer);
+        return pooled != null ? pooled : answer;
+    }
+
+    /**
+     * @return the number of pooled answers
+     */
+    static int size() {
+        return POOL.size();
+    }
+}
@@ -0,0 +1,192 @@
+package quiz_engine;
+
+import dao.DatabaseConnection;
+import dao.UserAnswerDao;
+import models.UserAnswer;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Persists the answers submitted in quiz sessions.
+ * In the default synchronous mode every submission replaces the saved answers of its question
+ * right away, the delete and the inserts going to the database in one transaction.
+ * In write-behind mode submissions are buffered per attempt and written together in one transaction
+ * when the quiz is completed, when the periodic flush runs, or as soon as an attempt has more unsaved
+ * questions than allowed. Answers still buffered when the server dies are lost, the flush interval
+ * and the pending limit bound how much that can be. A failed flush keeps the answers for the next one.
+ */
+public class AnswerWriter {
+    private static final int LOCK_STRIPES = 64;
+    private static AnswerWriter instance;
+
+    private final UserAnswerDao userAnswerDao;
+    private final boolean writeBehind;
+    private final int maxPendingQuestions;
+    private final ConcurrentHashMap<Integer, Map<Integer, List<UserAnswer>>> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService flusher;
+
+    /*
+     * Flushes of the same attempt must not overlap, or an older batch could be written after a newer one.
+     * Attempts are spread over a fixed number of locks instead of keeping one per attempt.
+     */
+    private final Object[] flushLocks = new Object[LOCK_STRIPES];
+
+    /**
+     * @param userAnswerDao the dao writing the answers
+     * @param writeBehind false to write every submission immediately, true to buffer them
+     * @param flushIntervalMs how often buffered answers are written in write-behind mode, must be positive
+     * @param maxPendingQuestions how many unsaved questions an attempt may have before it is flushed
+     * @throws IllegalArgumentException if write-behind is on and the flush interval is not positive
+     */
+    public AnswerWriter(UserAnswerDao userAnswerDao, boolean writeBehind, long flushIntervalMs, int maxPendingQuestions) {
+        if (writeBehind && flushIntervalMs <= 0) {
+            throw new IllegalArgumentException("Write-behind needs a positive flush interval");
+        }
+        this.userAnswerDao = userAnswerDao;
+        this.writeBehind = writeBehind;
+        this.maxPendingQuestions = maxPendingQuestions;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            flushLocks[i] = new Object();
+        }
+        if (writeBehind) {
+            flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "answer-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            flusher.scheduleWithFixedDelay(this::flushAll, flushIntervalMs, flushIntervalMs, TimeUnit.MILLISECONDS);
+        } else {
+            flusher = null;
+        }
+    }
+
+    /**
+     * Returns the writer shared by all quiz sessions, configured from config.properties.
+     * @return the shared answer writer
+     */
+    public static synchronized AnswerWriter getInstance() {
+        if (instance == null) {
+            instance = new AnswerWriter(new UserAnswerDao(),
+                    Boolean.parseBoolean(DatabaseConnection.getProperty("answers.writeBehind", "false")),
+                    Long.parseLong(DatabaseConnection.getProperty("answers.flushIntervalMs", "1000")),
+                    Integer.parseInt(DatabaseConnection.getProperty("answers.maxPendingQuestions", "10")));
+        }
+        return instance;
+    }
+
+    /**
+     * Writes out everything buffered by the shared writer and stops it,
+     * should be called when the application stops and before the connection pool is closed.
+     */
+    public static synchronized void shutdown() {
+        if (instance != null) {
+            instance.close();
+            instance = null;
+        }
+    }
+
+    /**
+     * Replaces the answers of a question within an attempt.
+     * @param attemptId the ID of the quiz attempt
+     * @param questionId the ID of the answered question
+     * @param answers the new answers of the question
+     * @return true if the answers were saved or buffered, false if saving them failed
+     */
+    public boolean submit(int attemptId, int questionId, List<UserAnswer> answers) {
+        if (!writeBehind) {
+            return userAnswerDao.replaceAnswers(attemptId, Collections.singletonMap(questionId, answers));
+        }
+        int[] pendingQuestions = new int[1];
+        pending.compute(attemptId, (id, questions) -> {
+            if (questions == null) {
+                questions = new LinkedHashMap<>();
+            }
+            questions.put(questionId, answers);
+            pendingQuestions[0] = questions.size();
+            return questions;
+        });
+        if (pendingQuestions[0] >= maxPendingQuestions) {
+            return flush(attemptId);
+        }
+        return true;
+    }
+
+    /**
+     * Writes the buffered answers of an attempt to the database.
+     * @param attemptId the ID of the quiz attempt
+     * @return true if nothing is left unsaved for the attempt, false if writing failed
+     */
+    public boolean flush(int attemptId) {
+        synchronized (flushLocks[Math.floorMod(attemptId, LOCK_STRIPES)]) {
+            Map<Integer, List<UserAnswer>> questions = pending.remove(attemptId);
+            if (questions == null) {
+                return true;
+            }
+            boolean saved;
+            try {
+                saved = userAnswerDao.replaceAnswers(attemptId, questions);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                saved = false;
+            }
+            if (!saved) {
+                // keep the answers for the next flush, answers submitted meanwhile are newer and win
+                pending.merge(attemptId, new LinkedHashMap<>(questions), (newer, failed) -> {
+                    failed.putAll(newer);
+                    return failed;
+                });
+            }
+            return saved;
+        }
+    }
+
+    /**
+     * Writes the buffered answers of every attempt to the database.
+     */
+    public void flushAll() {
+        for (Integer attemptId : pending.keySet()) {
+            flush(attemptId);
+        }
+    }
+
+    /**
+     * @param attemptId the ID of the quiz attempt
+     * @return how many questions of the attempt have answers not yet written to the database
+     */
+    public int getPendingQuestionCount(int attemptId) {
+        Map<Integer, List<UserAnswer>> questions = pending.get(attemptId);
+        return questions == null ? 0 : questions.size();
+    }
+
+    /**
+     * @param attemptId the ID of the quiz attempt
+     * @param questionId the ID of the question
+     * @return true if the question of the attempt has answers, buffered or written to the database
+     */
+    public boolean hasAnswers(int attemptId, int questionId) {
+        boolean[] buffered = new boolean[1];
+        // read under the lock the buffer of the attempt is changed under
+        pending.computeIfPresent(attemptId, (id, questions) -> {
+            buffered[0] = questions.containsKey(questionId);
+            return questions;
+        });
+        return buffered[0] || userAnswerDao.hasAnswers(attemptId, questionId);
+    }
+
+    /**
+     * Stops the periodic flush and writes out everything still buffered.
+     */
+    public void close() {
+        if (flusher != null) {
+            flusher.shutdown();
+        }
+        flushAll();
+    }
+}
@@ -0,0 +1,267 @@
+package quiz_engine;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Compact snapshot of a quiz being taken, everything needed to carry on with a QuizSession on any node:
+ * the attempt, the order the questions are shown in (as question ids), the current position and the
+ * answers given so far. Multiple choice answers are kept as option ordinals (see models.OptionIndex),
+ * other answers as their texts; the quiz content itself is not part of it and is read back from the
+ * quiz cache when the session is resumed.
+ * Written to and read from a small versioned binary form with toBytes and fromBytes, so it can be kept in
+ * a cookie or any key-value store instead of holding the session objects in the HttpSession.
+ */
+public final class QuizProgress {
+    private static final int FORMAT_VERSION = 2;
+    private static final int MAX_QUESTIONS = 10000;
+    private static final byte NOT_ANSWERED = 0;
+    private static final byte OPTIONS = 1;
+    private static final byte TEXTS = 2;
+
+    private final int quizId;
+    private final int userId;
+    private final int attemptId;
+    private final boolean practiceMode;
+    private final long startTime;
+    private final int[] questionIds;
+    private final int currentQuestion;
+    // by position in questionIds, at most one of the two is set for an answered question
+    private final int[][] selectedOptions;
+    private final String[][] typedAnswers;
+
+    /**
+     * @param quizId the id of the quiz being taken
+     * @param userId the id of the user taking it
+     * @param attemptId the id of the attempt
+     * @param practiceMode whether the quiz is taken in practice mode
+     * @param startTime the time the quiz was started in epoch milliseconds
+     * @param questionIds the ids of the questions in the order they are shown
+     * @param currentQuestion the position of the current question in that order
+     * @param selectedOptions the option ordinals chosen for each multiple choice question, null where not answered
+     * @param typedAnswers the answers typed for each other question, null where not answered
+     * @throws IllegalArgumentException if the arrays do not have one entry per question or the position is out of range
+     */
+    public QuizProgress(int quizId, int userId, int attemptId, boolean practiceMode, long startTime, int[] questionIds,
+                        int currentQuestion, int[][] selectedOptions, String[][] typedAnswers) {
+        if (questionIds.length == 0 || questionIds.length > MAX_QUESTIONS
+                || selectedOptions.length != questionIds.length || typedAnswers.length != questionIds.length) {
+            throw new IllegalArgumentException("Answers must be given by question");
+        }
+        if (currentQuestion < 0 || currentQuestion >= questionIds.length) {
+            throw new IllegalArgumentException("Current question out of range: " + currentQuestion);
+        }
+        this.quizId = quizId;
+        this.userId = userId;
+        this.attemptId = attemptId;
+        this.practiceMode = practiceMode;
+        this.startTime = startTime;
+        this.questionIds = questionIds;
+        this.currentQuestion = currentQuestion;
+        this.selectedOptions = selectedOptions;
+        this.typedAnswers = typedAnswers;
+    }
+
+    /**
+     * @return the id of the quiz being taken
+     */
+    public int getQuizId() {
+        return quizId;
+    }
+
+    /**
+     * @return the id of the user taking the quiz
+     */
+    public int getUserId() {
+        return userId;
+    }
+
+    /**
+     * @return the id of the attempt
+     */
+    public int getAttemptId() {
+        return attemptId;
+    }
+
+    /**
+     * @return true if the quiz is taken in practice mode
+     */
+    public boolean isPracticeMode() {
+        return practiceMode;
+    }
+
+    /**
+     * @return the time the quiz was started in epoch milliseconds
+     */
+    public long getStartTime() {
+        return startTime;
+    }
+
+    /**
+     * @return the number of questions of the attempt
+     */
+    public int getQuestionCount() {
+        return questionIds.length;
+    }
+
+    /**
+     * @param position a position in the order the questions are shown
+     * @return the id of the question shown at that position
+     */
+    public int getQuestionId(int position) {
+        return questionIds[position];
+    }
+
+    /**
+     * @return the position of the current question
+     */
+    public int getCurrentQuestion() {
+        return currentQuestion;
+    }
+
+    /**
+     * @param position a position in the order the questions are shown
+     * @return the option ordinals chosen for the question, null if it is not a multiple choice question or not answered
+     */
+    public int[] getSelectedOptions(int position) {
+        return selectedOptions[position];
+    }
+
+    /**
+     * @param position a position in the order the questions are shown
+     * @return the answers typed for the question, null if it is a multiple choice question or not answered
+     */
+    public String[] getTypedAnswers(int position) {
+        return typedAnswers[position];
+    }
+
+    /**
+     * Writes the progress in its binary form: a format version, the attempt fields, the question ids,
+     * then for every question a tag followed by its option ordinals or its answer texts. A text is written as
+     * the length of its UTF-8 bytes and the bytes, writeUTF would fail on a text of more than 64KB.
+     * @return the bytes of the progress
+     */
+    public byte[] toBytes() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 + questionIds.length * 8);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(quizId);
+            out.writeInt(userId);
+            out.writeInt(attemptId);
+            out.writeBoolean(practiceMode);
+            out.writeLong(startTime);
+            out.writeShort(questionIds.length);
+            out.writeShort(currentQuestion);
+            for (int questionId : questionIds) {
+                out.writeInt(questionId);
+            }
+            for (int i = 0; i < questionIds.length; i++) {
+                if (selectedOptions[i] != null) {
+                    out.writeByte(OPTIONS);
+                    out.writeShort(selectedOptions[i].length);
+                    for (int ordinal : selectedOptions[i]) {
+                        out.writeShort(ordinal);
+                    }
+                } else if (typedAnswers[i] != null) {
+                    out.writeByte(TEXTS);
+                    out.writeShort(typedAnswers[i].length);
+                    for (String answer : typedAnswers[i]) {
+                        byte[] utf8 = answer.getBytes(StandardCharsets.UTF_8);
+                        out.writeInt(utf8.length);
+                        out.write(utf8);
+                    }
+                } else {
+                    out.writeByte(NOT_ANSWERED);
+                }
+            }
+        } catch (IOException e) {
+            // the writes above only throw what the ByteArrayOutputStream does, and it never throws
+            throw new IllegalStateException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    /**
+     * Reads progress written by toBytes.
+     * @param bytes the bytes of the progress
+     * @return the progress
+     * @throws IllegalArgumentException if the bytes are not progress in the current format
+     */
+    public static QuizProgress fromBytes(byte[] bytes) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes))) {
+            if (in.readUnsignedByte() != FORMAT_VERSION) {
+                throw new IllegalArgumentException("Unknown quiz progress format");
+            }
+            int quizId = in.readInt();
+            int userId = in.readInt();
+            int attemptId = in.readInt();
+            boolean practiceMode = in.readBoolean();
+            long startTime = in.readLong();
+            int questionCount = in.readUnsignedShort();
+            int currentQuestion = in.readUnsignedShort();
+            if (questionCount == 0 || questionCount > MAX_QUESTIONS) {
+                throw new IllegalArgumentException("Invalid question count: " + questionCount);
+            }
+            int[] questionIds = new int[questionCount];
+            for (int i = 0; i < questionCount; i++) {
+                questionIds[i] = in.readInt();
+            }
+            int[][] selectedOptions = new int[questionCount][];
+            String[][] typedAnswers = new String[questionCount][];
+            for (int i = 0; i < questionCount; i++) {
+                byte tag = in.readByte();
+                if (tag == OPTIONS) {
+                    int[] ordinals = new int[in.readUnsignedShort()];
+                    for (int j = 0; j < ordinals.length; j++) {
+                        ordinals[j] = in.readUnsignedShort();
+                    }
+                    selectedOptions[i] = ordinals;
+                } else if (tag == TEXTS) {
+                    String[] answers = new String[in.readUnsignedShort()];
+                    for (int j = 0; j < answers.length; j++) {
+                        int length = in.readInt();
+                        // checked against what is left so a corrupt length can not allocate a huge array
+                        if (length < 0 || length > in.available()) {
+                            throw new IllegalArgumentException("Invalid answer length: " + length);
+                        }
+                        byte[] utf8 = new byte[length];
+                        in.readFully(utf8);
+                        answers[j] = new String(utf8, StandardCharsets.UTF_8);
+                    }
+                    typedAnswers[i] = answers;
+                } else if (tag != NOT_ANSWERED) {
+                    throw new IllegalArgumentException("Invalid answer tag: " + tag);
+                }
+            }
+            if (in.read() != -1) {
+                throw new IllegalArgumentException("Trailing bytes after quiz progress");
+            }
+            return new QuizProgress(quizId, userId, attemptId, practiceMode, startTime, questionIds,
+                    currentQuestion, selectedOptions, typedAnswers);
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Truncated quiz progress", e);
+        }
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        QuizProgress that = (QuizProgress) o;
+        return quizId == that.quizId && userId == that.userId && attemptId == that.attemptId
+                && practiceMode == that.practiceMode && startTime == that.startTime
+                && currentQuestion == that.currentQuestion && Arrays.equals(questionIds, that.questionIds)
+                && Arrays.deepEquals(selectedOptions, that.selectedOptions)
+                && Arrays.deepEquals(typedAnswers, that.typedAnswers);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * attemptId + Arrays.hashCode(questionIds);
+    }
+}
@@ -2,14 +2,16 @@ package quiz_engine;
 
 import User.UserDao;
 import dao.*;
-import factory.QuestionDaoFactory;
+import models.MultipleChoiceQuestion;
+import models.MultipleChoiceWithMultipleAnswersQuestion;
+import models.OptionIndex;
 import models.Question;
 import models.Quiz;
 import models.QuizAttempt;
 import models.UserAnswer;
+import service.AchievementsService;
 
 import java.sql.*;
-import java.time.LocalDateTime;
 import java.util.*;
 
 /**
@@ -18,16 +20,26 @@ import java.util.*;
  * Supports both single-page and multi-page quiz modes with configurable settings for
  * question randomization, immediate correction, and backward navigation.
  * Maintains session state including current question position, user answers, and timing information.
+ * The answers are kept in primitive form, one slot per question position: the option ordinals chosen for
+ * multiple choice questions (see models.OptionIndex) and the typed texts for other questions, interned
+ * through AnswerInterner so the same common answer is held once. A BitSet and a counter track which
+ * questions are answered, so checking whether the quiz is finished does not walk the questions.
  */
 public class QuizSession {
     private final Quiz quiz;
+    // the questions in the order this session shows them, read-only
     private final List<Question> questions;
     private int currentQuestion;
-    private Map<Integer, List<String>> answers;
-    private final Timestamp startTime;
+    private final BitSet answered;
+    private int answeredCount;
+    // by question position, set only for answered questions of the matching kind
+    private final int[][] selectedOptions;
+    private final String[][] typedAnswers;
+    private final long startTime;
     private final int attemptId;
-    private final UserAnswerDao userAnswerDao;
+    private final boolean practiceMode;
     private final QuizAttemptDao quizAttemptDao;
+    private final AnswerWriter answerWriter;
 
     /**
      * Creates a new quiz session and initializes a quiz attempt in the database.
@@ -39,8 +51,21 @@ public class QuizSession {
      * @throws RuntimeException if quiz attemot creation fails
      */
     public QuizSession(int userId, int quizId) {
-        this.userAnswerDao = new UserAnswerDao();
+        this(userId, quizId, false);
+    }
+
+    /**
+     * Creates a new quiz session, in practice mode if asked for.
+     * @param userId the ID of the user taking the quiz
+     * @param quizId the ID of the quiz being taken
+     * @param practiceMode whether the quiz is taken in practice mode
+     * @throws IllegalArgumentException if user of quiz doesn't exist, quiz has not questions
+     * or practice mode is asked for on a quiz that does not allow it
+     * @throws RuntimeException if quiz attemot creation fails
+     */
+    public QuizSession(int userId, int quizId, boolean practiceMode) {
         this.quizAttemptDao = new QuizAttemptDao();
+        this.answerWriter = AnswerWriter.getInstance();
         QuizDao quizDao = new QuizDao();
         UserDao userDao = new UserDao();
 
@@ -53,6 +78,9 @@ public class QuizSession {
         if (quizDao.getQuestionCount(quizId) == 0) {
             throw new IllegalArgumentException("Quiz has no questions: " + quizId);
         }
+        if (practiceMode && !quizDao.getQuizById(quizId).isPracticeModeEnabled()) {
+            throw new IllegalArgumentException("Quiz does not allow practice mode: " + quizId);
+        }
 
         QuizAttempt quizAttempt = new QuizAttempt(userId, quizId);
         boolean wasCreated = quizAttemptDao.createAttempt(quizAttempt);
@@ -61,15 +89,92 @@ public class QuizSession {
         }
 
         this.quiz = quizDao.getQuizById(quizId);
-        this.questions = quiz.getQuestions();
+        // the quiz comes from the shared cache, so the session orders its own copy of the questions
+        Question[] ordered = quiz.getQuestions().toArray(new Question[0]);
+        if (quiz.isRandomOrder()) {
+            Collections.shuffle(Arrays.asList(ordered));
+        }
+        this.questions = Collections.unmodifiableList(Arrays.asList(ordered));
         this.attemptId = quizAttempt.getAttemptId();
-        this.answers = new HashMap<>();
-        this.startTime = Timestamp.valueOf(LocalDateTime.now());
+        this.practiceMode = practiceMode;
+        this.answered = new BitSet(ordered.length);
+        this.selectedOptions = new int[ordered.length][];
+        this.typedAnswers = new String[ordered.length][];
+        this.startTime = System.currentTimeMillis();
         this.currentQuestion = 0;
+    }
 
-        if (quiz.isRandomOrder()) {
-            Collections.shuffle(this.questions);
+    /**
+     * Carries on with a quiz session from its saved progress, on this or any other server.
+     * The quiz is taken from the shared quiz cache, the answers already given come from the progress.
+     * @param progress the progress saved with toProgress
+     * @return the session, positioned where the progress left it
+     * @throws IllegalArgumentException if the quiz no longer exists or its questions changed since the attempt began
+     */
+    public static QuizSession resume(QuizProgress progress) {
+        Quiz quiz = new QuizDao().getQuizById(progress.getQuizId());
+        return new QuizSession(progress, quiz, new QuizAttemptDao(), AnswerWriter.getInstance());
+    }
+
+    /**
+     * Rebuilds a session from saved progress and the quiz it belongs to.
+     * @param progress the saved progress
+     * @param quiz the quiz of the progress, null if it no longer exists
+     * @param quizAttemptDao the dao completing the attempt
+     * @param answerWriter the writer persisting further answers
+     * @throws IllegalArgumentException if the quiz is null or its questions are not the ones of the progress
+     */
+    QuizSession(QuizProgress progress, Quiz quiz, QuizAttemptDao quizAttemptDao, AnswerWriter answerWriter) {
+        if (quiz == null) {
+            throw new IllegalArgumentException("Quiz does not exist: " + progress.getQuizId());
+        }
+        List<Question> quizQuestions = quiz.getQuestions();
+        if (quizQuestions.size() != progress.getQuestionCount()) {
+            throw new IllegalArgumentException("Quiz changed since the attempt began: " + quiz.getQuizId());
+        }
+        Map<Integer, Question> questionsById = new HashMap<>();
+        for (Question question : quizQuestions) {
+            questionsById.put(question.getQuestionId(), question);
         }
+        int count = progress.getQuestionCount();
+        Question[] ordered = new Question[count];
+        this.answered = new BitSet(count);
+        this.selectedOptions = new int[count][];
+        this.typedAnswers = new String[count][];
+        for (int i = 0; i < count; i++) {
+            Question question = questionsById.get(progress.getQuestionId(i));
+            if (question == null) {
+                throw new IllegalArgumentException("Quiz changed since the attempt began: " + quiz.getQuizId());
+            }
+            ordered[i] = question;
+            OptionIndex options = optionIndexOf(question);
+            if (options != null && progress.getSelectedOptions(i) != null) {
+                for (int ordinal : progress.getSelectedOptions(i)) {
+                    if (ordinal >= options.size()) {
+                        throw new IllegalArgumentException("Unknown option of question " + question.getQuestionId());
+                    }
+                }
+                selectedOptions[i] = progress.getSelectedOptions(i);
+            } else if (options == null && progress.getTypedAnswers(i) != null) {
+                String[] typed = progress.getTypedAnswers(i).clone();
+                for (int j = 0; j < typed.length; j++) {
+                    typed[j] = AnswerInterner.intern(typed[j]);
+                }
+                typedAnswers[i] = typed;
+            } else {
+                continue;
+            }
+            answered.set(i);
+            answeredCount++;
+        }
+        this.quiz = quiz;
+        this.questions = Collections.unmodifiableList(Arrays.asList(ordered));
+        this.currentQuestion = progress.getCurrentQuestion();
+        this.startTime = progress.getStartTime();
+        this.attemptId = progress.getAttemptId();
+        this.practiceMode = progress.isPracticeMode();
+        this.quizAttemptDao = quizAttemptDao;
+        this.answerWriter = answerWriter;
     }
 
     /**
@@ -80,10 +185,10 @@ public class QuizSession {
     }
 
     /**
-     * @return defensive copy of all the questions in a list
+     * @return the questions in the order the session shows them, a read-only list that is not copied
      */
     public List<Question> getQuestions() {
-        return new ArrayList<>(questions);
+        return questions;
     }
 
     /**
@@ -94,10 +199,16 @@ public class QuizSession {
     }
 
     /**
-     * @return the map containing question order as keys and user's submitted
+     * Builds a map of the answers given so far from the answers the session holds,
+     * option ordinals being turned back into option texts.
+     * @return a new map containing question order as keys and user's submitted
      * answers as values
      */
     public Map<Integer, List<String>> getAnswers() {
+        Map<Integer, List<String>> answers = new HashMap<>(answeredCount * 2);
+        for (int i = answered.nextSetBit(0); i >= 0; i = answered.nextSetBit(i + 1)) {
+            answers.put(i, answerTexts(i));
+        }
         return answers;
     }
 
@@ -105,7 +216,7 @@ public class QuizSession {
      * @return the timestamp for time when the quiz was started
      */
     public Timestamp getStartTime() {
-        return startTime;
+        return new Timestamp(startTime);
     }
 
     /**
@@ -115,6 +226,29 @@ public class QuizSession {
         return attemptId;
     }
 
+    /**
+     * @return true if the quiz is taken in practice mode
+     */
+    public boolean isPracticeMode() {
+        return practiceMode;
+    }
+
+    /**
+     * Takes a snapshot of the session that resume can carry on from: multiple choice answers are
+     * saved as option ordinals, other answers as their texts.
+     * @param userId the id of the user taking the quiz
+     * @return the progress of the session
+     */
+    public QuizProgress toProgress(int userId) {
+        int[] questionIds = new int[questions.size()];
+        for (int i = 0; i < questionIds.length; i++) {
+            questionIds[i] = questions.get(i).getQuestionId();
+        }
+        // the answer arrays of a question are replaced, never changed, so the progress may share them
+        return new QuizProgress(quiz.getQuizId(), userId, attemptId, practiceMode, startTime,
+                questionIds, currentQuestion, selectedOptions.clone(), typedAnswers.clone());
+    }
+
     /**
      * @return the current question being taken
      */
@@ -125,7 +259,8 @@ public class QuizSession {
     /**
      * Lets user submit their answers to the question.
      * Validates answers using the question's logic, stores them in session state,
-     * and persists them to the database.
+     * and persists them through the AnswerWriter, which replaces the question's old answers
+     * in one transaction or buffers them until the quiz is completed.
      * @param questionOrder for example, 5 for the fifth question(0-based)
      * @param userAnswers User's submitted answers for this question
      * @return true if answers were saved successfully, false otherwise
@@ -136,26 +271,43 @@ public class QuizSession {
         }
 
         try {
-            answers.put(questionOrder, userAnswers);
             Question question = questions.get(questionOrder);
             List<Boolean> correctness = question.checkAnswers(userAnswers);
+            // only answers the question accepts are kept, so every option has an ordinal
+            record(questionOrder, question, userAnswers);
 
-            userAnswerDao.deleteAnswersForQuestion(attemptId, question.getQuestionId());
-
+            List<UserAnswer> answersToSave = new ArrayList<>();
             for (int i = 0; i < userAnswers.size(); i++) {
                 String answer = userAnswers.get(i);
                 boolean isCorrect = correctness.get(i);
 
-                UserAnswer userAnswer = createUserAnswerForQuestion(question, answer, isCorrect);
-                userAnswerDao.saveAnswer(userAnswer);
+                answersToSave.add(createUserAnswerForQuestion(question, answer, isCorrect));
             }
-            return true;
+            return answerWriter.submit(attemptId, question.getQuestionId(), answersToSave);
         }catch (Exception e){
             e.printStackTrace();
             return false;
         }
     }
 
+    /**
+     * Records a question the user moved past without answering, as when no option was ticked or the question
+     * has no input. The question counts as answered with no answers, so it scores 0, and any answers given
+     * to it earlier are removed.
+     * @param questionOrder for example, 5 for the fifth question(0-based)
+     * @return true if the empty answer was saved successfully, false otherwise
+     */
+    public boolean skipQuestion(int questionOrder) {
+        try {
+            Question question = questions.get(questionOrder);
+            record(questionOrder, question, Collections.emptyList());
+            return answerWriter.submit(attemptId, question.getQuestionId(), Collections.emptyList());
+        } catch (Exception e) {
+            e.printStackTrace();
+            return false;
+        }
+    }
+
     /**
      * @return boolean indicating if the question has a next question or
      * is it a last question
@@ -205,19 +357,14 @@ public class QuizSession {
      * @return boolean indicating if all the questions were answered
      */
     public boolean isQuizFinished() {
-        for(int i = 0; i < questions.size(); i++){
-            if(!answers.containsKey(i)){
-                return false;
-            }
-        }
-        return true;
+        return answeredCount == questions.size();
     }
 
     /**
      * @return the time that has passed from the start of a quiz
      */
     public long getElapsedTime() {
-        return System.currentTimeMillis() - startTime.getTime();
+        return System.currentTimeMillis() - startTime;
     }
 
     /**
@@ -256,19 +403,43 @@ public class QuizSession {
         }else return !quiz.isImmediateCorrection();
     }
 
+    /**
+     * Tells if the attempt already has answers for the current question while the session has none, as when
+     * it is resumed from an older progress replayed by the client. When the user cannot go back such a
+     * session must not take answers, it would let them answer again a question whose correction they saw.
+     * @return true if the session is behind the answers stored for its attempt
+     */
+    public boolean isBehindStoredAnswers() {
+        return !answered.get(currentQuestion)
+                && answerWriter.hasAnswers(attemptId, getCurrentQuestion().getQuestionId());
+    }
+
     /**
      * Completes the quiz attempt by calculating the final score and updating the database.
-     * Retrieves all submitted answers, groups them by question, calculates partial credit
-     * using each question's scoring logic, and marks the attempt as completed.
+     * Writes out any answers still buffered, scores the answers held by the session using
+     * each question's scoring logic (with partial credit), and marks the attempt as completed
+     * with a single update. The completion is then sent to AchievementsService, whether it is the best
+     * of its quiz is read from the in-memory Leaderboard. A practice attempt is kept off the leaderboards
+     * and is never the best of its quiz.
      * @return the completed QuizAttempt with final score and timing, null if error occurs
      */
     public QuizAttempt completeQuiz() {
         try {
-            List<UserAnswer> allAnswers = userAnswerDao.getAnswersForAttempt(attemptId);
-            Map<Integer, List<UserAnswer>> answersByQuestion = groupAnswersByQuestionId(allAnswers);
-            double totalScore = calculateTotalScore(answersByQuestion);
-            quizAttemptDao.completeAttempt(attemptId, totalScore);
-            return quizAttemptDao.getAttemptById(attemptId);
+            if (!answerWriter.flush(attemptId)) {
+                return null;
+            }
+            double totalScore = ScoreCalculator.calculateTotalScore(questions, getAnswers());
+            QuizAttempt completed = quizAttemptDao.completeAttempt(attemptId, totalScore, practiceMode);
+            if (completed == null) {
+                return null;
+            }
+            boolean highestScore = false;
+            if (!practiceMode) {
+                List<QuizAttempt> best = Leaderboard.getInstance().getTopPerformers(quiz.getQuizId(), 1);
+                highestScore = !best.isEmpty() && best.get(0).getAttemptId() == attemptId;
+            }
+            AchievementsService.getInstance().attemptCompleted(completed.getUserId(), practiceMode, highestScore);
+            return completed;
         } catch (Exception e) {
             e.printStackTrace();
             return null;
@@ -276,97 +447,70 @@ public class QuizSession {
     }
 
     /*
-     * Creates a UserAnswer object appropriate for the given question type.
-     * Handles the different requirements of multiple choice questions (which need option_id)
-     * versus text-based questions.
+     * Returns the option index of a multiple choice question, null for other question types.
      */
-    private UserAnswer createUserAnswerForQuestion(Question question, String answer, boolean isCorrect) {
-        if (question.getQuestionType().equals("MULTIPLE_CHOICE") ||
-                question.getQuestionType().equals("MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS")) {
-            Integer optionId = findOptionId(question, answer);
-            return new UserAnswer(attemptId, question.getQuestionId(), answer, optionId, isCorrect);
-        } else {
-            return new UserAnswer(attemptId, question.getQuestionId(), answer, null, isCorrect);
+    private static OptionIndex optionIndexOf(Question question) {
+        if (question instanceof MultipleChoiceQuestion) {
+            return ((MultipleChoiceQuestion) question).getOptionIndex();
+        } else if (question instanceof MultipleChoiceWithMultipleAnswersQuestion) {
+            return ((MultipleChoiceWithMultipleAnswersQuestion) question).getOptionIndex();
         }
+        return null;
     }
 
     /*
-     * Finds the database option ID for a multiple choice answer.
-     * Required for maintaining foreign key relationships in the UserAnswers table.
+     * Keeps accepted answers of the question at a position: option ordinals for multiple choice questions,
+     * interned texts for the others.
      */
-    private Integer findOptionId(Question question, String answerText) {
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "SELECT option_id FROM AnswerOptionsMC WHERE question_id = ? AND option_text = ?")) {
-            stmt.setInt(1, question.getQuestionId());
-            stmt.setString(2, answerText);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                return rs.getInt("option_id");
+    private void record(int position, Question question, List<String> userAnswers) {
+        OptionIndex options = optionIndexOf(question);
+        if (options != null) {
+            int[] ordinals = new int[userAnswers.size()];
+            for (int i = 0; i < ordinals.length; i++) {
+                ordinals[i] = options.ordinalOf(userAnswers.get(i));
             }
-            return null;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return null;
-        }
-    }
-
-    /*
-     * Groups UserAnswer records by their question ID for scoring calculations.
-     * Converts the flat list of individual answer pieces back into a question-grouped
-     * structure that can be processed by each question's scoring logic.
-     */
-    private Map<Integer, List<UserAnswer>> groupAnswersByQuestionId(List<UserAnswer> allAnswers) {
-        Map<Integer, List<UserAnswer>> answersByQuestion = new HashMap<>();
-        for (UserAnswer answer : allAnswers) {
-            int questionId = answer.getQuestionId();
-            if (!answersByQuestion.containsKey(questionId)) {
-                answersByQuestion.put(questionId, new ArrayList<>());
+            selectedOptions[position] = ordinals;
+        } else {
+            String[] typed = new String[userAnswers.size()];
+            for (int i = 0; i < typed.length; i++) {
+                typed[i] = AnswerInterner.intern(userAnswers.get(i));
             }
-            answersByQuestion.get(questionId).add(answer);
+            typedAnswers[position] = typed;
+        }
+        if (!answered.get(position)) {
+            answered.set(position);
+            answeredCount++;
         }
-        return answersByQuestion;
     }
 
     /*
-     * Calculates the total score for the quiz attempt by summing individual question scores.
-     * Reconstructs the user's answers for each question and delegates to the question's
-     * built-in scoring logic. Supports partial credit with decimal scoring where each
-     * question is worth a maximum of 1.0 points.
+     * Returns the answers of an answered question as texts.
      */
-    private double calculateTotalScore(Map<Integer, List<UserAnswer>> answersByQuestion) {
-        double totalScore = 0.0;
-        for (Integer questionId : answersByQuestion.keySet()) {
-            Question question = getQuestionById(questionId);
-            List<UserAnswer> userAnswers = answersByQuestion.get(questionId);
-            List<String> answerStrings = new ArrayList<>();
-            for (UserAnswer userAnswer : userAnswers) {
-                answerStrings.add(userAnswer.getAnswerGivenText());
-            }
-            double questionScore = question.calculateScore(answerStrings);
-            totalScore += questionScore;
+    private List<String> answerTexts(int position) {
+        int[] ordinals = selectedOptions[position];
+        if (ordinals == null) {
+            return Collections.unmodifiableList(Arrays.asList(typedAnswers[position]));
+        }
+        OptionIndex options = optionIndexOf(questions.get(position));
+        List<String> texts = new ArrayList<>(ordinals.length);
+        for (int ordinal : ordinals) {
+            texts.add(options.getText(ordinal));
         }
-        return totalScore;
+        return texts;
     }
 
     /*
-     * Retrieves a question by its database ID.
+     * Creates a UserAnswer object appropriate for the given question type.
+     * Handles the different requirements of multiple choice questions (which need option_id)
+     * versus text-based questions.
      */
-    private Question getQuestionById(int questionId) {
-        try (Connection connection = DatabaseConnection.getConnection();
-             PreparedStatement stmt = connection.prepareStatement(
-                     "SELECT question_type FROM Questions WHERE question_id = ?")) {
-            stmt.setInt(1, questionId);
-            ResultSet rs = stmt.executeQuery();
-            if (rs.next()) {
-                String questionType = rs.getString("question_type");
-                AbstractQuestionDao dao = QuestionDaoFactory.getDao(questionType);
-                return dao.getQuestionById(questionId);
-            }
-            return null;
-        } catch (SQLException e) {
-            e.printStackTrace();
-            return null;
+    private UserAnswer createUserAnswerForQuestion(Question question, String answer, boolean isCorrect) {
+        Integer optionId = null;
+        if (question.getQuestionType().equals("MULTIPLE_CHOICE")) {
+            optionId = ((MultipleChoiceQuestion) question).getOptionId(answer);
+        } else if (question.getQuestionType().equals("MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS")) {
+            optionId = ((MultipleChoiceWithMultipleAnswersQuestion) question).getOptionId(answer);
         }
+        return new UserAnswer(attemptId, question.getQuestionId(), answer, optionId, isCorrect);
     }
 }
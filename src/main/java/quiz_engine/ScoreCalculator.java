@@ -0,0 +1,39 @@
+package quiz_engine;
+
+import models.Question;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Scores quiz attempts from the answers a session already holds in memory.
+ * Runs in time proportional to the number of answers and never touches the database,
+ * so completing a quiz does not have to read the answers and questions back.
+ */
+public class ScoreCalculator {
+
+    /**
+     * Sums the scores of all the answered questions, using each question's own scoring logic
+     * (so partial credit works the same way as before).
+     * Answers a question rejects as invalid score 0, just as they were never saved.
+     * @param questions the questions of the quiz in the order the session shows them
+     * @param answers the submitted answers keyed by the question's position in that order
+     * @return the total score of the attempt
+     */
+    public static double calculateTotalScore(List<Question> questions, Map<Integer, List<String>> answers) {
+        double totalScore = 0.0;
+        for (Map.Entry<Integer, List<String>> entry : answers.entrySet()) {
+            int questionOrder = entry.getKey();
+            List<String> userAnswers = entry.getValue();
+            if (questionOrder < 0 || questionOrder >= questions.size() || userAnswers == null || userAnswers.isEmpty()) {
+                continue;
+            }
+            try {
+                totalScore += questions.get(questionOrder).calculateScore(userAnswers);
+            } catch (IllegalArgumentException e) {
+                // invalid answers are rejected on submission and never saved
+            }
+        }
+        return totalScore;
+    }
+}
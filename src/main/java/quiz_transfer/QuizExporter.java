@@ -0,0 +1,75 @@
+package quiz_transfer;
+
+import com.google.gson.Gson;
+import dao.QuizDao;
+import models.Quiz;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Exports quizzes as line-delimited JSON (see QuizJsonFormat).
+ * Quiz ids are read a page at a time and every quiz is loaded, written and dropped before the next,
+ * so the export holds one quiz in memory however large the bank is. Quizzes are read past the
+ * QuizCache, an export should not evict the quizzes people are taking.
+ */
+public class QuizExporter {
+    private static final int PAGE_SIZE = 500;
+
+    private final QuizDao quizDao;
+    private final int progressInterval;
+    private final Gson gson = new Gson();
+
+    public QuizExporter() {
+        this(new QuizDao(), 100);
+    }
+
+    /**
+     * @param quizDao the dao the quizzes are read with
+     * @param progressInterval the listener is called after every this many quizzes
+     */
+    public QuizExporter(QuizDao quizDao, int progressInterval) {
+        this.quizDao = quizDao;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Writes every quiz in the database to the output, one line per quiz in the order of their ids.
+     * @param output where the lines are written, flushed but not closed
+     * @param progressListener called with the progress every progressInterval quizzes
+     * @return the final progress with the number of quizzes exported and failed
+     * @throws IOException if writing the output fails
+     */
+    public TransferProgress exportQuizzes(Writer output, Consumer<TransferProgress> progressListener) throws IOException {
+        TransferProgress progress = new TransferProgress();
+        int lastQuizId = 0;
+        List<Integer> quizIds;
+        while (!(quizIds = quizDao.getQuizIdsAfter(lastQuizId, PAGE_SIZE)).isEmpty()) {
+            for (int quizId : quizIds) {
+                Quiz quiz = quizDao.getQuizByIdUncached(quizId);
+                if (quiz == null) {
+                    // deleted since its id was read
+                    continue;
+                }
+                try {
+                    String line = gson.toJson(QuizJsonFormat.toJson(quiz));
+                    output.write(line);
+                    output.write('\n');
+                    progress.quizTransferred(quiz.getQuestions().size());
+                } catch (IllegalArgumentException e) {
+                    progress.quizFailed("Quiz " + quizId + ": " + e.getMessage());
+                }
+                if ((progress.getQuizzes() + progress.getFailed()) % progressInterval == 0) {
+                    progressListener.accept(progress);
+                }
+            }
+            lastQuizId = quizIds.get(quizIds.size() - 1);
+        }
+        output.flush();
+        progress.finish();
+        progressListener.accept(progress);
+        return progress;
+    }
+}
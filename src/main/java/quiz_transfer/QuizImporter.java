@@ -0,0 +1,107 @@
+package quiz_transfer;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import dao.AbstractQuestionDao;
+import dao.QuizDao;
+import factory.QuestionDaoFactory;
+import models.Question;
+import models.Quiz;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.*;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Imports quizzes from line-delimited JSON (see QuizJsonFormat).
+ * The input is read one line at a time, so only one quiz is held in memory however large the bank is.
+ * The questions of a quiz are written with one batched transaction per question type. If any of them
+ * fail the quiz is deleted again, so a quiz is either imported whole or not at all.
+ * A malformed or failing line is counted and skipped, the import goes on with the next one.
+ */
+public class QuizImporter {
+    private final QuizDao quizDao;
+    private final Function<String, AbstractQuestionDao> questionDaos;
+    private final int progressInterval;
+
+    public QuizImporter() {
+        this(new QuizDao(), QuestionDaoFactory::getDao, 100);
+    }
+
+    /**
+     * @param quizDao the dao the quizzes are added with
+     * @param questionDaos returns the dao of a question type
+     * @param progressInterval the listener is called after every this many quizzes
+     */
+    public QuizImporter(QuizDao quizDao, Function<String, AbstractQuestionDao> questionDaos, int progressInterval) {
+        this.quizDao = quizDao;
+        this.questionDaos = questionDaos;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Imports every quiz of the input.
+     * @param input line-delimited JSON quizzes, blank lines are skipped
+     * @param creatorUserId the user the quizzes are created for, null to keep the creator given in every line
+     * @param progressListener called with the progress every progressInterval quizzes
+     * @return the final progress with the number of quizzes imported and failed
+     * @throws IOException if reading the input fails
+     */
+    public TransferProgress importQuizzes(Reader input, Integer creatorUserId, Consumer<TransferProgress> progressListener) throws IOException {
+        TransferProgress progress = new TransferProgress();
+        BufferedReader reader = input instanceof BufferedReader ? (BufferedReader) input : new BufferedReader(input);
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            try {
+                int questionCount = importQuiz(JsonParser.parseString(line).getAsJsonObject(), creatorUserId);
+                progress.quizTransferred(questionCount);
+            } catch (RuntimeException e) {
+                progress.quizFailed("Line " + lineNumber + ": " + e.getMessage());
+            }
+            if ((progress.getQuizzes() + progress.getFailed()) % progressInterval == 0) {
+                progressListener.accept(progress);
+            }
+        }
+        progress.finish();
+        progressListener.accept(progress);
+        return progress;
+    }
+
+    /*
+     * Adds one quiz and its questions, returns the number of questions added.
+     * Throws IllegalStateException if it was not added.
+     */
+    private int importQuiz(JsonObject json, Integer creatorUserId) {
+        Quiz quiz = QuizJsonFormat.quizFromJson(json);
+        if (creatorUserId != null) {
+            quiz.setCreatorUserId(creatorUserId);
+        }
+        if (!quizDao.addQuiz(quiz)) {
+            throw new IllegalStateException("Could not add quiz " + quiz.getTitle());
+        }
+        try {
+            List<Question> questions = QuizJsonFormat.questionsFromJson(json, quiz.getQuizId());
+            Map<String, List<Question>> questionsByType = new LinkedHashMap<>();
+            for (Question question : questions) {
+                questionsByType.computeIfAbsent(question.getQuestionType(), type -> new ArrayList<>()).add(question);
+            }
+            for (Map.Entry<String, List<Question>> entry : questionsByType.entrySet()) {
+                if (!questionDaos.apply(entry.getKey()).addQuestions(entry.getValue())) {
+                    throw new IllegalStateException("Could not add the questions of quiz " + quiz.getTitle());
+                }
+            }
+            return questions.size();
+        } catch (RuntimeException e) {
+            quizDao.deleteQuiz(quiz.getQuizId());
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package quiz_transfer;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import models.*;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * The line-delimited JSON format quizzes are imported and exported in: every line holds one quiz
+ * with all its questions, so a bank of any size can be read and written one quiz at a time.
+ * Database ids are not part of the format, an imported quiz and its questions get new ids.
+ * A line looks like (wrapped here):
+ * {"title":"Capitals","description":"...","creatorUserId":1,"creationDate":"2025-01-01T10:00",
+ *  "randomOrder":false,"displayType":"SINGLE_PAGE","immediateCorrection":false,"practiceMode":true,
+ *  "questions":[
+ *   {"type":"MULTIPLE_CHOICE","text":"...","order":0,"maxScore":1.0,"options":[{"text":"Paris","correct":true}]},
+ *   {"type":"FILL_IN_BLANK","text":"... _____","order":1,"maxScore":1.0,"blanks":[["Tbilisi","tbilisi"]]}]}
+ * A fill in the blank question graded with typo tolerance also has "answerTolerance":1, left out when it is 0.
+ */
+public final class QuizJsonFormat {
+
+    private QuizJsonFormat() {
+    }
+
+    /**
+     * @param quiz a quiz with its questions
+     * @return the JSON object of the quiz
+     * @throws IllegalArgumentException if the quiz has a question of a type the format does not support
+     */
+    public static JsonObject toJson(Quiz quiz) {
+        JsonObject json = new JsonObject();
+        json.addProperty("title", quiz.getTitle());
+        json.addProperty("description", quiz.getDescription());
+        json.addProperty("creatorUserId", quiz.getCreatorUserId());
+        if (quiz.getCreationDate() != null) {
+            json.addProperty("creationDate", quiz.getCreationDate().toString());
+        }
+        json.addProperty("randomOrder", quiz.isRandomOrder());
+        json.addProperty("displayType", quiz.getQuizDisplayType().getDatabaseValue());
+        json.addProperty("immediateCorrection", quiz.isImmediateCorrection());
+        json.addProperty("practiceMode", quiz.isPracticeModeEnabled());
+        JsonArray questions = new JsonArray();
+        for (Question question : quiz.getQuestions()) {
+            questions.add(questionToJson(question));
+        }
+        json.add("questions", questions);
+        return json;
+    }
+
+    //helper method, converts one question with its answers
+    private static JsonObject questionToJson(Question question) {
+        JsonObject json = new JsonObject();
+        json.addProperty("type", question.getQuestionType());
+        json.addProperty("text", question.getQuestionText());
+        json.addProperty("order", question.getOrderInQuiz());
+        json.addProperty("maxScore", question.getMaxScore());
+        if (question.getImageUrl() != null) {
+            json.addProperty("imageUrl", question.getImageUrl());
+        }
+        if (question instanceof MultipleChoiceQuestion) {
+            json.add("options", optionsToJson(((MultipleChoiceQuestion) question).getOptions()));
+        } else if (question instanceof MultipleChoiceWithMultipleAnswersQuestion) {
+            json.add("options", optionsToJson(((MultipleChoiceWithMultipleAnswersQuestion) question).getOptions()));
+        } else if (question instanceof FillInTheBlankQuestion) {
+            JsonArray blanks = new JsonArray();
+            for (Set<String> answers : ((FillInTheBlankQuestion) question).getCorrectAnswers()) {
+                JsonArray blank = new JsonArray();
+                for (String answer : answers) {
+                    blank.add(answer);
+                }
+                blanks.add(blank);
+            }
+            json.add("blanks", blanks);
+            if (question.getAnswerTolerance() > 0) {
+                json.addProperty("answerTolerance", question.getAnswerTolerance());
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported question type: " + question.getQuestionType());
+        }
+        return json;
+    }
+
+    //helper method, converts multiple choice options to an array of text and correctness pairs
+    private static JsonArray optionsToJson(Map<String, Boolean> options) {
+        JsonArray array = new JsonArray();
+        for (Map.Entry<String, Boolean> option : options.entrySet()) {
+            JsonObject json = new JsonObject();
+            json.addProperty("text", option.getKey());
+            json.addProperty("correct", option.getValue());
+            array.add(json);
+        }
+        return array;
+    }
+
+    /**
+     * Reads the quiz settings of a quiz line, the questions are read with questionsFromJson
+     * once the quiz has an id.
+     * @param json the JSON object of a quiz
+     * @return the quiz without questions
+     * @throws IllegalArgumentException if a required field is missing or has a wrong value
+     */
+    public static Quiz quizFromJson(JsonObject json) {
+        String title = requiredString(json, "title");
+        String description = json.has("description") && !json.get("description").isJsonNull()
+                ? json.get("description").getAsString() : null;
+        int creatorUserId = json.has("creatorUserId") ? json.get("creatorUserId").getAsInt() : 0;
+        LocalDateTime creationDate = json.has("creationDate")
+                ? LocalDateTime.parse(json.get("creationDate").getAsString()) : LocalDateTime.now();
+        QuizDisplayType displayType = json.has("displayType")
+                ? QuizDisplayType.valueOf(json.get("displayType").getAsString()) : QuizDisplayType.SINGLE_PAGE;
+        return new Quiz(creatorUserId, title, description, creationDate,
+                booleanOrFalse(json, "randomOrder"), displayType,
+                booleanOrFalse(json, "immediateCorrection"), booleanOrFalse(json, "practiceMode"));
+    }
+
+    /**
+     * Reads the questions of a quiz line.
+     * @param json the JSON object of a quiz
+     * @param quizId the id of the quiz the questions are added to
+     * @return the questions in the order they appear in the line, without ids
+     * @throws IllegalArgumentException if a question is malformed or of an unsupported type
+     */
+    public static List<Question> questionsFromJson(JsonObject json, int quizId) {
+        List<Question> questions = new ArrayList<>();
+        if (!json.has("questions")) {
+            return questions;
+        }
+        JsonArray array = json.getAsJsonArray("questions");
+        for (int i = 0; i < array.size(); i++) {
+            questions.add(questionFromJson(array.get(i).getAsJsonObject(), quizId, i));
+        }
+        return questions;
+    }
+
+    //helper method, builds one question, its position in the line is the default order
+    private static Question questionFromJson(JsonObject json, int quizId, int position) {
+        String type = requiredString(json, "type");
+        String text = requiredString(json, "text");
+        int order = json.has("order") ? json.get("order").getAsInt() : position;
+        double maxScore = json.has("maxScore") ? json.get("maxScore").getAsDouble() : 1;
+        Question question;
+        switch (type) {
+            case "MULTIPLE_CHOICE":
+                question = new MultipleChoiceQuestion(-1, text, optionsFromJson(json), quizId, order, maxScore);
+                break;
+            case "MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS":
+                question = new MultipleChoiceWithMultipleAnswersQuestion(-1, text, optionsFromJson(json), quizId, order, maxScore);
+                break;
+            case "FILL_IN_BLANK":
+                int answerTolerance = json.has("answerTolerance") ? json.get("answerTolerance").getAsInt() : 0;
+                question = new FillInTheBlankQuestion(-1, text, blanksFromJson(json), quizId, order, maxScore,
+                        AnswerNormalizer.DEFAULT, answerTolerance);
+                break;
+            default:
+                throw new IllegalArgumentException("Unsupported question type: " + type);
+        }
+        if (json.has("imageUrl") && !json.get("imageUrl").isJsonNull()) {
+            question.setImageUrl(json.get("imageUrl").getAsString());
+        }
+        return question;
+    }
+
+    //helper method, reads the options keeping their order
+    private static Map<String, Boolean> optionsFromJson(JsonObject json) {
+        if (!json.has("options")) {
+            throw new IllegalArgumentException("Question has no options");
+        }
+        Map<String, Boolean> options = new LinkedHashMap<>();
+        for (JsonElement element : json.getAsJsonArray("options")) {
+            JsonObject option = element.getAsJsonObject();
+            options.put(requiredString(option, "text"), booleanOrFalse(option, "correct"));
+        }
+        return options;
+    }
+
+    //helper method, reads the acceptable answers of every blank
+    private static List<HashSet<String>> blanksFromJson(JsonObject json) {
+        if (!json.has("blanks")) {
+            throw new IllegalArgumentException("Question has no blanks");
+        }
+        List<HashSet<String>> blanks = new ArrayList<>();
+        for (JsonElement element : json.getAsJsonArray("blanks")) {
+            HashSet<String> answers = new HashSet<>();
+            for (JsonElement answer : element.getAsJsonArray()) {
+                answers.add(answer.getAsString());
+            }
+            blanks.add(answers);
+        }
+        return blanks;
+    }
+
+    private static String requiredString(JsonObject json, String name) {
+        if (!json.has(name) || json.get(name).isJsonNull()) {
+            throw new IllegalArgumentException("Missing field: " + name);
+        }
+        return json.get(name).getAsString();
+    }
+
+    private static boolean booleanOrFalse(JsonObject json, String name) {
+        return json.has(name) && json.get(name).getAsBoolean();
+    }
+}
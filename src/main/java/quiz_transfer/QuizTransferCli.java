@@ -0,0 +1,52 @@
+package quiz_transfer;
+
+import dao.DatabaseConnection;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Command line entry point of quiz import and export, using the database of config.properties.
+ * Usage:
+ *   QuizTransferCli import &lt;file&gt; [creatorUserId]
+ *   QuizTransferCli export &lt;file&gt;
+ * A file named "-" means standard input or output. Progress goes to standard error.
+ */
+public class QuizTransferCli {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2 || !(args[0].equals("import") || args[0].equals("export"))) {
+            System.err.println("Usage: QuizTransferCli import <file> [creatorUserId]");
+            System.err.println("       QuizTransferCli export <file>");
+            System.exit(2);
+        }
+        TransferProgress progress;
+        try {
+            if (args[0].equals("import")) {
+                Integer creatorUserId = args.length > 2 ? Integer.valueOf(args[2]) : null;
+                try (Reader reader = new BufferedReader(new InputStreamReader(
+                        args[1].equals("-") ? System.in : new FileInputStream(args[1]), StandardCharsets.UTF_8))) {
+                    progress = new QuizImporter().importQuizzes(reader, creatorUserId, QuizTransferCli::report);
+                }
+            } else {
+                OutputStream output = args[1].equals("-") ? System.out : new FileOutputStream(args[1]);
+                Writer writer = new BufferedWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8));
+                progress = new QuizExporter().exportQuizzes(writer, QuizTransferCli::report);
+                if (output != System.out) {
+                    writer.close();
+                }
+            }
+        } finally {
+            DatabaseConnection.shutdown();
+        }
+        for (String error : progress.getErrors()) {
+            System.err.println(error);
+        }
+        System.err.println("Done: " + progress);
+        System.exit(progress.getFailed() == 0 ? 0 : 1);
+    }
+
+    private static void report(TransferProgress progress) {
+        System.err.println(progress);
+    }
+}
@@ -0,0 +1,90 @@
+package quiz_transfer;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Progress of an import or export: how many quizzes and questions were transferred, how many
+ * lines failed and how fast it is going. Handed to the progress listener while the transfer runs
+ * and returned when it ends.
+ */
+public class TransferProgress {
+    private static final int MAX_ERRORS = 100;
+
+    private final long startNanos = System.nanoTime();
+    private long endNanos;
+    private int quizzes;
+    private int questions;
+    private int failed;
+    private final List<String> errors = new ArrayList<>();
+
+    void quizTransferred(int questionCount) {
+        quizzes++;
+        questions += questionCount;
+    }
+
+    /*
+     * Counts a line that could not be transferred. Only the first errors are kept,
+     * a broken file should not fill the memory with messages.
+     */
+    void quizFailed(String error) {
+        failed++;
+        if (errors.size() < MAX_ERRORS) {
+            errors.add(error);
+        }
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+    }
+
+    /**
+     * @return the number of quizzes transferred
+     */
+    public int getQuizzes() {
+        return quizzes;
+    }
+
+    /**
+     * @return the number of questions transferred
+     */
+    public int getQuestions() {
+        return questions;
+    }
+
+    /**
+     * @return the number of quizzes that failed
+     */
+    public int getFailed() {
+        return failed;
+    }
+
+    /**
+     * @return the messages of the first failures
+     */
+    public List<String> getErrors() {
+        return Collections.unmodifiableList(errors);
+    }
+
+    /**
+     * @return the time since the transfer started, or its total time once it ended, in milliseconds
+     */
+    public long getElapsedMillis() {
+        return ((endNanos == 0 ? System.nanoTime() : endNanos) - startNanos) / 1_000_000;
+    }
+
+    /**
+     * @return the number of questions transferred per second so far
+     */
+    public double getQuestionsPerSecond() {
+        long elapsed = Math.max(1, getElapsedMillis());
+        return questions * 1000.0 / elapsed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d quizzes, %d questions, %d failed in %d ms (%.0f questions/s)",
+                quizzes, questions, failed, getElapsedMillis(), getQuestionsPerSecond());
+    }
+}
@@ -1,10 +1,63 @@
 package service;
 
 import dao.AchievementsDao;
+import dao.BoundedLruCache;
+import dao.DatabaseConnection;
+import dao.SharedInstance;
 import models.Achievements;
 
+import java.util.*;
+
+/**
+ * Awards achievements from per-user activity counters instead of counting rows on every check.
+ * A user's counters (quizzes created, quizzes completed) and the ids of the achievements they hold are
+ * loaded with two queries the first time the user is seen, afterwards they are kept up to date by events:
+ * quizCreated is fired by QuizDao.addQuiz and attemptCompleted by QuizSession.completeQuiz.
+ * The achievement definitions are read once and cached by name and id, the achievements newly earned by
+ * an event are written in one INSERT IGNORE batch, so an event that earns nothing costs no query at all.
+ * The counters of the least recently seen users are dropped once more than the configured number are held.
+ * Quizzes and attempts added without going through these classes are not seen, call invalidate after such changes.
+ */
 public class AchievementsService {
-    private AchievementsDao achievementsDao = new AchievementsDao();
+    public static final String AMATEUR_AUTHOR = "Amateur Author";
+    public static final String PROLIFIC_AUTHOR = "Prolific Author";
+    public static final String PRODIGIOUS_AUTHOR = "Prodigious Author";
+    public static final String QUIZ_MACHINE = "Quiz Machine";
+    public static final String I_AM_THE_GREATEST = "I am the Greatest";
+    public static final String PRACTICE_MAKES_PERFECT = "Practice Makes Perfect";
+
+    // events of one user are applied under one of these locks, so a user's counters are loaded only once
+    private static final int LOCK_STRIPES = 64;
+
+    private static final SharedInstance<AchievementsService> INSTANCE = new SharedInstance<>(AchievementsService::new);
+
+    private final AchievementsDao achievementsDao;
+    private final BoundedLruCache<Integer, Activity> activities;
+    private final Object[] locks = new Object[LOCK_STRIPES];
+    private volatile Definitions definitions;
+
+    public AchievementsService() {
+        this(new AchievementsDao(), Integer.parseInt(DatabaseConnection.getProperty("achievements.maxUsers", "10000")));
+    }
+
+    /**
+     * @param achievementsDao the DAO the definitions, counters and grants are read and written with
+     * @param maxUsers the maximum number of users whose counters are kept in memory
+     */
+    public AchievementsService(AchievementsDao achievementsDao, int maxUsers) {
+        this.achievementsDao = achievementsDao;
+        this.activities = new BoundedLruCache<>(maxUsers);
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    /**
+     * @return the service shared by the event sources
+     */
+    public static AchievementsService getInstance() {
+        return INSTANCE.get();
+    }
 
     /**
      * Attempts to give a specific achievement to a user, if they do not already have it.
@@ -14,39 +67,206 @@ public class AchievementsService {
      * @return true if the achievement was given (i.e., user did not already have it), false otherwise.
      */
     public boolean giveAchivementIfNotGiven(int userId, String achievementName){
-        Achievements achievement = achievementsDao.getAchievementByName(achievementName);
-        if (!achievementsDao.userHasAchievement(userId, achievement.getId())) {
-            achievementsDao.giveAchievementToUser(userId, achievement);
-            return true;
+        synchronized (lock(userId)) {
+            Activity activity = getActivity(userId).activity;
+            return !grant(userId, activity, List.of(achievementName)).isEmpty();
         }
-        return false;
     }
 
-
     /**
      * Evaluates the user's quiz activity and awards achievements accordingly.
      * Achievements awarded based on thresholds:
      * - "Amateur Author" for creating ≥ 1 quiz
      * - "Prolific Author" for creating ≥ 5 quizzes
      * - "Prodigious Author" for creating ≥ 10 quizzes
-     * - "Quiz Machine" for attempting ≥ 10 quizzes
+     * - "Quiz Machine" for completing ≥ 10 quizzes
      * @param userId The ID of the user to check.
      */
     public void giveAchievements(int userId) {
-        int quizzesCreated = achievementsDao.getCreatedCount(userId);
-        int quizzesAttempted = achievementsDao.getAttemptCount(userId);
-        if (quizzesCreated >= 1) {
-            giveAchivementIfNotGiven(userId, "Amateur Author");
+        synchronized (lock(userId)) {
+            Activity activity = getActivity(userId).activity;
+            grant(userId, activity, earnedByCounters(activity));
+        }
+    }
+
+    /**
+     * Counts a quiz created by a user and awards the author achievements it earns.
+     * @param userId the ID of the creator, the quiz must already be stored
+     * @return the achievements newly given, empty if none or if the database could not be read
+     */
+    public List<Achievements> quizCreated(int userId) {
+        try {
+            synchronized (lock(userId)) {
+                Loaded loaded = getActivity(userId);
+                // counters loaded just now already include the stored quiz
+                if (!loaded.now) {
+                    loaded.activity.quizzesCreated++;
+                }
+                return grant(userId, loaded.activity, earnedByCounters(loaded.activity));
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            invalidate(userId);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Counts a quiz completed by a user and awards the achievements it earns.
+     * A practice attempt earns the practice achievement only, it is not counted as a completed quiz.
+     * @param userId the ID of the user who took the quiz, the completed attempt must already be stored
+     * @param practiceMode whether the quiz was taken in practice mode
+     * @param highestScore whether the attempt is now the best of its quiz
+     * @return the achievements newly given, empty if none or if the database could not be read
+     */
+    public List<Achievements> attemptCompleted(int userId, boolean practiceMode, boolean highestScore) {
+        try {
+            synchronized (lock(userId)) {
+                Loaded loaded = getActivity(userId);
+                if (practiceMode) {
+                    return grant(userId, loaded.activity, List.of(PRACTICE_MAKES_PERFECT));
+                }
+                if (!loaded.now) {
+                    loaded.activity.quizzesCompleted++;
+                }
+                List<String> earned = earnedByCounters(loaded.activity);
+                if (highestScore) {
+                    earned.add(I_AM_THE_GREATEST);
+                }
+                return grant(userId, loaded.activity, earned);
+            }
+        } catch (RuntimeException e) {
+            e.printStackTrace();
+            invalidate(userId);
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * @param achievementId the id of an achievement
+     * @return the cached definition of the achievement, null if there is none
+     */
+    public Achievements getAchievementById(int achievementId) {
+        return getDefinitions().byId.get(achievementId);
+    }
+
+    /**
+     * Drops the counters of a user from memory, they are loaded again on next use.
+     * @param userId the ID of a user
+     */
+    public void invalidate(int userId) {
+        activities.remove(userId);
+    }
+
+    /**
+     * Drops the counters of every user and the cached definitions.
+     */
+    public void invalidateAll() {
+        activities.clear();
+        definitions = null;
+    }
+
+    //Returns the names of the achievements the counters of a user reach
+    private static List<String> earnedByCounters(Activity activity) {
+        List<String> earned = new ArrayList<>();
+        if (activity.quizzesCreated >= 1) {
+            earned.add(AMATEUR_AUTHOR);
         }
-        if (quizzesCreated >= 5) {
-            giveAchivementIfNotGiven(userId, "Prolific Author");
+        if (activity.quizzesCreated >= 5) {
+            earned.add(PROLIFIC_AUTHOR);
         }
-        if (quizzesCreated >= 10) {
-            giveAchivementIfNotGiven(userId, "Prodigious Author");
+        if (activity.quizzesCreated >= 10) {
+            earned.add(PRODIGIOUS_AUTHOR);
         }
-        if (quizzesAttempted >= 10) {
-            giveAchivementIfNotGiven(userId, "Quiz Machine");
+        if (activity.quizzesCompleted >= 10) {
+            earned.add(QUIZ_MACHINE);
         }
+        return earned;
     }
 
-}
\ No newline at end of file
+    /*
+     * Gives the user the named achievements they do not hold yet, in one batch.
+     * Names missing from the Achievements table are skipped. Must be called holding the user's lock.
+     */
+    private List<Achievements> grant(int userId, Activity activity, List<String> names) {
+        List<Achievements> given = new ArrayList<>();
+        List<Integer> ids = new ArrayList<>();
+        for (String name : names) {
+            Achievements achievement = getDefinitions().byName.get(name);
+            if (achievement != null && !activity.earned.contains(achievement.getId())) {
+                given.add(achievement);
+                ids.add(achievement.getId());
+            }
+        }
+        if (!ids.isEmpty()) {
+            achievementsDao.giveAchievementsToUser(userId, ids);
+            activity.earned.addAll(ids);
+        }
+        return given;
+    }
+
+    //helper method, returns the definitions, reading them on first use
+    private Definitions getDefinitions() {
+        Definitions current = definitions;
+        if (current == null) {
+            current = new Definitions(achievementsDao.getAllAchievements());
+            definitions = current;
+        }
+        return current;
+    }
+
+    //helper method, returns the counters of a user, loading them on a miss. Must be called holding the user's lock
+    private Loaded getActivity(int userId) {
+        Activity activity = activities.get(userId);
+        if (activity != null) {
+            return new Loaded(activity, false);
+        }
+        int[] counts = achievementsDao.getActivityCounts(userId);
+        activity = new Activity(counts[0], counts[1], achievementsDao.getUserAchievementIds(userId));
+        activities.put(userId, activity);
+        return new Loaded(activity, true);
+    }
+
+    private Object lock(int userId) {
+        return locks[Math.floorMod(userId, LOCK_STRIPES)];
+    }
+
+    /*
+     * The counters of one user and the ids of the achievements they hold. Guarded by the user's lock.
+     */
+    private static class Activity {
+        private int quizzesCreated;
+        private int quizzesCompleted;
+        private final Set<Integer> earned;
+
+        Activity(int quizzesCreated, int quizzesCompleted, Set<Integer> earned) {
+            this.quizzesCreated = quizzesCreated;
+            this.quizzesCompleted = quizzesCompleted;
+            this.earned = earned;
+        }
+    }
+
+    //The achievement definitions by name and by id
+    private static class Definitions {
+        private final Map<String, Achievements> byName = new HashMap<>();
+        private final Map<Integer, Achievements> byId = new HashMap<>();
+
+        Definitions(List<Achievements> achievements) {
+            for (Achievements achievement : achievements) {
+                byName.put(achievement.getName(), achievement);
+                byId.put(achievement.getId(), achievement);
+            }
+        }
+    }
+
+    //The counters of a user and whether they were just read from the database
+    private static class Loaded {
+        private final Activity activity;
+        private final boolean now;
+
+        Loaded(Activity activity, boolean now) {
+            this.activity = activity;
+            this.now = now;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+-- Composite indexes for the hot query paths, each matching the equality columns of a query
+-- followed by its range or ORDER BY columns so MySQL neither scans the table nor sorts.
+-- Quizzes ordered by creation_date (getRecentlyCreatedQuizzes, the quiz list) use
+-- idx_quizzes_creation_date, see V7.
+
+-- QuizAttemptDao.getQuizAttempts: WHERE quiz_id = ? ORDER BY score DESC, time_taken_seconds
+CREATE INDEX idx_attempts_quiz_score ON UserQuizAttempts (quiz_id, score DESC, time_taken_seconds);
+
+-- QuizAttemptDao.getTodaysTopPerformers: WHERE quiz_id = ? AND start_time >= ?
+CREATE INDEX idx_attempts_quiz_start ON UserQuizAttempts (quiz_id, start_time);
+
+-- QuizAttemptDao.getRecentPerformers: WHERE quiz_id = ? AND end_time IS NOT NULL ORDER BY end_time DESC
+CREATE INDEX idx_attempts_quiz_end ON UserQuizAttempts (quiz_id, end_time);
+
+-- QuizAttemptDao.getUserQuizHistory: WHERE user_id = ? AND quiz_id = ? ORDER BY start_time DESC.
+-- getUserAttempts (WHERE user_id = ?) uses its user_id prefix and sorts the few attempts of one user,
+-- which is cheaper than a second index every attempt insert has to update.
+CREATE INDEX idx_attempts_user_quiz_start ON UserQuizAttempts (user_id, quiz_id, start_time);
+
+-- FriendRequestDao.getPendingRequestsForUser: WHERE recipient_id = ? AND status = 'pending'
+CREATE INDEX idx_friend_requests_recipient_status ON FriendRequests (recipient_id, status);
+
+-- FriendRequestDao.hasPendingRequest: WHERE requester_id = ? AND recipient_id = ? AND status = 'pending'
+CREATE INDEX idx_friend_requests_pair_status ON FriendRequests (requester_id, recipient_id, status);
+
+-- UserAnswerDao.replaceAnswers: DELETE ... WHERE attempt_id = ? AND question_id = ?
+CREATE INDEX idx_user_answers_attempt_question ON UserAnswers (attempt_id, question_id);
@@ -0,0 +1,27 @@
+-- Summary table behind dao.Leaderboard: the attempts on each quiz's all-time board (best first)
+-- and recent board (latest completions), Leaderboard.SIZE attempts per board.
+-- Leaderboard keeps it up to date as attempts are completed, the boards are read from here
+-- instead of sorting the attempts of a quiz.
+CREATE TABLE LeaderboardEntries (
+    quiz_id INT NOT NULL,
+    board VARCHAR(16) NOT NULL,
+    attempt_id INT NOT NULL,
+    PRIMARY KEY (quiz_id, board, attempt_id),
+    FOREIGN KEY (quiz_id) REFERENCES Quizzes(quiz_id) ON DELETE CASCADE,
+    FOREIGN KEY (attempt_id) REFERENCES UserQuizAttempts(attempt_id) ON DELETE CASCADE
+);
+
+-- Boards of the attempts completed before this migration
+INSERT INTO LeaderboardEntries (quiz_id, board, attempt_id)
+SELECT quiz_id, 'ALL_TIME', attempt_id FROM (
+    SELECT quiz_id, attempt_id,
+           ROW_NUMBER() OVER (PARTITION BY quiz_id ORDER BY score DESC, time_taken_seconds, attempt_id) AS place
+    FROM UserQuizAttempts WHERE end_time IS NOT NULL
+) ranked WHERE place <= 10;
+
+INSERT INTO LeaderboardEntries (quiz_id, board, attempt_id)
+SELECT quiz_id, 'RECENT', attempt_id FROM (
+    SELECT quiz_id, attempt_id,
+           ROW_NUMBER() OVER (PARTITION BY quiz_id ORDER BY end_time DESC, attempt_id DESC) AS place
+    FROM UserQuizAttempts WHERE end_time IS NOT NULL
+) ranked WHERE place <= 10;
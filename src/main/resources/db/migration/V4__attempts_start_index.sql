@@ -0,0 +1,3 @@
+-- TodaysTopPerformers is rebuilt on startup from the attempts of every quiz started in the last
+-- 24 hours, this index keeps that from scanning the whole attempts table.
+CREATE INDEX idx_attempts_start ON UserQuizAttempts (start_time);
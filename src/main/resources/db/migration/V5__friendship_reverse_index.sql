@@ -0,0 +1,4 @@
+-- A friendship is stored once with user_id1 < user_id2, so the friends of a user are found on both
+-- sides. The primary key serves the user_id1 side, this index the user_id2 side, both in friend id order.
+-- It also takes over from the index InnoDB created for the user_id2 foreign key, which is dropped.
+CREATE INDEX idx_friendships_reverse ON Friendships (user_id2, user_id1);
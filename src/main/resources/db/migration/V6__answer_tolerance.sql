@@ -0,0 +1,3 @@
+-- Tolerant grading of typed answers (fill in the blank and picture response questions): the most typos
+-- an answer may have and still be graded correct, 0 keeps exact grading. See models.AnswerMatcher.
+ALTER TABLE Questions ADD COLUMN answer_tolerance TINYINT NOT NULL DEFAULT 0;
@@ -0,0 +1,4 @@
+-- The quiz list pages through quizzes newest first by (creation_date, quiz_id), see QuizDao.getQuizSummaries,
+-- and getRecentlyCreatedQuizzes reads the newest quizzes from it. Databases created before the migrations
+-- never had it, so it is not part of the base schema.
+CREATE INDEX idx_quizzes_creation_date ON Quizzes (creation_date, quiz_id);
@@ -0,0 +1,3 @@
+-- Attempts completed in practice mode. They stay in the user's history but are left out of the
+-- leaderboards, today's top performers and the quizzes-completed count, see QuizAttemptDao.completeAttempt.
+ALTER TABLE UserQuizAttempts ADD COLUMN is_practice BOOLEAN NOT NULL DEFAULT FALSE;
@@ -0,0 +1,6 @@
+-- The answer tolerance of a question must be between 0 and models.AnswerMatcher.MAX_TOLERANCE, a question
+-- outside that range can not be built and would break the loading of its whole quiz. Rows written before
+-- this migration are brought into the range first.
+UPDATE Questions SET answer_tolerance = 0 WHERE answer_tolerance < 0;
+UPDATE Questions SET answer_tolerance = 3 WHERE answer_tolerance > 3;
+ALTER TABLE Questions ADD CONSTRAINT chk_questions_answer_tolerance CHECK (answer_tolerance BETWEEN 0 AND 3);
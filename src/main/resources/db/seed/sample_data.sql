@@ -0,0 +1,79 @@
+-- Sample data for development: a test user and a few quizzes.
+-- Not applied unless db.seedSampleData is true in config.properties. Every row has a fixed id
+-- and is inserted with INSERT IGNORE, so running the script again changes nothing.
+SET FOREIGN_KEY_CHECKS=0;
+-- Sample User
+INSERT IGNORE INTO Users (user_id, username, email, password_hash, salt) VALUES (1, 'testuser', 'test@example.com', 'password', 'salt');
+
+-- Sample Quiz
+INSERT IGNORE INTO Quizzes (quiz_id, creator_user_id, title, description) VALUES (1, 1, 'Java Basics Quiz', 'A simple quiz to test fundamental Java knowledge.');
+
+-- Sample Questions
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (1, 1, 'What is the default value of a boolean in Java?', 'MULTIPLE_CHOICE', 0, 1);
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (2, 1, 'Which keyword is used to define a constant in Java?', 'MULTIPLE_CHOICE', 1, 1);
+
+-- Sample Options for Question 1
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (1, 1, 'true', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (2, 1, 'false', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (3, 1, 'null', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (4, 1, '0', FALSE);
+
+-- Sample Options for Question 2
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (5, 2, 'const', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (6, 2, 'static', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (7, 2, 'final', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (8, 2, 'let', FALSE);
+-- Sample Fill-in-the-Blank Quiz
+INSERT IGNORE INTO Quizzes (quiz_id, creator_user_id, title, description) VALUES (2, 1, 'Georgian History', 'A fill-in-the-blank quiz about the history of Georgia.');
+
+-- Sample Questions for Fill-in-the-Blank Quiz
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (3, 2, 'The capital of Georgia is _____ and it was founded by _____.', 'FILL_IN_BLANK', 0, 1);
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (4, 2, 'The Golden Age of Georgia was during the reign of Queen _____.', 'FILL_IN_BLANK', 1, 1);
+
+-- Sample Answers for Question 3
+INSERT IGNORE INTO FillInBlankAnswers (answer_id, question_id, blank_index, acceptable_answer) VALUES (1, 3, 0, 'Tbilisi');
+INSERT IGNORE INTO FillInBlankAnswers (answer_id, question_id, blank_index, acceptable_answer) VALUES (2, 3, 1, 'Vakhtang Gorgasali');
+
+-- Sample Answers for Question 4
+INSERT IGNORE INTO FillInBlankAnswers (answer_id, question_id, blank_index, acceptable_answer) VALUES (3, 4, 0, 'Tamar');
+INSERT IGNORE INTO FillInBlankAnswers (answer_id, question_id, blank_index, acceptable_answer) VALUES (4, 4, 0, 'Thamar');
+
+
+-- Sample Multiple-Choice Quiz (Geography)
+INSERT IGNORE INTO Quizzes (quiz_id, creator_user_id, title, description) VALUES (3, 1, 'World Capitals', 'Test your knowledge of world capitals.');
+
+-- Sample Questions for Geography Quiz
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (5, 3, 'What is the capital of Canada?', 'MULTIPLE_CHOICE', 0, 1);
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (6, 3, 'What is the capital of Australia?', 'MULTIPLE_CHOICE', 1, 1);
+
+-- Sample Options for Question 5
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (9, 5, 'Toronto', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (10, 5, 'Vancouver', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (11, 5, 'Ottawa', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (12, 5, 'Montreal', FALSE);
+
+-- Sample Options for Question 6
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (13, 6, 'Sydney', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (14, 6, 'Melbourne', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (15, 6, 'Canberra', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (16, 6, 'Perth', FALSE);
+-- Sample Multi-Answer Quiz
+INSERT IGNORE INTO Quizzes (quiz_id, creator_user_id, title, description) VALUES (4, 1, 'European Geography', 'Select all correct options.');
+
+-- Sample Questions for Multi-Answer Quiz
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (7, 4, 'Which of the following are countries in the European Union?', 'MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS', 0, 1);
+INSERT IGNORE INTO Questions (question_id, quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (8, 4, 'Which of these cities are capitals of EU countries?', 'MULTIPLE_CHOICE_WITH_MULTIPLE_ANSWERS', 1, 1);
+
+-- Sample Options for Question 7
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (17, 7, 'Germany', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (18, 7, 'Switzerland', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (19, 7, 'France', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (20, 7, 'Norway', FALSE);
+
+-- Sample Options for Question 8
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (21, 8, 'Paris', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (22, 8, 'London', FALSE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (23, 8, 'Berlin', TRUE);
+INSERT IGNORE INTO AnswerOptionsMC (option_id, question_id, option_text, is_correct) VALUES (24, 8, 'Zurich', FALSE);
+
+SET FOREIGN_KEY_CHECKS=1;
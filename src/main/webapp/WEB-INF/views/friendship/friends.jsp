@@ -3,7 +3,7 @@
 <%@ include file="../../fragments/header.jspf" %>
 
 <main class="container">
-    <h1>My Friends</h1>
+    <h1>My Friends (<c:out value="${friendCount}" />)</h1>
     <div class="card">
         <c:if test="${empty friends}">
             <p>You have no friends yet. Use the search to find and add friends.</p>
@@ -22,6 +22,18 @@
             </div>
         </c:if>
     </div>
+    <div class="pagination">
+        <c:if test="${not isFirstPage}">
+            <c:url var="firstPageUrl" value="/friends-list" />
+            <a href="${firstPageUrl}" class="btn btn-secondary">First page</a>
+        </c:if>
+        <c:if test="${hasNextPage}">
+            <c:url var="nextPageUrl" value="/friends-list">
+                <c:param name="afterId" value="${nextAfterId}" />
+            </c:url>
+            <a href="${nextPageUrl}" class="btn btn-primary">More friends</a>
+        </c:if>
+    </div>
 </main>
 
 <%@ include file="../../fragments/footer.jspf" %>
\ No newline at end of file
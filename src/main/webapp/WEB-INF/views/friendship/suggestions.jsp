@@ -0,0 +1,43 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ include file="../../fragments/header.jspf" %>
+
+<main class="container">
+    <h1>People You May Know</h1>
+    <div class="card">
+        <c:if test="${empty suggestions}">
+            <p>No suggestions yet. Suggestions come from the friends of your friends.</p>
+        </c:if>
+        <c:if test="${not empty suggestions}">
+            <div class="user-list">
+                <c:forEach var="suggestion" items="${suggestions}">
+                    <div class="user-item">
+                        <span>
+                            <a href="user-profile?username=${suggestion.username}"><c:out value="${suggestion.username}" /></a>
+                            <c:out value="${suggestion.mutualFriends}" /> mutual
+                            <c:out value="${suggestion.mutualFriends == 1 ? 'friend' : 'friends'}" />
+                        </span>
+                        <form action="send-friend-request" method="post" style="display: inline;">
+                            <input type="hidden" name="recipientId" value="${suggestion.userId}" />
+                            <input type="submit" value="Add Friend" class="btn btn-secondary" />
+                        </form>
+                    </div>
+                </c:forEach>
+            </div>
+        </c:if>
+    </div>
+    <div class="pagination">
+        <c:if test="${not isFirstPage}">
+            <c:url var="firstPageUrl" value="/friend-suggestions" />
+            <a href="${firstPageUrl}" class="btn btn-secondary">First page</a>
+        </c:if>
+        <c:if test="${hasNextPage}">
+            <c:url var="nextPageUrl" value="/friend-suggestions">
+                <c:param name="offset" value="${nextOffset}" />
+            </c:url>
+            <a href="${nextPageUrl}" class="btn btn-primary">More suggestions</a>
+        </c:if>
+    </div>
+</main>
+
+<%@ include file="../../fragments/footer.jspf" %>
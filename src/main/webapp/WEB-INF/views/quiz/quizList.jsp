@@ -5,16 +5,39 @@
 <main class="page-container">
     <div class="page-header">
         <h1>Available Quizzes</h1>
+        <form action="${pageContext.request.contextPath}/quiz-search" method="GET" class="form-group">
+            <input type="text" name="q" placeholder="Search quizzes" class="form-input" />
+            <input type="submit" value="Search" class="btn btn-secondary" />
+        </form>
     </div>
     <div class="quiz-grid">
         <c:forEach var="quiz" items="${quizList}">
             <div class="card quiz-card">
                 <h3><c:out value="${quiz.title}" /></h3>
-                <p><c:out value="${quiz.description}" /></p>
+                <p><c:out value="${quiz.questionCount}" /> <c:out value="${quiz.questionCount == 1 ? 'question' : 'questions'}" /></p>
                 <a href="${pageContext.request.contextPath}/quiz/start?id=${quiz.quizId}" class="btn btn-primary">Start Quiz</a>
             </div>
         </c:forEach>
     </div>
+    <c:if test="${empty quizList}">
+        <p>No quizzes to show.</p>
+    </c:if>
+    <div class="pagination">
+        <c:if test="${not isFirstPage}">
+            <c:url var="firstPageUrl" value="/quizzes">
+                <c:param name="size" value="${pageSize}" />
+            </c:url>
+            <a href="${firstPageUrl}" class="btn btn-secondary">Newest</a>
+        </c:if>
+        <c:if test="${hasNextPage}">
+            <c:url var="nextPageUrl" value="/quizzes">
+                <c:param name="size" value="${pageSize}" />
+                <c:param name="afterDate" value="${nextAfterDate}" />
+                <c:param name="afterId" value="${nextAfterId}" />
+            </c:url>
+            <a href="${nextPageUrl}" class="btn btn-primary">Older quizzes</a>
+        </c:if>
+    </div>
 </main>
 
-<%@ include file="/WEB-INF/fragments/footer.jspf" %>
\ No newline at end of file
+<%@ include file="/WEB-INF/fragments/footer.jspf" %>
@@ -10,7 +10,7 @@
 
     <section class="results-summary card">
         <h2>Quiz Complete!</h2>
-        <p>Your final score is ${finalScore} out of ${totalQuestions}.</p>
+        <p>Your final score is ${finalScore} out of ${maxScore} (${totalQuestions} questions).</p>
     </section>
 
     <section class="results-breakdown">
@@ -0,0 +1,46 @@
+<%@ page contentType="text/html;charset=UTF-8" language="java" %>
+<%@ taglib uri="http://java.sun.com/jsp/jstl/core" prefix="c" %>
+<%@ include file="/WEB-INF/fragments/header.jspf" %>
+
+<main class="page-container">
+    <div class="page-header">
+        <h1>Search Quizzes</h1>
+    </div>
+    <div class="card">
+        <form action="${pageContext.request.contextPath}/quiz-search" method="GET" class="form-group">
+            <input type="text" name="q" value="<c:out value='${query}' />" placeholder="Words of a title, description or question" class="form-input" />
+            <input type="submit" value="Search" class="btn btn-primary" />
+        </form>
+    </div>
+    <c:if test="${results != null}">
+        <div class="quiz-grid">
+            <c:forEach var="quiz" items="${results}">
+                <div class="card quiz-card">
+                    <h3><c:out value="${quiz.title}" /></h3>
+                    <p><c:out value="${quiz.questionCount}" /> <c:out value="${quiz.questionCount == 1 ? 'question' : 'questions'}" /></p>
+                    <a href="${pageContext.request.contextPath}/quiz/start?id=${quiz.quizId}" class="btn btn-primary">Start Quiz</a>
+                </div>
+            </c:forEach>
+        </div>
+        <c:if test="${empty results}">
+            <p>No quizzes match your search.</p>
+        </c:if>
+        <div class="pagination">
+            <c:if test="${not isFirstPage}">
+                <c:url var="firstPageUrl" value="/quiz-search">
+                    <c:param name="q" value="${query}" />
+                </c:url>
+                <a href="${firstPageUrl}" class="btn btn-secondary">Best matches</a>
+            </c:if>
+            <c:if test="${hasNextPage}">
+                <c:url var="nextPageUrl" value="/quiz-search">
+                    <c:param name="q" value="${query}" />
+                    <c:param name="offset" value="${nextOffset}" />
+                </c:url>
+                <a href="${nextPageUrl}" class="btn btn-primary">More results</a>
+            </c:if>
+        </div>
+    </c:if>
+</main>
+
+<%@ include file="/WEB-INF/fragments/footer.jspf" %>
@@ -5,6 +5,13 @@ import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 public class UserDaoTest {
@@ -57,4 +64,29 @@ public class UserDaoTest {
             throw new RuntimeException(e);
         }
     }
-}
\ No newline at end of file
+
+    //Tests that one shared UserDao answers correctly when 200 threads log in at the same time
+    @Test
+    public void testConcurrentAccountHasPass() throws Exception {
+        int threads = 200;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        try {
+            for (int i = 0; i < threads; i++) {
+                boolean correctPassword = i % 2 == 0;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    boolean result = userDao.accountHasPass("Patrick", correctPassword ? "1234" : "wrong");
+                    return result == correctPassword;
+                }));
+            }
+            start.countDown();
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package User;
+
+import java.util.Locale;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares UsernameIndex with the LIKE '%q%' search it replaces, on 1M random usernames: prints the
+ * average latency of prefix, substring and misspelt queries, and the heap the index takes.
+ * The LIKE side is a scan of the lowercased names in memory, a lower bound of what MySQL does when it reads
+ * every row of the table, so the real gap is larger.
+ * Not a unit test and needs no database: run its main method, with -Xmx2g or more.
+ */
+public class UsernameIndexBenchmark {
+    private static final int USERS = 1_000_000;
+    private static final int LIMIT = 20;
+    private static final int REPEATS = 20;
+    private static final String[] SYLLABLES = {"ka", "lo", "mi", "ra", "to", "ne", "su", "vi", "da", "jo", "an", "el",
+            "ri", "ma", "co", "ber", "lin", "son", "ton", "ash"};
+    private static final String[] QUERIES = {"jo", "kalo", "berlin", "miraton", "sonelka", "kalomraa", "berlinsontoo"};
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        String[] keys = new String[USERS + 1];
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        UsernameIndex index = new UsernameIndex(mock(UserDao.class));
+        index.rebuild();
+        long start = System.nanoTime();
+        for (int userId = 1; userId <= USERS; userId++) {
+            StringBuilder name = new StringBuilder();
+            int syllables = 2 + random.nextInt(4);
+            for (int i = 0; i < syllables; i++) {
+                name.append(SYLLABLES[random.nextInt(SYLLABLES.length)]);
+            }
+            if (random.nextBoolean()) {
+                name.append(random.nextInt(1000));
+            }
+            index.userAdded(userId, name.toString());
+            keys[userId] = name.toString().toLowerCase(Locale.ROOT);
+        }
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%d users indexed in %.1f s, about %d MB of heap with the names%n",
+                index.size(), buildSeconds, (heapAfter - heapBefore) / (1024 * 1024));
+
+        System.out.printf("%12s %10s %12s %10s%n", "query", "index ms", "LIKE scan ms", "results");
+        long checksum = 0;
+        for (String query : QUERIES) {
+            for (int i = 0; i < 3; i++) {
+                checksum += index.search(query, LIMIT).size() + scan(keys, query);
+            }
+            start = System.nanoTime();
+            int results = 0;
+            for (int i = 0; i < REPEATS; i++) {
+                results = index.search(query, LIMIT).size();
+            }
+            double indexMillis = (System.nanoTime() - start) / 1e6 / REPEATS;
+            start = System.nanoTime();
+            for (int i = 0; i < REPEATS; i++) {
+                checksum += scan(keys, query);
+            }
+            double scanMillis = (System.nanoTime() - start) / 1e6 / REPEATS;
+            System.out.printf("%12s %10.3f %12.3f %10d%n", query, indexMillis, scanMillis, results);
+        }
+        if (checksum == 0) {
+            throw new IllegalStateException("Nothing was found");
+        }
+    }
+
+    //The LIKE '%q%' search: every name is read and tested, and at most LIMIT are returned
+    private static int scan(String[] keys, String query) {
+        String key = query.toLowerCase(Locale.ROOT);
+        int found = 0;
+        for (int userId = 1; userId < keys.length; userId++) {
+            if (keys[userId].contains(key) && found < LIMIT) {
+                found++;
+            }
+        }
+        return found;
+    }
+}
@@ -0,0 +1,97 @@
+package User;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class UsernameIndexTest {
+    private UsernameIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new UsernameIndex(mock(UserDao.class));
+        assertEquals(0, index.rebuild());
+        String[] names = {"Bob", "bobby", "alice", "jonathan", "john", "johnny", "xbobx", "maximilian"};
+        for (int i = 0; i < names.length; i++) {
+            index.userAdded(i + 1, names[i]);
+        }
+    }
+
+    private static List<String> names(List<User> users) {
+        List<String> names = new ArrayList<>();
+        for (User user : users) {
+            names.add(user.getName());
+        }
+        return names;
+    }
+
+    //Tests that exact matches come before prefixes and prefixes before names containing the query
+    @Test
+    public void testContaining() {
+        assertEquals(List.of("Bob", "bobby", "xbobx"), names(index.search("BOB", 10)));
+        assertEquals(List.of("john", "johnny", "jonathan"), names(index.search("jo", 10)));
+        assertEquals(List.of("alice"), names(index.search("lic", 10)));
+        assertEquals(List.of("Bob", "bobby"), names(index.search("bob", 2)));
+        assertTrue(index.search("zzz", 10).isEmpty());
+        assertTrue(index.search("  ", 10).isEmpty());
+    }
+
+    //Tests that names a few typos away are found after the names containing the query
+    @Test
+    public void testTypos() {
+        assertEquals(List.of("john"), names(index.search("jhon", 10)));
+        assertEquals(List.of("maximilian"), names(index.search("maximillain", 10)));
+        assertEquals(List.of("johnny"), names(index.search("jhonny", 10)));
+        assertTrue(index.search("jxxn", 10).isEmpty());
+    }
+
+    //Tests that renamed and removed users are found by their new name only
+    @Test
+    public void testChanges() {
+        index.userRenamed(2, "robert");
+        index.userRemoved(7);
+        index.userRemoved("Bob");
+        assertTrue(index.search("bob", 10).isEmpty());
+        assertEquals(List.of(2), List.of(index.search("rob", 10).get(0).getId()));
+        assertEquals(6, index.size());
+        assertNull(index.search("robert", 10).get(0).getPassword());
+    }
+
+    //Tests that the index is read through the DAO on first use and that the DAO is searched if it can not be
+    @Test
+    public void testLoading() {
+        UserDao userDao = mock(UserDao.class);
+        when(userDao.forEachUsername(any())).thenAnswer(invocation -> {
+            UserDao.UsernameConsumer consumer = invocation.getArgument(0);
+            consumer.accept(3, "carol");
+            consumer.accept(9, "caroline");
+            return 2;
+        });
+        UsernameIndex loading = new UsernameIndex(userDao);
+        assertEquals(List.of("carol", "caroline"), names(loading.search("car", 10)));
+        verify(userDao, times(1)).forEachUsername(any());
+
+        UserDao failing = mock(UserDao.class);
+        when(failing.forEachUsername(any())).thenThrow(new RuntimeException("database down"));
+        List<User> fromDatabase = List.of(new User(4, "carl", null));
+        when(failing.findUsersByUsername("car", 10)).thenReturn(fromDatabase);
+        assertEquals(fromDatabase, new UsernameIndex(failing).search("car", 10));
+    }
+
+    //Tests the distance, including swapped neighbours, and that it stops past the maximum
+    @Test
+    public void testDistance() {
+        int[][] rows = new int[3][16];
+        assertEquals(0, UsernameIndex.distance("john", "john", 2, rows));
+        assertEquals(1, UsernameIndex.distance("jhon", "john", 2, rows));
+        assertEquals(1, UsernameIndex.distance("jon", "john", 2, rows));
+        assertEquals(2, UsernameIndex.distance("kitten", "sitting", 1, rows));
+        assertEquals(3, UsernameIndex.distance("kitten", "sitting", 3, rows));
+    }
+}
@@ -0,0 +1,31 @@
+package com.quizwebsite;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class PageTest {
+
+    //Tests that the extra item read only tells there is a next page
+    @Test
+    public void testNextPage() {
+        assertEquals(4, Page.fetchSize(3));
+        Page<Integer> page = new Page<>(List.of(1, 2, 3, 4), 3);
+        assertTrue(page.hasNextPage());
+        assertEquals(List.of(1, 2, 3), page.getItems());
+        assertEquals(3, page.getLast());
+    }
+
+    //Tests the last page, full or not
+    @Test
+    public void testLastPage() {
+        Page<Integer> full = new Page<>(List.of(1, 2, 3), 3);
+        assertFalse(full.hasNextPage());
+        assertEquals(List.of(1, 2, 3), full.getItems());
+        Page<Integer> partial = new Page<>(List.of(1), 3);
+        assertFalse(partial.hasNextPage());
+        assertEquals(List.of(1), partial.getItems());
+    }
+}
@@ -0,0 +1,66 @@
+package com.quizwebsite.friendship;
+
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures FriendSuggestions on a random graph where most users have a few dozen friends and a few
+ * popular users have thousands: prints the average latency of ranking an ordinary and a popular user
+ * from scratch, for a few edge budgets.
+ * Not a unit test and needs no database: run its main method.
+ */
+public class FriendSuggestionsBenchmark {
+    private static final int USERS = 100_000;
+    private static final int AVERAGE_FRIENDS = 40;
+    private static final int POPULAR_USERS = 50;
+    private static final int POPULAR_FRIENDS = 5_000;
+    private static final int[] BUDGETS = {50_000, 200_000, 1_000_000};
+    private static final int RANKINGS = 200;
+
+    public static void main(String[] args) {
+        System.out.printf("%10s %14s %14s%n", "budget", "ordinary ms", "popular ms");
+        for (int budget : BUDGETS) {
+            run(budget);
+        }
+    }
+
+    private static void run(int budget) {
+        FriendSuggestions suggestions = new FriendSuggestions(mock(FriendshipDao.class), RANKINGS * 2, budget);
+        suggestions.rebuild();
+        Random random = new Random(42);
+        for (int i = 0; i < USERS * AVERAGE_FRIENDS / 2; i++) {
+            int user = random.nextInt(USERS) + 1;
+            int friend = random.nextInt(USERS) + 1;
+            if (user != friend) {
+                suggestions.friendshipAdded(user, friend);
+            }
+        }
+        for (int popular = 1; popular <= POPULAR_USERS; popular++) {
+            for (int i = 0; i < POPULAR_FRIENDS; i++) {
+                int friend = random.nextInt(USERS) + 1;
+                if (friend != popular) {
+                    suggestions.friendshipAdded(popular, friend);
+                }
+            }
+        }
+
+        long checksum = 0;
+        long start = System.nanoTime();
+        for (int i = 0; i < RANKINGS; i++) {
+            checksum += suggestions.getSuggestions(POPULAR_USERS + 1 + random.nextInt(USERS - POPULAR_USERS), 0, 10).size();
+        }
+        double ordinaryMillis = (System.nanoTime() - start) / 1e6 / RANKINGS;
+
+        start = System.nanoTime();
+        for (int popular = 1; popular <= POPULAR_USERS; popular++) {
+            checksum += suggestions.getSuggestions(popular, 0, 10).size();
+        }
+        double popularMillis = (System.nanoTime() - start) / 1e6 / POPULAR_USERS;
+
+        if (checksum == 0) {
+            throw new IllegalStateException("No suggestions were found");
+        }
+        System.out.printf("%10d %14.3f %14.3f%n", budget, ordinaryMillis, popularMillis);
+    }
+}
@@ -0,0 +1,100 @@
+package com.quizwebsite.friendship;
+
+import User.User;
+import User.UserDao;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FriendSuggestionsServletTest {
+
+    @Mock
+    private FriendshipService friendshipService;
+
+    @Mock
+    private UserDao userDao;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private HttpSession session;
+
+    @Mock
+    private RequestDispatcher dispatcher;
+
+    private FriendSuggestionsServlet servlet;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        servlet = new FriendSuggestionsServlet(friendshipService, userDao);
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(new User(1, "testuser", "password"));
+        when(request.getRequestDispatcher(anyString())).thenReturn(dispatcher);
+    }
+
+    @Test
+    void testFirstPage() throws Exception {
+        int pageSize = FriendSuggestionsServlet.PAGE_SIZE;
+        List<FriendSuggestion> suggestions = new ArrayList<>();
+        for (int i = 0; i <= pageSize; i++) {
+            suggestions.add(new FriendSuggestion(100 + i, 50 - i));
+        }
+        when(friendshipService.getFriendSuggestions(1, 0, pageSize + 1)).thenReturn(suggestions);
+        Map<Integer, User> users = new HashMap<>();
+        for (FriendSuggestion suggestion : suggestions) {
+            users.put(suggestion.getUserId(), new User(suggestion.getUserId(), "user" + suggestion.getUserId(), "password"));
+        }
+        users.put(100, new User(100, "alice", "password"));
+        when(userDao.getUsersByIds(any())).thenReturn(users);
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("suggestions", suggestions.subList(0, pageSize));
+        verify(request).setAttribute("hasNextPage", true);
+        verify(request).setAttribute("nextOffset", pageSize);
+        verify(userDao, times(1)).getUsersByIds(any());
+        assertEquals("alice", suggestions.get(0).getUsername());
+        verify(dispatcher).forward(request, response);
+    }
+
+    @Test
+    void testDeletedUserLeftOut() throws Exception {
+        List<FriendSuggestion> suggestions = List.of(new FriendSuggestion(100, 2), new FriendSuggestion(101, 1));
+        when(friendshipService.getFriendSuggestions(1, 0, FriendSuggestionsServlet.PAGE_SIZE + 1)).thenReturn(suggestions);
+        when(userDao.getUsersByIds(any())).thenReturn(Map.of(101, new User(101, "bob", "password")));
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("suggestions", List.of(suggestions.get(1)));
+        verify(request).setAttribute("hasNextPage", false);
+    }
+
+    @Test
+    void testInvalidOffset() throws Exception {
+        when(request.getParameter("offset")).thenReturn("x");
+
+        servlet.doGet(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verify(friendshipService, never()).getFriendSuggestions(anyInt(), anyInt(), anyInt());
+    }
+}
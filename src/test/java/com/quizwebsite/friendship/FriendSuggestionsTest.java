@@ -0,0 +1,99 @@
+package com.quizwebsite.friendship;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+public class FriendSuggestionsTest {
+    private FriendSuggestions suggestions;
+
+    /*
+     * User 1 is friends with 2, 3 and 4. User 5 is friends with 2, 3 and 4, user 6 with 2 and 3,
+     * user 7 with 4 only.
+     */
+    @BeforeEach
+    public void setUp() {
+        suggestions = empty(1000);
+        int[][] friendships = {{1, 2}, {1, 3}, {1, 4}, {2, 5}, {3, 5}, {4, 5}, {2, 6}, {3, 6}, {4, 7}};
+        for (int[] friendship : friendships) {
+            suggestions.friendshipAdded(friendship[0], friendship[1]);
+        }
+    }
+
+    //Creates suggestions of at most 10 users over a graph read empty from the database
+    private static FriendSuggestions empty(int edgeBudget) {
+        FriendSuggestions empty = new FriendSuggestions(mock(FriendshipDao.class), 10, edgeBudget);
+        assertEquals(0, empty.rebuild());
+        return empty;
+    }
+
+    //Tests that the friends of friends are ranked by mutual friends, then by id, a page at a time
+    @Test
+    public void testRanking() {
+        assertEquals(List.of(new FriendSuggestion(5, 3), new FriendSuggestion(6, 2), new FriendSuggestion(7, 1)),
+                suggestions.getSuggestions(1, 0, 10));
+        assertEquals(List.of(new FriendSuggestion(6, 2)), suggestions.getSuggestions(1, 1, 1));
+        assertTrue(suggestions.getSuggestions(1, 3, 10).isEmpty());
+        assertEquals(3, suggestions.getMutualFriendCount(1, 5));
+        assertTrue(suggestions.getSuggestions(8, 0, 10).isEmpty());
+    }
+
+    //Tests that friendship changes drop the rankings they change
+    @Test
+    public void testChanges() {
+        assertEquals(new FriendSuggestion(5, 3), suggestions.getSuggestions(1, 0, 1).get(0));
+        suggestions.friendshipAdded(1, 5);
+        assertEquals(List.of(new FriendSuggestion(6, 2), new FriendSuggestion(7, 1)), suggestions.getSuggestions(1, 0, 10));
+
+        // 6 is a friend of 2, whose friendship with 1 ends
+        assertEquals(new FriendSuggestion(1, 2), suggestions.getSuggestions(6, 0, 1).get(0));
+        suggestions.friendshipRemoved(2, 1);
+        assertEquals(List.of(new FriendSuggestion(5, 2), new FriendSuggestion(1, 1)), suggestions.getSuggestions(6, 0, 10));
+    }
+
+    //Tests that a deleted user is no longer suggested nor counted as a mutual friend
+    @Test
+    public void testUserRemoved() {
+        assertEquals(new FriendSuggestion(5, 3), suggestions.getSuggestions(1, 0, 1).get(0));
+        assertEquals(new FriendSuggestion(1, 3), suggestions.getSuggestions(5, 0, 1).get(0));
+        suggestions.userRemoved(5);
+        assertEquals(List.of(new FriendSuggestion(6, 2), new FriendSuggestion(7, 1)), suggestions.getSuggestions(1, 0, 10));
+        suggestions.userRemoved(2);
+        assertEquals(List.of(new FriendSuggestion(6, 1), new FriendSuggestion(7, 1)), suggestions.getSuggestions(1, 0, 10));
+        assertEquals(0, suggestions.getMutualFriendCount(1, 5));
+    }
+
+    //Tests that the friends with the fewest friends are used first once the budget is reached
+    @Test
+    public void testEdgeBudget() {
+        FriendSuggestions budgeted = empty(3);
+        budgeted.friendshipAdded(1, 2);
+        budgeted.friendshipAdded(1, 3);
+        budgeted.friendshipAdded(2, 10);
+        budgeted.friendshipAdded(3, 10);
+        budgeted.friendshipAdded(3, 11);
+        // friend 2 has 2 friends and friend 3 has 3, only friend 2 fits in a budget of 3
+        assertEquals(List.of(new FriendSuggestion(10, 1)), budgeted.getSuggestions(1, 0, 10));
+    }
+
+    //Tests that the graph is streamed from the database on first use
+    @Test
+    public void testRebuild() {
+        FriendshipDao friendshipDao = mock(FriendshipDao.class);
+        when(friendshipDao.forEachFriendship(any())).thenAnswer(invocation -> {
+            FriendshipDao.FriendshipConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1, 2);
+            consumer.accept(2, 3);
+            return 2;
+        });
+        FriendSuggestions loaded = new FriendSuggestions(friendshipDao, 10, 1000);
+        assertEquals(List.of(new FriendSuggestion(3, 1)), loaded.getSuggestions(1, 0, 10));
+        assertEquals(List.of(new FriendSuggestion(1, 1)), loaded.getSuggestions(3, 0, 10));
+        verify(friendshipDao, times(1)).forEachFriendship(any());
+    }
+}
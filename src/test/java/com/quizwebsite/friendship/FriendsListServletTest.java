@@ -0,0 +1,95 @@
+package com.quizwebsite.friendship;
+
+import User.User;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class FriendsListServletTest {
+
+    @Mock
+    private FriendshipService friendshipService;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private HttpSession session;
+
+    @Mock
+    private RequestDispatcher dispatcher;
+
+    private FriendsListServlet servlet;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        servlet = new FriendsListServlet(friendshipService);
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(new User(1, "testuser", "password"));
+        when(request.getRequestDispatcher(anyString())).thenReturn(dispatcher);
+    }
+
+    private List<User> friends(int firstId, int count) {
+        List<User> friends = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            friends.add(new User(firstId + i, "friend" + (firstId + i), "password"));
+        }
+        return friends;
+    }
+
+    @Test
+    void testFirstPage() throws Exception {
+        int pageSize = FriendshipService.FRIENDS_PAGE_SIZE;
+        List<User> page = friends(2, pageSize + 1);
+        when(friendshipService.getFriendsForUser(1, 0, pageSize + 1)).thenReturn(page);
+        when(friendshipService.getFriendCount(1)).thenReturn(50);
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("friends", page.subList(0, pageSize));
+        verify(request).setAttribute("friendCount", 50);
+        verify(request).setAttribute("hasNextPage", true);
+        verify(request).setAttribute("nextAfterId", pageSize + 1);
+        verify(request).setAttribute("isFirstPage", true);
+        verify(dispatcher).forward(request, response);
+    }
+
+    @Test
+    void testLastPage() throws Exception {
+        when(request.getParameter("afterId")).thenReturn("30");
+        List<User> page = friends(31, 3);
+        when(friendshipService.getFriendsForUser(1, 30, FriendshipService.FRIENDS_PAGE_SIZE + 1)).thenReturn(page);
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("friends", page);
+        verify(request).setAttribute("hasNextPage", false);
+        verify(request).setAttribute("isFirstPage", false);
+        verify(request, never()).setAttribute(eq("nextAfterId"), any());
+    }
+
+    @Test
+    void testInvalidCursor() throws Exception {
+        when(request.getParameter("afterId")).thenReturn("abc");
+
+        servlet.doGet(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verify(friendshipService, never()).getFriendsForUser(anyInt(), anyInt(), anyInt());
+    }
+}
@@ -107,4 +107,28 @@ public class FriendshipDaoTest {
         assertNotNull(friends, "The friends list should not be null.");
         assertTrue(friends.isEmpty(), "User with no friends should have an empty list.");
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testGetFriendsForUserPaged() {
+        // testUser2 is on the user_id2 side of one friendship and on the user_id1 side of the other
+        friendshipDao.addFriendship(testUser1.getId(), testUser2.getId());
+        friendshipDao.addFriendship(testUser2.getId(), testUser3.getId());
+
+        List<User> firstPage = friendshipDao.getFriendsForUser(testUser2.getId(), 0, 1);
+        assertEquals(List.of(testUser1.getId()), firstPage.stream().map(User::getId).toList());
+        assertEquals("testuser1", firstPage.get(0).getName());
+
+        List<User> secondPage = friendshipDao.getFriendsForUser(testUser2.getId(), testUser1.getId(), 1);
+        assertEquals(List.of(testUser3.getId()), secondPage.stream().map(User::getId).toList());
+        assertTrue(friendshipDao.getFriendsForUser(testUser2.getId(), testUser3.getId(), 1).isEmpty());
+    }
+
+    @Test
+    public void testGetFriendCount() {
+        assertEquals(0, friendshipDao.getFriendCount(testUser1.getId()));
+        friendshipDao.addFriendship(testUser1.getId(), testUser2.getId());
+        friendshipDao.addFriendship(testUser1.getId(), testUser3.getId());
+        assertEquals(2, friendshipDao.getFriendCount(testUser1.getId()));
+        assertEquals(1, friendshipDao.getFriendCount(testUser3.getId()));
+    }
+}
@@ -0,0 +1,38 @@
+package com.quizwebsite.friendship;
+
+import dao.DatabaseConnection;
+import dao.QueryPlanTest;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression test for the indexes of the friendship queries, on the dataset seeded by QueryPlanTest.
+ */
+public class FriendshipQueryPlanTest {
+
+    @BeforeAll
+    public static void seed() throws SQLException, IOException {
+        QueryPlanTest.seed();
+    }
+
+    //Tests that none of the friendship queries scans a whole table
+    @Test
+    public void testNoFullScans() throws SQLException {
+        List<String> fullScans = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            fullScans.addAll(QueryPlanTest.fullScans(connection, FriendRequestDao.PENDING_REQUESTS_QUERY, 7));
+            fullScans.addAll(QueryPlanTest.fullScans(connection, FriendRequestDao.HAS_PENDING_REQUEST_QUERY, 7, 8));
+            fullScans.addAll(QueryPlanTest.fullScans(connection, FriendshipDao.FRIENDS_PAGE_QUERY, 7, 0, 21, 7, 0, 21, 21));
+            fullScans.addAll(QueryPlanTest.fullScans(connection, FriendshipDao.FRIEND_COUNT_QUERY, 7, 7));
+        }
+        assertTrue(fullScans.isEmpty(), "Full table scans: " + fullScans);
+    }
+}
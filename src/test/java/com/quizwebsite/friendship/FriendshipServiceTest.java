@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 import com.quizwebsite.friendship.FriendRequest;
 
@@ -80,4 +82,35 @@ public class FriendshipServiceTest {
 
         verify(friendshipDao, times(1)).removeFriendship(userId1, userId2);
     }
-}
\ No newline at end of file
+
+    @Test
+    public void testSendFriendRequest_AlreadyPending() {
+        when(friendRequestDao.hasPendingRequest(1, 2)).thenReturn(true);
+
+        friendshipService.sendFriendRequest(1, 2);
+
+        verify(friendRequestDao, never()).sendFriendRequest(1, 2);
+    }
+
+    @Test
+    public void testGetFriendshipStatusFollowsWrites() {
+        when(friendshipDao.getFriendIds(anyInt())).thenReturn(new int[0]);
+        when(friendRequestDao.getPendingRequestUserIds(anyInt(), anyBoolean())).thenReturn(new int[0]);
+        assertEquals("NONE", friendshipService.getFriendshipStatus(1, 2));
+        assertEquals("NONE", friendshipService.getFriendshipStatus(2, 1));
+
+        friendshipService.sendFriendRequest(1, 2);
+        assertEquals("PENDING_SENT", friendshipService.getFriendshipStatus(1, 2));
+        assertEquals("PENDING_RECEIVED", friendshipService.getFriendshipStatus(2, 1));
+
+        when(friendRequestDao.getFriendRequestById(7)).thenReturn(new FriendRequest(7, 1, 2, "pending"));
+        friendshipService.acceptFriendRequest(7);
+        assertEquals("FRIENDS", friendshipService.getFriendshipStatus(2, 1));
+
+        friendshipService.removeFriend(2, 1);
+        assertEquals("NONE", friendshipService.getFriendshipStatus(1, 2));
+        // the statuses after the first load were answered from memory
+        verify(friendshipDao, times(1)).getFriendIds(1);
+        verify(friendRequestDao, never()).hasPendingRequest(2, 1);
+    }
+}
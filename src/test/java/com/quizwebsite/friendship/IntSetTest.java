@@ -0,0 +1,56 @@
+package com.quizwebsite.friendship;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class IntSetTest {
+
+    @Test
+    public void testAddContainsRemove() {
+        IntSet set = new IntSet();
+        assertTrue(set.add(5));
+        assertFalse(set.add(5));
+        assertTrue(set.add(7));
+        assertTrue(set.contains(5));
+        assertFalse(set.contains(6));
+        assertTrue(set.remove(5));
+        assertFalse(set.remove(5));
+        assertFalse(set.contains(5));
+        assertTrue(set.contains(7));
+        assertEquals(1, set.size());
+        assertThrows(IllegalArgumentException.class, () -> set.add(0));
+        assertThrows(IllegalArgumentException.class, () -> set.add(-7));
+        // 0 marks empty slots, it must not be found in them nor removed from them
+        assertFalse(set.contains(0));
+        assertFalse(set.contains(-7));
+        assertFalse(set.remove(0));
+        assertTrue(set.contains(7));
+        assertEquals(1, set.size());
+    }
+
+    //Tests random adds and removes against a HashSet, so the shifts of removals keep every entry reachable
+    @Test
+    public void testAgainstHashSet() {
+        Random random = new Random(42);
+        IntSet set = IntSet.of(new int[]{3, 1, 2});
+        Set<Integer> expected = new HashSet<>(Set.of(1, 2, 3));
+        for (int i = 0; i < 100_000; i++) {
+            int value = random.nextInt(500) + 1;
+            if (random.nextBoolean()) {
+                assertEquals(expected.add(value), set.add(value));
+            } else {
+                assertEquals(expected.remove(value), set.remove(value));
+            }
+        }
+        assertEquals(expected.size(), set.size());
+        assertArrayEquals(expected.stream().mapToInt(Integer::intValue).sorted().toArray(), set.toSortedArray());
+        for (int value = 1; value <= 500; value++) {
+            assertEquals(expected.contains(value), set.contains(value));
+        }
+    }
+}
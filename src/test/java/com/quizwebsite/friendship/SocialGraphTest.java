@@ -0,0 +1,100 @@
+package com.quizwebsite.friendship;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests SocialGraph against mocked DAOs, no database needed.
+ */
+public class SocialGraphTest {
+    private FriendshipDao friendshipDao;
+    private FriendRequestDao friendRequestDao;
+    private SocialGraph graph;
+
+    //User 1 is friends with 2 and 3, has sent a request to 4 and received one from 5
+    @BeforeEach
+    public void setUp() {
+        friendshipDao = mock(FriendshipDao.class);
+        friendRequestDao = mock(FriendRequestDao.class);
+        for (int userId = 1; userId <= 5; userId++) {
+            when(friendshipDao.getFriendIds(userId)).thenReturn(new int[0]);
+            when(friendRequestDao.getPendingRequestUserIds(userId, true)).thenReturn(new int[0]);
+            when(friendRequestDao.getPendingRequestUserIds(userId, false)).thenReturn(new int[0]);
+        }
+        when(friendshipDao.getFriendIds(1)).thenReturn(new int[]{3, 2});
+        when(friendRequestDao.getPendingRequestUserIds(1, true)).thenReturn(new int[]{4});
+        when(friendRequestDao.getPendingRequestUserIds(1, false)).thenReturn(new int[]{5});
+        when(friendRequestDao.getPendingRequestUserIds(4, false)).thenReturn(new int[]{1});
+        when(friendRequestDao.getPendingRequestUserIds(5, true)).thenReturn(new int[]{1});
+        when(friendshipDao.getFriendIds(2)).thenReturn(new int[]{1});
+        when(friendshipDao.getFriendIds(3)).thenReturn(new int[]{1});
+        graph = new SocialGraph(friendshipDao, friendRequestDao, 2);
+    }
+
+    //Tests that the sets are loaded once and answer every status
+    @Test
+    public void testStatus() {
+        assertEquals(SocialGraph.FRIENDS, graph.getFriendshipStatus(1, 2));
+        assertEquals(SocialGraph.PENDING_SENT, graph.getFriendshipStatus(1, 4));
+        assertEquals(SocialGraph.PENDING_RECEIVED, graph.getFriendshipStatus(1, 5));
+        assertEquals(SocialGraph.NONE, graph.getFriendshipStatus(1, 6));
+        assertTrue(graph.areFriends(1, 3));
+        assertArrayEquals(new int[]{2, 3}, graph.getFriendIds(1));
+        verify(friendshipDao, times(1)).getFriendIds(1);
+        verify(friendshipDao, never()).areFriends(anyInt(), anyInt());
+    }
+
+    //Tests that the writes reach both cached users
+    @Test
+    public void testWriteThrough() {
+        graph.getFriendshipStatus(1, 4);
+        assertEquals(SocialGraph.PENDING_RECEIVED, graph.getFriendshipStatus(4, 1));
+
+        graph.requestClosed(1, 4);
+        graph.friendshipAdded(1, 4);
+        assertEquals(SocialGraph.FRIENDS, graph.getFriendshipStatus(1, 4));
+        assertEquals(SocialGraph.FRIENDS, graph.getFriendshipStatus(4, 1));
+
+        graph.friendshipRemoved(4, 1);
+        graph.requestSent(4, 1);
+        assertEquals(SocialGraph.PENDING_RECEIVED, graph.getFriendshipStatus(1, 4));
+        assertEquals(SocialGraph.PENDING_SENT, graph.getFriendshipStatus(4, 1));
+        verify(friendshipDao, times(1)).getFriendIds(4);
+    }
+
+    //Tests that the least recently used user is dropped, and that a failed load falls back to the database
+    @Test
+    public void testEvictionAndFallback() {
+        graph.areFriends(1, 2);
+        graph.areFriends(2, 1);
+        graph.areFriends(1, 2);
+        graph.areFriends(3, 1);
+        assertEquals(2, graph.size());
+        graph.areFriends(1, 2);
+        graph.areFriends(2, 1);
+        verify(friendshipDao, times(1)).getFriendIds(1);
+        verify(friendshipDao, times(2)).getFriendIds(2);
+
+        when(friendshipDao.getFriendIds(5)).thenReturn(null);
+        when(friendshipDao.areFriends(5, 1)).thenReturn(true);
+        assertEquals(SocialGraph.FRIENDS, graph.getFriendshipStatus(5, 1));
+        graph.invalidateAll();
+        assertEquals(0, graph.size());
+    }
+
+    //Tests that a deleted user leaves the sets of the cached users
+    @Test
+    public void testUserRemoved() {
+        graph.getFriendshipStatus(1, 2);
+        graph.getFriendshipStatus(4, 1);
+        graph.userRemoved(2);
+        graph.userRemoved(4);
+        assertEquals(SocialGraph.NONE, graph.getFriendshipStatus(1, 2));
+        assertEquals(SocialGraph.NONE, graph.getFriendshipStatus(1, 4));
+        assertEquals(SocialGraph.FRIENDS, graph.getFriendshipStatus(1, 3));
+        assertEquals(1, graph.size());
+    }
+}
@@ -1,7 +1,7 @@
 package com.quizwebsite.friendship;
 
 import User.User;
-import User.UserDao;
+import User.UsernameIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.InjectMocks;
@@ -19,7 +19,7 @@ import static org.mockito.Mockito.*;
 class UserSearchServletTest {
 
     @Mock
-    private UserDao userDao;
+    private UsernameIndex usernameIndex;
 
     @Mock
     private HttpServletRequest request;
@@ -44,7 +44,7 @@ class UserSearchServletTest {
         // Arrange
         when(request.getParameter("query")).thenReturn("test");
         List<User> users = Arrays.asList(new User(1, "testuser1", "pass"), new User(2, "testuser2", "pass"));
-        when(userDao.findUsersByUsername("test")).thenReturn(users);
+        when(usernameIndex.search("test", UserSearchServlet.RESULT_LIMIT)).thenReturn(users);
 
         // Act
         servlet.doGet(request, response);
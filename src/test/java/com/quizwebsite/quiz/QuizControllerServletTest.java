@@ -0,0 +1,187 @@
+package com.quizwebsite.quiz;
+
+import User.User;
+import dao.QuizAttemptDao;
+import models.Question;
+import models.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import quiz_engine.QuizProgress;
+import quiz_engine.QuizSession;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpSession;
+import java.sql.Timestamp;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizControllerServletTest {
+
+    @Mock
+    private QuizProgressStore progressStore;
+
+    @Mock
+    private QuizAttemptDao quizAttemptDao;
+
+    @Mock
+    private QuizSession quizSession;
+
+    @Mock
+    private Question question;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private HttpSession session;
+
+    @Mock
+    private RequestDispatcher dispatcher;
+
+    private QuizControllerServlet servlet;
+    private QuizProgress progress;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        servlet = new QuizControllerServlet(progressStore, quizAttemptDao) {
+            @Override
+            QuizSession startSession(int userId, int quizId, boolean practiceMode) {
+                if (quizId != 7) {
+                    throw new IllegalArgumentException("Quiz does not exist: " + quizId);
+                }
+                return quizSession;
+            }
+
+            @Override
+            QuizSession resumeSession(QuizProgress progress) {
+                return quizSession;
+            }
+        };
+        progress = new QuizProgress(7, 1, 40, false, 0, new int[]{13, 11}, 0, new int[2][], new String[2][]);
+        when(request.getSession()).thenReturn(session);
+        when(session.getAttribute("user")).thenReturn(new User(1, "testuser", "password"));
+        when(request.getContextPath()).thenReturn("");
+        when(request.getRequestDispatcher(anyString())).thenReturn(dispatcher);
+        when(progressStore.save(any(), any(), any())).thenReturn(true);
+        when(quizSession.toProgress(1)).thenReturn(progress);
+        when(quizSession.getCurrentQuestion()).thenReturn(question);
+        when(quizSession.getQuestions()).thenReturn(List.of(question, question));
+        when(question.getQuestionId()).thenReturn(13);
+        when(question.getMaxScore()).thenReturn(1.0);
+        when(quizAttemptDao.getAttemptById(40)).thenReturn(new QuizAttempt(40, 1, 7, new Timestamp(0), null, 0));
+    }
+
+    @Test
+    void testStartSavesProgress() throws Exception {
+        when(request.getRequestURI()).thenReturn("/quiz/start");
+        when(request.getParameter("id")).thenReturn("7");
+        servlet.doGet(request, response);
+        verify(progressStore).save(request, response, progress);
+        verify(response).sendRedirect("/quiz/question");
+
+        when(request.getParameter("id")).thenReturn("8");
+        servlet.doGet(request, response);
+        verify(response).sendRedirect("/quizzes");
+        verify(progressStore, times(1)).save(any(), any(), any());
+    }
+
+    @Test
+    void testAnswerMovesOn() throws Exception {
+        when(progressStore.load(request)).thenReturn(progress);
+        when(request.getRequestURI()).thenReturn("/quiz/answer");
+        when(request.getParameter("questionId")).thenReturn("13");
+        when(request.getParameter("optionId")).thenReturn("Germany");
+        when(quizSession.submitAnswer(0, List.of("Germany"))).thenReturn(true);
+        when(quizSession.hasNextQuestion()).thenReturn(true);
+
+        servlet.doPost(request, response);
+
+        verify(quizSession).moveToNextQuestion();
+        verify(progressStore).save(request, response, progress);
+        verify(response).sendRedirect("/quiz/question");
+    }
+
+    @Test
+    void testEmptyAnswerMovesOn() throws Exception {
+        when(progressStore.load(request)).thenReturn(progress);
+        when(request.getRequestURI()).thenReturn("/quiz/answer");
+        when(request.getParameter("questionId")).thenReturn("13");
+        when(quizSession.skipQuestion(0)).thenReturn(true);
+        when(quizSession.hasNextQuestion()).thenReturn(false);
+
+        servlet.doPost(request, response);
+
+        verify(quizSession, never()).submitAnswer(anyInt(), anyList());
+        verify(quizSession).skipQuestion(0);
+        verify(progressStore).save(request, response, progress);
+        verify(response).sendRedirect("/quiz/finish");
+    }
+
+    @Test
+    void testStaleAnswerIgnored() throws Exception {
+        when(progressStore.load(request)).thenReturn(progress);
+        when(request.getRequestURI()).thenReturn("/quiz/answer");
+        when(request.getParameter("questionId")).thenReturn("11");
+        servlet.doPost(request, response);
+        verify(quizSession, never()).submitAnswer(anyInt(), anyList());
+        verify(progressStore, never()).save(any(), any(), any());
+        verify(response).sendRedirect("/quiz/question");
+    }
+
+    @Test
+    void testReplayedProgressRefused() throws Exception {
+        when(progressStore.load(request)).thenReturn(progress);
+        when(quizSession.canGoBack()).thenReturn(false);
+        when(quizSession.isBehindStoredAnswers()).thenReturn(true);
+        when(request.getRequestURI()).thenReturn("/quiz/answer");
+        when(request.getParameter("questionId")).thenReturn("13");
+        when(request.getParameter("optionId")).thenReturn("Germany");
+        servlet.doPost(request, response);
+        verify(quizSession, never()).submitAnswer(anyInt(), anyList());
+        verify(progressStore).remove(request, response);
+        verify(response).sendRedirect("/quizzes");
+    }
+
+    @Test
+    void testCompletedAttemptNotResumed() throws Exception {
+        when(progressStore.load(request)).thenReturn(progress);
+        when(quizAttemptDao.getAttemptById(40)).thenReturn(new QuizAttempt(40, 1, 7, new Timestamp(0), new Timestamp(1), 1));
+        when(request.getRequestURI()).thenReturn("/quiz/finish");
+        servlet.doGet(request, response);
+        verify(quizSession, never()).completeQuiz();
+        verify(progressStore).remove(request, response);
+        verify(response).sendRedirect("/quizzes");
+    }
+
+    @Test
+    void testFinish() throws Exception {
+        when(progressStore.load(request)).thenReturn(progress);
+        when(request.getRequestURI()).thenReturn("/quiz/finish");
+        when(quizSession.completeQuiz()).thenReturn(new QuizAttempt(40, 1, 7, new Timestamp(0), new Timestamp(1), 1.5));
+        servlet.doGet(request, response);
+        verify(progressStore).remove(request, response);
+        verify(request).setAttribute("finalScore", 1.5);
+        verify(request).setAttribute("maxScore", 2.0);
+        verify(dispatcher).forward(request, response);
+    }
+
+    @Test
+    void testOtherUsersProgressIgnored() throws Exception {
+        when(progressStore.load(request)).thenReturn(new QuizProgress(7, 2, 40, false, 0, new int[]{13}, 0,
+                new int[1][], new String[1][]));
+        when(request.getRequestURI()).thenReturn("/quiz/question");
+        servlet.doGet(request, response);
+        verify(dispatcher, never()).forward(any(), any());
+        verify(response).sendRedirect("/quizzes");
+    }
+}
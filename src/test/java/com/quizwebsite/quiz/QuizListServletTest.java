@@ -0,0 +1,94 @@
+package com.quizwebsite.quiz;
+
+import dao.QuizDao;
+import models.QuizSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizListServletTest {
+
+    @Mock
+    private QuizDao quizDao;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private RequestDispatcher dispatcher;
+
+    @InjectMocks
+    private QuizListServlet servlet;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(request.getRequestDispatcher(anyString())).thenReturn(dispatcher);
+    }
+
+    private List<QuizSummary> summaries(int count) {
+        List<QuizSummary> summaries = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            summaries.add(new QuizSummary(100 - i, 1, "Quiz " + i, LocalDateTime.of(2025, 1, 1, 0, 0).minusDays(i), i));
+        }
+        return summaries;
+    }
+
+    @Test
+    void testFirstPage() throws Exception {
+        when(request.getParameter("size")).thenReturn("2");
+        when(quizDao.getQuizSummaries(null, 0, 3)).thenReturn(summaries(3));
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("quizList", summaries(2));
+        verify(request).setAttribute("hasNextPage", true);
+        verify(request).setAttribute("isFirstPage", true);
+        verify(request).setAttribute("nextAfterDate", "2024-12-31T00:00");
+        verify(request).setAttribute("nextAfterId", 99);
+        verify(dispatcher).forward(request, response);
+    }
+
+    @Test
+    void testLastPage() throws Exception {
+        when(request.getParameter("afterDate")).thenReturn("2024-12-31T00:00");
+        when(request.getParameter("afterId")).thenReturn("99");
+        List<QuizSummary> page = summaries(1);
+        when(quizDao.getQuizSummaries(LocalDateTime.of(2024, 12, 31, 0, 0), 99, QuizListServlet.DEFAULT_PAGE_SIZE + 1))
+                .thenReturn(page);
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("quizList", page);
+        verify(request).setAttribute("hasNextPage", false);
+        verify(request).setAttribute("isFirstPage", false);
+        verify(request, never()).setAttribute(eq("nextAfterId"), any());
+        verify(dispatcher).forward(request, response);
+    }
+
+    @Test
+    void testInvalidCursor() throws Exception {
+        when(request.getParameter("afterDate")).thenReturn("yesterday");
+        when(request.getParameter("afterId")).thenReturn("99");
+
+        servlet.doGet(request, response);
+
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+        verifyNoInteractions(quizDao);
+    }
+}
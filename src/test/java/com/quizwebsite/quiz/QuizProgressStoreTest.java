@@ -0,0 +1,106 @@
+package com.quizwebsite.quiz;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import quiz_engine.QuizProgress;
+
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class QuizProgressStoreTest {
+    private HttpServletRequest request;
+    private HttpServletResponse response;
+    private QuizProgress progress;
+
+    @BeforeEach
+    void setUp() {
+        request = mock(HttpServletRequest.class);
+        response = mock(HttpServletResponse.class);
+        when(request.getContextPath()).thenReturn("/app");
+        progress = new QuizProgress(7, 3, 40, false, 1700000000000L, new int[]{13, 11, 12}, 1,
+                new int[][]{{1, 0}, null, null}, new String[][]{null, {"Tbilisi"}, null});
+    }
+
+    //Saves with the store and returns the cookie it set, which the next request then carries
+    private Cookie saveAndCarry(QuizProgressStore store) {
+        assertTrue(store.save(request, response, progress));
+        ArgumentCaptor<Cookie> cookie = ArgumentCaptor.forClass(Cookie.class);
+        verify(response, atLeastOnce()).addCookie(cookie.capture());
+        assertEquals("/app", cookie.getValue().getPath());
+        assertTrue(cookie.getValue().isHttpOnly());
+        when(request.getCookies()).thenReturn(new Cookie[]{cookie.getValue()});
+        return cookie.getValue();
+    }
+
+    @Test
+    void testSignedCookie() {
+        SignedCookieProgressStore store = new SignedCookieProgressStore("secret", new InMemoryProgressStore(10));
+        assertNull(store.load(request));
+        Cookie cookie = saveAndCarry(store);
+        assertEquals(progress, store.load(request));
+        assertEquals(progress, new SignedCookieProgressStore("secret", new InMemoryProgressStore(10)).load(request));
+        assertNull(new SignedCookieProgressStore("other secret", new InMemoryProgressStore(10)).load(request));
+
+        String value = cookie.getValue();
+        char changed = value.charAt(3) == 'A' ? 'B' : 'A';
+        when(request.getCookies()).thenReturn(new Cookie[]{new Cookie(cookie.getName(), value.substring(0, 3) + changed + value.substring(4))});
+        assertNull(store.load(request));
+        when(request.getCookies()).thenReturn(new Cookie[]{new Cookie(cookie.getName(), "garbage")});
+        assertNull(store.load(request));
+    }
+
+    @Test
+    void testSignedCookieOverflow() {
+        InMemoryProgressStore overflow = new InMemoryProgressStore(10);
+        SignedCookieProgressStore store = new SignedCookieProgressStore("secret", overflow);
+        String[][] typed = new String[1][];
+        typed[0] = new String[]{"x".repeat(SignedCookieProgressStore.MAX_COOKIE_LENGTH)};
+        QuizProgress large = new QuizProgress(7, 3, 40, false, 0, new int[]{12}, 0, new int[1][], typed);
+        assertTrue(store.save(request, response, large));
+        ArgumentCaptor<Cookie> cookie = ArgumentCaptor.forClass(Cookie.class);
+        verify(response).addCookie(cookie.capture());
+        assertEquals(TokenProgressStore.COOKIE_NAME, cookie.getValue().getName());
+        assertEquals(1, overflow.size());
+
+        // the next request carries the token, the progress fits in a cookie again and leaves the overflow
+        when(request.getCookies()).thenReturn(new Cookie[]{cookie.getValue()});
+        assertEquals(large, store.load(request));
+        assertTrue(store.save(request, response, progress));
+        assertEquals(0, overflow.size());
+    }
+
+    @Test
+    void testInMemory() {
+        InMemoryProgressStore store = new InMemoryProgressStore(1);
+        Cookie cookie = saveAndCarry(store);
+        assertEquals(progress, store.load(request));
+        assertEquals(1, store.size());
+
+        store.remove(request, response);
+        assertNull(store.load(request));
+        assertEquals(0, store.size());
+
+        when(request.getCookies()).thenReturn(new Cookie[]{new Cookie(cookie.getName(), "../../etc/passwd")});
+        assertNull(store.load(request));
+    }
+
+    @Test
+    void testFile(@TempDir Path directory) throws Exception {
+        FileProgressStore store = new FileProgressStore(directory.resolve("progress"));
+        Cookie cookie = saveAndCarry(store);
+        assertEquals(progress, new FileProgressStore(directory.resolve("progress")).load(request));
+        assertTrue(Files.exists(directory.resolve("progress").resolve(cookie.getValue())));
+
+        store.remove(request, response);
+        assertNull(store.load(request));
+        assertFalse(Files.exists(directory.resolve("progress").resolve(cookie.getValue())));
+    }
+}
@@ -0,0 +1,77 @@
+package com.quizwebsite.quiz;
+
+import dao.QuizSearchIndex;
+import models.QuizSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import javax.servlet.RequestDispatcher;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class QuizSearchServletTest {
+
+    @Mock
+    private QuizSearchIndex quizSearchIndex;
+
+    @Mock
+    private HttpServletRequest request;
+
+    @Mock
+    private HttpServletResponse response;
+
+    @Mock
+    private RequestDispatcher dispatcher;
+
+    private QuizSearchServlet servlet;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        when(request.getRequestDispatcher(anyString())).thenReturn(dispatcher);
+        servlet = new QuizSearchServlet(quizSearchIndex);
+    }
+
+    private List<QuizSummary> results(int count) {
+        List<QuizSummary> results = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            results.add(new QuizSummary(i + 1, 1, "Quiz " + i, LocalDateTime.of(2025, 1, 1, 0, 0), 5));
+        }
+        return results;
+    }
+
+    @Test
+    void testFirstPage() throws Exception {
+        when(request.getParameter("q")).thenReturn("history");
+        when(quizSearchIndex.search("history", 0, QuizSearchServlet.PAGE_SIZE + 1))
+                .thenReturn(results(QuizSearchServlet.PAGE_SIZE + 1));
+
+        servlet.doGet(request, response);
+
+        verify(request).setAttribute("results", results(QuizSearchServlet.PAGE_SIZE));
+        verify(request).setAttribute("hasNextPage", true);
+        verify(request).setAttribute("nextOffset", QuizSearchServlet.PAGE_SIZE);
+        verify(request).setAttribute("isFirstPage", true);
+        verify(dispatcher).forward(request, response);
+    }
+
+    @Test
+    void testEmptyQueryAndInvalidOffset() throws Exception {
+        when(request.getParameter("q")).thenReturn(" ");
+        servlet.doGet(request, response);
+        verify(quizSearchIndex, never()).search(anyString(), anyInt(), anyInt());
+        verify(dispatcher).forward(request, response);
+
+        when(request.getParameter("offset")).thenReturn("x");
+        servlet.doGet(request, response);
+        verify(response).sendError(eq(HttpServletResponse.SC_BAD_REQUEST), anyString());
+    }
+}
@@ -0,0 +1,97 @@
+package dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class BoundedLruCacheTest {
+    private BoundedLruCache<Integer, String> cache;
+
+    //Creates a cache of at most 2 values
+    @BeforeEach
+    public void setUp() {
+        cache = new BoundedLruCache<>(2);
+    }
+
+    //Tests that the least recently used value is evicted, a get counting as a use
+    @Test
+    public void testEviction() {
+        cache.put(1, "one");
+        cache.put(2, "two");
+        assertEquals("one", cache.get(1));
+        cache.put(3, "three");
+        assertNull(cache.get(2));
+        assertEquals("one", cache.get(1));
+        assertEquals("three", cache.get(3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+    }
+
+    //Tests that a load is kept, and a load cached by another one meanwhile wins
+    @Test
+    public void testLoad() {
+        Object load = cache.beginLoad(1);
+        assertEquals("one", cache.finishLoad(1, load, "one"));
+        assertEquals("one", cache.get(1));
+
+        cache.remove(1);
+        Object first = cache.beginLoad(1);
+        Object second = cache.beginLoad(1);
+        assertEquals("second", cache.finishLoad(1, second, "second"));
+        assertEquals("second", cache.finishLoad(1, first, "first"));
+        assertEquals("second", cache.get(1));
+    }
+
+    //Tests that a load that missed a change, or found nothing, is returned but not kept
+    @Test
+    public void testCancelledLoad() {
+        Object load = cache.beginLoad(1);
+        cache.remove(1);
+        assertEquals("stale", cache.finishLoad(1, load, "stale"));
+        assertNull(cache.get(1));
+
+        load = cache.beginLoad(1);
+        cache.removeIf(value -> false);
+        cache.finishLoad(1, load, "stale");
+        assertNull(cache.get(1));
+
+        load = cache.beginLoad(1);
+        cache.clear();
+        cache.finishLoad(1, load, "stale");
+        assertNull(cache.get(1));
+
+        load = cache.beginLoad(1);
+        assertNull(cache.finishLoad(1, load, null));
+        assertEquals(0, cache.size());
+    }
+
+    //Tests that a change applied to the cached value cancels loads and drops any other value
+    @Test
+    public void testChanged() {
+        String updated = "updated";
+        cache.put(1, updated);
+        cache.changed(1, updated);
+        assertSame(updated, cache.get(1));
+
+        cache.remove(1);
+        Object load = cache.beginLoad(1);
+        cache.changed(1, updated);
+        cache.finishLoad(1, load, "stale");
+        assertNull(cache.get(1));
+
+        cache.put(1, "reloaded");
+        cache.changed(1, updated);
+        assertNull(cache.get(1));
+    }
+
+    //Tests that removeIf drops only the matching values
+    @Test
+    public void testRemoveIf() {
+        cache.put(1, "one");
+        cache.put(2, "two");
+        cache.removeIf(value -> value.startsWith("t"));
+        assertEquals("one", cache.get(1));
+        assertNull(cache.get(2));
+    }
+}
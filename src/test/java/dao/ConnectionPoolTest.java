@@ -0,0 +1,169 @@
+package dao;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+
+public class ConnectionPoolTest {
+    private List<Connection> opened;
+    private ConnectionPool pool;
+
+    //Creates a pool of at most 2 mocked connections
+    @BeforeEach
+    public void setUp() {
+        opened = new ArrayList<>();
+        Properties properties = new Properties();
+        properties.setProperty("db.pool.maxSize", "2");
+        properties.setProperty("db.pool.minIdle", "0");
+        properties.setProperty("db.pool.connectionTimeoutMs", "100");
+        properties.setProperty("db.pool.leakDetectionThresholdMs", "1");
+        pool = new ConnectionPool(this::openMock, properties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    private Connection openMock() throws SQLException {
+        Connection connection = mock(Connection.class);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(connection.getAutoCommit()).thenReturn(true);
+        opened.add(connection);
+        return connection;
+    }
+
+    //Tests that closing a borrowed connection returns it to the pool instead of closing it
+    @Test
+    public void testReuse() throws SQLException {
+        Connection first = pool.borrow();
+        assertEquals(1, pool.getActiveConnections());
+        first.close();
+        assertTrue(first.isClosed());
+        assertEquals(0, pool.getActiveConnections());
+        assertEquals(1, pool.getIdleConnections());
+
+        Connection second = pool.borrow();
+        assertEquals(1, opened.size());
+        verify(opened.get(0), never()).close();
+        second.close();
+        second.close();
+        assertEquals(1, pool.getIdleConnections());
+    }
+
+    //Tests that a closed lease can not be used even after the connection is borrowed again
+    @Test
+    public void testClosedLease() throws SQLException {
+        Connection first = pool.borrow();
+        first.close();
+        Connection second = pool.borrow();
+        assertThrows(SQLException.class, first::createStatement);
+        second.createStatement();
+        verify(opened.get(0), times(1)).createStatement();
+        second.close();
+    }
+
+    //Tests that borrowing from an exhausted pool times out and is counted
+    @Test
+    public void testBounded() throws SQLException {
+        Connection first = pool.borrow();
+        Connection second = pool.borrow();
+        assertThrows(SQLException.class, () -> pool.borrow());
+        assertEquals(1, pool.getWaitCount());
+        assertEquals(1, pool.getTimeoutCount());
+        assertEquals(2, pool.getTotalConnections());
+        first.close();
+        second.close();
+    }
+
+    //Tests that connections failing validation are discarded on borrow
+    @Test
+    public void testValidation() throws SQLException {
+        Connection first = pool.borrow();
+        first.close();
+        when(opened.get(0).isValid(anyInt())).thenReturn(false);
+        Connection second = pool.borrow();
+        assertEquals(2, opened.size());
+        verify(opened.get(0)).close();
+        assertEquals(1, pool.getValidationFailureCount());
+        second.close();
+    }
+
+    //Tests that unfinished transactions are rolled back before the connection is reused
+    @Test
+    public void testRollbackOnReturn() throws SQLException {
+        Connection connection = pool.borrow();
+        when(opened.get(0).getAutoCommit()).thenReturn(false);
+        connection.close();
+        verify(opened.get(0)).rollback();
+        verify(opened.get(0)).setAutoCommit(true);
+    }
+
+    //Tests that connections held past the threshold are reported as leaks
+    @Test
+    public void testLeakDetection() throws SQLException, InterruptedException {
+        Connection connection = pool.borrow();
+        Thread.sleep(10);
+        pool.houseKeep();
+        pool.houseKeep();
+        assertEquals(1, pool.getLeakCount());
+        connection.close();
+    }
+
+    //Tests that the housekeeper does not open idle connections past maxSize while a borrower is opening one
+    @Test
+    public void testHouseKeepBounded() throws Exception {
+        houseKeepWhileOpening(1);
+        opened.clear();
+        houseKeepWhileOpening(2);
+    }
+
+    //Runs the housekeeper while a borrower is blocked inside create(), with minIdle equal to maxSize
+    private void houseKeepWhileOpening(int maxSize) throws Exception {
+        CountDownLatch opening = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Properties properties = new Properties();
+        properties.setProperty("db.pool.maxSize", String.valueOf(maxSize));
+        properties.setProperty("db.pool.minIdle", String.valueOf(maxSize));
+        AtomicInteger calls = new AtomicInteger();
+        ConnectionPool single = new ConnectionPool(() -> {
+            if (calls.getAndIncrement() == 0) {
+                opening.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    throw new SQLException(e);
+                }
+            }
+            return openMock();
+        }, properties);
+        ExecutorService borrower = Executors.newSingleThreadExecutor();
+        try {
+            Future<Connection> borrowed = borrower.submit(single::borrow);
+            opening.await();
+            single.houseKeep();
+            release.countDown();
+            borrowed.get().close();
+            assertEquals(maxSize, opened.size());
+            assertEquals(maxSize, single.getTotalConnections());
+        } finally {
+            borrower.shutdownNow();
+            single.shutdown();
+        }
+    }
+}
@@ -1,12 +1,15 @@
 package dao;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.nio.charset.StandardCharsets;
+import User.UsernameIndex;
+import com.quizwebsite.friendship.FriendSuggestions;
+import com.quizwebsite.friendship.SocialGraph;
+import service.AchievementsService;
+
 import java.sql.Connection;
+import java.sql.ResultSet;
 import java.sql.Statement;
-import java.util.stream.Collectors;
+import java.util.ArrayList;
+import java.util.List;
 
 public class DatabaseSetup {
 
@@ -14,27 +17,37 @@ public class DatabaseSetup {
         try (Connection conn = DatabaseConnection.getConnection();
              Statement stmt = conn.createStatement()) {
 
-            InputStream in = DatabaseSetup.class.getClassLoader().getResourceAsStream("schema.sql");
-            if (in == null) {
-                throw new RuntimeException("Cannot find schema.sql");
+            // Start from an empty database, so every test class sees the migrations applied from scratch.
+            List<String> tables = new ArrayList<>();
+            try (ResultSet rs = stmt.executeQuery("SELECT table_name FROM information_schema.tables " +
+                    "WHERE table_schema = DATABASE()")) {
+                while (rs.next()) {
+                    tables.add(rs.getString(1));
+                }
             }
-            String schemaSql = new BufferedReader(
-                new InputStreamReader(in, StandardCharsets.UTF_8))
-                .lines()
-                .collect(Collectors.joining("\n"));
-
-            // Split the script into individual statements.
-            String[] statements = schemaSql.split(";");
-
-            for (String statement : statements) {
-                // Skip empty statements.
-                if (statement.trim().isEmpty()) {
-                    continue;
+            stmt.execute("SET FOREIGN_KEY_CHECKS=0");
+            try {
+                for (String table : tables) {
+                    stmt.execute("DROP TABLE `" + table + "`");
                 }
-                stmt.execute(statement);
+            } finally {
+                stmt.execute("SET FOREIGN_KEY_CHECKS=1");
             }
+
+            MigrationRunner migrationRunner = new MigrationRunner();
+            migrationRunner.migrate();
+            migrationRunner.seed("db/seed/sample_data.sql");
+            // Ids start over in the recreated tables, so quizzes and boards cached by earlier tests are stale.
+            QuizCache.getInstance().invalidateAll();
+            Leaderboard.getInstance().invalidateAll();
+            TodaysTopPerformers.getInstance().clear();
+            AchievementsService.getInstance().invalidateAll();
+            SocialGraph.getInstance().invalidateAll();
+            FriendSuggestions.getInstance().clear();
+            UsernameIndex.getInstance().clear();
+            QuizSearchIndex.getInstance().clear();
         } catch (Exception e) {
             throw new RuntimeException("Failed to set up database", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -1,5 +1,7 @@
 package dao;
 
+import models.AnswerMatcher;
+import models.AnswerNormalizer;
 import models.FillInTheBlankQuestion;
 import models.Question;
 import org.junit.jupiter.api.*;
@@ -149,6 +151,36 @@ public class FillInTheBlankDaoTest {
         assertEquals(fillInTheBlankQuestion, q);
     }
 
+    //Tests that the answer tolerance is stored, read back and updated
+    @Test
+    public void testAnswerTolerance() throws SQLException {
+        defineQuestions();
+        FillInTheBlankQuestion tolerant = new FillInTheBlankQuestion(0, fillInTheBlankQuestion.getQuestionText(),
+                fillInTheBlankQuestion.getCorrectAnswers(), testQuizId, 0, 1, AnswerNormalizer.DEFAULT, 2);
+        assertTrue(fillInTheBlankDao.addQuestion(tolerant));
+        FillInTheBlankQuestion question = (FillInTheBlankQuestion)fillInTheBlankDao.getQuestionById(tolerant.getQuestionId());
+        assertEquals(2, question.getAnswerTolerance());
+        assertEquals(tolerant, question);
+        assertEquals(2, ((FillInTheBlankQuestion)fillInTheBlankDao.getAllQuestions(testQuizId).get(0)).getAnswerTolerance());
+
+        FillInTheBlankQuestion exact = new FillInTheBlankQuestion(tolerant.getQuestionId(), tolerant.getQuestionText(),
+                tolerant.getCorrectAnswers(), testQuizId, 0, 1, AnswerNormalizer.DEFAULT, 0);
+        assertTrue(fillInTheBlankDao.updateQuestion(exact));
+        question = (FillInTheBlankQuestion)fillInTheBlankDao.getQuestionById(tolerant.getQuestionId());
+        assertEquals(0, question.getAnswerTolerance());
+
+        //a database ignoring the check constraint may hold a tolerance out of range, it is read back clamped
+        try (Statement stmt = connection.createStatement()) {
+            try {
+                stmt.executeUpdate("UPDATE Questions SET answer_tolerance = 100 WHERE question_id = " + tolerant.getQuestionId());
+            } catch (SQLException e) {
+                return; //the check constraint refused it
+            }
+        }
+        question = (FillInTheBlankQuestion)fillInTheBlankDao.getQuestionById(tolerant.getQuestionId());
+        assertEquals(AnswerMatcher.MAX_TOLERANCE, question.getAnswerTolerance());
+    }
+
     //Creates 2 questions used in tests
     private void defineQuestions(){
         String questionText = "The capital of Georgia is _____ and it was founded by _____.";
@@ -0,0 +1,78 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class MigrationRunnerTest {
+
+    private static List<MigrationRunner.Migration> loadAll() throws IOException {
+        List<MigrationRunner.Migration> migrations = new ArrayList<>();
+        for (String script : SqlScript.migrationScripts()) {
+            migrations.add(MigrationRunner.load(script));
+        }
+        return migrations;
+    }
+
+    //Tests that scripts are read with their version, description and a stable checksum
+    @Test
+    public void testLoad() throws IOException {
+        MigrationRunner.Migration base = MigrationRunner.load("db/migration/V1__base_schema.sql");
+        assertEquals(1, base.version);
+        assertEquals("base schema", base.description);
+        assertEquals(64, base.checksum.length());
+        assertEquals(base.checksum, MigrationRunner.load("db/migration/V1__base_schema.sql").checksum);
+        assertNotEquals(base.checksum, MigrationRunner.load("db/migration/V2__hot_query_indexes.sql").checksum);
+        assertFalse(base.statements.isEmpty());
+    }
+
+    //Tests that only the versions missing from the history are pending, in version order
+    @Test
+    public void testPending() throws IOException {
+        List<MigrationRunner.Migration> migrations = loadAll();
+        assertEquals(migrations, MigrationRunner.pending(null, migrations));
+
+        Map<Integer, String> applied = new HashMap<>();
+        applied.put(1, migrations.get(0).checksum);
+        List<MigrationRunner.Migration> pending = MigrationRunner.pending(applied, migrations);
+        assertEquals(migrations.size() - 1, pending.size());
+        assertFalse(pending.contains(migrations.get(0)));
+
+        List<MigrationRunner.Migration> reversed = new ArrayList<>(migrations);
+        Collections.reverse(reversed);
+        assertEquals(pending, MigrationRunner.pending(applied, reversed));
+
+        for (MigrationRunner.Migration migration : migrations) {
+            applied.put(migration.version, migration.checksum);
+        }
+        assertTrue(MigrationRunner.pending(applied, migrations).isEmpty());
+    }
+
+    //Tests that a changed or vanished applied migration stops the migration
+    @Test
+    public void testPendingRejectsChangedHistory() throws IOException {
+        List<MigrationRunner.Migration> migrations = loadAll();
+        Map<Integer, String> changed = new HashMap<>();
+        changed.put(1, "0".repeat(64));
+        assertThrows(IllegalStateException.class, () -> MigrationRunner.pending(changed, migrations));
+
+        Map<Integer, String> missing = new HashMap<>();
+        missing.put(999, "0".repeat(64));
+        assertThrows(IllegalStateException.class, () -> MigrationRunner.pending(missing, migrations));
+    }
+
+    //Tests that the tables of the base schema are found, so an old database is only taken for it with all of them
+    @Test
+    public void testCreatedTables() throws IOException {
+        List<String> tables = MigrationRunner.createdTables(MigrationRunner.load("db/migration/V1__base_schema.sql"));
+        assertEquals(14, tables.size());
+        assertEquals("Users", tables.get(0));
+        assertTrue(tables.containsAll(List.of("Quizzes", "UserQuizAttempts", "Announcements")));
+        assertEquals(List.of("LeaderboardEntries"),
+                MigrationRunner.createdTables(MigrationRunner.load("db/migration/V3__leaderboard_entries.sql")));
+        assertTrue(MigrationRunner.createdTables(MigrationRunner.load("db/migration/V2__hot_query_indexes.sql")).isEmpty());
+    }
+}
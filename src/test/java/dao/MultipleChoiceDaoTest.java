@@ -87,6 +87,22 @@ public class MultipleChoiceDaoTest {
         assertEquals(multipleChoiceQuestion2, questionList.get(1));
     }
 
+    //Tests that addQuestions adds all the questions, or none of them if one fails
+    @Test
+    public void testAddQuestions(){
+        defineQuestions();
+        assertTrue(multipleChoiceDao.addQuestions(List.of(multipleChoiceQuestion, multipleChoiceQuestion2)));
+        assertEquals(multipleChoiceQuestion, multipleChoiceDao.getQuestionById(multipleChoiceQuestion.getQuestionId()));
+        assertEquals(multipleChoiceQuestion2, multipleChoiceDao.getQuestionById(multipleChoiceQuestion2.getQuestionId()));
+
+        defineQuestions();
+        int questionId = multipleChoiceQuestion.getQuestionId();
+        MultipleChoiceQuestion invalid = new MultipleChoiceQuestion("Invalid", multipleChoiceQuestion.getOptions(), Integer.MAX_VALUE, 2, 1);
+        assertFalse(multipleChoiceDao.addQuestions(List.of(multipleChoiceQuestion, invalid)));
+        assertEquals(questionId, multipleChoiceQuestion.getQuestionId());
+        assertEquals(2, multipleChoiceDao.getAllQuestions(testQuizId).size());
+    }
+
     //Tests if the functions return false, null, etc. when they fail
     @Test
     public void testErrors(){
@@ -0,0 +1,157 @@
+package dao;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression test for the indexes of the hot query paths: the queries of the DAOs in this package are
+ * explained with sample parameters and no plan may contain a full table scan (type ALL) on a seeded dataset.
+ * FriendshipQueryPlanTest does the same for the friendship DAOs.
+ */
+public class QueryPlanTest {
+    private static final int USERS = 50;
+    private static final int QUIZZES = 400;
+    private static final int ATTEMPTS = 4000;
+
+    //Recreates the schema and seeds users, quizzes, attempts, leaderboards, friend requests and friendships
+    @BeforeAll
+    public static void seed() throws SQLException, IOException {
+        DatabaseSetup.run();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("DELETE FROM Users");
+            }
+            try (PreparedStatement users = connection.prepareStatement(
+                    "INSERT INTO Users (user_id, username, email, password_hash, salt) VALUES (?, ?, ?, 'hash', 'salt')")) {
+                for (int i = 1; i <= USERS; i++) {
+                    users.setInt(1, i);
+                    users.setString(2, "user" + i);
+                    users.setString(3, "user" + i + "@example.com");
+                    users.addBatch();
+                }
+                users.executeBatch();
+            }
+            try (PreparedStatement quizzes = connection.prepareStatement(
+                    "INSERT INTO Quizzes (quiz_id, creator_user_id, title, creation_date) VALUES (?, ?, ?, DATE_SUB(NOW(), INTERVAL ? HOUR))")) {
+                for (int i = 1; i <= QUIZZES; i++) {
+                    quizzes.setInt(1, i);
+                    quizzes.setInt(2, i % USERS + 1);
+                    quizzes.setString(3, "Quiz " + i);
+                    quizzes.setInt(4, i);
+                    quizzes.addBatch();
+                }
+                quizzes.executeBatch();
+            }
+            try (PreparedStatement questions = connection.prepareStatement(
+                    "INSERT INTO Questions (quiz_id, question_text, question_type, order_in_quiz, max_score) VALUES (?, 'Question', 'MULTIPLE_CHOICE', ?, 1)")) {
+                for (int i = 0; i < QUIZZES * 5; i++) {
+                    questions.setInt(1, i % QUIZZES + 1);
+                    questions.setInt(2, i / QUIZZES);
+                    questions.addBatch();
+                }
+                questions.executeBatch();
+            }
+            try (PreparedStatement attempts = connection.prepareStatement(
+                    "INSERT INTO UserQuizAttempts (user_id, quiz_id, start_time, end_time, score, time_taken_seconds) " +
+                            "VALUES (?, ?, DATE_SUB(NOW(), INTERVAL ? HOUR), DATE_SUB(NOW(), INTERVAL ? HOUR), ?, ?)")) {
+                for (int i = 0; i < ATTEMPTS; i++) {
+                    attempts.setInt(1, i % USERS + 1);
+                    attempts.setInt(2, i % QUIZZES + 1);
+                    attempts.setInt(3, i % 500 + 1);
+                    attempts.setInt(4, i % 500);
+                    attempts.setDouble(5, i % 10);
+                    attempts.setInt(6, i % 300);
+                    attempts.addBatch();
+                }
+                attempts.executeBatch();
+            }
+            // the boards of the seeded attempts, filled like for a database migrated with attempts in it
+            try (Statement statement = connection.createStatement()) {
+                for (String query : SqlScript.readStatements("db/migration/V3__leaderboard_entries.sql")) {
+                    if (query.startsWith("INSERT")) {
+                        statement.execute(query);
+                    }
+                }
+            }
+            try (PreparedStatement requests = connection.prepareStatement(
+                    "INSERT INTO FriendRequests (requester_id, recipient_id, status) VALUES (?, ?, ?)")) {
+                for (int requester = 1; requester <= USERS; requester++) {
+                    for (int recipient = 1; recipient <= USERS; recipient += 3) {
+                        if (requester != recipient) {
+                            requests.setInt(1, requester);
+                            requests.setInt(2, recipient);
+                            requests.setString(3, (requester + recipient) % 3 == 0 ? "pending" : "accepted");
+                            requests.addBatch();
+                        }
+                    }
+                }
+                requests.executeBatch();
+            }
+            try (PreparedStatement friendships = connection.prepareStatement(
+                    "INSERT INTO Friendships (user_id1, user_id2) VALUES (?, ?)")) {
+                for (int user = 1; user <= USERS; user++) {
+                    for (int friend = user + 1; friend <= USERS; friend += 4) {
+                        friendships.setInt(1, user);
+                        friendships.setInt(2, friend);
+                        friendships.addBatch();
+                    }
+                }
+                friendships.executeBatch();
+            }
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("ANALYZE TABLE Users, Quizzes, Questions, UserQuizAttempts, FriendRequests, Friendships, UserAnswers, LeaderboardEntries");
+            }
+        }
+    }
+
+    //Tests that none of the hot queries scans a whole table
+    @Test
+    public void testNoFullScans() throws SQLException {
+        Timestamp dayAgo = new Timestamp(System.currentTimeMillis() - TodaysTopPerformers.WINDOW_MILLIS);
+        Timestamp pageEnd = new Timestamp(System.currentTimeMillis() - 300L * 60 * 60 * 1000);
+        List<String> fullScans = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection()) {
+            fullScans.addAll(fullScans(connection, QuizAttemptDao.USER_ATTEMPTS_QUERY, 7));
+            fullScans.addAll(fullScans(connection, QuizAttemptDao.QUIZ_ATTEMPTS_QUERY, 7));
+            fullScans.addAll(fullScans(connection, QuizAttemptDao.RECENT_PERFORMERS_QUERY, 7, 10));
+            fullScans.addAll(fullScans(connection, QuizAttemptDao.USER_QUIZ_HISTORY_QUERY, 7, 7));
+            fullScans.addAll(fullScans(connection, Leaderboard.BOARD_QUERY, 7));
+            fullScans.addAll(fullScans(connection, QuizAttemptDao.COMPLETED_SINCE_QUERY, dayAgo));
+            fullScans.addAll(fullScans(connection, QuizDao.QUESTIONS_OF_QUIZ_QUERY, 7));
+            fullScans.addAll(fullScans(connection, QuizDao.RECENT_QUIZZES_QUERY, 10));
+            fullScans.addAll(fullScans(connection, QuizDao.QUIZ_SUMMARIES_QUERY, 21));
+            fullScans.addAll(fullScans(connection, QuizDao.QUIZ_SUMMARIES_AFTER_QUERY, pageEnd, pageEnd, 300, 21));
+        }
+        assertTrue(fullScans.isEmpty(), "Full table scans: " + fullScans);
+    }
+
+    /**
+     * Explains a query with the given parameters.
+     * @return the tables the plan reads in full, each with the query
+     */
+    public static List<String> fullScans(Connection connection, String query, Object... parameters) throws SQLException {
+        List<String> fullScans = new ArrayList<>();
+        try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + query)) {
+            for (int i = 0; i < parameters.length; i++) {
+                statement.setObject(i + 1, parameters[i]);
+            }
+            try (ResultSet plan = statement.executeQuery()) {
+                while (plan.next()) {
+                    // <union1,2> and <derivedN> rows read the temporary result of the query, not a table
+                    String table = plan.getString("table");
+                    if ("ALL".equals(plan.getString("type")) && table != null && !table.startsWith("<")) {
+                        fullScans.add(table + " in: " + query);
+                    }
+                }
+            }
+        }
+        return fullScans;
+    }
+}
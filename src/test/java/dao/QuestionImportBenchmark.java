@@ -0,0 +1,96 @@
+package dao;
+
+import models.MultipleChoiceQuestion;
+import models.Question;
+import models.Quiz;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Compares importing a quiz with MultipleChoiceDao.addQuestions (one transaction, batched inserts)
+ * with the old way, where every question and every option was its own autocommitted INSERT.
+ * For quizzes of 100, 1,000 and 10,000 questions of four options it prints the import time
+ * and the number of rows written per second.
+ * Not a unit test: run its main method against a test database, it recreates the schema.
+ * Set db.rewriteBatchedStatements in config.properties to compare with and without multi-row inserts.
+ */
+public class QuestionImportBenchmark {
+    private static final int[] QUESTION_COUNTS = {100, 1000, 10000};
+    private static final int OPTIONS = 4;
+
+    public static void main(String[] args) throws SQLException {
+        DatabaseSetup.run();
+        QuizDao quizDao = new QuizDao();
+        MultipleChoiceDao multipleChoiceDao = new MultipleChoiceDao();
+        System.out.printf("%10s %12s %12s %14s %14s%n", "questions", "old ms", "new ms", "old rows/s", "new rows/s");
+        for (int questionCount : QUESTION_COUNTS) {
+            long start = System.nanoTime();
+            insertOneByOne(createQuestions(quizDao, questionCount));
+            double oldMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            List<Question> questions = createQuestions(quizDao, questionCount);
+            start = System.nanoTime();
+            if (!multipleChoiceDao.addQuestions(questions)) {
+                throw new IllegalStateException("Import of " + questionCount + " questions failed");
+            }
+            double newMillis = (System.nanoTime() - start) / 1_000_000.0;
+
+            int rows = questionCount * (OPTIONS + 1);
+            System.out.printf("%10d %12.1f %12.1f %14.0f %14.0f%n", questionCount, oldMillis, newMillis,
+                    rows * 1000 / oldMillis, rows * 1000 / newMillis);
+        }
+        DatabaseConnection.shutdown();
+    }
+
+    //Creates a new quiz and the multiple choice questions to import into it
+    private static List<Question> createQuestions(QuizDao quizDao, int questionCount) {
+        Quiz quiz = new Quiz(1, "Import " + questionCount, "Quiz with " + questionCount + " questions", LocalDateTime.now());
+        quizDao.addQuiz(quiz);
+        List<Question> questions = new ArrayList<>(questionCount);
+        for (int i = 0; i < questionCount; i++) {
+            Map<String, Boolean> options = new HashMap<>();
+            for (int j = 0; j < OPTIONS; j++) {
+                options.put("Option " + j + " of question " + i, j == 0);
+            }
+            questions.add(new MultipleChoiceQuestion("Question " + i, options, quiz.getQuizId(), i, 1));
+        }
+        return questions;
+    }
+
+    //The way addQuestion wrote a question before: autocommitted inserts of the question and of each option
+    private static void insertOneByOne(List<Question> questions) throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement questionStatement = connection.prepareStatement(
+                     "INSERT INTO Questions (quiz_id, question_text, question_type, image_url, order_in_quiz, max_score) VALUES (?, ?, ?, ?, ?, ?)",
+                     Statement.RETURN_GENERATED_KEYS);
+             PreparedStatement optionStatement = connection.prepareStatement(
+                     "INSERT INTO AnswerOptionsMC (question_id, option_text, is_correct) VALUES (?, ?, ?)")) {
+            for (Question question : questions) {
+                questionStatement.setInt(1, question.getQuizId());
+                questionStatement.setString(2, question.getQuestionText());
+                questionStatement.setString(3, question.getQuestionType());
+                questionStatement.setString(4, question.getImageUrl());
+                questionStatement.setInt(5, question.getOrderInQuiz());
+                questionStatement.setDouble(6, question.getMaxScore());
+                questionStatement.executeUpdate();
+                int questionId;
+                try (ResultSet resultSet = questionStatement.getGeneratedKeys()) {
+                    resultSet.next();
+                    questionId = resultSet.getInt(1);
+                }
+                for (Map.Entry<String, Boolean> option : ((MultipleChoiceQuestion) question).getOptions().entrySet()) {
+                    optionStatement.setInt(1, questionId);
+                    optionStatement.setString(2, option.getKey());
+                    optionStatement.setBoolean(3, option.getValue());
+                    optionStatement.executeUpdate();
+                }
+            }
+        }
+    }
+}
@@ -108,9 +108,9 @@ public class QuizAttemptDaoTest {
         assertTrue(quizAttemptDao.createAttempt(quizAttempt3));
 
         //Testing completeAttempt
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 50));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 150));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 100));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 50));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 150));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 100));
         QuizAttempt retrievedAttempt2 = quizAttemptDao.getAttemptById(quizAttempt2.getAttemptId());
         assertNotNull(retrievedAttempt2.getEndTime());
         assertEquals(150, retrievedAttempt2.getScore());
@@ -132,8 +132,8 @@ public class QuizAttemptDaoTest {
         assertEquals(quizAttempts2, quizAttemptDao.getQuizAttempts(quizAttempt2.getQuizId()));
 
         //Testing getQuizAttempts, when same score, should be sorted with time passed since start of a quiz
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 200));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 200));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 200));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 200));
         QuizAttempt freshAttempt2 = quizAttemptDao.getAttemptById(quizAttempt2.getAttemptId());
         QuizAttempt freshAttempt3 = quizAttemptDao.getAttemptById(quizAttempt3.getAttemptId());
         List<QuizAttempt> quizAttempts3 = new ArrayList<>();
@@ -161,9 +161,9 @@ public class QuizAttemptDaoTest {
         assertTrue(quizAttemptDao.createAttempt(quizAttempt3));
 
         //Creating attempts
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 50));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 150));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 100));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 50));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 150));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 100));
 
         //Testing getTodaysTopPerformers
         List<QuizAttempt> todaysTop = quizAttemptDao.getTodaysTopPerformers(quizAttempt.getQuizId());
@@ -172,8 +172,8 @@ public class QuizAttemptDaoTest {
         assertEquals(50, todaysTop.get(1).getScore());
 
         //Testing if sorted by start time when Scores are the same
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 200));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 200));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 200));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 200));
         List<QuizAttempt> todaysTop2 = quizAttemptDao.getTodaysTopPerformers(quizAttempt.getQuizId());
         assertEquals(quizAttempt3.getAttemptId(), todaysTop2.get(0).getAttemptId());
         assertEquals(quizAttempt.getAttemptId(), todaysTop2.get(1).getAttemptId());
@@ -192,11 +192,11 @@ public class QuizAttemptDaoTest {
         assertTrue(quizAttemptDao.createAttempt(quizAttempt3));
 
         //Creating attempts
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 70));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 70));
         Thread.sleep(1000);
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 80));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt2.getAttemptId(), 80));
         Thread.sleep(1000);
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 90));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 90));
 
         //Testing getRecentPerformers ordered by completion time
         List<QuizAttempt> recent = quizAttemptDao.getRecentPerformers(quizAttempt.getQuizId(), 2);
@@ -210,6 +210,44 @@ public class QuizAttemptDaoTest {
         assertEquals(quizAttempt3.getAttemptId(), recent2.get(0).getAttemptId());
     }
 
+    //Testing getTopPerformers, served from the leaderboard and kept after it is reloaded from the summary table
+    @Test
+    public void testGetTopPerformers() {
+        List<QuizAttempt> attempts = new ArrayList<>();
+        for (int i = 0; i < Leaderboard.SIZE + 2; i++) {
+            QuizAttempt attempt = new QuizAttempt(userId, quizAttempt.getQuizId());
+            assertTrue(quizAttemptDao.createAttempt(attempt));
+            assertNotNull(quizAttemptDao.completeAttempt(attempt.getAttemptId(), i * 10));
+            attempts.add(0, attempt);
+        }
+        List<QuizAttempt> expected = attempts.subList(0, Leaderboard.SIZE);
+        assertEquals(expected, quizAttemptDao.getTopPerformers(quizAttempt.getQuizId(), Leaderboard.SIZE));
+        assertEquals(expected.subList(0, 3), quizAttemptDao.getTopPerformers(quizAttempt.getQuizId(), 3));
+        assertEquals(expected, quizAttemptDao.getTodaysTopPerformers(quizAttempt.getQuizId()));
+
+        Leaderboard.getInstance().invalidate(quizAttempt.getQuizId());
+        assertEquals(expected, quizAttemptDao.getTopPerformers(quizAttempt.getQuizId(), Leaderboard.SIZE));
+        assertEquals(expected, quizAttemptDao.getRecentPerformers(quizAttempt.getQuizId(), Leaderboard.SIZE));
+        assertEquals(attempts, quizAttemptDao.getQuizAttempts(quizAttempt.getQuizId()));
+    }
+
+    //Testing that a practice attempt stays in the history but off the leaderboards
+    @Test
+    public void testPracticeAttempt() {
+        QuizAttempt practice = new QuizAttempt(userId, quizAttempt.getQuizId());
+        assertTrue(quizAttemptDao.createAttempt(quizAttempt));
+        assertTrue(quizAttemptDao.createAttempt(practice));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 50));
+        assertNotNull(quizAttemptDao.completeAttempt(practice.getAttemptId(), 150, true));
+
+        List<QuizAttempt> expected = List.of(quizAttemptDao.getAttemptById(quizAttempt.getAttemptId()));
+        assertEquals(expected, quizAttemptDao.getTopPerformers(quizAttempt.getQuizId(), Leaderboard.SIZE));
+        Leaderboard.getInstance().invalidate(quizAttempt.getQuizId());
+        assertEquals(expected, quizAttemptDao.getTopPerformers(quizAttempt.getQuizId(), Leaderboard.SIZE));
+        assertEquals(expected, quizAttemptDao.getRecentPerformers(quizAttempt.getQuizId(), Leaderboard.SIZE));
+        assertEquals(150, quizAttemptDao.getAttemptById(practice.getAttemptId()).getScore());
+    }
+
     //Testing getUserHistory
     @Test
     public void testGetUserQuizHistory() throws InterruptedException{
@@ -219,8 +257,8 @@ public class QuizAttemptDaoTest {
         assertTrue(quizAttemptDao.createAttempt(quizAttempt3));
 
         //adding attempts
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 60));
-        assertTrue(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 75));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt.getAttemptId(), 60));
+        assertNotNull(quizAttemptDao.completeAttempt(quizAttempt3.getAttemptId(), 75));
 
         //Tests the method and sorting
         List<QuizAttempt> userHistory = quizAttemptDao.getUserQuizHistory(userId, quizAttempt.getQuizId());
@@ -268,7 +306,7 @@ public class QuizAttemptDaoTest {
         assertNull(quizAttemptDao.getAttemptById(Integer.MAX_VALUE));
 
         //Testing completeAttempt
-        assertFalse(quizAttemptDao.completeAttempt(Integer.MAX_VALUE, 50));
+        assertNull(quizAttemptDao.completeAttempt(Integer.MAX_VALUE, 50));
 
         //Testing getUserAttempts
         List<QuizAttempt> emptyList = quizAttemptDao.getUserAttempts(Integer.MAX_VALUE);
@@ -0,0 +1,128 @@
+package dao;
+
+import models.MultipleChoiceQuestion;
+import models.Question;
+import models.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizCacheTest {
+    private long now;
+    private int loads;
+    private QuizCache cache;
+
+    //Creates a cache of at most 2 quizzes that expire after 1000 ms of the fake clock
+    @BeforeEach
+    public void setUp() {
+        now = 0;
+        loads = 0;
+        cache = new QuizCache(2, 1000, () -> now);
+    }
+
+    //Builds a quiz with one question, counting how many times the "database" was read
+    private Quiz load(int quizId) {
+        loads++;
+        if (quizId < 0) {
+            return null;
+        }
+        Quiz quiz = new Quiz(quizId, 1, "Quiz " + quizId, "Description", LocalDateTime.now());
+        Map<String, Boolean> options = new HashMap<>();
+        options.put("yes", true);
+        options.put("no", false);
+        List<Question> questions = new ArrayList<>();
+        questions.add(new MultipleChoiceQuestion(quizId * 10, "Question", options, quizId, 1, 1));
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    //Tests that a quiz is loaded once and then served from the cache
+    @Test
+    public void testHit() {
+        Quiz first = cache.get(1, this::load);
+        Quiz second = cache.get(1, this::load);
+        assertEquals(1, loads);
+        assertEquals(first, second);
+        assertNotSame(first, second);
+        assertSame(first.getQuestions().get(0), second.getQuestions().get(0));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    //Tests that the question list handed out can not be shuffled or changed
+    @Test
+    public void testQuestionsReadOnly() {
+        Quiz quiz = cache.get(1, this::load);
+        assertThrows(UnsupportedOperationException.class, () -> quiz.getQuestions().clear());
+        quiz.setTitle("Changed");
+        assertEquals("Quiz 1", cache.get(1, this::load).getTitle());
+    }
+
+    //Tests that the least recently used quiz is evicted once the cache is full
+    @Test
+    public void testEviction() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.get(1, this::load);
+        cache.get(3, this::load);
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+        cache.get(1, this::load);
+        assertEquals(3, loads);
+        cache.get(2, this::load);
+        assertEquals(4, loads);
+    }
+
+    //Tests that quizzes are reloaded after their time to live
+    @Test
+    public void testExpiry() {
+        cache.get(1, this::load);
+        now = 999;
+        cache.get(1, this::load);
+        assertEquals(1, loads);
+        now = 1000;
+        cache.get(1, this::load);
+        assertEquals(2, loads);
+    }
+
+    //Tests invalidation by quiz id, by question id and of the whole cache
+    @Test
+    public void testInvalidate() {
+        cache.get(1, this::load);
+        cache.get(2, this::load);
+        cache.invalidate(1);
+        assertEquals(1, cache.size());
+        cache.invalidateQuestion(20);
+        assertEquals(0, cache.size());
+        cache.get(1, this::load);
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+        assertEquals(3, loads);
+    }
+
+    //Tests that a load racing with an invalidation is not cached, and missing quizzes are never cached
+    @Test
+    public void testNotCached() {
+        cache.get(1, quizId -> {
+            Quiz quiz = load(quizId);
+            cache.invalidate(quizId);
+            return quiz;
+        });
+        assertEquals(0, cache.size());
+        assertNull(cache.get(-1, this::load));
+        assertEquals(0, cache.size());
+
+        QuizCache disabled = new QuizCache(0, 0);
+        disabled.get(1, this::load);
+        disabled.get(1, this::load);
+        assertEquals(0, disabled.size());
+        assertEquals(0, disabled.getHitCount());
+    }
+}
@@ -157,6 +157,38 @@ public class QuizDaoTest {
         assertTrue(Math.abs(Timestamp.valueOf(quiz.getCreationDate()).getTime() - Timestamp.valueOf(recentQuizzes2.get(2).getCreationDate()).getTime()) < 2000);
     }
 
+    //tests that getQuizSummaries pages through the quizzes newest first, with equal creation dates ordered by id
+    @Test
+    public void testGetQuizSummaries(){
+        defineQuizzes();
+        Quiz sameDate = new Quiz(userId, "Quiz Test 4", "Description 4", quiz3.getCreationDate());
+        assertTrue(quizDao.addQuiz(quiz));
+        assertTrue(quizDao.addQuiz(quiz2));
+        assertTrue(quizDao.addQuiz(quiz3));
+        assertTrue(quizDao.addQuiz(sameDate));
+        Map<String, Boolean> options = new HashMap<>();
+        options.put("yes", true);
+        options.put("no", false);
+        assertTrue(new MultipleChoiceDao().addQuestion(new MultipleChoiceQuestion("Question", options, quiz2.getQuizId(), 0, 1)));
+
+        List<QuizSummary> firstPage = quizDao.getQuizSummaries(null, 0, 2);
+        assertEquals(2, firstPage.size());
+        assertEquals(sameDate.getQuizId(), firstPage.get(0).getQuizId());
+        assertEquals(quiz3.getQuizId(), firstPage.get(1).getQuizId());
+        assertEquals("Quiz Test 3", firstPage.get(1).getTitle());
+
+        QuizSummary last = firstPage.get(1);
+        List<QuizSummary> secondPage = quizDao.getQuizSummaries(last.getCreationDate(), last.getQuizId(), 2);
+        assertEquals(2, secondPage.size());
+        assertEquals(quiz2.getQuizId(), secondPage.get(0).getQuizId());
+        assertEquals(1, secondPage.get(0).getQuestionCount());
+        assertEquals(quiz.getQuizId(), secondPage.get(1).getQuizId());
+        assertEquals(0, secondPage.get(1).getQuestionCount());
+
+        last = secondPage.get(1);
+        assertTrue(quizDao.getQuizSummaries(last.getCreationDate(), last.getQuizId(), 2).isEmpty());
+    }
+
     //Tests quizExists
     @Test
     public void testQuizExists(){
@@ -243,6 +275,41 @@ public class QuizDaoTest {
         assertEquals(new ArrayList<Quiz>(), quizDao.getRecentlyCreatedQuizzes(0));
     }
 
+    //Tests that getQuizById loads questions of every type in order, each with its own answers
+    @Test
+    public void testGetQuizWithQuestions(){
+        defineQuizzes();
+        assertTrue(quizDao.addQuiz(quiz));
+        int quizId = quiz.getQuizId();
+
+        Map<String, Boolean> options = new HashMap<>();
+        options.put("Tbilisi", true);
+        options.put("Batumi", false);
+        Question first = new MultipleChoiceQuestion("Capital of Georgia?", options, quizId, 1, 1);
+        Map<String, Boolean> options2 = new HashMap<>();
+        options2.put("2", true);
+        options2.put("3", true);
+        options2.put("4", false);
+        Question second = new MultipleChoiceWithMultipleAnswersQuestion("Prime numbers?", options2, quizId, 2, 1);
+        List<HashSet<String>> blanks = new ArrayList<>();
+        blanks.add(new HashSet<>(Arrays.asList("Tamar", "Thamar")));
+        Question third = new FillInTheBlankQuestion("King _____", blanks, quizId, 3, 1);
+        third.setImageUrl("image.png");
+        assertTrue(new FillInTheBlankDao().addQuestion(third));
+        assertTrue(new MultipleChoiceWithMultipleAnswersDao().addQuestion(second));
+        assertTrue(new MultipleChoiceDao().addQuestion(first));
+
+        List<Question> questions = quizDao.getQuizById(quizId).getQuestions();
+        assertEquals(3, questions.size());
+        assertEquals(first, questions.get(0));
+        assertEquals(second, questions.get(1));
+        assertEquals(third, questions.get(2));
+        assertEquals(blanks, questions.get(2).getCorrectAnswers());
+
+        assertTrue(quizDao.addQuiz(quiz2));
+        assertTrue(quizDao.getQuizById(quiz2.getQuizId()).getQuestions().isEmpty());
+    }
+
     //Defines the 3 quizzes used in tests
     private void defineQuizzes(){
         quiz = new Quiz(userId, "Quiz Test 1", "Description", LocalDateTime.now());
@@ -0,0 +1,71 @@
+package dao;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static dao.TestAttempts.attempt;
+import static dao.TestAttempts.ids;
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizLeaderboardTest {
+    private static final long HOUR = 60 * 60 * 1000;
+    private long now;
+    private QuizLeaderboard board;
+
+    //Creates empty boards of 3 attempts
+    @BeforeEach
+    public void setUp() {
+        now = 1000 * HOUR;
+        board = new QuizLeaderboard(3, Collections.emptyList(), Collections.emptyList());
+    }
+
+    //Tests that the all-time board keeps the best attempts, ties broken by the time taken
+    @Test
+    public void testTop() {
+        board.add(attempt(1, 50, now - HOUR, 10));
+        board.add(attempt(2, 80, now - HOUR, 10));
+        board.add(attempt(3, 80, now - HOUR, 5));
+        QuizLeaderboard.Change change = board.add(attempt(4, 60, now - HOUR, 10));
+        assertEquals(List.of(3, 2, 4), ids(board.top(10)));
+        assertEquals(List.of(3, 2), ids(board.top(2)));
+        assertEquals(4, change.allTimeAdded.getAttemptId());
+        assertEquals(1, change.allTimeRemoved.getAttemptId());
+
+        //An attempt below a full board changes nothing stored on it
+        change = board.add(attempt(5, 10, now - HOUR, 10));
+        assertNull(change.allTimeAdded);
+        assertNull(change.allTimeRemoved);
+        assertEquals(List.of(3, 2, 4), ids(board.top(10)));
+    }
+
+    //Tests that the recent board keeps the latest completions
+    @Test
+    public void testRecent() {
+        board.add(attempt(1, 50, now - 4 * HOUR, 10));
+        board.add(attempt(2, 80, now - 3 * HOUR, 10));
+        board.add(attempt(3, 20, now - 2 * HOUR, 10));
+        QuizLeaderboard.Change change = board.add(attempt(4, 60, now - HOUR, 10));
+        assertEquals(List.of(4, 3, 2), ids(board.recent(10)));
+        assertEquals(4, change.recentAdded.getAttemptId());
+        assertEquals(1, change.recentRemoved.getAttemptId());
+    }
+
+    //Tests that completing an attempt again replaces it instead of adding it twice
+    @Test
+    public void testCompletedAgain() {
+        board.add(attempt(1, 50, now - HOUR, 10));
+        board.add(attempt(2, 80, now - HOUR, 10));
+        board.add(attempt(1, 90, now - HOUR, 20));
+        assertEquals(List.of(1, 2), ids(board.top(10)));
+        assertEquals(2, board.recent(10).size());
+
+        //A worse result on a full board may let a forgotten attempt overtake it
+        board.add(attempt(3, 70, now - HOUR, 10));
+        board.add(attempt(4, 60, now - HOUR, 10));
+        assertTrue(board.add(attempt(1, 10, now - HOUR, 10)).allTimeStale);
+        assertFalse(board.add(attempt(2, 85, now - HOUR, 10)).allTimeStale);
+    }
+}
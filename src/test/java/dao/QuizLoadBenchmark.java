@@ -0,0 +1,114 @@
+package dao;
+
+import factory.QuestionDaoFactory;
+import models.*;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Compares QuizDao.getQuizById with the old way of loading a quiz, where every question was
+ * fetched separately through its dao. For quizzes of growing size it prints the number of
+ * SELECT statements the server executed per load and the average latency.
+ * Not a unit test: run its main method against a test database, it recreates the schema.
+ */
+public class QuizLoadBenchmark {
+    private static final int[] QUESTION_COUNTS = {1, 10, 50, 200};
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 100;
+
+    public static void main(String[] args) throws SQLException {
+        DatabaseSetup.run();
+        QuizDao quizDao = new QuizDao();
+        System.out.printf("%10s %14s %14s %14s %14s%n", "questions", "old queries", "new queries", "old ms", "new ms");
+        for (int questionCount : QUESTION_COUNTS) {
+            int quizId = createQuiz(quizDao, questionCount);
+            System.out.printf("%10d %14d %14d %14.3f %14.3f%n", questionCount,
+                    countSelects(() -> loadOneByOne(quizId)), countSelects(() -> quizDao.getQuizById(quizId)),
+                    averageMillis(() -> loadOneByOne(quizId)), averageMillis(() -> quizDao.getQuizById(quizId)));
+        }
+        DatabaseConnection.shutdown();
+    }
+
+    //Creates a quiz whose questions cycle through all the supported question types
+    private static int createQuiz(QuizDao quizDao, int questionCount) {
+        Quiz quiz = new Quiz(1, "Benchmark " + questionCount, "Quiz with " + questionCount + " questions", LocalDateTime.now());
+        quizDao.addQuiz(quiz);
+        for (int i = 0; i < questionCount; i++) {
+            Map<String, Boolean> options = new HashMap<>();
+            options.put("right " + i, true);
+            options.put("wrong " + i, false);
+            options.put("other " + i, false);
+            Question question;
+            if (i % 3 == 0) {
+                question = new MultipleChoiceQuestion("Question " + i, options, quiz.getQuizId(), i, 1);
+            } else if (i % 3 == 1) {
+                options.put("also right " + i, true);
+                question = new MultipleChoiceWithMultipleAnswersQuestion("Question " + i, options, quiz.getQuizId(), i, 1);
+            } else {
+                List<HashSet<String>> blanks = new ArrayList<>();
+                blanks.add(new HashSet<>(Arrays.asList("first " + i, "1st " + i)));
+                blanks.add(new HashSet<>(Collections.singletonList("second " + i)));
+                question = new FillInTheBlankQuestion("Question " + i + " _____ _____", blanks, quiz.getQuizId(), i, 1);
+            }
+            QuestionDaoFactory.getDao(question.getQuestionType()).addQuestion(question);
+        }
+        return quiz.getQuizId();
+    }
+
+    //The loading strategy getQuizById used before: the quiz row, its question ids, then every question by id
+    private static List<Question> loadOneByOne(int quizId) {
+        List<Question> questions = new ArrayList<>();
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement quizStatement = connection.prepareStatement("SELECT * FROM Quizzes WHERE quiz_id = ? ");
+             PreparedStatement preparedStatement = connection.prepareStatement(
+                     "SELECT question_id, question_type FROM Questions WHERE quiz_id = ? ORDER BY order_in_quiz")) {
+            quizStatement.setInt(1, quizId);
+            try (ResultSet resultSet = quizStatement.executeQuery()) {
+                resultSet.next();
+            }
+            preparedStatement.setInt(1, quizId);
+            try (ResultSet resultSet = preparedStatement.executeQuery()) {
+                while (resultSet.next()) {
+                    questions.add(QuestionDaoFactory.getDao(resultSet.getString("question_type"))
+                            .getQuestionById(resultSet.getInt("question_id")));
+                }
+            }
+        } catch (SQLException e) {
+            throw new RuntimeException(e);
+        }
+        return questions;
+    }
+
+    //Runs the load once and returns how many SELECT statements the server executed meanwhile
+    private static long countSelects(Runnable load) throws SQLException {
+        long before = selectCount();
+        load.run();
+        return selectCount() - before;
+    }
+
+    private static long selectCount() throws SQLException {
+        try (Connection connection = DatabaseConnection.getConnection();
+             Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SHOW GLOBAL STATUS LIKE 'Com_select'")) {
+            resultSet.next();
+            return resultSet.getLong(2);
+        }
+    }
+
+    private static double averageMillis(Runnable load) {
+        for (int i = 0; i < WARMUP; i++) {
+            load.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            load.run();
+        }
+        return (System.nanoTime() - start) / 1_000_000.0 / ITERATIONS;
+    }
+}
@@ -0,0 +1,90 @@
+package dao;
+
+import models.FillInTheBlankQuestion;
+import models.Question;
+import models.Quiz;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures QuizSearchIndex on 500k generated quizzes whose words follow a Zipf-like distribution, so a few
+ * words are in most quizzes and most words in few: prints the time and heap taken to index them, and the
+ * average latency of one, two and three word searches for common, medium and rare words.
+ * Not a unit test and needs no database: run its main method, with -Xmx4g.
+ */
+public class QuizSearchBenchmark {
+    private static final int QUIZZES = 500_000;
+    private static final int VOCABULARY = 50_000;
+    private static final int QUESTIONS = 5;
+    private static final int SEARCHES = 200;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            words[i] = "w" + Integer.toString(i, 36);
+        }
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        QuizSearchIndex index = new QuizSearchIndex(mock(QuizDao.class));
+        index.rebuild();
+        LocalDateTime created = LocalDateTime.of(2025, 1, 1, 0, 0);
+        long start = System.nanoTime();
+        for (int quizId = 1; quizId <= QUIZZES; quizId++) {
+            Quiz quiz = new Quiz(quizId, 1, text(words, random, 4), text(words, random, 15), created);
+            List<Question> questions = new ArrayList<>();
+            for (int i = 0; i < QUESTIONS; i++) {
+                questions.add(new FillInTheBlankQuestion(0, text(words, random, 8), new ArrayList<>(), quizId, i, 1));
+            }
+            quiz.setQuestions(questions);
+            index.quizAdded(quiz);
+        }
+        double buildSeconds = (System.nanoTime() - start) / 1e9;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("%d quizzes indexed in %.1f s, about %d MB of heap%n",
+                index.size(), buildSeconds, (heapAfter - heapBefore) / (1024 * 1024));
+
+        System.out.printf("%-24s %10s%n", "search", "ms");
+        search(index, "1 common word", words[0] + "", SEARCHES);
+        search(index, "1 medium word", words[100], SEARCHES);
+        search(index, "1 rare word", words[20_000], SEARCHES);
+        search(index, "2 medium words", words[50] + " " + words[200], SEARCHES);
+        search(index, "3 mixed words", words[3] + " " + words[300] + " " + words[30_000], SEARCHES);
+        search(index, "page 10 of 2 words", words[50] + " " + words[200], SEARCHES);
+    }
+
+    private static void search(QuizSearchIndex index, String name, String query, int searches) {
+        int offset = name.startsWith("page") ? 180 : 0;
+        long checksum = 0;
+        for (int i = 0; i < 20; i++) {
+            checksum += index.search(query, offset, 21).size();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < searches; i++) {
+            checksum += index.search(query, offset, 21).size();
+        }
+        double millis = (System.nanoTime() - start) / 1e6 / searches;
+        if (checksum == 0) {
+            throw new IllegalStateException("Nothing was found for " + query);
+        }
+        System.out.printf("%-24s %10.3f%n", name, millis);
+    }
+
+    //A text of about the given number of words, word i drawn with a probability falling like 1 / (i + 1)
+    private static String text(String[] words, Random random, int averageWords) {
+        StringBuilder text = new StringBuilder();
+        int count = 1 + random.nextInt(averageWords * 2);
+        for (int i = 0; i < count; i++) {
+            int word = (int) Math.pow(words.length, random.nextDouble()) - 1;
+            text.append(words[word]).append(' ');
+        }
+        return text.toString();
+    }
+}
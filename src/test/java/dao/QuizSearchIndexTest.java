@@ -0,0 +1,117 @@
+package dao;
+
+import models.FillInTheBlankQuestion;
+import models.Question;
+import models.Quiz;
+import models.QuizSummary;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class QuizSearchIndexTest {
+    private static final LocalDateTime CREATED = LocalDateTime.of(2025, 1, 1, 12, 0);
+
+    private QuizSearchIndex index;
+
+    @BeforeEach
+    public void setUp() {
+        index = new QuizSearchIndex(mock(QuizDao.class));
+        assertEquals(0, index.rebuild());
+        index.quizAdded(quiz(1, "World Capitals", "Capitals of the world", "What is the capital of France?"));
+        index.quizAdded(quiz(2, "European History", "Kings and wars", "Who was the first king of France?",
+                "When did the war end?"));
+        index.quizAdded(quiz(3, "Geography", "Rivers, mountains and capitals", "Longest river?"));
+        index.quizAdded(quiz(4, "Chemistry", "Elements", "Symbol of gold?"));
+    }
+
+    private static Quiz quiz(int quizId, String title, String description, String... questionTexts) {
+        Quiz quiz = new Quiz(quizId, 7, title, description, CREATED);
+        List<Question> questions = new ArrayList<>();
+        for (String questionText : questionTexts) {
+            questions.add(new FillInTheBlankQuestion(0, questionText, new ArrayList<>(), quizId, 1, 1));
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    private static List<Integer> ids(List<QuizSummary> summaries) {
+        List<Integer> ids = new ArrayList<>();
+        for (QuizSummary summary : summaries) {
+            ids.add(summary.getQuizId());
+        }
+        return ids;
+    }
+
+    //Tests that title words weigh more than the others and that every word of the query counts
+    @Test
+    public void testRanking() {
+        assertEquals(List.of(1, 3), ids(index.search("capitals", 0, 10)));
+        // the shorter quiz first when both have the word once
+        assertEquals(List.of(1, 2), ids(index.search("France", 0, 10)));
+        assertEquals(List.of(2, 1), ids(index.search("king france", 0, 10)));
+        assertEquals(List.of(4), ids(index.search("GOLD!", 0, 10)));
+        assertTrue(index.search("the of", 0, 10).isEmpty());
+        assertEquals(new QuizSummary(4, 7, "Chemistry", CREATED, 1), index.search("gold", 0, 10).get(0));
+    }
+
+    //Tests that the results are served a page at a time
+    @Test
+    public void testPaging() {
+        assertEquals(List.of(1), ids(index.search("France", 0, 1)));
+        assertEquals(List.of(2), ids(index.search("France", 1, 1)));
+        assertTrue(index.search("France", 2, 1).isEmpty());
+        assertTrue(index.search("France", QuizSearchIndex.MAX_RESULTS, 10).isEmpty());
+    }
+
+    //Tests that a changed quiz is read again and a deleted one is no longer found
+    @Test
+    public void testChanges() {
+        QuizDao quizDao = mock(QuizDao.class);
+        when(quizDao.forEachQuizText(any())).thenReturn(0);
+        when(quizDao.forEachQuizText(eq(5), any())).thenAnswer(invocation -> {
+            QuizDao.QuizTextConsumer consumer = invocation.getArgument(1);
+            consumer.accept(5, 7, "Astronomy", "Planets", CREATED, "Largest planet?");
+            consumer.accept(5, 7, "Astronomy", "Planets", CREATED, "Closest star?");
+            return 1;
+        });
+        QuizSearchIndex loaded = new QuizSearchIndex(quizDao);
+        assertEquals(0, loaded.rebuild());
+        loaded.quizChanged(5);
+        assertEquals(List.of(new QuizSummary(5, 7, "Astronomy", CREATED, 2)), loaded.search("star", 0, 10));
+
+        when(quizDao.forEachQuizText(eq(5), any())).thenReturn(0);
+        loaded.quizChanged(5);
+        assertTrue(loaded.search("star", 0, 10).isEmpty());
+
+        index.quizRemoved(1);
+        assertEquals(List.of(3), ids(index.search("capitals", 0, 10)));
+        assertEquals(3, index.size());
+    }
+
+    //Tests that the index is streamed on first use and that nothing is found when it can not be read
+    @Test
+    public void testLoading() {
+        QuizDao quizDao = mock(QuizDao.class);
+        when(quizDao.forEachQuizText(any())).thenAnswer(invocation -> {
+            QuizDao.QuizTextConsumer consumer = invocation.getArgument(0);
+            consumer.accept(1, 7, "Music", "Composers", CREATED, null);
+            consumer.accept(2, 7, "Opera", "Composers and singers", CREATED, "Who wrote Carmen?");
+            return 2;
+        });
+        QuizSearchIndex streamed = new QuizSearchIndex(quizDao);
+        assertEquals(List.of(1, 2), ids(streamed.search("composers", 0, 10)));
+        assertEquals(0, streamed.search("music", 0, 10).get(0).getQuestionCount());
+        verify(quizDao, times(1)).forEachQuizText(any());
+
+        QuizDao failing = mock(QuizDao.class);
+        when(failing.forEachQuizText(any())).thenReturn(-1);
+        assertTrue(new QuizSearchIndex(failing).search("composers", 0, 10).isEmpty());
+    }
+}
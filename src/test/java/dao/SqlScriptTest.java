@@ -0,0 +1,45 @@
+package dao;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SqlScriptTest {
+    private static final String BASE_SCHEMA = "db/migration/V1__base_schema.sql";
+
+    //Tests that the base schema is split into the same statements as splitting it on every ';'
+    @Test
+    public void testReadStatements() throws IOException {
+        List<String> statements = SqlScript.readStatements(BASE_SCHEMA);
+        String schema;
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(BASE_SCHEMA)) {
+            schema = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        long expected = Arrays.stream(schema.split(";")).filter(statement -> !statement.trim().isEmpty()).count();
+        assertEquals(expected, statements.size());
+        for (String statement : statements) {
+            assertFalse(statement.endsWith(";"));
+            assertFalse(statement.startsWith("--"));
+        }
+        assertThrows(IOException.class, () -> SqlScript.readStatements("missing.sql"));
+    }
+
+    //Tests that migrations are found and ordered by their version
+    @Test
+    public void testMigrationScripts() throws IOException {
+        List<String> scripts = SqlScript.migrationScripts();
+        assertEquals(BASE_SCHEMA, scripts.get(0));
+        assertTrue(scripts.contains("db/migration/V2__hot_query_indexes.sql"));
+        for (int i = 1; i < scripts.size(); i++) {
+            assertTrue(SqlScript.versionOf(scripts.get(i - 1)) < SqlScript.versionOf(scripts.get(i)));
+        }
+        assertEquals(12, SqlScript.versionOf("db/migration/V12__something.sql"));
+        assertThrows(IllegalArgumentException.class, () -> SqlScript.versionOf("base_schema.sql"));
+    }
+}
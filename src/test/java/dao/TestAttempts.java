@@ -0,0 +1,30 @@
+package dao;
+
+import models.QuizAttempt;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Completed attempts built in memory for the leaderboard tests.
+ */
+final class TestAttempts {
+
+    private TestAttempts() {
+    }
+
+    //Builds a completed attempt of user 1 on quiz 1 that started at the given time and took seconds seconds
+    static QuizAttempt attempt(int attemptId, double score, long startMillis, int seconds) {
+        return new QuizAttempt(attemptId, 1, 1, new Timestamp(startMillis), new Timestamp(startMillis + seconds * 1000L), score);
+    }
+
+    //Returns the ids of attempts, in order
+    static List<Integer> ids(List<QuizAttempt> attempts) {
+        List<Integer> ids = new ArrayList<>();
+        for (QuizAttempt attempt : attempts) {
+            ids.add(attempt.getAttemptId());
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,60 @@
+package dao;
+
+import models.QuizAttempt;
+
+import java.sql.Timestamp;
+import java.util.Random;
+
+import static org.mockito.Mockito.mock;
+
+/**
+ * Measures TodaysTopPerformers for a few bucket widths: feeds it a day of completed attempts spread
+ * over many quizzes, then prints the average latency of an add and of a top-10 query and the
+ * estimated memory footprint.
+ * Not a unit test and needs no database: run its main method.
+ */
+public class TodaysTopPerformersBenchmark {
+    private static final int QUIZZES = 1000;
+    private static final int ATTEMPTS = 1_000_000;
+    private static final int QUERIES = 1_000_000;
+    private static final long[] BUCKET_MINUTES = {1, 5, 15, 60};
+
+    public static void main(String[] args) {
+        System.out.printf("%8s %10s %10s %10s %10s %10s%n", "bucket", "add us", "query us", "buckets", "attempts", "MB");
+        for (long minutes : BUCKET_MINUTES) {
+            run(minutes);
+        }
+    }
+
+    private static void run(long bucketMinutes) {
+        long now = System.currentTimeMillis();
+        TodaysTopPerformers engine = new TodaysTopPerformers(mock(QuizAttemptDao.class), Leaderboard.SIZE,
+                bucketMinutes * 60 * 1000, () -> now);
+        engine.rebuild();
+        Random random = new Random(42);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < ATTEMPTS; i++) {
+            long startTime = now - (long) (random.nextDouble() * TodaysTopPerformers.WINDOW_MILLIS);
+            engine.add(new QuizAttempt(i + 1, random.nextInt(5000) + 1, random.nextInt(QUIZZES) + 1,
+                    new Timestamp(startTime), new Timestamp(startTime + random.nextInt(600_000)), random.nextInt(101)));
+        }
+        double addMicros = (System.nanoTime() - start) / 1000.0 / ATTEMPTS;
+
+        long checksum = 0;
+        for (int i = 0; i < QUERIES / 10; i++) {
+            checksum += engine.getTopPerformers(random.nextInt(QUIZZES) + 1, 10).size();
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < QUERIES; i++) {
+            checksum += engine.getTopPerformers(random.nextInt(QUIZZES) + 1, 10).size();
+        }
+        double queryMicros = (System.nanoTime() - start) / 1000.0 / QUERIES;
+
+        if (checksum == 0) {
+            throw new IllegalStateException("No attempts were found");
+        }
+        System.out.printf("%7dm %10.2f %10.3f %10d %10d %10.1f%n", bucketMinutes, addMicros, queryMicros,
+                engine.getBucketCount(), engine.getAttemptCount(), engine.getEstimatedBytes() / 1024.0 / 1024.0);
+    }
+}
@@ -0,0 +1,95 @@
+package dao;
+
+import models.QuizAttempt;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static dao.TestAttempts.attempt;
+import static dao.TestAttempts.ids;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+public class TodaysTopPerformersTest {
+    private static final long MINUTE = 60 * 1000;
+    private static final long HOUR = 60 * MINUTE;
+    private long now;
+    private TodaysTopPerformers engine;
+
+    //Creates an engine keeping 3 attempts per one minute bucket, on a fake clock, rebuilt empty from the database
+    @BeforeEach
+    public void setUp() {
+        now = 1000 * HOUR;
+        engine = new TodaysTopPerformers(mock(QuizAttemptDao.class), 3, MINUTE, () -> now);
+        assertEquals(0, engine.rebuild());
+    }
+
+    //Tests that the best attempts over all buckets are returned, best first
+    @Test
+    public void testTopPerformers() {
+        engine.add(attempt(1, 50, now - 10 * MINUTE, 30));
+        engine.add(attempt(2, 90, now - 120 * MINUTE, 30));
+        engine.add(attempt(3, 70, now - 10 * MINUTE, 30));
+        engine.add(attempt(4, 70, now - 10 * MINUTE, 20));
+        engine.add(attempt(5, 10, now - 10 * MINUTE, 30));
+        assertEquals(List.of(2, 4, 3), ids(engine.getTopPerformers(1, 10)));
+        assertEquals(List.of(2), ids(engine.getTopPerformers(1, 1)));
+        assertTrue(engine.getTopPerformers(2, 10).isEmpty());
+
+        //A bucket keeps only its 3 best attempts
+        assertEquals(2, engine.getBucketCount());
+        assertEquals(4, engine.getAttemptCount());
+        assertEquals(1, engine.getQuizCount());
+        assertTrue(engine.getEstimatedBytes() > 0);
+    }
+
+    //Tests that attempts leave the window with their bucket and the next best take their place
+    @Test
+    public void testExpiry() {
+        engine.add(attempt(1, 90, now - 23 * HOUR, 30));
+        engine.add(attempt(2, 80, now - HOUR, 30));
+        engine.add(attempt(3, 70, now - HOUR, 30));
+        engine.add(attempt(4, 60, now - HOUR, 30));
+        engine.add(attempt(5, 50, now - 30 * MINUTE, 30));
+        assertEquals(List.of(1, 2, 3), ids(engine.getTopPerformers(1, 10)));
+
+        now += 61 * MINUTE;
+        assertEquals(List.of(2, 3, 4), ids(engine.getTopPerformers(1, 10)));
+        now += 22 * HOUR;
+        assertEquals(List.of(5), ids(engine.getTopPerformers(1, 10)));
+
+        //Attempts started before the window are not added, empty quizzes are swept
+        engine.add(attempt(6, 100, now - 25 * HOUR, 30));
+        assertEquals(List.of(5), ids(engine.getTopPerformers(1, 10)));
+        now += HOUR;
+        engine.add(new QuizAttempt(7, 1, 2, new Timestamp(now), new Timestamp(now + 1000), 10));
+        assertEquals(1, engine.getQuizCount());
+        assertTrue(engine.getTopPerformers(1, 10).isEmpty());
+    }
+
+    //Tests that an attempt completed again replaces its earlier result
+    @Test
+    public void testCompletedAgain() {
+        engine.add(attempt(1, 50, now - 10 * MINUTE, 30));
+        engine.add(attempt(2, 60, now - 10 * MINUTE, 30));
+        engine.add(attempt(1, 90, now - 10 * MINUTE, 30));
+        assertEquals(List.of(1, 2), ids(engine.getTopPerformers(1, 10)));
+        engine.add(attempt(1, 10, now - 10 * MINUTE, 30));
+        assertEquals(List.of(2, 1), ids(engine.getTopPerformers(1, 10)));
+        assertEquals(2, engine.getAttemptCount());
+    }
+
+    //Tests that a deleted quiz loses its window and that a user without attempts in the window changes nothing
+    @Test
+    public void testRemoved() {
+        engine.add(attempt(1, 50, now - 10 * MINUTE, 30));
+        engine.add(new QuizAttempt(2, 1, 2, new Timestamp(now), new Timestamp(now + 1000), 10));
+        engine.quizRemoved(2);
+        assertEquals(1, engine.getQuizCount());
+        assertTrue(engine.getTopPerformers(2, 10).isEmpty());
+        engine.userRemoved(2);
+        assertEquals(List.of(1), ids(engine.getTopPerformers(1, 10)));
+    }
+}
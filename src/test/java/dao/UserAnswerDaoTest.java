@@ -5,7 +5,9 @@ import org.junit.jupiter.api.*;
 import static org.junit.jupiter.api.Assertions.*;
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 
 public class UserAnswerDaoTest {
@@ -171,6 +173,33 @@ public class UserAnswerDaoTest {
         assertFalse(userAnswerDao.deleteAnswersForQuestion(Integer.MAX_VALUE, Integer.MAX_VALUE));
     }
 
+    //Tests replaceAnswers
+    @Test
+    public void testReplaceAnswers() {
+        assertTrue(userAnswerDao.saveAnswer(multipleChoiceAnswer));
+        assertTrue(userAnswerDao.saveAnswer(fillInTheBlankAnswer));
+        int attemptId = multipleChoiceAnswer.getAttemptId();
+        int questionId = fillInTheBlankAnswer.getQuestionId();
+
+        UserAnswer first = new UserAnswer(attemptId, questionId, "Tbilisi", null, true);
+        UserAnswer second = new UserAnswer(attemptId, questionId, "Batumi", null, false);
+        Map<Integer, List<UserAnswer>> answersByQuestion = new HashMap<>();
+        answersByQuestion.put(questionId, List.of(first, second));
+        assertTrue(userAnswerDao.replaceAnswers(attemptId, answersByQuestion));
+        assertNotEquals(-1, first.getUserAnswerId());
+        assertEquals(first, userAnswerDao.getAnswerById(first.getUserAnswerId()));
+        assertEquals(second, userAnswerDao.getAnswerById(second.getUserAnswerId()));
+        assertNull(userAnswerDao.getAnswerById(fillInTheBlankAnswer.getUserAnswerId()));
+        assertEquals(3, userAnswerDao.getAnswersForAttempt(attemptId).size());
+
+        //a failing insert rolls back the whole replacement
+        answersByQuestion.put(questionId, List.of(new UserAnswer(attemptId, questionId, "Kutaisi", null, true),
+                new UserAnswer(attemptId, questionId, "Answer", Integer.MAX_VALUE, true)));
+        assertFalse(userAnswerDao.replaceAnswers(attemptId, answersByQuestion));
+        assertEquals(first, userAnswerDao.getAnswerById(first.getUserAnswerId()));
+        assertEquals(3, userAnswerDao.getAnswersForAttempt(attemptId).size());
+    }
+
     //Tests errors
     @Test
     public void testErrors(){
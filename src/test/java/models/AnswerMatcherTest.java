@@ -0,0 +1,141 @@
+package models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerMatcherTest {
+
+    @Test
+    void testNormalize() {
+        assertEquals("New York", AnswerNormalizer.DEFAULT.normalize("  New \t\n York  "));
+        assertEquals("Tbílisi", AnswerNormalizer.DEFAULT.normalize("Tbílisi"));
+        assertEquals("", AnswerNormalizer.DEFAULT.normalize(" \r\n "));
+        assertEquals("tbilisi city", new AnswerNormalizer(true, true).normalize(" TBÍLISI  City "));
+        // a combining accent typed after the letter is dropped too
+        assertEquals("Tbilisi", new AnswerNormalizer(false, true).normalize("Tbílisi"));
+        assertEquals("façade", new AnswerNormalizer(true, false).normalize("FAÇADE"));
+    }
+
+    @Test
+    void testDefaultMatching() {
+        AnswerMatcher matcher = new AnswerMatcher(List.of("New York", " Paris ", "Tbilisi"), AnswerNormalizer.DEFAULT);
+        assertEquals(3, matcher.size());
+        assertTrue(matcher.matches("New York"));
+        assertTrue(matcher.matches("  New    York "));
+        assertTrue(matcher.matches("Paris"));
+        assertFalse(matcher.matches("new york"));
+        assertFalse(matcher.matches("NewYork"));
+        assertFalse(matcher.matches("New York City"));
+        assertFalse(matcher.matches("New"));
+        assertFalse(matcher.matches("Tbílisi"));
+        assertFalse(matcher.matches(""));
+        assertFalse(matcher.matches(null));
+    }
+
+    @Test
+    void testFoldingMatching() {
+        AnswerMatcher matcher = new AnswerMatcher(List.of("Tbilisi", "tbilisi", "São Paulo"), new AnswerNormalizer(true, true));
+        assertEquals(2, matcher.size());
+        assertTrue(matcher.matches("TBÍLISI"));
+        assertTrue(matcher.matches(" sao   PAULO"));
+        assertTrue(matcher.matches("São Paulo"));
+        assertFalse(matcher.matches("Sao Paulo Brazil"));
+        assertFalse(new AnswerMatcher(List.of(), AnswerNormalizer.DEFAULT).matches("anything"));
+    }
+
+    @Test
+    void testQuestionsUseNormalizer() {
+        java.util.HashSet<String> accepted = new java.util.HashSet<>(List.of("Tbilisi"));
+        List<java.util.HashSet<String>> blanks = List.of(accepted);
+        FillInTheBlankQuestion exact = new FillInTheBlankQuestion(1, "_____", blanks, 1, 1, 2);
+        FillInTheBlankQuestion folded = new FillInTheBlankQuestion(1, "_____", blanks, 1, 1, 2, new AnswerNormalizer(true, true), 0);
+        assertEquals(0.0, exact.calculateScore(List.of("tbílisi")));
+        assertEquals(2.0, folded.calculateScore(List.of("tbílisi")));
+
+        PictureResponse picture = new PictureResponse(1, "Who?", QuestionType.PICTURE_RESPONSE, 1, 1, null, accepted, 1,
+                new AnswerNormalizer(true, false), 0);
+        assertEquals(1.0, picture.calculateScore(List.of(" TBILISI ")));
+        accepted.add("Batumi");
+        assertEquals(0.0, picture.calculateScore(List.of("Batumi")));
+    }
+
+    @Test
+    void testTypoTolerance() {
+        AnswerMatcher matcher = new AnswerMatcher(List.of("Tbilisi", "Vakhtang Gorgasali", "Rio"), AnswerNormalizer.DEFAULT, 2);
+        assertEquals(2, matcher.getTolerance());
+        assertTrue(matcher.matches("Tbilisi"));
+        assertTrue(matcher.matches("Tbilissi"));
+        assertTrue(matcher.matches("Tbiilsi"));
+        assertTrue(matcher.matches("Vakhtnag Gorgaslai"));
+        assertTrue(matcher.matches("  Vakhtang   Grgasali "));
+        assertFalse(matcher.matches("Tbilisssii"));
+        assertFalse(matcher.matches("Batumi"));
+        // short answers stay exact
+        assertTrue(matcher.matches("Rio"));
+        assertFalse(matcher.matches("Rip"));
+        assertFalse(matcher.matches("Ri"));
+        // a swap is one typo, so one typo of tolerance is enough for it
+        AnswerMatcher one = new AnswerMatcher(List.of("Tbilisi"), AnswerNormalizer.DEFAULT, 1);
+        assertTrue(one.matches("Tbiilsi"));
+        assertFalse(one.matches("Tbiilssi"));
+        assertFalse(new AnswerMatcher(List.of("Tbilisi"), AnswerNormalizer.DEFAULT).matches("Tbilissi"));
+
+        assertThrows(IllegalArgumentException.class, () -> new AnswerMatcher(List.of("a"), AnswerNormalizer.DEFAULT, -1));
+        assertThrows(IllegalArgumentException.class,
+                () -> new AnswerMatcher(List.of("a"), AnswerNormalizer.DEFAULT, AnswerMatcher.MAX_TOLERANCE + 1));
+    }
+
+    @Test
+    void testEditDistance() {
+        assertEquals(0, EditDistance.typos("Paris", "Paris", 2));
+        assertEquals(1, EditDistance.typos("Paris", "Pairs", 2));
+        assertEquals(2, EditDistance.typos("Gorgasali", "Grogasli", 3));
+        assertEquals(3, EditDistance.typos("Tbilisi", "Batumi", 2));
+        assertEquals(3, EditDistance.typos("a", "abcd", 2));
+        assertEquals(3, EditDistance.typos("", "abc", 3));
+    }
+
+    @Test
+    void testTypoIndexMatchesLinearScan() {
+        List<String> accepted = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            accepted.add("answer number " + i);
+        }
+        accepted.add("Rio");
+        AnswerMatcher many = new AnswerMatcher(accepted, AnswerNormalizer.DEFAULT, 2);
+        assertEquals(201, new TypoIndex(accepted.toArray(new String[0])).size());
+        String[] typed = {"answer number 17", "answer numbre 17", "answr number 178", "answer nmber 1999",
+                "anwser nubmer 42", "answer number", "question number 5", "Rio", "Rip", ""};
+        for (String answer : typed) {
+            boolean scanned = false;
+            for (String candidate : accepted) {
+                int allowed = AnswerMatcher.allowedTypos(candidate, 2);
+                scanned |= candidate.equals(answer) || allowed > 0 && EditDistance.typos(answer, candidate, allowed) <= allowed;
+            }
+            assertEquals(scanned, many.matches(answer), answer);
+        }
+        assertFalse(new TypoIndex(new String[0]).containsWithin("answer", 2));
+    }
+
+    @Test
+    void testQuestionsUseTolerance() {
+        java.util.HashSet<String> accepted = new java.util.HashSet<>(List.of("Tbilisi"));
+        FillInTheBlankQuestion tolerant = new FillInTheBlankQuestion(1, "_____", List.of(accepted), 1, 1, 2,
+                AnswerNormalizer.DEFAULT, 1);
+        assertEquals(1, tolerant.getAnswerTolerance());
+        assertEquals(2.0, tolerant.calculateScore(List.of("Tbilsi")));
+        assertEquals(0.0, tolerant.calculateScore(List.of("Tblsi")));
+        assertEquals(0, new FillInTheBlankQuestion(1, "_____", List.of(accepted), 1, 1, 2).getAnswerTolerance());
+        assertThrows(IllegalArgumentException.class, () -> new FillInTheBlankQuestion(1, "_____", List.of(accepted), 1, 1, 2,
+                AnswerNormalizer.DEFAULT, 4));
+
+        PictureResponse picture = new PictureResponse(1, "Who?", QuestionType.PICTURE_RESPONSE, 1, 1, null, accepted, 1,
+                AnswerNormalizer.DEFAULT, 1);
+        assertEquals(1.0, picture.calculateScore(List.of("Tiblisi")));
+        assertNotEquals(picture, new PictureResponse(1, "Who?", QuestionType.PICTURE_RESPONSE, 1, 1, null, accepted, 1));
+    }
+}
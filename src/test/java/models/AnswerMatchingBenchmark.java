@@ -0,0 +1,120 @@
+package models;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Times checking 1M typed answers against the accepted answers of a blank, the old way (trim and a regex
+ * replaceAll, then a HashSet lookup) and with AnswerMatcher, with and without case and accent folding,
+ * and the allocations of each per answer. Also scores 1M fill in the blank attempts with calculateScore,
+ * and checks misspelled answers against 5000 accepted answers with a tolerance of 2 typos, comparing
+ * them one by one and through the TypoIndex of a tolerant AnswerMatcher.
+ * Not a unit test: run its main method. Needs no database.
+ */
+public class AnswerMatchingBenchmark {
+    private static final int ANSWERS = 1000000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        String[] accepted = {"Tbilisi", "Vakhtang Gorgasali", "King Vakhtang I", "New York City", "São Paulo"};
+        // answers as people type them: some exact, some with extra spaces or other case, some wrong
+        String[] typed = new String[ANSWERS];
+        for (int i = 0; i < ANSWERS; i++) {
+            String answer = random.nextInt(4) == 0 ? "Wrong answer " + random.nextInt(1000) : accepted[random.nextInt(accepted.length)];
+            switch (random.nextInt(4)) {
+                case 0:
+                    answer = "  " + answer.replace(" ", "   ") + " ";
+                    break;
+                case 1:
+                    answer = answer.toLowerCase(Locale.ROOT);
+                    break;
+                default:
+                    break;
+            }
+            typed[i] = answer;
+        }
+
+        Set<String> acceptedSet = new HashSet<>(Arrays.asList(accepted));
+        AnswerMatcher exact = new AnswerMatcher(acceptedSet, AnswerNormalizer.DEFAULT);
+        AnswerMatcher folded = new AnswerMatcher(acceptedSet, new AnswerNormalizer(true, true));
+
+        System.out.printf("%d answers, best of %d rounds%n", ANSWERS, ROUNDS);
+        System.out.printf("%-26s %10s %12s %10s%n", "check", "ns/answer", "bytes/answer", "matched");
+        run("regex + HashSet", typed, answer -> acceptedSet.contains(answer.trim().replaceAll("\\s+", " ")));
+        run("AnswerMatcher", typed, exact::matches);
+        run("AnswerMatcher folding", typed, folded::matches);
+
+        List<HashSet<String>> blanks = new ArrayList<>();
+        blanks.add(new HashSet<>(Collections.singletonList("Tbilisi")));
+        blanks.add(new HashSet<>(Arrays.asList("Vakhtang Gorgasali", "King Vakhtang I")));
+        FillInTheBlankQuestion question = new FillInTheBlankQuestion(1, "_____ was founded by _____", blanks, 1, 1, 1);
+        List<List<String>> attempts = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            attempts.add(List.of(typed[2 * i], typed[2 * i + 1]));
+        }
+        int[] next = {0};
+        run("FillInTheBlank score", typed, answer -> question.calculateScore(attempts.get(next[0]++ % attempts.size())) > 0);
+
+        String[] many = new String[5000];
+        for (int i = 0; i < many.length; i++) {
+            many[i] = word(random, 6 + random.nextInt(10));
+        }
+        String[] misspelled = new String[5000];
+        for (int i = 0; i < misspelled.length; i++) {
+            char[] answer = many[random.nextInt(many.length)].toCharArray();
+            // a swap of two neighbours in most answers, a different word in some
+            int at = random.nextInt(answer.length - 1);
+            char swapped = answer[at];
+            answer[at] = answer[at + 1];
+            answer[at + 1] = swapped;
+            misspelled[i] = random.nextInt(5) == 0 ? word(random, 8) : new String(answer);
+        }
+        AnswerMatcher tolerant = new AnswerMatcher(Arrays.asList(many), AnswerNormalizer.DEFAULT, 2);
+        System.out.printf("%d misspelled answers against %d accepted, tolerance 2%n", misspelled.length, many.length);
+        run("one by one", misspelled, answer -> {
+            for (String candidate : many) {
+                int allowed = AnswerMatcher.allowedTypos(candidate, 2);
+                if (allowed > 0 && EditDistance.typos(answer, candidate, allowed) <= allowed) {
+                    return true;
+                }
+            }
+            return false;
+        });
+        run("AnswerMatcher TypoIndex", misspelled, tolerant::matches);
+    }
+
+    private static String word(Random random, int length) {
+        char[] word = new char[length];
+        for (int i = 0; i < length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    private interface Check {
+        boolean test(String answer);
+    }
+
+    private static void run(String name, String[] typed, Check check) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        int matched = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            matched = 0;
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (String answer : typed) {
+                if (check.test(answer)) {
+                    matched++;
+                }
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = threads.getThreadAllocatedBytes(thread) - bytes;
+        }
+        System.out.printf("%-26s %10.1f %12.1f %10d%n", name, (double) best / typed.length,
+                (double) allocated / typed.length, matched);
+    }
+}
@@ -0,0 +1,104 @@
+package models;
+
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+/**
+ * Times scoring 1M attempts at 20-option multiple choice questions with multiple answers, the old way
+ * (checking every answer with containsKey, then List.contains against a fresh list of the correct options)
+ * and with calculateScore, which grades a selection mask against the correct options' mask,
+ * and the allocations of each per attempt. Both must give the same total score (no attempt selects
+ * an option twice, which the old way counted twice).
+ * Not a unit test: run its main method. Needs no database.
+ */
+public class MultipleAnswersScoringBenchmark {
+    private static final int OPTIONS = 20;
+    private static final int QUESTIONS = 100;
+    private static final int ATTEMPTS = 1000000;
+    private static final int ROUNDS = 5;
+
+    public static void main(String[] args) {
+        Random random = new Random(42);
+        MultipleChoiceWithMultipleAnswersQuestion[] questions = new MultipleChoiceWithMultipleAnswersQuestion[QUESTIONS];
+        List<List<String>> attempts = new ArrayList<>();
+        for (int q = 0; q < QUESTIONS; q++) {
+            Map<String, Boolean> options = new LinkedHashMap<>();
+            List<String> correct = new ArrayList<>();
+            List<String> texts = new ArrayList<>();
+            for (int o = 0; o < OPTIONS; o++) {
+                String text = "Option " + o + " of question " + q;
+                boolean isCorrect = o == 0 || (o != 1 && random.nextInt(3) == 0);
+                options.put(text, isCorrect);
+                texts.add(text);
+                if (isCorrect) {
+                    correct.add(text);
+                }
+            }
+            questions[q] = new MultipleChoiceWithMultipleAnswersQuestion(q, "Question " + q, options, 1, q, 1);
+            // some of the correct options, and in a third of the attempts an incorrect one as well
+            for (int a = 0; a < 10; a++) {
+                List<String> attempt = new ArrayList<>(correct.subList(0, 1 + random.nextInt(correct.size())));
+                String extra = texts.get(random.nextInt(OPTIONS));
+                if (random.nextInt(3) == 0 && !attempt.contains(extra)) {
+                    attempt.add(extra);
+                }
+                Collections.shuffle(attempt, random);
+                attempts.add(attempt);
+            }
+        }
+
+        System.out.printf("%d attempts at %d-option questions, best of %d rounds%n", ATTEMPTS, OPTIONS, ROUNDS);
+        System.out.printf("%-22s %12s %14s %14s%n", "scoring", "ns/attempt", "bytes/attempt", "total score");
+        run("containsKey + List", questions, attempts, MultipleAnswersScoringBenchmark::oldScore);
+        run("selection mask", questions, attempts, MultipleChoiceWithMultipleAnswersQuestion::calculateScore);
+    }
+
+    private interface Scoring {
+        double score(MultipleChoiceWithMultipleAnswersQuestion question, List<String> userAnswers);
+    }
+
+    //calculateScore as it was before the selection masks
+    private static double oldScore(MultipleChoiceWithMultipleAnswersQuestion question, List<String> userAnswers) {
+        OptionIndex options = question.getOptionIndex();
+        if (userAnswers.size() > options.size()) {
+            throw new IllegalArgumentException("Wrong number of user answers!");
+        }
+        for (int i = 0; i < userAnswers.size(); i++) {
+            if (!options.contains(userAnswers.get(i))) {
+                throw new IllegalArgumentException("Wrong answer at index " + i + "!");
+            }
+        }
+        List<String> correctAnswers = question.getCorrectAnswers();
+        double correctAnswersCount = 0;
+        for (String userAnswer : userAnswers) {
+            if (correctAnswers.contains(userAnswer)) {
+                correctAnswersCount++;
+            } else {
+                return 0.0;
+            }
+        }
+        return (correctAnswersCount / correctAnswers.size()) * question.getMaxScore();
+    }
+
+    private static void run(String name, MultipleChoiceWithMultipleAnswersQuestion[] questions, List<List<String>> attempts,
+                            Scoring scoring) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long thread = Thread.currentThread().getId();
+        long best = Long.MAX_VALUE;
+        long allocated = 0;
+        double total = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            total = 0;
+            long bytes = threads.getThreadAllocatedBytes(thread);
+            long start = System.nanoTime();
+            for (int i = 0; i < ATTEMPTS; i++) {
+                int attempt = i % attempts.size();
+                total += scoring.score(questions[attempt / 10], attempts.get(attempt));
+            }
+            best = Math.min(best, System.nanoTime() - start);
+            allocated = threads.getThreadAllocatedBytes(thread) - bytes;
+        }
+        System.out.printf("%-22s %12.1f %14.1f %14.3f%n", name, (double) best / ATTEMPTS,
+                (double) allocated / ATTEMPTS, total);
+    }
+}
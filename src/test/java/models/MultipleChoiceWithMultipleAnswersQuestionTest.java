@@ -165,6 +165,13 @@ public class MultipleChoiceWithMultipleAnswersQuestionTest {
         assertEquals(0, multipleChoiceWithMultipleAnswersQuestion.calculateScore(answers));
         answers.set(3, "Brazil");
         assertEquals(0, multipleChoiceWithMultipleAnswersQuestion.calculateScore(answers));
+        // an option selected twice counts once
+        assertEquals(0.3333 * 2, multipleChoiceWithMultipleAnswersQuestion.calculateScore(List.of("Spain", "Spain")), 0.001);
+        IllegalArgumentException exception = assertThrows(
+                IllegalArgumentException.class,
+                () -> multipleChoiceWithMultipleAnswersQuestion.calculateScore(List.of("Spain", "Italy"))
+        );
+        assertEquals("Wrong answer at index 1!", exception.getMessage());
     }
 
     //Checks the overridden equals() function
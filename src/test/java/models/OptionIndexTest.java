@@ -0,0 +1,107 @@
+package models;
+
+import org.junit.jupiter.api.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OptionIndexTest {
+    OptionIndex optionIndex;
+
+    //Sets up an index of four options, two of them correct and three of them saved
+    @BeforeEach
+    public void setUp() {
+        Map<String, Boolean> options = new LinkedHashMap<>();
+        options.put("Tbilisi", true);
+        options.put("Batumi", false);
+        options.put("Kutaisi", true);
+        options.put("Rustavi", false);
+        Map<String, Integer> optionIds = new HashMap<>();
+        optionIds.put("Tbilisi", 11);
+        optionIds.put("Batumi", 12);
+        optionIds.put("Kutaisi", 13);
+        optionIndex = new OptionIndex(options, optionIds);
+    }
+
+    //Tests that ordinals follow the order of the options and unknown options have none
+    @Test
+    public void testOrdinals() {
+        assertEquals(4, optionIndex.size());
+        assertEquals(0, optionIndex.ordinalOf("Tbilisi"));
+        assertEquals(3, optionIndex.ordinalOf("Rustavi"));
+        assertEquals(-1, optionIndex.ordinalOf("Gori"));
+        assertTrue(optionIndex.contains("Batumi"));
+        assertFalse(optionIndex.contains("Gori"));
+    }
+
+    //Tests the correctness flags and the correct options
+    @Test
+    public void testCorrectOptions() {
+        assertTrue(optionIndex.isCorrect("Tbilisi"));
+        assertFalse(optionIndex.isCorrect("Batumi"));
+        assertFalse(optionIndex.isCorrect("Gori"));
+        assertEquals(2, optionIndex.getCorrectCount());
+        assertEquals(List.of("Tbilisi", "Kutaisi"), optionIndex.getCorrectOptions());
+    }
+
+    //Tests that option ids are resolved and missing ones are null
+    @Test
+    public void testOptionIds() {
+        assertEquals(11, optionIndex.getOptionId("Tbilisi"));
+        assertEquals(13, optionIndex.getOptionId("Kutaisi"));
+        assertNull(optionIndex.getOptionId("Rustavi"));
+        assertNull(optionIndex.getOptionId("Gori"));
+        assertNull(new OptionIndex(Map.of("Tbilisi", true)).getOptionId("Tbilisi"));
+    }
+
+    //Tests that the options can be read back as a map
+    @Test
+    public void testToMap() {
+        Map<String, Boolean> options = optionIndex.toMap();
+        assertEquals(4, options.size());
+        assertTrue(options.get("Kutaisi"));
+        assertFalse(options.get("Rustavi"));
+    }
+
+    //Tests grading a selection of options against the correct ones
+    @Test
+    public void testSelection() {
+        long[] selection = optionIndex.emptySelection();
+        assertEquals(0, optionIndex.countCorrect(selection));
+        assertFalse(optionIndex.selectsIncorrect(selection));
+        OptionIndex.select(selection, optionIndex.ordinalOf("Kutaisi"));
+        OptionIndex.select(selection, optionIndex.ordinalOf("Kutaisi"));
+        assertEquals(1, optionIndex.countCorrect(selection));
+        assertFalse(optionIndex.selectsIncorrect(selection));
+        OptionIndex.select(selection, optionIndex.ordinalOf("Rustavi"));
+        assertEquals(1, optionIndex.countCorrect(selection));
+        assertTrue(optionIndex.selectsIncorrect(selection));
+        assertTrue(optionIndex.isCorrect(0));
+        assertFalse(optionIndex.isCorrect(3));
+        assertThrows(ArrayIndexOutOfBoundsException.class, () -> optionIndex.isCorrect(4));
+    }
+
+    //Tests that selections work past 64 options
+    @Test
+    public void testWideSelection() {
+        Map<String, Boolean> options = new LinkedHashMap<>();
+        for (int i = 0; i < 130; i++) {
+            options.put("Option " + i, i % 50 == 0);
+        }
+        OptionIndex wide = new OptionIndex(options);
+        assertEquals(3, wide.getCorrectCount());
+        assertTrue(wide.isCorrect(100));
+        assertFalse(wide.isCorrect(129));
+        long[] selection = wide.emptySelection();
+        OptionIndex.select(selection, 50);
+        OptionIndex.select(selection, 100);
+        assertEquals(2, wide.countCorrect(selection));
+        assertFalse(wide.selectsIncorrect(selection));
+        OptionIndex.select(selection, 129);
+        assertTrue(wide.selectsIncorrect(selection));
+        assertEquals(List.of("Option 0", "Option 50", "Option 100"), wide.getCorrectOptions());
+    }
+}
@@ -0,0 +1,120 @@
+package quiz_engine;
+
+import dao.UserAnswerDao;
+import models.UserAnswer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+public class AnswerWriterTest {
+    private UserAnswerDao userAnswerDao;
+    private AnswerWriter writer;
+
+    //Creates a mocked dao which saves successfully
+    @BeforeEach
+    public void setUp() {
+        userAnswerDao = mock(UserAnswerDao.class);
+        when(userAnswerDao.replaceAnswers(anyInt(), anyMap())).thenReturn(true);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        if (writer != null) {
+            writer.close();
+        }
+    }
+
+    private List<UserAnswer> answer(int questionId, String text) {
+        return Collections.singletonList(new UserAnswer(1, questionId, text, null, true));
+    }
+
+    //Tests that in synchronous mode every submission is written at once
+    @Test
+    public void testSynchronous() {
+        writer = new AnswerWriter(userAnswerDao, false, 0, 10);
+        assertTrue(writer.submit(1, 5, answer(5, "a")));
+        verify(userAnswerDao).replaceAnswers(1, Collections.singletonMap(5, answer(5, "a")));
+        assertEquals(0, writer.getPendingQuestionCount(1));
+    }
+
+    //Tests that write-behind buffers submissions and writes only the last answer of each question on flush
+    @Test
+    public void testWriteBehind() {
+        writer = new AnswerWriter(userAnswerDao, true, 60000, 10);
+        assertTrue(writer.submit(1, 5, answer(5, "a")));
+        assertTrue(writer.submit(1, 5, answer(5, "b")));
+        assertTrue(writer.submit(1, 6, answer(6, "c")));
+        verify(userAnswerDao, never()).replaceAnswers(anyInt(), anyMap());
+        assertEquals(2, writer.getPendingQuestionCount(1));
+
+        assertTrue(writer.flush(1));
+        verify(userAnswerDao).replaceAnswers(1, Map.of(5, answer(5, "b"), 6, answer(6, "c")));
+        assertEquals(0, writer.getPendingQuestionCount(1));
+        assertTrue(writer.flush(1));
+        verify(userAnswerDao, times(1)).replaceAnswers(anyInt(), anyMap());
+    }
+
+    //Tests that an attempt is flushed once it reaches the pending limit
+    @Test
+    public void testPendingLimit() {
+        writer = new AnswerWriter(userAnswerDao, true, 60000, 2);
+        writer.submit(1, 5, answer(5, "a"));
+        verify(userAnswerDao, never()).replaceAnswers(anyInt(), anyMap());
+        writer.submit(1, 6, answer(6, "b"));
+        verify(userAnswerDao).replaceAnswers(eq(1), anyMap());
+        assertEquals(0, writer.getPendingQuestionCount(1));
+    }
+
+    //Tests that answers count as given whether they are buffered or already in the database
+    @Test
+    public void testHasAnswers() {
+        writer = new AnswerWriter(userAnswerDao, true, 60000, 10);
+        writer.submit(1, 5, answer(5, "a"));
+        when(userAnswerDao.hasAnswers(1, 6)).thenReturn(true);
+        assertTrue(writer.hasAnswers(1, 5));
+        assertTrue(writer.hasAnswers(1, 6));
+        assertFalse(writer.hasAnswers(1, 7));
+        assertFalse(writer.hasAnswers(2, 5));
+    }
+
+    //Tests that answers are kept after a failed flush and newer answers replace them
+    @Test
+    public void testFailedFlush() {
+        writer = new AnswerWriter(userAnswerDao, true, 60000, 10);
+        writer.submit(1, 5, answer(5, "a"));
+        when(userAnswerDao.replaceAnswers(anyInt(), anyMap())).thenReturn(false);
+        assertFalse(writer.flush(1));
+        assertEquals(1, writer.getPendingQuestionCount(1));
+
+        writer.submit(1, 5, answer(5, "b"));
+        when(userAnswerDao.replaceAnswers(anyInt(), anyMap())).thenReturn(true);
+        assertTrue(writer.flush(1));
+        verify(userAnswerDao).replaceAnswers(1, Collections.singletonMap(5, answer(5, "b")));
+    }
+
+    //Tests that the periodic flush writes the buffered answers
+    @Test
+    public void testTimer() {
+        writer = new AnswerWriter(userAnswerDao, true, 10, 10);
+        writer.submit(1, 5, answer(5, "a"));
+        writer.submit(2, 5, answer(5, "a"));
+        verify(userAnswerDao, timeout(2000)).replaceAnswers(eq(1), anyMap());
+        verify(userAnswerDao, timeout(2000)).replaceAnswers(eq(2), anyMap());
+    }
+
+    //Tests that write-behind needs a flush interval
+    @Test
+    public void testInvalidInterval() {
+        assertThrows(IllegalArgumentException.class, () -> new AnswerWriter(userAnswerDao, true, 0, 10));
+    }
+}
@@ -0,0 +1,159 @@
+package quiz_engine;
+
+import dao.QuizAttemptDao;
+import models.FillInTheBlankQuestion;
+import models.MultipleChoiceQuestion;
+import models.MultipleChoiceWithMultipleAnswersQuestion;
+import models.Question;
+import models.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class QuizProgressTest {
+    private Quiz quiz;
+    private AnswerWriter answerWriter;
+
+    //Sets up a quiz with one question of every type, without a database
+    @BeforeEach
+    public void setUp() {
+        quiz = new Quiz(7, 1, "Mixed", "One of each", LocalDateTime.now());
+        List<Question> questions = new ArrayList<>();
+        Map<String, Boolean> options = new LinkedHashMap<>();
+        options.put("Germany", true);
+        options.put("Brazil", false);
+        questions.add(new MultipleChoiceQuestion(11, "Who won in 2014?", options, 7, 1, 1));
+        List<HashSet<String>> blanks = new ArrayList<>();
+        blanks.add(new HashSet<>(Collections.singletonList("Tbilisi")));
+        questions.add(new FillInTheBlankQuestion(12, "_____ is the capital of Georgia", blanks, 7, 2, 1));
+        Map<String, Boolean> options2 = new LinkedHashMap<>();
+        options2.put("2", true);
+        options2.put("3", true);
+        options2.put("4", false);
+        questions.add(new MultipleChoiceWithMultipleAnswersQuestion(13, "Prime numbers?", options2, 7, 3, 1));
+        quiz.setQuestions(questions);
+        answerWriter = mock(AnswerWriter.class);
+        when(answerWriter.submit(anyInt(), anyInt(), anyList())).thenReturn(true);
+    }
+
+    private QuizProgress newProgress() {
+        return new QuizProgress(7, 3, 40, false, 1700000000000L, new int[]{13, 11, 12}, 0,
+                new int[3][], new String[3][]);
+    }
+
+    //Tests that progress survives its binary form, answered or not
+    @Test
+    public void testRoundTrip() {
+        QuizProgress empty = newProgress();
+        assertEquals(empty, QuizProgress.fromBytes(empty.toBytes()));
+
+        QuizProgress answered = new QuizProgress(7, 3, 40, true, 1700000000000L, new int[]{13, 11, 12}, 2,
+                new int[][]{{0, 1}, {0}, null}, new String[][]{null, null, {"Tbilisi"}});
+        QuizProgress read = QuizProgress.fromBytes(answered.toBytes());
+        assertEquals(answered, read);
+        assertTrue(read.isPracticeMode());
+        assertEquals(2, read.getCurrentQuestion());
+        assertArrayEquals(new int[]{0, 1}, read.getSelectedOptions(0));
+        assertArrayEquals(new String[]{"Tbilisi"}, read.getTypedAnswers(2));
+        assertNull(read.getTypedAnswers(0));
+    }
+
+    //Tests that damaged bytes are rejected
+    //Tests that answers of more than 64KB of UTF-8 are kept, 40000 Georgian letters take 120000 bytes
+    @Test
+    public void testLongAnswer() {
+        String answer = "\u10D0".repeat(40000);
+        QuizProgress progress = new QuizProgress(7, 3, 40, false, 0, new int[]{12}, 0, new int[1][],
+                new String[][]{{answer, ""}});
+        assertArrayEquals(new String[]{answer, ""}, QuizProgress.fromBytes(progress.toBytes()).getTypedAnswers(0));
+    }
+
+    @Test
+    public void testMalformedBytes() {
+        byte[] bytes = newProgress().toBytes();
+        assertThrows(IllegalArgumentException.class, () -> QuizProgress.fromBytes(Arrays.copyOf(bytes, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> QuizProgress.fromBytes(Arrays.copyOf(bytes, bytes.length + 1)));
+        byte[] otherVersion = bytes.clone();
+        otherVersion[0] = 9;
+        assertThrows(IllegalArgumentException.class, () -> QuizProgress.fromBytes(otherVersion));
+        assertThrows(IllegalArgumentException.class, () -> new QuizProgress(7, 3, 40, false, 0, new int[]{1}, 1,
+                new int[1][], new String[1][]));
+    }
+
+    //Tests that a session saved to progress and resumed carries on with the same questions and answers
+    @Test
+    public void testSessionResume() {
+        QuizAttemptDao quizAttemptDao = mock(QuizAttemptDao.class);
+        QuizSession session = new QuizSession(newProgress(), quiz, quizAttemptDao, answerWriter);
+        assertEquals(13, session.getCurrentQuestion().getQuestionId());
+        assertTrue(session.submitAnswer(0, List.of("3", "2")));
+        assertTrue(session.submitAnswer(2, List.of("Tbilisi")));
+        assertFalse(session.submitAnswer(1, List.of("Argentina")));
+        session.moveToNextQuestion();
+        verify(answerWriter).submit(eq(40), eq(13), anyList());
+
+        QuizProgress progress = QuizProgress.fromBytes(session.toProgress(3).toBytes());
+        assertArrayEquals(new int[]{1, 0}, progress.getSelectedOptions(0));
+        assertNull(progress.getSelectedOptions(1));
+
+        QuizSession resumed = new QuizSession(progress, quiz, quizAttemptDao, answerWriter);
+        assertEquals(1, resumed.getCurrentQuestionId());
+        assertEquals(session.getQuestions(), resumed.getQuestions());
+        assertEquals(session.getAnswers(), resumed.getAnswers());
+        assertEquals(session.getStartTime(), resumed.getStartTime());
+        assertEquals(40, resumed.getAttemptId());
+    }
+
+    //Tests the answered count, that answering again does not count twice, and that typed answers are shared
+    @Test
+    public void testAnsweredState() {
+        QuizAttemptDao quizAttemptDao = mock(QuizAttemptDao.class);
+        QuizSession session = new QuizSession(newProgress(), quiz, quizAttemptDao, answerWriter);
+        QuizSession other = new QuizSession(newProgress(), quiz, quizAttemptDao, answerWriter);
+        assertSame(session.getQuestions(), session.getQuestions());
+        assertFalse(session.isQuizFinished());
+        assertTrue(session.submitAnswer(1, List.of("Germany")));
+        assertTrue(session.submitAnswer(1, List.of("Brazil")));
+        assertTrue(session.submitAnswer(0, List.of("2")));
+        assertFalse(session.isQuizFinished());
+        assertTrue(session.submitAnswer(2, List.of(new String("Tbilisi"))));
+        assertTrue(session.isQuizFinished());
+        assertEquals(List.of("Brazil"), session.getAnswers().get(1));
+
+        assertTrue(other.submitAnswer(2, List.of(new String("Tbilisi"))));
+        assertSame(session.toProgress(3).getTypedAnswers(2)[0], other.toProgress(3).getTypedAnswers(2)[0]);
+        String longAnswer = "x".repeat(AnswerInterner.MAX_LENGTH + 1);
+        assertSame(longAnswer, AnswerInterner.intern(longAnswer));
+    }
+
+    //Tests that progress of a quiz whose questions changed is not resumed
+    //Tests that a session resumed from progress older than the stored answers is told apart
+    @Test
+    public void testBehindStoredAnswers() {
+        QuizAttemptDao quizAttemptDao = mock(QuizAttemptDao.class);
+        QuizSession session = new QuizSession(newProgress(), quiz, quizAttemptDao, answerWriter);
+        assertFalse(session.isBehindStoredAnswers());
+        when(answerWriter.hasAnswers(40, 13)).thenReturn(true);
+        assertTrue(session.isBehindStoredAnswers());
+        assertTrue(session.submitAnswer(0, List.of("3")));
+        assertFalse(session.isBehindStoredAnswers());
+    }
+
+    @Test
+    public void testChangedQuiz() {
+        QuizAttemptDao quizAttemptDao = mock(QuizAttemptDao.class);
+        QuizProgress progress = new QuizProgress(7, 3, 40, false, 0, new int[]{13, 11, 99}, 0,
+                new int[3][], new String[3][]);
+        assertThrows(IllegalArgumentException.class, () -> new QuizSession(progress, quiz, quizAttemptDao, answerWriter));
+        QuizProgress unknownOption = new QuizProgress(7, 3, 40, false, 0, new int[]{13, 11, 12}, 0,
+                new int[][]{null, {5}, null}, new String[3][]);
+        assertThrows(IllegalArgumentException.class, () -> new QuizSession(unknownOption, quiz, quizAttemptDao, answerWriter));
+        assertThrows(IllegalArgumentException.class, () -> new QuizSession(newProgress(), null, quizAttemptDao, answerWriter));
+    }
+}
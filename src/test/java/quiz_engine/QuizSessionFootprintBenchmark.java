@@ -0,0 +1,163 @@
+package quiz_engine;
+
+import models.*;
+
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Measures the heap held by a fully answered quiz session, and the garbage made by the checks every
+ * request does (getQuestions and isQuizFinished), for the answers kept the old way (a copied question list
+ * and a map of boxed positions to the submitted answer lists) and in QuizSession's primitive form.
+ * Not a unit test: run its main method, with a heap of at least 1GB. Needs no database.
+ */
+public class QuizSessionFootprintBenchmark {
+    private static final int SESSIONS = 20000;
+    private static final int QUESTIONS = 20;
+    private static final int CHECKS = 1000000;
+
+    public static void main(String[] args) {
+        Quiz quiz = quiz();
+        AnswerWriter answerWriter = new AnswerWriter(null, false, 0, 0) {
+            @Override
+            public boolean submit(int attemptId, int questionId, List<UserAnswer> answers) {
+                return true;
+            }
+        };
+
+        long before = usedHeap();
+        Object[] legacy = new Object[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            legacy[i] = new LegacyState(quiz, i);
+        }
+        long legacyBytes = (usedHeap() - before) / SESSIONS;
+
+        before = usedHeap();
+        QuizSession[] sessions = new QuizSession[SESSIONS];
+        for (int i = 0; i < SESSIONS; i++) {
+            sessions[i] = session(quiz, i, answerWriter);
+        }
+        long sessionBytes = (usedHeap() - before) / SESSIONS;
+
+        System.out.printf("%d sessions of %d answered questions%n", SESSIONS, QUESTIONS);
+        System.out.printf("%-10s %16s %20s%n", "state", "bytes/session", "bytes/request check");
+        System.out.printf("%-10s %16d %20.1f%n", "old", legacyBytes, checkAllocation(((LegacyState) legacy[0])::check));
+        QuizSession session = sessions[0];
+        System.out.printf("%-10s %16d %20.1f%n", "primitive", sessionBytes,
+                checkAllocation(() -> session.getQuestions().size() + (session.isQuizFinished() ? 1 : 0)));
+        // the sessions must stay reachable until both were measured
+        Reference.reachabilityFence(legacy);
+        Reference.reachabilityFence(sessions);
+    }
+
+    //A quiz of multiple choice, multiple answer and fill in the blank questions
+    private static Quiz quiz() {
+        Quiz quiz = new Quiz(1, 1, "Footprint", "", LocalDateTime.now());
+        List<Question> questions = new ArrayList<>();
+        for (int i = 0; i < QUESTIONS; i++) {
+            Map<String, Boolean> options = new LinkedHashMap<>();
+            if (i % 4 == 3) {
+                List<HashSet<String>> blanks = new ArrayList<>();
+                blanks.add(new HashSet<>(Collections.singletonList("answer " + i)));
+                questions.add(new FillInTheBlankQuestion(i + 1, "_____ " + i, blanks, 1, i, 1));
+                continue;
+            }
+            for (int j = 0; j < 4; j++) {
+                options.put("option " + i + "." + j, j == 0 || (i % 4 == 2 && j == 1));
+            }
+            if (i % 4 == 2) {
+                questions.add(new MultipleChoiceWithMultipleAnswersQuestion(i + 1, "Question " + i, options, 1, i, 1));
+            } else {
+                questions.add(new MultipleChoiceQuestion(i + 1, "Question " + i, options, 1, i, 1));
+            }
+        }
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    //The answers a form posts for a question, new strings every time as request parameters are
+    private static List<String> submitted(Question question) {
+        List<String> answers = new ArrayList<>();
+        if (question instanceof FillInTheBlankQuestion) {
+            answers.add(new String("answer " + (question.getQuestionId() - 1)));
+        } else if (question instanceof MultipleChoiceWithMultipleAnswersQuestion) {
+            for (String option : ((MultipleChoiceWithMultipleAnswersQuestion) question).getCorrectAnswers()) {
+                answers.add(new String(option));
+            }
+        } else {
+            answers.add(new String(((MultipleChoiceQuestion) question).getCorrectAnswers().get(0)));
+        }
+        return answers;
+    }
+
+    private static QuizSession session(Quiz quiz, int attemptId, AnswerWriter answerWriter) {
+        int[] questionIds = new int[QUESTIONS];
+        for (int i = 0; i < QUESTIONS; i++) {
+            questionIds[i] = quiz.getQuestions().get(i).getQuestionId();
+        }
+        QuizProgress progress = new QuizProgress(quiz.getQuizId(), 1, attemptId, false, System.currentTimeMillis(),
+                questionIds, 0, new int[QUESTIONS][], new String[QUESTIONS][]);
+        QuizSession session = new QuizSession(progress, quiz, null, answerWriter);
+        for (int i = 0; i < QUESTIONS; i++) {
+            session.submitAnswer(i, submitted(session.getQuestions().get(i)));
+        }
+        return session;
+    }
+
+    //Average bytes allocated by one call of the check, measured for this thread
+    private static double checkAllocation(java.util.function.IntSupplier check) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long sink = 0;
+        for (int i = 0; i < CHECKS; i++) {
+            sink += check.getAsInt();
+        }
+        long start = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        for (int i = 0; i < CHECKS; i++) {
+            sink += check.getAsInt();
+        }
+        long allocated = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+        return sink < 0 ? -1 : (double) allocated / CHECKS;
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /*
+     * The state QuizSession used to hold: its own copy of the questions and the submitted answer lists
+     * keyed by boxed position.
+     */
+    private static class LegacyState {
+        private final Quiz quiz;
+        private final List<Question> questions;
+        private final Map<Integer, List<String>> answers = new HashMap<>();
+        private final Timestamp startTime = Timestamp.valueOf(LocalDateTime.now());
+        private final int attemptId;
+
+        LegacyState(Quiz quiz, int attemptId) {
+            this.quiz = quiz;
+            this.attemptId = attemptId;
+            this.questions = new ArrayList<>(quiz.getQuestions());
+            for (int i = 0; i < questions.size(); i++) {
+                answers.put(i, submitted(questions.get(i)));
+            }
+        }
+
+        int check() {
+            List<Question> copy = new ArrayList<>(questions);
+            for (int i = 0; i < questions.size(); i++) {
+                if (!answers.containsKey(i)) {
+                    return copy.size();
+                }
+            }
+            return copy.size() + 1;
+        }
+    }
+}
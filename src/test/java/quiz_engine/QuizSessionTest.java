@@ -167,7 +167,8 @@ public class QuizSessionTest {
         assertEquals(quiz2, quizSession2.getQuiz());
         List<Question> questions = quizSession.getQuestions();
         assertEquals(questions, quizSession.getQuestions());
-        assertNotSame(questions, quizSession.getQuestions());
+        assertSame(questions, quizSession.getQuestions());
+        assertThrows(UnsupportedOperationException.class, () -> questions.remove(0));
         assertTrue(quizSession.getAttemptId() > 0);
         assertTrue(quizSession2.getAttemptId() > 0);
         assertEquals(0, quizSession.getCurrentQuestionId());
@@ -388,6 +389,28 @@ public class QuizSessionTest {
         assertFalse(quizSession.submitAnswer(0, new ArrayList<>()));
     }
 
+    //Tests that a skipped question counts as answered, scores 0 and loses its earlier answers
+    @Test
+    public void testSkipQuestion() throws SQLException {
+        List<String> answers = new ArrayList<>();
+        answers.add("Germany");
+        assertTrue(quizSession.submitAnswer(0, answers));
+        assertTrue(quizSession.skipQuestion(0));
+        assertTrue(quizSession.getAnswers().get(0).isEmpty());
+
+        try (PreparedStatement stmt = connection.prepareStatement(
+                "SELECT COUNT(*) FROM UserAnswers WHERE attempt_id = ? AND question_id = ?")) {
+            stmt.setInt(1, quizSession.getAttemptId());
+            stmt.setInt(2, quizSession.getQuestions().get(0).getQuestionId());
+            ResultSet rs = stmt.executeQuery();
+            rs.next();
+            assertEquals(0, rs.getInt(1));
+        }
+        QuizAttempt completedAttempt = quizSession.completeQuiz();
+        assertNotNull(completedAttempt);
+        assertEquals(0.0, completedAttempt.getScore());
+    }
+
     @Test
     public void testAnswerReplacement() throws SQLException {
         // Submit initial answer
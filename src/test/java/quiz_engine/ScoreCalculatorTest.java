@@ -0,0 +1,67 @@
+package quiz_engine;
+
+import models.FillInTheBlankQuestion;
+import models.MultipleChoiceQuestion;
+import models.MultipleChoiceWithMultipleAnswersQuestion;
+import models.Question;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ScoreCalculatorTest {
+    private List<Question> questions;
+    private Map<Integer, List<String>> answers;
+
+    //Sets up one question of every type, each worth 1 point
+    @BeforeEach
+    public void setUp() {
+        questions = new ArrayList<>();
+        Map<String, Boolean> options = new HashMap<>();
+        options.put("Germany", true);
+        options.put("Brazil", false);
+        questions.add(new MultipleChoiceQuestion(1, "Who won in 2014?", options, 1, 1, 1));
+        List<HashSet<String>> blanks = new ArrayList<>();
+        blanks.add(new HashSet<>(Collections.singletonList("Tbilisi")));
+        blanks.add(new HashSet<>(Collections.singletonList("Gorgasali")));
+        questions.add(new FillInTheBlankQuestion(2, "_____ was founded by _____", blanks, 1, 2, 1));
+        Map<String, Boolean> options2 = new HashMap<>();
+        options2.put("2", true);
+        options2.put("3", true);
+        options2.put("4", false);
+        questions.add(new MultipleChoiceWithMultipleAnswersQuestion(3, "Prime numbers?", options2, 1, 3, 1));
+        answers = new HashMap<>();
+    }
+
+    //Tests that a fully correct attempt gets the maximum score
+    @Test
+    public void testAllCorrect() {
+        answers.put(0, List.of("Germany"));
+        answers.put(1, List.of("Tbilisi", "Gorgasali"));
+        answers.put(2, List.of("2", "3"));
+        assertEquals(3.0, ScoreCalculator.calculateTotalScore(questions, answers));
+    }
+
+    //Tests partial credit and that unanswered questions score nothing
+    @Test
+    public void testPartialCredit() {
+        assertEquals(0.0, ScoreCalculator.calculateTotalScore(questions, answers));
+        answers.put(1, List.of("Tbilisi", "Wrong"));
+        answers.put(2, List.of("2"));
+        assertEquals(1.0, ScoreCalculator.calculateTotalScore(questions, answers));
+        answers.put(2, List.of("2", "4"));
+        assertEquals(0.5, ScoreCalculator.calculateTotalScore(questions, answers));
+    }
+
+    //Tests that invalid answers and unknown positions are ignored
+    @Test
+    public void testInvalidAnswers() {
+        answers.put(0, List.of("Spain"));
+        answers.put(1, List.of("Tbilisi"));
+        answers.put(5, List.of("Germany"));
+        answers.put(2, new ArrayList<>());
+        assertEquals(0.0, ScoreCalculator.calculateTotalScore(questions, answers));
+    }
+}
@@ -0,0 +1,127 @@
+package quiz_engine;
+
+import dao.*;
+import factory.QuestionDaoFactory;
+import models.*;
+
+import java.sql.*;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Compares the way QuizSession.completeQuiz scores an attempt now (from the answers the session
+ * holds, then one UPDATE and the attempt read back on the same connection) with the old way
+ * (reading the answers back, reloading every question and reading the attempt before and after the update).
+ * Not a unit test: run its main method. Without arguments only the in-memory scoring is timed,
+ * with the argument "db" both paths are also timed against a test database, which gets recreated.
+ */
+public class ScoringBenchmark {
+    private static final int[] QUESTION_COUNTS = {10, 100, 1000};
+    private static final int WARMUP = 2000;
+    private static final int ITERATIONS = 20000;
+    private static final int DB_ITERATIONS = 20;
+
+    public static void main(String[] args) throws SQLException {
+        System.out.printf("%10s %22s%n", "questions", "in-memory us/attempt");
+        for (int questionCount : QUESTION_COUNTS) {
+            List<Question> questions = new ArrayList<>();
+            Map<Integer, List<String>> answers = new HashMap<>();
+            for (int i = 0; i < questionCount; i++) {
+                questions.add(multipleChoice(i, i, 1));
+                answers.put(i, List.of(i % 2 == 0 ? "right" : "wrong"));
+            }
+            double sink = 0;
+            for (int i = 0; i < WARMUP; i++) {
+                sink += ScoreCalculator.calculateTotalScore(questions, answers);
+            }
+            long start = System.nanoTime();
+            for (int i = 0; i < ITERATIONS; i++) {
+                sink += ScoreCalculator.calculateTotalScore(questions, answers);
+            }
+            double micros = (System.nanoTime() - start) / 1000.0 / ITERATIONS;
+            System.out.printf("%10d %22.3f%s%n", questionCount, micros, sink < 0 ? " " : "");
+        }
+        if (args.length > 0 && args[0].equals("db")) {
+            benchmarkDatabase();
+        }
+    }
+
+    private static MultipleChoiceQuestion multipleChoice(int questionId, int order, int quizId) {
+        Map<String, Boolean> options = new HashMap<>();
+        options.put("right", true);
+        options.put("wrong", false);
+        return new MultipleChoiceQuestion(questionId, "Question " + order, options, quizId, order, 1);
+    }
+
+    //Times completing a fully answered attempt both ways for quizzes of growing size
+    private static void benchmarkDatabase() throws SQLException {
+        DatabaseSetup.run();
+        QuizDao quizDao = new QuizDao();
+        System.out.printf("%n%10s %14s %14s%n", "questions", "old ms", "new ms");
+        for (int questionCount : new int[]{10, 50, 200}) {
+            Quiz quiz = new Quiz(1, "Scoring " + questionCount, "Description", LocalDateTime.now());
+            quizDao.addQuiz(quiz);
+            for (int i = 0; i < questionCount; i++) {
+                Map<String, Boolean> options = new HashMap<>();
+                options.put("right", true);
+                options.put("wrong", false);
+                QuestionDaoFactory.getDao("MULTIPLE_CHOICE").addQuestion(
+                        new MultipleChoiceQuestion("Question " + i, options, quiz.getQuizId(), i, 1));
+            }
+            QuizSession session = new QuizSession(1, quiz.getQuizId());
+            for (int i = 0; i < questionCount; i++) {
+                session.submitAnswer(i, List.of(i % 2 == 0 ? "right" : "wrong"));
+            }
+            int attemptId = session.getAttemptId();
+            QuizAttemptDao quizAttemptDao = new QuizAttemptDao();
+
+            long start = System.nanoTime();
+            for (int i = 0; i < DB_ITERATIONS; i++) {
+                completeOldWay(attemptId);
+            }
+            double oldMillis = (System.nanoTime() - start) / 1_000_000.0 / DB_ITERATIONS;
+            start = System.nanoTime();
+            for (int i = 0; i < DB_ITERATIONS; i++) {
+                double score = ScoreCalculator.calculateTotalScore(session.getQuestions(), session.getAnswers());
+                quizAttemptDao.completeAttempt(attemptId, score);
+            }
+            double newMillis = (System.nanoTime() - start) / 1_000_000.0 / DB_ITERATIONS;
+            System.out.printf("%10d %14.3f %14.3f%n", questionCount, oldMillis, newMillis);
+        }
+        AnswerWriter.shutdown();
+        DatabaseConnection.shutdown();
+    }
+
+    //The path completeQuiz used before: answers and questions read back, the attempt read around the update
+    private static void completeOldWay(int attemptId) throws SQLException {
+        QuizAttemptDao quizAttemptDao = new QuizAttemptDao();
+        Map<Integer, List<String>> answersByQuestion = new HashMap<>();
+        for (UserAnswer answer : new UserAnswerDao().getAnswersForAttempt(attemptId)) {
+            answersByQuestion.computeIfAbsent(answer.getQuestionId(), id -> new ArrayList<>()).add(answer.getAnswerGivenText());
+        }
+        double score = 0;
+        for (Map.Entry<Integer, List<String>> entry : answersByQuestion.entrySet()) {
+            try (Connection connection = DatabaseConnection.getConnection();
+                 PreparedStatement statement = connection.prepareStatement("SELECT question_type FROM Questions WHERE question_id = ?")) {
+                statement.setInt(1, entry.getKey());
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    resultSet.next();
+                    Question question = QuestionDaoFactory.getDao(resultSet.getString(1)).getQuestionById(entry.getKey());
+                    score += question.calculateScore(entry.getValue());
+                }
+            }
+        }
+        QuizAttempt attempt = quizAttemptDao.getAttemptById(attemptId);
+        try (Connection connection = DatabaseConnection.getConnection();
+             PreparedStatement statement = connection.prepareStatement(
+                     "UPDATE UserQuizAttempts SET score = ?, end_time = ?, time_taken_seconds = ? WHERE attempt_id = ?")) {
+            Timestamp timestamp = new Timestamp(System.currentTimeMillis());
+            statement.setDouble(1, score);
+            statement.setTimestamp(2, timestamp);
+            statement.setInt(3, (int) ((timestamp.getTime() - attempt.getStartTime().getTime()) / 1000));
+            statement.setInt(4, attemptId);
+            statement.executeUpdate();
+        }
+        quizAttemptDao.getAttemptById(attemptId);
+    }
+}
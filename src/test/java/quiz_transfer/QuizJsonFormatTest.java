@@ -0,0 +1,101 @@
+package quiz_transfer;
+
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import models.*;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class QuizJsonFormatTest {
+
+    //Builds a quiz with one question of every supported type
+    private Quiz createQuiz() {
+        Quiz quiz = new Quiz(7, 3, "Capitals", "Test your capitals", LocalDateTime.of(2025, 1, 2, 10, 30),
+                true, QuizDisplayType.MULTI_PAGE_QUESTION, false, true);
+        Map<String, Boolean> options = new LinkedHashMap<>();
+        options.put("Paris", true);
+        options.put("London", false);
+        Map<String, Boolean> multipleOptions = new LinkedHashMap<>();
+        multipleOptions.put("Berlin", true);
+        multipleOptions.put("Rome", true);
+        multipleOptions.put("Zurich", false);
+        List<HashSet<String>> blanks = new ArrayList<>();
+        blanks.add(new HashSet<>(Arrays.asList("Tbilisi", "tbilisi")));
+        List<Question> questions = new ArrayList<>();
+        questions.add(new MultipleChoiceQuestion(1, "Capital of France?", options, 7, 0, 1));
+        questions.add(new MultipleChoiceWithMultipleAnswersQuestion(2, "EU capitals?", multipleOptions, 7, 1, 2));
+        FillInTheBlankQuestion fillInTheBlank = new FillInTheBlankQuestion(3, "The capital of Georgia is _____", blanks, 7, 2, 1.5,
+                AnswerNormalizer.DEFAULT, 1);
+        fillInTheBlank.setImageUrl("www.link.com");
+        questions.add(fillInTheBlank);
+        quiz.setQuestions(questions);
+        return quiz;
+    }
+
+    //Tests that a quiz written as a line is read back with the same settings and questions, without ids
+    @Test
+    public void testRoundTrip() {
+        Quiz quiz = createQuiz();
+        String line = QuizJsonFormat.toJson(quiz).toString();
+        assertFalse(line.contains("\n"));
+
+        JsonObject json = JsonParser.parseString(line).getAsJsonObject();
+        Quiz read = QuizJsonFormat.quizFromJson(json);
+        assertNotEquals(quiz.getQuizId(), read.getQuizId());
+        assertEquals(quiz.getTitle(), read.getTitle());
+        assertEquals(quiz.getDescription(), read.getDescription());
+        assertEquals(quiz.getCreatorUserId(), read.getCreatorUserId());
+        assertEquals(quiz.getCreationDate(), read.getCreationDate());
+        assertEquals(quiz.getQuizDisplayType(), read.getQuizDisplayType());
+        assertTrue(read.isRandomOrder());
+        assertTrue(read.isPracticeModeEnabled());
+        assertFalse(read.isImmediateCorrection());
+
+        List<Question> questions = QuizJsonFormat.questionsFromJson(json, 9);
+        assertEquals(3, questions.size());
+        for (int i = 0; i < questions.size(); i++) {
+            Question original = quiz.getQuestions().get(i);
+            Question question = questions.get(i);
+            assertEquals(-1, question.getQuestionId());
+            assertEquals(9, question.getQuizId());
+            assertEquals(original.getQuestionType(), question.getQuestionType());
+            assertEquals(original.getQuestionText(), question.getQuestionText());
+            assertEquals(original.getOrderInQuiz(), question.getOrderInQuiz());
+            assertEquals(original.getMaxScore(), question.getMaxScore());
+            assertEquals(original.getImageUrl(), question.getImageUrl());
+            assertEquals(original.getCorrectAnswers(), question.getCorrectAnswers());
+            assertEquals(original.getAnswerTolerance(), question.getAnswerTolerance());
+        }
+        assertEquals(((MultipleChoiceQuestion) quiz.getQuestions().get(0)).getOptions(),
+                ((MultipleChoiceQuestion) questions.get(0)).getOptions());
+    }
+
+    //Tests that missing optional fields get defaults and malformed questions are rejected
+    @Test
+    public void testDefaultsAndErrors() {
+        JsonObject json = JsonParser.parseString("{\"title\":\"Minimal\",\"questions\":[" +
+                "{\"type\":\"MULTIPLE_CHOICE\",\"text\":\"Q\",\"options\":[{\"text\":\"a\",\"correct\":true},{\"text\":\"b\"}]}]}")
+                .getAsJsonObject();
+        Quiz quiz = QuizJsonFormat.quizFromJson(json);
+        assertEquals(QuizDisplayType.SINGLE_PAGE, quiz.getQuizDisplayType());
+        assertNull(quiz.getDescription());
+        Question question = QuizJsonFormat.questionsFromJson(json, 1).get(0);
+        assertEquals(0, question.getOrderInQuiz());
+        assertEquals(1, question.getMaxScore());
+        assertEquals(0, question.getAnswerTolerance());
+
+        assertThrows(IllegalArgumentException.class,
+                () -> QuizJsonFormat.quizFromJson(JsonParser.parseString("{\"description\":\"no title\"}").getAsJsonObject()));
+        assertThrows(IllegalArgumentException.class, () -> QuizJsonFormat.questionsFromJson(
+                JsonParser.parseString("{\"title\":\"t\",\"questions\":[{\"type\":\"UNKNOWN\",\"text\":\"Q\"}]}").getAsJsonObject(), 1));
+        assertThrows(IllegalArgumentException.class, () -> QuizJsonFormat.questionsFromJson(
+                JsonParser.parseString("{\"title\":\"t\",\"questions\":[{\"type\":\"FILL_IN_BLANK\",\"text\":\"Q\"}]}").getAsJsonObject(), 1));
+        assertThrows(IllegalArgumentException.class, () -> QuizJsonFormat.questionsFromJson(
+                JsonParser.parseString("{\"title\":\"t\",\"questions\":[{\"type\":\"FILL_IN_BLANK\",\"text\":\"Q\"," +
+                        "\"blanks\":[[\"a\"]],\"answerTolerance\":9}]}").getAsJsonObject(), 1));
+    }
+}
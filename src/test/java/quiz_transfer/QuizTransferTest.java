@@ -0,0 +1,103 @@
+package quiz_transfer;
+
+import dao.AbstractQuestionDao;
+import dao.QuizDao;
+import models.MultipleChoiceQuestion;
+import models.Question;
+import models.Quiz;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.time.LocalDateTime;
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+public class QuizTransferTest {
+    private static final String QUIZ_LINE = "{\"title\":\"Quiz %d\",\"questions\":[" +
+            "{\"type\":\"MULTIPLE_CHOICE\",\"text\":\"Q1\",\"options\":[{\"text\":\"a\",\"correct\":true},{\"text\":\"b\"}]}," +
+            "{\"type\":\"FILL_IN_BLANK\",\"text\":\"Q2 _____\",\"blanks\":[[\"x\"]]}]}";
+
+    private QuizDao quizDao;
+    private AbstractQuestionDao questionDao;
+    private int nextQuizId;
+
+    //Creates a mocked quiz dao assigning increasing ids and a question dao which saves successfully
+    @BeforeEach
+    public void setUp() {
+        quizDao = mock(QuizDao.class);
+        questionDao = mock(AbstractQuestionDao.class);
+        nextQuizId = 1;
+        when(quizDao.addQuiz(any())).thenAnswer(invocation -> {
+            Quiz quiz = invocation.getArgument(0);
+            quiz.setQuizId(nextQuizId++);
+            return true;
+        });
+        when(questionDao.addQuestions(anyList())).thenReturn(true);
+    }
+
+    //Tests that every line is imported with batched question inserts per type and progress is reported
+    @Test
+    public void testImport() throws IOException {
+        String input = String.format(QUIZ_LINE, 1) + "\n\n" + String.format(QUIZ_LINE, 2) + "\n" + String.format(QUIZ_LINE, 3) + "\n";
+        List<Integer> reported = new ArrayList<>();
+        QuizImporter importer = new QuizImporter(quizDao, type -> questionDao, 2);
+        TransferProgress progress = importer.importQuizzes(new StringReader(input), 5, p -> reported.add(p.getQuizzes()));
+
+        assertEquals(3, progress.getQuizzes());
+        assertEquals(6, progress.getQuestions());
+        assertEquals(0, progress.getFailed());
+        assertEquals(List.of(2, 3), reported);
+        verify(quizDao, times(3)).addQuiz(argThat(quiz -> quiz.getCreatorUserId() == 5));
+        verify(questionDao, times(6)).addQuestions(argThat(questions -> questions.size() == 1));
+    }
+
+    //Tests that broken lines are skipped and a quiz whose questions fail is deleted again
+    @Test
+    public void testImportFailures() throws IOException {
+        when(questionDao.addQuestions(argThat(questions -> questions != null && !questions.isEmpty()
+                && questions.get(0).getQuizId() == 2))).thenReturn(false);
+        String input = String.format(QUIZ_LINE, 1) + "\nnot json\n" + String.format(QUIZ_LINE, 2) + "\n{\"questions\":[]}\n";
+        QuizImporter importer = new QuizImporter(quizDao, type -> questionDao, 100);
+        TransferProgress progress = importer.importQuizzes(new StringReader(input), null, p -> { });
+
+        assertEquals(1, progress.getQuizzes());
+        assertEquals(3, progress.getFailed());
+        assertEquals(3, progress.getErrors().size());
+        assertTrue(progress.getErrors().get(0).startsWith("Line 2"));
+        verify(quizDao).deleteQuiz(2);
+        verify(quizDao, never()).deleteQuiz(1);
+    }
+
+    //Tests that the export walks the quiz ids page by page and writes one line per quiz
+    @Test
+    public void testExport() throws IOException {
+        when(quizDao.getQuizIdsAfter(0, 500)).thenReturn(List.of(1, 2, 3));
+        when(quizDao.getQuizIdsAfter(3, 500)).thenReturn(List.of());
+        for (int quizId = 1; quizId <= 3; quizId++) {
+            Quiz quiz = new Quiz(quizId, 1, "Quiz " + quizId, "Description", LocalDateTime.now());
+            Map<String, Boolean> options = new LinkedHashMap<>();
+            options.put("a", true);
+            options.put("b", false);
+            List<Question> questions = new ArrayList<>();
+            questions.add(new MultipleChoiceQuestion(quizId * 10, "Q", options, quizId, 0, 1));
+            quiz.setQuestions(questions);
+            when(quizDao.getQuizByIdUncached(quizId)).thenReturn(quizId == 2 ? null : quiz);
+        }
+        StringWriter output = new StringWriter();
+        TransferProgress progress = new QuizExporter(quizDao, 100).exportQuizzes(output, p -> { });
+
+        String[] lines = output.toString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"Quiz 1\""));
+        assertTrue(lines[1].contains("\"title\":\"Quiz 3\""));
+        assertEquals(2, progress.getQuizzes());
+        assertEquals(2, progress.getQuestions());
+        verify(quizDao, never()).getQuizById(anyInt());
+    }
+}
@@ -0,0 +1,92 @@
+package service;
+
+import dao.AchievementsDao;
+import models.Achievements;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Tests the event handling of AchievementsService against a mocked AchievementsDao, no database needed.
+ */
+public class AchievementsServiceEventsTest {
+    private AchievementsDao achievementsDao;
+    private AchievementsService service;
+
+    @BeforeEach
+    public void setUp() {
+        achievementsDao = mock(AchievementsDao.class);
+        when(achievementsDao.getAllAchievements()).thenReturn(List.of(
+                new Achievements(1, AchievementsService.AMATEUR_AUTHOR, "", null),
+                new Achievements(2, AchievementsService.PROLIFIC_AUTHOR, "", null),
+                new Achievements(3, AchievementsService.PRODIGIOUS_AUTHOR, "", null),
+                new Achievements(4, AchievementsService.QUIZ_MACHINE, "", null),
+                new Achievements(5, AchievementsService.I_AM_THE_GREATEST, "", null),
+                new Achievements(6, AchievementsService.PRACTICE_MAKES_PERFECT, "", null)));
+        service = new AchievementsService(achievementsDao, 2);
+    }
+
+    private static List<String> names(List<Achievements> achievements) {
+        List<String> names = new ArrayList<>();
+        for (Achievements achievement : achievements) {
+            names.add(achievement.getName());
+        }
+        return names;
+    }
+
+    //Tests that the counters are read once and then kept up to date by the events
+    @Test
+    public void testQuizCreated() {
+        when(achievementsDao.getActivityCounts(7)).thenReturn(new int[]{1, 0});
+        when(achievementsDao.getUserAchievementIds(7)).thenReturn(new HashSet<>());
+
+        assertEquals(List.of(AchievementsService.AMATEUR_AUTHOR), names(service.quizCreated(7)));
+        for (int i = 2; i < 5; i++) {
+            assertTrue(service.quizCreated(7).isEmpty());
+        }
+        assertEquals(List.of(AchievementsService.PROLIFIC_AUTHOR), names(service.quizCreated(7)));
+
+        verify(achievementsDao, times(1)).getActivityCounts(7);
+        verify(achievementsDao, times(1)).getAllAchievements();
+        verify(achievementsDao).giveAchievementsToUser(7, List.of(1));
+        verify(achievementsDao).giveAchievementsToUser(7, List.of(2));
+        verifyNoMoreInteractions(ignoreStubs(achievementsDao));
+    }
+
+    //Tests that one completion can earn several achievements, written in one batch, and practice is not counted
+    @Test
+    public void testAttemptCompleted() {
+        when(achievementsDao.getActivityCounts(7)).thenReturn(new int[]{0, 9});
+        when(achievementsDao.getUserAchievementIds(7)).thenReturn(new HashSet<>(Set.of(6)));
+
+        assertTrue(service.attemptCompleted(7, false, false).isEmpty());
+        assertTrue(service.attemptCompleted(7, true, true).isEmpty());
+        assertEquals(List.of(AchievementsService.QUIZ_MACHINE, AchievementsService.I_AM_THE_GREATEST),
+                names(service.attemptCompleted(7, false, true)));
+        assertTrue(service.attemptCompleted(7, false, true).isEmpty());
+        verify(achievementsDao).giveAchievementsToUser(7, List.of(4, 5));
+        verify(achievementsDao, never()).giveAchievementsToUser(anyInt(), eq(List.of(6)));
+    }
+
+    //Tests that the least recently seen users are dropped and read again, and failures give nothing
+    @Test
+    public void testEvictionAndFailure() {
+        when(achievementsDao.getActivityCounts(anyInt())).thenReturn(new int[]{0, 0});
+        when(achievementsDao.getUserAchievementIds(anyInt())).thenAnswer(invocation -> new HashSet<>());
+        service.giveAchievements(1);
+        service.giveAchievements(2);
+        service.giveAchievements(3);
+        service.giveAchievements(1);
+        verify(achievementsDao, times(2)).getActivityCounts(1);
+        verify(achievementsDao, times(1)).getActivityCounts(3);
+
+        when(achievementsDao.getActivityCounts(4)).thenThrow(new RuntimeException("database down"));
+        assertTrue(service.quizCreated(4).isEmpty());
+        assertFalse(service.giveAchivementIfNotGiven(1, "No Such Achievement"));
+    }
+}